@@ -0,0 +1,229 @@
+package com.bharat.airport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerRequest;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.PassengerBucket;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.domain.repository.FlightRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/** Passenger endpoints with passengers stored in manifest buckets of two. */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"airport.passengers.storage=bucketed", "airport.passengers.bucket-size=2"})
+@Testcontainers
+@ActiveProfiles("it")
+class BucketedPassengerStorageIntegrationTest {
+
+  private static final String FLIGHT_NUMBER = "BK100";
+  private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(1);
+
+  @Container @ServiceConnection
+  static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4");
+
+  @Autowired private TestRestTemplate restTemplate;
+
+  @Autowired private FlightRepository flightRepository;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void setUp() {
+    flightRepository.deleteAll();
+    ResponseEntity<String> created =
+        restTemplate.postForEntity(
+            "/api/flights",
+            new FlightRequest(FLIGHT_NUMBER, "BKA", "BKB", DEPARTURE, DEPARTURE.plusHours(2)),
+            String.class);
+    assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+  }
+
+  @Test
+  void shouldKeepPassengersInBoundedBucketsAndReassembleThem() {
+    int firstBookingCalls = DatabaseRoundTrips.of(addPassenger("Passenger 0", "1A"));
+    for (int i = 1; i < 4; i++) {
+      addPassenger("Passenger " + i, (i + 1) + "A");
+    }
+    assertThat(DatabaseRoundTrips.of(addPassenger("Passenger 4", "5A")))
+        .as("round trips of a booking on a larger manifest")
+        .isEqualTo(firstBookingCalls);
+
+    ResponseEntity<String> conflict =
+        restTemplate.postForEntity(
+            "/api/flights/" + FLIGHT_NUMBER + "/passengers",
+            new PassengerRequest("Taken", "3A", SeetClass.Economy),
+            String.class);
+    assertThat(conflict.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+    Flight flight = getFlight();
+    assertThat(flight.getPassengerCount()).isEqualTo(5);
+    assertThat(flight.getPassengers())
+        .extracting(Passenger::getName)
+        .containsExactly("Passenger 0", "Passenger 1", "Passenger 2", "Passenger 3", "Passenger 4");
+
+    List<PassengerBucket> buckets = mongoTemplate.findAll(PassengerBucket.class);
+    assertThat(buckets).hasSize(3);
+    assertThat(buckets).allSatisfy(bucket -> assertThat(bucket.getCount()).isLessThanOrEqualTo(2));
+    assertThat(mongoTemplate.findById(FLIGHT_NUMBER, Document.class, "flights"))
+        .doesNotContainKey("passengers");
+  }
+
+  @Test
+  void shouldShareBucketsBetweenConcurrentFirstBookings() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<ResponseEntity<String>>> bookings = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        String name = "Concurrent " + i;
+        String seat = (i + 1) + "C";
+        bookings.add(executor.submit(() -> addPassenger(name, seat)));
+      }
+      for (Future<ResponseEntity<String>> booking : bookings) {
+        assertThat(booking.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(getFlight().getPassengers()).hasSize(4);
+    List<PassengerBucket> buckets = mongoTemplate.findAll(PassengerBucket.class);
+    assertThat(buckets).extracting(PassengerBucket::getSeq).containsExactlyInAnyOrder(0, 1);
+    assertThat(buckets).allSatisfy(bucket -> assertThat(bucket.getCount()).isEqualTo(2));
+  }
+
+  @Test
+  void shouldWriteBatchesAndReleaseSeatsOfRemovedPassengers() {
+    ResponseEntity<String> batch =
+        restTemplate.postForEntity(
+            "/api/flights/" + FLIGHT_NUMBER + "/passengers/batch",
+            List.of(
+                new PassengerRequest("Batch 1", "1A", SeetClass.Economy),
+                new PassengerRequest("Batch 2", "1B", SeetClass.Economy),
+                new PassengerRequest("Batch 3", "1C", SeetClass.Economy),
+                new PassengerRequest("Taken", "1A", SeetClass.Economy)),
+            String.class);
+    assertThat(batch.getStatusCode().is2xxSuccessful()).isTrue();
+
+    Flight flight = getFlight();
+    assertThat(flight.getPassengers()).hasSize(3);
+    Passenger first = flight.getPassengers().get(0);
+
+    ResponseEntity<String> removed =
+        restTemplate.exchange(
+            "/api/flights/" + FLIGHT_NUMBER + "/passengers/" + first.getId(),
+            HttpMethod.DELETE,
+            null,
+            String.class);
+    assertThat(removed.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(addPassenger("Rebooked", "1A").getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    flight = getFlight();
+    assertThat(flight.getPassengerCount()).isEqualTo(3);
+    assertThat(flight.getPassengers())
+        .extracting(Passenger::getName)
+        .containsExactlyInAnyOrder("Rebooked", "Batch 2", "Batch 3");
+  }
+
+  @Test
+  void shouldListFlightsWithPassengersFromTheirBuckets() {
+    for (int i = 0; i < 3; i++) {
+      addPassenger("Passenger " + i, (i + 1) + "A");
+    }
+    String[] names = {"Passenger 0", "Passenger 1", "Passenger 2"};
+    String departures =
+        "/api/flights/departures?start=" + DEPARTURE.minusHours(1) + "&end=" + DEPARTURE.plusHours(1);
+
+    for (String path :
+        List.of(
+            "/api/flights",
+            "/api/flights?limit=10",
+            "/api/flights?fields=passengers",
+            "/api/flights/route?origin=BKA&destination=BKB",
+            "/api/flights/route?origin=BKA&destination=BKB&fields=summary,passengers",
+            departures,
+            departures + "&fields=passengers")) {
+      ResponseEntity<Flight[]> response = restTemplate.getForEntity(path, Flight[].class);
+      assertThat(response.getStatusCode()).as(path).isEqualTo(HttpStatus.OK);
+      assertThat(response.getBody())
+          .as(path)
+          .singleElement()
+          .satisfies(
+              flight ->
+                  assertThat(flight.getPassengers())
+                      .extracting(Passenger::getName)
+                      .containsExactly(names));
+    }
+
+    ResponseEntity<Flight> projected =
+        restTemplate.getForEntity(
+            "/api/flights/" + FLIGHT_NUMBER + "?fields=passengers", Flight.class);
+    assertThat(projected.getBody().getPassengers())
+        .extracting(Passenger::getName)
+        .containsExactly(names);
+
+    HttpHeaders ndjson = new HttpHeaders();
+    ndjson.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+    ResponseEntity<String> streamed =
+        restTemplate.exchange(
+            "/api/flights", HttpMethod.GET, new HttpEntity<>(ndjson), String.class);
+    assertThat(streamed.getBody()).contains("\"name\":\"Passenger 2\"");
+  }
+
+  @Test
+  void shouldDeleteBucketsWithTheFlight() {
+    addPassenger("Passenger 0", "1A");
+    assertThat(mongoTemplate.count(new Query(), PassengerBucket.class)).isEqualTo(1);
+
+    ResponseEntity<String> deleted =
+        restTemplate.exchange(
+            "/api/flights/" + FLIGHT_NUMBER, HttpMethod.DELETE, null, String.class);
+
+    assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(mongoTemplate.count(new Query(), PassengerBucket.class)).isZero();
+  }
+
+  private ResponseEntity<String> addPassenger(String name, String seat) {
+    ResponseEntity<String> response =
+        restTemplate.postForEntity(
+            "/api/flights/" + FLIGHT_NUMBER + "/passengers",
+            new PassengerRequest(name, seat, SeetClass.Economy),
+            String.class);
+    assertThat(response.getStatusCode()).as("add %s", name).isEqualTo(HttpStatus.OK);
+    return response;
+  }
+
+  private Flight getFlight() {
+    ResponseEntity<Flight> response =
+        restTemplate.getForEntity("/api/flights/" + FLIGHT_NUMBER, Flight.class);
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    return response.getBody();
+  }
+}
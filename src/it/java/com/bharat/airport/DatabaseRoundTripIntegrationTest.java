@@ -0,0 +1,195 @@
+package com.bharat.airport;
+
+import static com.bharat.airport.DatabaseRoundTrips.assertAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bharat.airport.application.dto.AirportRequest;
+import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerRequest;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.domain.repository.AirportRepository;
+import com.bharat.airport.domain.repository.FlightRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Round-trip budgets per endpoint. Each flight holds many passengers and each route many flights,
+ * so an endpoint that starts querying per passenger or per flight goes over its budget.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@ActiveProfiles("it")
+class DatabaseRoundTripIntegrationTest {
+
+  private static final String FLIGHT_NUMBER = "RT100";
+  private static final int PASSENGERS = 50;
+  private static final int FLIGHTS_ON_ROUTE = 20;
+  private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(1);
+
+  @Container @ServiceConnection
+  static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4");
+
+  @Autowired private TestRestTemplate restTemplate;
+
+  @Autowired private FlightRepository flightRepository;
+
+  @Autowired private AirportRepository airportRepository;
+
+  private UUID passengerId;
+
+  @BeforeEach
+  void setUp() {
+    flightRepository.deleteAll();
+    airportRepository.deleteAll();
+    List<Flight> flights = new ArrayList<>();
+    for (int i = 0; i < FLIGHTS_ON_ROUTE; i++) {
+      Flight flight =
+          new Flight(
+              i == 0 ? FLIGHT_NUMBER : "RT" + (200 + i),
+              "RTA",
+              "RTB",
+              DEPARTURE.plusMinutes(i),
+              DEPARTURE.plusMinutes(i).plusHours(2));
+      List<Passenger> passengers = new ArrayList<>();
+      for (int p = 0; p < PASSENGERS; p++) {
+        passengers.add(
+            new Passenger(
+                UUID.randomUUID(),
+                "Passenger " + p,
+                new SeatAssignment("S" + p, SeetClass.Economy)));
+      }
+      flight.setPassengers(passengers);
+      flights.add(flight);
+    }
+    flightRepository.saveAll(flights);
+    passengerId = flights.get(0).getPassengers().get(0).getId();
+  }
+
+  @Test
+  void flightReadsStayWithinBudget() {
+    assertAtMost(1, "GET /api/flights", get("/api/flights"));
+    assertAtMost(1, "GET /api/flights/{n}", get("/api/flights/" + FLIGHT_NUMBER));
+    assertAtMost(1, "GET /api/flights/route", get("/api/flights/route?origin=RTA&destination=RTB"));
+    assertAtMost(
+        1,
+        "GET /api/flights/departures",
+        get(
+            "/api/flights/departures?start="
+                + DEPARTURE.minusHours(1)
+                + "&end="
+                + DEPARTURE.plusHours(1)));
+    assertAtMost(1, "GET /api/flights?limit", get("/api/flights?limit=5"));
+  }
+
+  @Test
+  void flightWritesStayWithinBudget() {
+    ResponseEntity<String> created =
+        restTemplate.postForEntity(
+            "/api/flights",
+            new FlightRequest("RT999", "RTA", "RTB", DEPARTURE, DEPARTURE.plusHours(2)),
+            String.class);
+    assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertAtMost(1, "POST /api/flights", created);
+
+    // Fill the route cache so passenger changes pay for invalidating it
+    get("/api/flights/route?origin=RTA&destination=RTB");
+
+    ResponseEntity<String> added =
+        restTemplate.postForEntity(
+            "/api/flights/" + FLIGHT_NUMBER + "/passengers",
+            new PassengerRequest("New Passenger", "99A", SeetClass.Business),
+            String.class);
+    assertThat(added.getStatusCode().is2xxSuccessful()).isTrue();
+    assertAtMost(1, "POST /api/flights/{n}/passengers", added);
+
+    ResponseEntity<String> batch =
+        restTemplate.postForEntity(
+            "/api/flights/" + FLIGHT_NUMBER + "/passengers/batch",
+            List.of(
+                new PassengerRequest("Batch 1", "98A", SeetClass.Economy),
+                new PassengerRequest("Batch 2", "98B", SeetClass.Economy),
+                new PassengerRequest("Taken", "S1", SeetClass.Economy)),
+            String.class);
+    assertThat(batch.getStatusCode().is2xxSuccessful()).isTrue();
+    assertAtMost(2, "POST /api/flights/{n}/passengers/batch", batch);
+
+    ResponseEntity<String> removed =
+        exchange(HttpMethod.DELETE, "/api/flights/" + FLIGHT_NUMBER + "/passengers/" + passengerId);
+    assertThat(removed.getStatusCode().is2xxSuccessful()).isTrue();
+    assertAtMost(1, "DELETE /api/flights/{n}/passengers/{id}", removed);
+
+    ResponseEntity<String> deleted = exchange(HttpMethod.DELETE, "/api/flights/" + FLIGHT_NUMBER);
+    assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertAtMost(2, "DELETE /api/flights/{n}", deleted);
+  }
+
+  @Test
+  void flightImportStaysWithinBudget() {
+    StringBuilder ndjson = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      ndjson
+          .append("{\"flightNumber\":\"IM")
+          .append(i)
+          .append("\",\"origin\":\"RTC\",\"destination\":\"RTD\",\"scheduledDeparture\":\"")
+          .append(DEPARTURE)
+          .append("\",\"scheduledArrival\":\"")
+          .append(DEPARTURE.plusHours(1))
+          .append("\"}\n");
+    }
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.CONTENT_TYPE, "application/x-ndjson");
+
+    ResponseEntity<String> imported =
+        restTemplate.postForEntity(
+            "/api/flights/import", new HttpEntity<>(ndjson.toString(), headers), String.class);
+
+    assertThat(imported.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertAtMost(1, "POST /api/flights/import", imported);
+  }
+
+  @Test
+  void airportEndpointsStayWithinBudget() {
+    ResponseEntity<String> registered =
+        restTemplate.postForEntity(
+            "/api/airports", new AirportRequest("RTA", "Round Trip", true), String.class);
+    assertThat(registered.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    assertAtMost(2, "POST /api/airports", registered);
+
+    assertAtMost(1, "GET /api/airports/{code}", get("/api/airports/RTA"));
+    assertAtMost(1, "GET /api/airports", get("/api/airports"));
+
+    ResponseEntity<String> deleted = exchange(HttpMethod.DELETE, "/api/airports/RTA");
+    assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertAtMost(2, "DELETE /api/airports/{code}", deleted);
+  }
+
+  private ResponseEntity<String> get(String uri) {
+    ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
+    assertThat(response.getStatusCode()).as(uri).isEqualTo(HttpStatus.OK);
+    return response;
+  }
+
+  private ResponseEntity<String> exchange(HttpMethod method, String uri) {
+    return restTemplate.exchange(uri, method, null, String.class);
+  }
+}
@@ -0,0 +1,41 @@
+package com.bharat.airport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bharat.airport.interfaces.web.timing.RequestTimings;
+import com.bharat.airport.interfaces.web.timing.ServerTimingFilter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Reads the number of Mongo round trips a response reports in its {@code Server-Timing} header, so
+ * an integration test can put a budget on an endpoint. A change that turns one query into one per
+ * item (N+1) then fails the build instead of showing up in production.
+ */
+final class DatabaseRoundTrips {
+
+  private static final Pattern DB_CALLS =
+      Pattern.compile("(?:^|,)\\s*" + RequestTimings.DB_CALLS + ";desc=\"(\\d+)\"");
+
+  private DatabaseRoundTrips() {}
+
+  static int of(ResponseEntity<?> response) {
+    String header = response.getHeaders().getFirst(ServerTimingFilter.SERVER_TIMING);
+    assertThat(header).as("%s header", ServerTimingFilter.SERVER_TIMING).isNotNull();
+    Matcher matcher = DB_CALLS.matcher(header);
+    assertThat(matcher.find()).as("%s in %s", RequestTimings.DB_CALLS, header).isTrue();
+    return Integer.parseInt(matcher.group(1));
+  }
+
+  /** Fails unless the response was produced with at most {@code budget} Mongo round trips. */
+  static void assertAtMost(int budget, String endpoint, ResponseEntity<?> response) {
+    assertThat(of(response))
+        .as(
+            "Mongo round trips of %s (%s: %s)",
+            endpoint,
+            ServerTimingFilter.SERVER_TIMING,
+            response.getHeaders().getFirst(ServerTimingFilter.SERVER_TIMING))
+        .isLessThanOrEqualTo(budget);
+  }
+}
@@ -0,0 +1,160 @@
+package com.bharat.airport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.bharat.airport.application.FlightNearCache;
+import com.bharat.airport.config.SlowQueryLog;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.repository.FlightRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Flight near cache against a single-node replica set. Changes are written through a second
+ * MongoTemplate with its own client, standing in for another node, so they only reach the cache
+ * through the change stream.
+ */
+@SpringBootTest(
+    properties = {
+      "airport.cache.flight-near-cache.enabled=true",
+      "airport.cache.flight-near-cache.node-id=it",
+      "airport.cache.flight-near-cache.token-save-interval=0s"
+    })
+@Testcontainers
+@ActiveProfiles("it")
+class FlightNearCacheIntegrationTest {
+
+  private static final String FLIGHT_NUMBER = "NC100";
+  private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(1);
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  // MongoDBContainer starts mongod as a single-node replica set, which change streams need
+  @Container @ServiceConnection
+  static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:4.4");
+
+  @Autowired private FlightNearCache flightNearCache;
+
+  @Autowired private FlightRepository flightRepository;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @Autowired private SlowQueryLog slowQueryLog;
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private MongoClient otherClient;
+  private MongoTemplate otherNode;
+
+  @BeforeEach
+  void setUp() {
+    flightRepository.deleteAll();
+    flightRepository.save(
+        new Flight(FLIGHT_NUMBER, "NCA", "NCB", DEPARTURE, DEPARTURE.plusHours(2)));
+    flightNearCache.nativeCache().invalidateAll();
+    otherClient = MongoClients.create(mongoDBContainer.getReplicaSetUrl());
+    otherNode = new MongoTemplate(otherClient, mongoTemplate.getDb().getName());
+    await().atMost(TIMEOUT).until(flightNearCache::isLive);
+  }
+
+  @AfterEach
+  void tearDown() {
+    otherClient.close();
+  }
+
+  @Test
+  void shouldApplyUpdatesWrittenByAnotherNode() {
+    assertThat(get().getDestination()).isEqualTo("NCB");
+
+    changeDestinationOnOtherNode("NCC");
+
+    await().atMost(TIMEOUT).until(() -> "NCC".equals(cached().getDestination()));
+    assertThat(get().getDestination()).isEqualTo("NCC");
+    assertThat(loads).as("loads from Mongo").hasValue(1);
+  }
+
+  @Test
+  void shouldEvictFlightsDeletedByAnotherNode() {
+    get();
+
+    otherNode.remove(query(where("_id").is(FLIGHT_NUMBER)), "flights");
+
+    await().atMost(TIMEOUT).until(() -> cached() == null);
+  }
+
+  @Test
+  void shouldNotRecordIdlePollsAsSlowQueries() throws InterruptedException {
+    slowQueryLog.clear();
+
+    // Each idle poll waits the stream's one second await time on the server
+    Thread.sleep(2_500);
+
+    assertThat(slowQueryLog.report().getRecent())
+        .extracting(SlowQueryLog.SlowQuery::getShape)
+        .noneMatch(shape -> shape.startsWith("getMore"));
+  }
+
+  @Test
+  void shouldResumeFromSavedPositionAfterRestart() {
+    get();
+    changeDestinationOnOtherNode("NCC");
+    await().atMost(TIMEOUT).until(() -> "NCC".equals(cached().getDestination()));
+
+    flightNearCache.stop();
+    try {
+      assertThat(
+              mongoTemplate
+                  .getCollection("changeStreamTokens")
+                  .find(new Document("_id", "flights:it"))
+                  .first())
+          .as("saved stream position")
+          .isNotNull();
+      changeDestinationOnOtherNode("NCD");
+    } finally {
+      flightNearCache.start();
+    }
+
+    // Replaying from the saved position applies the missed update before the cache goes live
+    await().atMost(TIMEOUT).until(flightNearCache::isLive);
+    assertThat(cached().getDestination()).isEqualTo("NCD");
+    assertThat(loads).as("loads from Mongo").hasValue(1);
+  }
+
+  private Flight get() {
+    return flightNearCache.get(
+        FLIGHT_NUMBER,
+        flightNumber -> {
+          loads.incrementAndGet();
+          return flightRepository.findById(flightNumber).orElseThrow();
+        });
+  }
+
+  private Flight cached() {
+    return (Flight) flightNearCache.nativeCache().getIfPresent(FLIGHT_NUMBER);
+  }
+
+  private void changeDestinationOnOtherNode(String destination) {
+    otherNode.updateFirst(
+        query(where("_id").is(FLIGHT_NUMBER)),
+        new Update().set("destination", destination).inc("version", 1),
+        "flights");
+  }
+}
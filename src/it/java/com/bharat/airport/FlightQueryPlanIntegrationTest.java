@@ -0,0 +1,152 @@
+package com.bharat.airport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.repository.FlightRepository;
+import com.bharat.airport.domain.repository.FlightSearch;
+import com.mongodb.ConnectionString;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs every flight repository query against embedded Mongo, then asks the server to explain each
+ * find command the driver sent. Fails if any of them would scan the whole collection, which means
+ * a query shape is not covered by the indexes declared on {@link Flight}.
+ */
+@SpringBootTest
+@ActiveProfiles("it")
+class FlightQueryPlanIntegrationTest {
+
+  private static final TransitionWalker.ReachedState<RunningMongodProcess> MONGOD =
+      Mongod.instance().start(Version.Main.V6_0);
+
+  private static final List<Document> FIND_COMMANDS = new CopyOnWriteArrayList<>();
+
+  @Autowired private FlightRepository flightRepository;
+
+  @Autowired private MongoTemplate mongoTemplate;
+
+  @TestConfiguration
+  static class EmbeddedMongoConfig {
+
+    @Bean
+    MongoConnectionDetails mongoConnectionDetails() {
+      ServerAddress address = MONGOD.current().getServerAddress();
+      return () ->
+          new ConnectionString(
+              "mongodb://" + address.getHost() + ":" + address.getPort() + "/flight-plans");
+    }
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer recordFindCommands() {
+      return settings ->
+          settings.addCommandListener(
+              new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                  Document command = Document.parse(event.getCommand().toJson());
+                  if ("find".equals(event.getCommandName())
+                      && "flights".equals(command.getString("find"))) {
+                    FIND_COMMANDS.add(command);
+                  }
+                }
+              });
+    }
+  }
+
+  @AfterAll
+  static void stopMongod() {
+    MONGOD.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    flightRepository.deleteAll();
+    LocalDateTime departure = LocalDateTime.now().plusDays(1).withNano(0);
+    List<Flight> flights = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      flights.add(
+          new Flight(
+              "FP" + i,
+              i % 2 == 0 ? "JFK" : "LHR",
+              i % 3 == 0 ? "LAX" : "SFO",
+              departure.plusMinutes(i * 10L),
+              departure.plusMinutes(i * 10L).plusHours(5)));
+    }
+    flightRepository.saveAll(flights);
+    FIND_COMMANDS.clear();
+  }
+
+  @Test
+  void flightQueriesShouldUseIndexes() {
+    LocalDateTime from = LocalDateTime.now();
+    LocalDateTime to = from.plusDays(2);
+    FlightSearch route = FlightSearch.builder().origin("JFK").destination("LAX").build();
+    FlightSearch window = FlightSearch.builder().departureFrom(from).departureTo(to).build();
+
+    flightRepository.findByFlightNumber("FP1");
+    flightRepository.findRouteByFlightNumber("FP1");
+    flightRepository.findByOrigin("JFK");
+    flightRepository.findByDestination("LAX");
+    flightRepository.findByRoute("JFK", "LAX");
+    flightRepository.findFlightsByDepartureTimeRange(from, to);
+    try (Stream<Flight> flights = flightRepository.streamByRoute("JFK", "LAX")) {
+      flights.forEach(flight -> {});
+    }
+    try (Stream<Flight> flights = flightRepository.streamFlightsByDepartureTimeRange(from, to)) {
+      flights.forEach(flight -> {});
+    }
+    flightRepository.find(route);
+    flightRepository.find(
+        FlightSearch.builder().flightNumber("FP1").fields(Set.of("origin")).build());
+    flightRepository.findPage(FlightSearch.builder().build(), 10);
+    flightRepository.findPage(route.after(from, "FP0"), 10);
+    flightRepository.findPage(window.after(from, "FP0"), 10);
+
+    assertThat(FIND_COMMANDS).hasSizeGreaterThanOrEqualTo(13);
+    for (Document command : FIND_COMMANDS) {
+      Document plan = explain(command);
+      assertThat(plan.toJson())
+          .as("plan for %s", command.toJson())
+          .doesNotContain("\"COLLSCAN\"");
+    }
+  }
+
+  private Document explain(Document command) {
+    Document find = new Document("find", "flights");
+    for (String option : List.of("filter", "sort", "projection", "limit")) {
+      if (command.containsKey(option)) {
+        find.append(option, command.get(option));
+      }
+    }
+    Document explain =
+        mongoTemplate
+            .getDb()
+            .runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+    return explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+  }
+}
@@ -0,0 +1,113 @@
+package com.bharat.airport.benchmark;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Sends requests at a fixed overall arrival rate, whether or not earlier responses have come back.
+ * Latency is measured from the moment a request was due, not from when it was actually sent, so a
+ * stalled server shows up in the percentiles instead of quietly lowering the request rate
+ * (coordinated omission).
+ */
+final class ArrivalRateLoad {
+
+  private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final HttpClient client;
+  private final int maxOutstanding;
+
+  /**
+   * @param maxOutstanding requests allowed in flight at once; arrivals beyond that are counted as
+   *     dropped rather than queued on the load side
+   */
+  ArrivalRateLoad(HttpClient client, int maxOutstanding) {
+    this.client = client;
+    this.maxOutstanding = maxOutstanding;
+  }
+
+  /** What happened to one endpoint over the measured part of a run. */
+  record EndpointStats(String endpoint, long errors, long dropped, Histogram latencyNanos) {}
+
+  /**
+   * Sends {@code ratePerSecond} requests per second for the warmup and the measured duration. The
+   * n-th arrival sends {@code scenario.next(0, n)}, all from one thread, so a scenario with a
+   * seeded random mix issues the same sequence on every run. What was recorded during warmup is
+   * discarded.
+   */
+  Map<String, EndpointStats> run(
+      double ratePerSecond, LoadScenario scenario, Duration warmup, Duration measure) {
+    Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    Map<String, AtomicLong> dropped = new ConcurrentHashMap<>();
+    Semaphore outstanding = new Semaphore(maxOutstanding);
+    long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    long start = System.nanoTime();
+    long measureStart = start + warmup.toNanos();
+    long end = measureStart + measure.toNanos();
+    boolean warm = warmup.isZero();
+
+    for (long arrival = 0; ; arrival++) {
+      long due = start + arrival * intervalNanos;
+      if (due >= end) {
+        break;
+      }
+      if (!warm && due >= measureStart) {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(count -> count.set(0));
+        dropped.values().forEach(count -> count.set(0));
+        warm = true;
+      }
+      long wait = due - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+
+      LoadScenario.Call call = scenario.next(0, arrival);
+      Recorder recorder =
+          recorders.computeIfAbsent(call.endpoint(), name -> new Recorder(MAX_LATENCY_NANOS, 3));
+      AtomicLong failed = errors.computeIfAbsent(call.endpoint(), name -> new AtomicLong());
+      if (!outstanding.tryAcquire()) {
+        dropped.computeIfAbsent(call.endpoint(), name -> new AtomicLong()).incrementAndGet();
+        continue;
+      }
+      client
+          .sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+          .whenComplete(
+              (response, failure) -> {
+                long latency = System.nanoTime() - due;
+                outstanding.release();
+                if (failure != null || response.statusCode() >= 400) {
+                  failed.incrementAndGet();
+                } else {
+                  recorder.recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+                }
+                if (response != null) {
+                  scenario.completed(0, call, response);
+                }
+              });
+    }
+    outstanding.acquireUninterruptibly(maxOutstanding);
+
+    Map<String, EndpointStats> stats = new TreeMap<>();
+    recorders.forEach(
+        (endpoint, recorder) ->
+            stats.put(
+                endpoint,
+                new EndpointStats(
+                    endpoint,
+                    errors.get(endpoint).get(),
+                    dropped.getOrDefault(endpoint, new AtomicLong()).get(),
+                    recorder.getIntervalHistogram())));
+    return stats;
+  }
+}
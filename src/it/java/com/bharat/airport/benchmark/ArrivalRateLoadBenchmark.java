@@ -0,0 +1,169 @@
+package com.bharat.airport.benchmark;
+
+import static com.bharat.airport.benchmark.BenchmarkFixture.*;
+
+import com.bharat.airport.domain.model.Airport;
+import com.bharat.airport.domain.model.Flight;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Boots the application against embedded Mongo and drives a weighted mix of flight and airport
+ * endpoints at a fixed arrival rate. Writes a JSON report with throughput and an HDR latency
+ * histogram per endpoint, so releases can be compared on the same machine without any outside
+ * service. Not part of the regular build; run it explicitly:
+ *
+ * <pre>
+ * mvn test -Dtest=ArrivalRateLoadBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark \
+ *     -Dload.rate=500 -Dload.seconds=60 -Dload.mix=route-search=5,add-passenger=1
+ * </pre>
+ *
+ * <table>
+ *   <caption>Settings (system properties)</caption>
+ *   <tr><td>load.rate</td><td>requests per second over all endpoints (200)</td></tr>
+ *   <tr><td>load.seconds</td><td>measured duration (60)</td></tr>
+ *   <tr><td>load.warmup-seconds</td><td>discarded warmup at the same rate (10)</td></tr>
+ *   <tr><td>load.mix</td><td>endpoint=weight list, see {@link EndpointMix#DEFAULT_MIX}</td></tr>
+ *   <tr><td>load.seed</td><td>seed of the endpoint sequence (42)</td></tr>
+ *   <tr><td>load.max-outstanding</td><td>in-flight cap; later arrivals count as dropped (1000)</td></tr>
+ *   <tr><td>load.profiles</td><td>extra Spring profiles, e.g. virtual-threads</td></tr>
+ *   <tr><td>load.report</td><td>report file (target/load-reports/load-report.json)</td></tr>
+ * </table>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = ".*")
+class ArrivalRateLoadBenchmark {
+
+  private static final double[] PERCENTILES = {50, 75, 90, 95, 99, 99.9, 99.99};
+
+  private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+  @BeforeAll
+  static void startEmbeddedMongo() {
+    mongod = startMongod();
+  }
+
+  @AfterAll
+  static void stopEmbeddedMongo() {
+    mongod.close();
+  }
+
+  @Test
+  void runEndpointMixAtFixedArrivalRate() throws Exception {
+    double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+    Duration measure = Duration.ofSeconds(Long.getLong("load.seconds", 60));
+    Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    String mix = System.getProperty("load.mix", EndpointMix.DEFAULT_MIX);
+    long seed = Long.getLong("load.seed", 42);
+    int maxOutstanding = Integer.getInteger("load.max-outstanding", 1000);
+    String[] profiles =
+        Arrays.stream(System.getProperty("load.profiles", "").split(","))
+            .map(String::trim)
+            .filter(profile -> !profile.isEmpty())
+            .toArray(String[]::new);
+    Path report =
+        Path.of(System.getProperty("load.report", "target/load-reports/load-report.json"));
+
+    Instant startedAt = Instant.now();
+    Map<String, ArrivalRateLoad.EndpointStats> stats;
+    try (ConfigurableApplicationContext app = boot(mongoUri(mongod, "load-test"), profiles)) {
+      MongoTemplate mongoTemplate = app.getBean(MongoTemplate.class);
+      List<Flight> flights = seedFlights(mongoTemplate);
+      seedAirports(mongoTemplate);
+      HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+      stats =
+          new ArrivalRateLoad(http, maxOutstanding)
+              .run(rate, new EndpointMix(baseUrl(app), mix, seed, flights), warmup, measure);
+    }
+
+    Map<String, Object> settings = new LinkedHashMap<>();
+    settings.put("ratePerSecond", rate);
+    settings.put("measureSeconds", measure.toSeconds());
+    settings.put("warmupSeconds", warmup.toSeconds());
+    settings.put("mix", EndpointMix.parse(mix));
+    settings.put("seed", seed);
+    settings.put("maxOutstanding", maxOutstanding);
+    settings.put("profiles", profiles);
+    Map<String, Object> document = new LinkedHashMap<>();
+    document.put("startedAt", startedAt.toString());
+    document.put("java", Runtime.version().toString());
+    document.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+    document.put("settings", settings);
+    Map<String, Object> endpoints = new LinkedHashMap<>();
+    stats.forEach((endpoint, result) -> endpoints.put(endpoint, endpoint(result, measure)));
+    document.put("endpoints", endpoints);
+
+    Files.createDirectories(report.toAbsolutePath().getParent());
+    new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(report.toFile(), document);
+    System.out.println("Load report written to " + report.toAbsolutePath());
+  }
+
+  private static void seedAirports(MongoTemplate mongoTemplate) {
+    mongoTemplate.remove(new Query(), Airport.class);
+    List<Airport> airports = new ArrayList<>();
+    for (int i = 0; i < EndpointMix.STABLE_AIRPORTS; i++) {
+      airports.add(airport(EndpointMix.stableAirportCode(i)));
+    }
+    for (int i = 0; i < EndpointMix.SPARE_AIRPORTS; i++) {
+      airports.add(airport(EndpointMix.spareAirportCode(i)));
+    }
+    mongoTemplate.insertAll(airports);
+  }
+
+  private static Airport airport(String code) {
+    return Airport.builder().code(code).name("Airport " + code).isEnabled(true).build();
+  }
+
+  /**
+   * Throughput of successful requests, their latency percentiles in microseconds and the full
+   * histogram, base64 of HdrHistogram's compressed encoding (decode with {@code
+   * Histogram.decodeFromCompressedByteBuffer}).
+   */
+  private static Map<String, Object> endpoint(
+      ArrivalRateLoad.EndpointStats result, Duration measure) {
+    Histogram histogram = result.latencyNanos();
+    Map<String, Object> latency = new LinkedHashMap<>();
+    latency.put("mean", histogram.getMean() / 1_000);
+    for (double percentile : PERCENTILES) {
+      latency.put("p" + percentile, histogram.getValueAtPercentile(percentile) / 1_000.0);
+    }
+    latency.put("max", histogram.getMaxValue() / 1_000.0);
+
+    ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+    int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+    Map<String, Object> endpoint = new LinkedHashMap<>();
+    endpoint.put("requests", histogram.getTotalCount() + result.errors());
+    endpoint.put("succeeded", histogram.getTotalCount());
+    endpoint.put("errors", result.errors());
+    endpoint.put("dropped", result.dropped());
+    endpoint.put("throughputPerSecond", (double) histogram.getTotalCount() / measure.toSeconds());
+    endpoint.put("latencyMicros", latency);
+    endpoint.put("histogramUnit", "nanoseconds");
+    endpoint.put(
+        "histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+    return endpoint;
+  }
+}
@@ -0,0 +1,146 @@
+package com.bharat.airport.benchmark;
+
+import com.bharat.airport.AirportDomainDemoApplication;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Shared set-up of the benchmarks: an embedded mongod, the application booted on a random port
+ * against it, and a fixed data set of {@value #ROUTES} routes with {@value #FLIGHTS_PER_ROUTE}
+ * hourly flights each.
+ */
+final class BenchmarkFixture {
+
+  static final int ROUTES = 20;
+  static final int FLIGHTS_PER_ROUTE = 100;
+  static final int PASSENGERS_PER_FLIGHT = 20;
+  static final LocalDateTime FIRST_DEPARTURE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+  private BenchmarkFixture() {}
+
+  static TransitionWalker.ReachedState<RunningMongodProcess> startMongod() {
+    return Mongod.instance().start(Version.Main.V6_0);
+  }
+
+  static String mongoUri(
+      TransitionWalker.ReachedState<RunningMongodProcess> mongod, String database) {
+    ServerAddress address = mongod.current().getServerAddress();
+    return "mongodb://" + address.getHost() + ":" + address.getPort() + "/" + database;
+  }
+
+  /** Boots the application without sample data and with quiet logging. */
+  static ConfigurableApplicationContext boot(String mongoUri, String... profiles) {
+    return new SpringApplicationBuilder(AirportDomainDemoApplication.class)
+        .profiles(Stream.concat(Stream.of("test"), Arrays.stream(profiles)).toArray(String[]::new))
+        .run(
+            "--server.port=0",
+            "--spring.docker.compose.enabled=false",
+            "--spring.data.mongodb.uri=" + mongoUri,
+            "--logging.level.root=WARN");
+  }
+
+  static String baseUrl(ConfigurableApplicationContext app) {
+    return "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+  }
+
+  /**
+   * Replaces all flights with the benchmark data set and returns it. Route {@code r} flies from
+   * O{r} to DST.
+   */
+  static List<Flight> seedFlights(MongoTemplate mongoTemplate) {
+    mongoTemplate.remove(new Query(), Flight.class);
+    List<Flight> flights = new ArrayList<>(ROUTES * FLIGHTS_PER_ROUTE);
+    for (int route = 0; route < ROUTES; route++) {
+      for (int i = 0; i < FLIGHTS_PER_ROUTE; i++) {
+        LocalDateTime departure = FIRST_DEPARTURE.plusHours(i);
+        Flight flight =
+            new Flight(
+                flightNumber(route, i), "O" + route, "DST", departure, departure.plusHours(3));
+        for (int seat = 1; seat <= PASSENGERS_PER_FLIGHT; seat++) {
+          flight.addPassenger(
+              new Passenger(
+                  UUID.randomUUID(),
+                  "Passenger " + seat,
+                  new SeatAssignment(seat + "A", SeetClass.Economy)));
+        }
+        flights.add(flight);
+      }
+    }
+    mongoTemplate.insertAll(flights);
+    return flights;
+  }
+
+  static String flightNumber(int route, int index) {
+    return String.format("R%02d%03d", route, index);
+  }
+
+  static HttpRequest.Builder request(String uri) {
+    return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(60));
+  }
+
+  static int[] concurrencyLevels(String defaults) {
+    return Arrays.stream(System.getProperty("benchmark.concurrency", defaults).split(","))
+        .mapToInt(level -> Integer.parseInt(level.trim()))
+        .toArray();
+  }
+
+  static Duration measureDuration() {
+    return Duration.ofSeconds(Long.getLong("benchmark.seconds", 20));
+  }
+
+  static Duration warmupDuration() {
+    return Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+  }
+
+  static String row(String prefix, ClosedLoopLoad.Result result) {
+    return String.format(
+        "%s,%s,%d,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f",
+        prefix,
+        result.endpoint(),
+        result.concurrency(),
+        result.requests(),
+        result.errors(),
+        result.throughput(),
+        result.p50(),
+        result.p99(),
+        result.p999(),
+        result.max());
+  }
+
+  static String resultColumns() {
+    return "endpoint,concurrency,requests,errors,requests_per_second,p50_us,p99_us,p999_us,max_us";
+  }
+
+  static void writeCsv(String fileName, String header, List<String> rows) throws IOException {
+    Path report = Path.of("target", "benchmarks", fileName);
+    Files.createDirectories(report.getParent());
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(report))) {
+      out.println(header);
+      rows.forEach(out::println);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.bharat.airport.benchmark;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Drives a fixed number of concurrent clients, each sending its next request as soon as the
+ * previous response has been read. Requests are sent asynchronously, so a thousand clients do not
+ * need a thousand threads on the load side. Latencies are recorded per endpoint in HDR histograms.
+ */
+final class ClosedLoopLoad {
+
+  private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final HttpClient client;
+
+  ClosedLoopLoad(HttpClient client) {
+    this.client = client;
+  }
+
+  /** Outcome of one endpoint over a measured run. Latencies are in microseconds. */
+  record Result(
+      String endpoint,
+      int concurrency,
+      long requests,
+      long errors,
+      double throughput,
+      double p50,
+      double p99,
+      double p999,
+      double max) {}
+
+  /**
+   * Runs {@code concurrency} clients for the warmup, discards what was recorded, then measures for
+   * the given duration. Responses with a 4xx or 5xx status count as errors and are left out of the
+   * latency histogram.
+   */
+  List<Result> run(int concurrency, LoadScenario scenario, Duration warmup, Duration measure)
+      throws InterruptedException {
+    Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    long end = System.nanoTime() + warmup.toNanos() + measure.toNanos();
+
+    CompletableFuture<?>[] clients = new CompletableFuture<?>[concurrency];
+    for (int i = 0; i < concurrency; i++) {
+      clients[i] = new CompletableFuture<Void>();
+      send(scenario, i, 0, recorders, errors, end, clients[i]);
+    }
+    Thread.sleep(warmup.toMillis());
+    recorders.values().forEach(Recorder::reset);
+    errors.values().forEach(count -> count.set(0));
+    CompletableFuture.allOf(clients).join();
+
+    long seconds = Math.max(1, measure.toSeconds());
+    List<Result> results = new ArrayList<>();
+    recorders.forEach(
+        (endpoint, recorder) -> {
+          Histogram histogram = recorder.getIntervalHistogram();
+          results.add(
+              new Result(
+                  endpoint,
+                  concurrency,
+                  histogram.getTotalCount(),
+                  errors.get(endpoint).get(),
+                  (double) histogram.getTotalCount() / seconds,
+                  micros(histogram.getValueAtPercentile(50)),
+                  micros(histogram.getValueAtPercentile(99)),
+                  micros(histogram.getValueAtPercentile(99.9)),
+                  micros(histogram.getMaxValue())));
+        });
+    results.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+    return results;
+  }
+
+  /** Sends one request and, once its response is in, the next, until the run is over. */
+  private void send(
+      LoadScenario scenario,
+      int clientIndex,
+      long sequence,
+      Map<String, Recorder> recorders,
+      Map<String, AtomicLong> errors,
+      long end,
+      CompletableFuture<?> done) {
+    long start = System.nanoTime();
+    if (start >= end) {
+      done.complete(null);
+      return;
+    }
+    LoadScenario.Call call = scenario.next(clientIndex, sequence);
+    Recorder recorder =
+        recorders.computeIfAbsent(call.endpoint(), endpoint -> new Recorder(MAX_LATENCY_NANOS, 3));
+    AtomicLong failed = errors.computeIfAbsent(call.endpoint(), endpoint -> new AtomicLong());
+    client
+        .sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+        .whenComplete(
+            (response, failure) -> {
+              long latency = System.nanoTime() - start;
+              if (failure != null || response.statusCode() >= 400) {
+                failed.incrementAndGet();
+              } else {
+                recorder.recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+              }
+              if (response != null) {
+                scenario.completed(clientIndex, call, response);
+              }
+              send(scenario, clientIndex, sequence + 1, recorders, errors, end, done);
+            });
+  }
+
+  private static double micros(long nanos) {
+    return nanos / 1_000.0;
+  }
+}
@@ -0,0 +1,186 @@
+package com.bharat.airport.benchmark;
+
+import static com.bharat.airport.benchmark.BenchmarkFixture.*;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A weighted, seeded mix of the flight and airport endpoints. Each arrival picks an endpoint by
+ * weight; with the same seed and data set the same sequence of requests is sent on every run.
+ *
+ * <p>Operations that need an existing resource draw it from a pool: passengers to remove come from
+ * the seeded manifests, and airports to delete come from the seeded spares and from airports
+ * created earlier in the run. Once a pool runs dry its requests fail and are reported as errors.
+ */
+final class EndpointMix implements LoadScenario {
+
+  /** Endpoint weights used when {@code load.mix} is not given. */
+  static final String DEFAULT_MIX =
+      "create-flight=1,add-passenger=3,remove-passenger=2,route-search=6,departures-range=4,"
+          + "airport-create=1,airport-get=4,airport-list=1,airport-delete=1";
+
+  static final int STABLE_AIRPORTS = 100;
+  static final int SPARE_AIRPORTS = 10_000;
+
+  private final String base;
+  private final Map<String, Integer> weights;
+  private final int totalWeight;
+  private final SplittableRandom random;
+  private final List<String> flightNumbers = new ArrayList<>();
+  private final Queue<String[]> removablePassengers = new ConcurrentLinkedQueue<>();
+  private final Queue<String> deletableAirports = new ConcurrentLinkedQueue<>();
+  private final String runId;
+  private long created;
+
+  EndpointMix(String base, String mix, long seed, List<Flight> seededFlights) {
+    this.base = base;
+    this.weights = parse(mix);
+    this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+    this.random = new SplittableRandom(seed);
+    this.runId = Long.toString(System.currentTimeMillis() % 1_000_000, 36).toUpperCase();
+    List<String[]> passengers = new ArrayList<>();
+    for (Flight flight : seededFlights) {
+      flightNumbers.add(flight.getFlightNumber());
+      for (Passenger passenger : flight.getPassengers()) {
+        passengers.add(new String[] {flight.getFlightNumber(), passenger.getId().toString()});
+      }
+    }
+    Collections.shuffle(passengers, new Random(seed));
+    removablePassengers.addAll(passengers);
+    for (int i = 0; i < SPARE_AIRPORTS; i++) {
+      deletableAirports.add(spareAirportCode(i));
+    }
+  }
+
+  static Map<String, Integer> parse(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split("=");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Expected endpoint=weight but got " + entry);
+      }
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight > 0) {
+        weights.put(parts[0].trim(), weight);
+      }
+    }
+    return weights;
+  }
+
+  static String stableAirportCode(int index) {
+    return String.format("S%03d", index);
+  }
+
+  static String spareAirportCode(int index) {
+    return String.format("D%05d", index);
+  }
+
+  @Override
+  public Call next(int client, long sequence) {
+    int pick = random.nextInt(totalWeight);
+    String endpoint = null;
+    for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+      pick -= weight.getValue();
+      if (pick < 0) {
+        endpoint = weight.getKey();
+        break;
+      }
+    }
+    return new Call(endpoint, call(endpoint));
+  }
+
+  @Override
+  public void completed(int client, Call call, HttpResponse<String> response) {
+    if (call.endpoint().equals("airport-create") && response.statusCode() == 201) {
+      String body = response.body();
+      int code = body.indexOf("\"code\":\"");
+      if (code >= 0) {
+        int start = code + 8;
+        deletableAirports.add(body.substring(start, body.indexOf('"', start)));
+      }
+    }
+  }
+
+  private HttpRequest call(String endpoint) {
+    String flights = base + "/api/flights";
+    String airports = base + "/api/airports";
+    return switch (endpoint) {
+      case "create-flight" -> {
+        LocalDateTime departure = FIRST_DEPARTURE.plusMinutes(created);
+        yield json(
+            flights,
+            "{\"flightNumber\":\"L"
+                + runId
+                + "-"
+                + created++
+                + "\",\"origin\":\"LDA\",\"destination\":\"LDB\",\"scheduledDeparture\":\""
+                + departure
+                + "\",\"scheduledArrival\":\""
+                + departure.plusHours(2)
+                + "\"}");
+      }
+      case "add-passenger" -> json(
+          flights + "/" + randomFlight() + "/passengers",
+          "{\"name\":\"Load Test\",\"seatNumber\":\"L"
+              + runId
+              + "-"
+              + created++
+              + "\",\"seatClass\":\"Economy\"}");
+      case "remove-passenger" -> {
+        String[] passenger = removablePassengers.poll();
+        yield passenger == null
+            ? request(flights + "/" + randomFlight() + "/passengers/exhausted").DELETE().build()
+            : request(flights + "/" + passenger[0] + "/passengers/" + passenger[1])
+                .DELETE()
+                .build();
+      }
+      case "route-search" -> request(
+              flights + "/route?origin=O" + random.nextInt(ROUTES) + "&destination=DST")
+          .GET()
+          .build();
+      case "departures-range" -> {
+        LocalDateTime start = FIRST_DEPARTURE.plusHours(random.nextInt(FLIGHTS_PER_ROUTE));
+        yield request(flights + "/departures?start=" + start + "&end=" + start.plusHours(2))
+            .GET()
+            .build();
+      }
+      case "airport-create" -> json(
+          airports, "{\"code\":\"N" + runId + "-" + created++ + "\",\"name\":\"Load Test\"}");
+      case "airport-get" -> request(
+              airports + "/" + stableAirportCode(random.nextInt(STABLE_AIRPORTS)))
+          .GET()
+          .build();
+      case "airport-list" -> request(airports).GET().build();
+      case "airport-delete" -> {
+        String code = deletableAirports.poll();
+        yield request(airports + "/" + (code == null ? "exhausted" : code)).DELETE().build();
+      }
+      default -> throw new IllegalArgumentException("Unknown endpoint in load mix: " + endpoint);
+    };
+  }
+
+  private String randomFlight() {
+    return flightNumbers.get(random.nextInt(flightNumbers.size()));
+  }
+
+  private static HttpRequest json(String uri, String body) {
+    return BenchmarkFixture.request(uri)
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(body))
+        .build();
+  }
+}
@@ -0,0 +1,17 @@
+package com.bharat.airport.benchmark;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/** Produces the requests of each simulated client and sees their responses. */
+interface LoadScenario {
+
+  /** A request and the endpoint name its latency is recorded under. */
+  record Call(String endpoint, HttpRequest request) {}
+
+  /** The request client {@code client} sends as its {@code sequence}-th call. */
+  Call next(int client, long sequence);
+
+  /** Called with every response, before the client sends its next request. */
+  default void completed(int client, Call call, HttpResponse<String> response) {}
+}
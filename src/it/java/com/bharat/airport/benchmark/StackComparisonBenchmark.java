@@ -0,0 +1,111 @@
+package com.bharat.airport.benchmark;
+
+import static com.bharat.airport.benchmark.BenchmarkFixture.*;
+
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Compares throughput and tail latency of the servlet stack (Spring MVC on Tomcat, blocking
+ * driver) with the reactive profile (WebFlux on Netty, reactive driver) against the same embedded
+ * Mongo and data set. Not part of the regular build; run it explicitly:
+ *
+ * <pre>
+ * mvn test -Dtest=StackComparisonBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark \
+ *     -Dbenchmark.concurrency=16,256,1024 -Dbenchmark.seconds=30
+ * </pre>
+ *
+ * <p>Every scenario reads from Mongo on both stacks: the in-process route and near caches used by
+ * the servlet stack are bypassed, so the comparison measures the I/O model rather than caching.
+ * Results are printed and written to {@code target/benchmarks/stack-comparison.csv}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = ".*")
+class StackComparisonBenchmark {
+
+  private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+  @BeforeAll
+  static void startEmbeddedMongo() {
+    mongod = startMongod();
+  }
+
+  @AfterAll
+  static void stopEmbeddedMongo() {
+    mongod.close();
+  }
+
+  @Test
+  void compareServletAndReactiveStacks() throws Exception {
+    int[] concurrencyLevels = concurrencyLevels("16,256,1024");
+    List<String> rows = new ArrayList<>();
+    ClosedLoopLoad load =
+        new ClosedLoopLoad(
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build());
+    Map<String, String[]> stacks = new LinkedHashMap<>();
+    stacks.put("servlet", new String[0]);
+    stacks.put("reactive", new String[] {"reactive"});
+    for (Map.Entry<String, String[]> stack : stacks.entrySet()) {
+      try (ConfigurableApplicationContext app =
+          boot(mongoUri(mongod, "stack-benchmark"), stack.getValue())) {
+        seedFlights(app.getBean(MongoTemplate.class));
+        for (LoadScenario scenario : scenarios(baseUrl(app))) {
+          for (int concurrency : concurrencyLevels) {
+            for (ClosedLoopLoad.Result result :
+                load.run(concurrency, scenario, warmupDuration(), measureDuration())) {
+              rows.add(row(stack.getKey(), result));
+              System.out.println(rows.get(rows.size() - 1));
+            }
+          }
+        }
+      }
+    }
+    writeCsv("stack-comparison.csv", "stack," + resultColumns(), rows);
+  }
+
+  /** A flight lookup, a narrow departure window and a full route streamed as NDJSON. */
+  private static List<LoadScenario> scenarios(String base) {
+    LoadScenario flightByNumber =
+        (client, sequence) ->
+            new LoadScenario.Call(
+                "flight-by-number",
+                request(base + "/api/flights/" + flightNumber(client % ROUTES, client % 50))
+                    .GET()
+                    .build());
+    LoadScenario departuresWindow =
+        (client, sequence) -> {
+          LocalDateTime start = FIRST_DEPARTURE.plusHours(client % FLIGHTS_PER_ROUTE);
+          return new LoadScenario.Call(
+              "departures-window",
+              request(base + "/api/flights/departures?start=" + start + "&end=" + start.plusHours(2))
+                  .header("Accept", "application/json")
+                  .GET()
+                  .build());
+        };
+    LoadScenario routeStream =
+        (client, sequence) ->
+            new LoadScenario.Call(
+                "route-stream",
+                request(
+                        base
+                            + "/api/flights/route?origin=O"
+                            + (client % ROUTES)
+                            + "&destination=DST")
+                    .header("Accept", "application/x-ndjson")
+                    .GET()
+                    .build());
+    return List.of(flightByNumber, departuresWindow, routeStream);
+  }
+}
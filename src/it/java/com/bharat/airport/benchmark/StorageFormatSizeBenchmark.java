@@ -0,0 +1,173 @@
+package com.bharat.airport.benchmark;
+
+import static com.bharat.airport.benchmark.BenchmarkFixture.*;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Stores the same synthetic flights in each {@link StorageFormat} and compares their size: BSON
+ * bytes as written, and the collection's data size, average document size and compressed storage
+ * size as reported by {@code collStats}. Not part of the regular build:
+ *
+ * <pre>
+ * mvn test -Dtest=StorageFormatSizeBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark
+ * </pre>
+ *
+ * <p>The data set has {@value BenchmarkFixture#ROUTES} routes of {@value
+ * BenchmarkFixture#FLIGHTS_PER_ROUTE} flights, each with {@code benchmark.passengers} passengers
+ * (200 by default) seated six abreast, First class in the first two rows and Business in the next
+ * six. It is generated from a fixed seed. Results are written to {@code
+ * target/benchmarks/storage-format.csv}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = ".*")
+class StorageFormatSizeBenchmark {
+
+  private static final String LETTERS = "ABCDEF";
+
+  private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+  @BeforeAll
+  static void startMongo() {
+    mongod = startMongod();
+  }
+
+  @AfterAll
+  static void stopMongo() {
+    mongod.close();
+  }
+
+  @Test
+  void compareStorageFormats() throws Exception {
+    List<Flight> flights = flights(Integer.getInteger("benchmark.passengers", 200));
+    List<String> rows = new ArrayList<>();
+    try (MongoClient client = MongoClients.create(mongoUri(mongod, "storage-format"))) {
+      MongoDatabase database = client.getDatabase("storage-format");
+      rows.add(
+          store(
+              database,
+              "format1",
+              flights,
+              null,
+              converter(List.of()),
+              UuidRepresentation.JAVA_LEGACY));
+      rows.add(
+          store(
+              database,
+              "format2",
+              flights,
+              StorageFormat.CURRENT,
+              converter(StorageFormat.converters()),
+              UuidRepresentation.STANDARD));
+    }
+    String header = "format,documents,bson_bytes,size,avg_obj_size,storage_size";
+    System.out.println(header);
+    rows.forEach(System.out::println);
+    writeCsv("storage-format.csv", header, rows);
+  }
+
+  /** Writes the flights as the converter maps them and returns the format's CSV row. */
+  private static String store(
+      MongoDatabase database,
+      String name,
+      List<Flight> flights,
+      Integer storageFormat,
+      MappingMongoConverter converter,
+      UuidRepresentation uuidRepresentation) {
+    CodecRegistry registry =
+        CodecRegistries.withUuidRepresentation(
+            MongoClientSettings.getDefaultCodecRegistry(), uuidRepresentation);
+    List<RawBsonDocument> documents = new ArrayList<>(flights.size());
+    long bytes = 0;
+    for (Flight flight : flights) {
+      flight.setStorageFormat(storageFormat);
+      Document document = new Document();
+      converter.write(flight, document);
+      BsonDocument bson = document.toBsonDocument(Document.class, registry);
+      RawBsonDocument raw = new RawBsonDocument(bson, registry.get(BsonDocument.class));
+      bytes += raw.getByteBuffer().remaining();
+      documents.add(raw);
+    }
+    MongoCollection<RawBsonDocument> collection =
+        database.getCollection(name, RawBsonDocument.class);
+    collection.drop();
+    collection.insertMany(documents);
+
+    Document stats = database.runCommand(new Document("collStats", name));
+    return String.format(
+        "%s,%d,%d,%d,%d,%d",
+        name,
+        documents.size(),
+        bytes,
+        stats.get("size", Number.class).longValue(),
+        stats.get("avgObjSize", Number.class).longValue(),
+        stats.get("storageSize", Number.class).longValue());
+  }
+
+  static List<Flight> flights(int passengersPerFlight) {
+    Random random = new Random(42);
+    List<Flight> flights = new ArrayList<>(ROUTES * FLIGHTS_PER_ROUTE);
+    for (int route = 0; route < ROUTES; route++) {
+      for (int i = 0; i < FLIGHTS_PER_ROUTE; i++) {
+        LocalDateTime departure = FIRST_DEPARTURE.plusHours(i);
+        Flight flight =
+            new Flight(
+                flightNumber(route, i), "O" + route, "DST", departure, departure.plusHours(3));
+        flight.setVersion(0L);
+        for (int seat = 0; seat < passengersPerFlight; seat++) {
+          int row = seat / LETTERS.length() + 1;
+          SeetClass seatClass =
+              row <= 2 ? SeetClass.First : row <= 8 ? SeetClass.Business : SeetClass.Economy;
+          flight.addPassenger(
+              new Passenger(
+                  new UUID(random.nextLong(), random.nextLong()),
+                  "Passenger " + seat,
+                  new SeatAssignment(
+                      row + "" + LETTERS.charAt(seat % LETTERS.length()), seatClass)));
+        }
+        flights.add(flight);
+      }
+    }
+    return flights;
+  }
+
+  private static MappingMongoConverter converter(List<?> converters) {
+    MongoCustomConversions conversions = new MongoCustomConversions(converters);
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    MappingMongoConverter converter =
+        new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+    return converter;
+  }
+}
@@ -0,0 +1,283 @@
+package com.bharat.airport.benchmark;
+
+import static com.bharat.airport.benchmark.BenchmarkFixture.*;
+
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Runs every {@code /api/flights} and {@code /api/airports} endpoint on the servlet stack with
+ * platform request threads and then with the virtual-threads profile, at 10, 100 and 1,000
+ * concurrent clients. Needs a Java 21 runtime and is not part of the regular build:
+ *
+ * <pre>
+ * mvn test -Dtest=ThreadModelBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark
+ * </pre>
+ *
+ * <p>Each client walks through a booking session: create a flight, read it, book and cancel
+ * passengers, search routes and departures, page and stream flights, delete the flight, and
+ * register, read, list and delete an airport. Next to per-endpoint throughput and latency the
+ * report samples the Mongo connection pool (peak wait queue, mean connections checked out) and the
+ * peak platform thread count. When virtual threads raise throughput only until the pool is
+ * saturated, the wait queue shows the bottleneck has moved into the pool. Results are written to
+ * {@code target/benchmarks/thread-model.csv}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = ".*")
+class ThreadModelBenchmark {
+
+  private static final Pattern PASSENGER_ID = Pattern.compile("\"passengerId\":\"([0-9a-f-]{36})\"");
+
+  private static final String[] STEPS = {
+    "flights.create",
+    "flights.get",
+    "flights.get-fields",
+    "flights.add-passenger",
+    "flights.add-passengers",
+    "flights.remove-passenger",
+    "flights.route",
+    "flights.route-stream",
+    "flights.departures",
+    "flights.list-page",
+    "flights.import",
+    "flights.delete",
+    "airports.create",
+    "airports.get",
+    "airports.list",
+    "airports.delete"
+  };
+
+  private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+  @BeforeAll
+  static void startEmbeddedMongo() {
+    mongod = startMongod();
+  }
+
+  @AfterAll
+  static void stopEmbeddedMongo() {
+    if (mongod != null) {
+      mongod.close();
+    }
+  }
+
+  @Test
+  void comparePlatformAndVirtualThreads() throws Exception {
+    int[] concurrencyLevels = concurrencyLevels("10,100,1000");
+    List<String> rows = new ArrayList<>();
+    ClosedLoopLoad load =
+        new ClosedLoopLoad(
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build());
+    Map<String, String[]> modes = new LinkedHashMap<>();
+    modes.put("platform", new String[0]);
+    modes.put("virtual", new String[] {"virtual-threads"});
+    for (Map.Entry<String, String[]> mode : modes.entrySet()) {
+      try (ConfigurableApplicationContext app =
+          boot(mongoUri(mongod, "thread-model-benchmark"), mode.getValue())) {
+        seedFlights(app.getBean(MongoTemplate.class));
+        MeterRegistry meters = app.getBean(MeterRegistry.class);
+        for (int concurrency : concurrencyLevels) {
+          PoolSampler pool = new PoolSampler(meters);
+          List<ClosedLoopLoad.Result> results =
+              load.run(
+                  concurrency,
+                  new BookingSession(baseUrl(app), mode.getKey()),
+                  warmupDuration(),
+                  measureDuration());
+          String sampled = pool.stop();
+          for (ClosedLoopLoad.Result result : results) {
+            rows.add(row(mode.getKey(), result) + "," + sampled);
+            System.out.println(rows.get(rows.size() - 1));
+          }
+        }
+      }
+    }
+    writeCsv(
+        "thread-model.csv",
+        "threads,"
+            + resultColumns()
+            + ",pool_wait_queue_peak,pool_checked_out_mean,platform_threads_peak",
+        rows);
+  }
+
+  /** Walks each client through {@link #STEPS} over and over, each round on fresh resources. */
+  private static final class BookingSession implements LoadScenario {
+
+    private final String base;
+    private final String run;
+    private final Map<Integer, String> lastPassenger = new ConcurrentHashMap<>();
+
+    BookingSession(String base, String run) {
+      this.base = base;
+      this.run = run.substring(0, 1).toUpperCase() + System.nanoTime() % 100_000;
+    }
+
+    @Override
+    public Call next(int client, long sequence) {
+      String step = STEPS[(int) (sequence % STEPS.length)];
+      long round = sequence / STEPS.length;
+      String flight = run + "-" + client + "-" + round;
+      String airport = "A" + flight;
+      int route = client % ROUTES;
+      LocalDateTime departure = FIRST_DEPARTURE.plusHours(client % FLIGHTS_PER_ROUTE);
+      String flights = base + "/api/flights";
+      String airports = base + "/api/airports";
+      return new Call(
+          step,
+          switch (step) {
+            case "flights.create" -> json(flights, flightJson(flight, departure)).build();
+            case "flights.get" -> request(flights + "/" + flight).GET().build();
+            case "flights.get-fields" ->
+                request(flights + "/" + flight + "?fields=summary").GET().build();
+            case "flights.add-passenger" ->
+                json(
+                        flights + "/" + flight + "/passengers",
+                        "{\"name\":\"Solo\",\"seatNumber\":\"1A\",\"seatClass\":\"First\"}")
+                    .build();
+            case "flights.add-passengers" ->
+                json(
+                        flights + "/" + flight + "/passengers/batch",
+                        "[{\"name\":\"Pair 1\",\"seatNumber\":\"2A\",\"seatClass\":\"Business\"},"
+                            + "{\"name\":\"Pair 2\",\"seatNumber\":\"2B\",\"seatClass\":\"Business\"}]")
+                    .build();
+            case "flights.remove-passenger" ->
+                request(
+                        flights
+                            + "/"
+                            + flight
+                            + "/passengers/"
+                            + lastPassenger.getOrDefault(client, "missing"))
+                    .DELETE()
+                    .build();
+            case "flights.route" ->
+                request(flights + "/route?origin=O" + route + "&destination=DST").GET().build();
+            case "flights.route-stream" ->
+                request(flights + "/route?origin=O" + route + "&destination=DST")
+                    .header("Accept", "application/x-ndjson")
+                    .GET()
+                    .build();
+            case "flights.departures" ->
+                request(
+                        flights
+                            + "/departures?start="
+                            + departure
+                            + "&end="
+                            + departure.plusHours(2))
+                    .GET()
+                    .build();
+            case "flights.list-page" -> request(flights + "?limit=20").GET().build();
+            case "flights.import" ->
+                request(flights + "/import")
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(BodyPublishers.ofString(flightJson("I" + flight, departure) + "\n"))
+                    .build();
+            case "flights.delete" -> request(flights + "/" + flight).DELETE().build();
+            case "airports.create" ->
+                json(airports, "{\"code\":\"" + airport + "\",\"name\":\"Benchmark\"}").build();
+            case "airports.get" -> request(airports + "/" + airport).GET().build();
+            case "airports.list" -> request(airports).GET().build();
+            case "airports.delete" -> request(airports + "/" + airport).DELETE().build();
+            default -> throw new IllegalStateException(step);
+          });
+    }
+
+    @Override
+    public void completed(int client, Call call, HttpResponse<String> response) {
+      if (call.endpoint().equals("flights.add-passengers")) {
+        Matcher id = PASSENGER_ID.matcher(response.body());
+        if (id.find()) {
+          lastPassenger.put(client, id.group(1));
+        }
+      }
+    }
+
+    private static HttpRequest.Builder json(String uri, String body) {
+      return request(uri)
+          .header("Content-Type", "application/json")
+          .POST(BodyPublishers.ofString(body));
+    }
+
+    private static String flightJson(String flightNumber, LocalDateTime departure) {
+      return "{\"flightNumber\":\""
+          + flightNumber
+          + "\",\"origin\":\"BEN\",\"destination\":\"CHM\",\"scheduledDeparture\":\""
+          + departure
+          + "\",\"scheduledArrival\":\""
+          + departure.plusHours(2)
+          + "\"}";
+    }
+  }
+
+  /**
+   * Samples the driver pool meters and the JVM thread count every 50 ms while a run is in
+   * progress.
+   */
+  private static final class PoolSampler {
+
+    private final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor();
+    private final DoubleAccumulator waitQueuePeak = new DoubleAccumulator(Math::max, 0);
+    private final DoubleAccumulator checkedOutSum = new DoubleAccumulator(Double::sum, 0);
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private long samples;
+
+    PoolSampler(MeterRegistry meters) {
+      threads.resetPeakThreadCount();
+      scheduler.scheduleAtFixedRate(
+          () -> {
+            waitQueuePeak.accumulate(sum(meters, "mongodb.driver.pool.waitqueuesize"));
+            checkedOutSum.accumulate(sum(meters, "mongodb.driver.pool.checkedout"));
+            samples++;
+          },
+          0,
+          50,
+          TimeUnit.MILLISECONDS);
+    }
+
+    String stop() throws InterruptedException {
+      scheduler.shutdown();
+      scheduler.awaitTermination(1, TimeUnit.SECONDS);
+      return String.format(
+          "%.0f,%.1f,%d",
+          waitQueuePeak.get(),
+          checkedOutSum.get() / Math.max(1, samples),
+          threads.getPeakThreadCount());
+    }
+
+    private static double sum(MeterRegistry meters, String name) {
+      double total = 0;
+      for (Meter meter : meters.find(name).meters()) {
+        for (var measurement : meter.measure()) {
+          total += measurement.getValue();
+        }
+      }
+      return total;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.bharat.airport.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Cost of {@link Flight#addPassenger} and {@link Flight#removePassenger} against manifests of
+ * different sizes. Each invocation starts from the same manifest: the passenger added by one call
+ * is taken off again, and the one removed is put back, outside the measured region.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FlightManifestBenchmark {
+
+  @State(Scope.Thread)
+  public static class Manifest {
+
+    @Param({"10", "50", "100", "1000"})
+    int manifestSize;
+
+    Flight flight;
+    Passenger extra;
+
+    @Setup(Level.Trial)
+    public void createManifest() {
+      LocalDateTime departure = LocalDateTime.now().plusDays(1);
+      flight = new Flight("BM100", "JFK", "LAX", departure, departure.plusHours(5));
+      for (int i = 0; i < manifestSize; i++) {
+        flight.addPassenger(
+            new Passenger(
+                UUID.randomUUID(),
+                "Passenger " + i,
+                new SeatAssignment(
+                    (i / 6 + 1) + String.valueOf((char) ('A' + i % 6)), SeetClass.Economy)));
+      }
+      extra =
+          new Passenger(UUID.randomUUID(), "Extra", new SeatAssignment("999Z", SeetClass.First));
+    }
+  }
+
+  /** Starts each invocation without the extra passenger. */
+  @State(Scope.Thread)
+  public static class AddState extends Manifest {
+
+    @TearDown(Level.Invocation)
+    public void removeExtra() {
+      flight.removePassenger(extra.getId().toString());
+    }
+  }
+
+  /**
+   * Starts each invocation with the extra passenger last on the manifest, the longest scan for a
+   * remove by id.
+   */
+  @State(Scope.Thread)
+  public static class RemoveState extends Manifest {
+
+    String extraId;
+
+    @Setup(Level.Invocation)
+    public void addExtra() {
+      flight.addPassenger(extra);
+      extraId = extra.getId().toString();
+    }
+  }
+
+  @Benchmark
+  public Flight addPassenger(AddState state) {
+    state.flight.addPassenger(state.extra);
+    return state.flight;
+  }
+
+  @Benchmark
+  public boolean removePassenger(RemoveState state) {
+    return state.flight.removePassenger(state.extraId);
+  }
+}
@@ -0,0 +1,45 @@
+package com.bharat.airport.domain.model;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Creating a {@link Passenger} the way bookings do, with a {@link UUID#randomUUID()} id. {@code
+ * randomUUID} draws from a shared {@code SecureRandom}, so it is also measured from several threads
+ * at once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PassengerCreationBenchmark {
+
+  private final SeatAssignment seat = new SeatAssignment("12A", SeetClass.Economy);
+
+  @Benchmark
+  public Passenger withRandomId() {
+    return new Passenger(UUID.randomUUID(), "John Doe", seat);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Passenger withRandomIdContended() {
+    return new Passenger(UUID.randomUUID(), "John Doe", seat);
+  }
+
+  @Benchmark
+  public Passenger withoutId() {
+    return new Passenger("John Doe", seat);
+  }
+
+  @Benchmark
+  public UUID randomUuidOnly() {
+    return UUID.randomUUID();
+  }
+}
@@ -0,0 +1,39 @@
+package com.bharat.airport.domain.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link SeatAssignment#equals} and {@link SeatAssignment#hashCode}, which back the seat index of
+ * {@link Flight}. Seats are compared as separate but equal instances, as they are when a booking is
+ * checked against seats loaded from the database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SeatAssignmentBenchmark {
+
+  private final SeatAssignment seat = new SeatAssignment("12A", SeetClass.Economy);
+  private final SeatAssignment sameSeat = new SeatAssignment(new String("12A"), SeetClass.Economy);
+  private final SeatAssignment otherSeat = new SeatAssignment("12B", SeetClass.Economy);
+
+  @Benchmark
+  public boolean equalsSameSeat() {
+    return seat.equals(sameSeat);
+  }
+
+  @Benchmark
+  public boolean equalsOtherSeat() {
+    return seat.equals(otherSeat);
+  }
+
+  @Benchmark
+  public int hashCodeOfSeat() {
+    return seat.hashCode();
+  }
+}
@@ -0,0 +1,78 @@
+package com.bharat.airport.domain.repository;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Spring Data's {@link MappingMongoConverter} turning a {@link Flight} into the BSON document that
+ * is sent to Mongo and back, in the current {@link StorageFormat} with its packed seats and standard
+ * UUIDs. This is the per-document cost paid by every repository read and save, before any network
+ * time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlightConversionBenchmark {
+
+  @Param({"0", "100", "1000"})
+  int passengers;
+
+  private MappingMongoConverter converter;
+  private Flight flight;
+  private Document document;
+
+  @Setup
+  public void setUp() {
+    MongoCustomConversions conversions = new MongoCustomConversions(StorageFormat.converters());
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    mappingContext.setInitialEntitySet(Set.of(Flight.class));
+    mappingContext.afterPropertiesSet();
+    converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+
+    LocalDateTime departure = LocalDateTime.now().plusDays(1);
+    flight = new Flight("BM100", "JFK", "LAX", departure, departure.plusHours(5));
+    for (int i = 0; i < passengers; i++) {
+      flight.addPassenger(
+          new Passenger(
+              UUID.randomUUID(), "Passenger " + i, new SeatAssignment(i + "A", SeetClass.Economy)));
+    }
+    flight.setVersion(3L);
+    flight.setStorageFormat(StorageFormat.CURRENT);
+    document = write();
+  }
+
+  @Benchmark
+  public Document write() {
+    Document target = new Document();
+    converter.write(flight, target);
+    return target;
+  }
+
+  @Benchmark
+  public Flight read() {
+    return converter.read(Flight.class, document);
+  }
+}
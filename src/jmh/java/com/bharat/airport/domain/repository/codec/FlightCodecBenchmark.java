@@ -0,0 +1,116 @@
+package com.bharat.airport.domain.repository.codec;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.mongodb.MongoClientSettings;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * A {@link Flight} from BSON bytes and back, once through Spring Data's converter with the driver's
+ * {@code Document} codec in between, as {@code MongoTemplate} does it, and once through {@link
+ * FlightCodec}. Run with {@code -prof gc} to compare {@code gc.alloc.rate.norm}, the bytes
+ * allocated per document.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlightCodecBenchmark {
+
+  @Param({"0", "100", "1000"})
+  int passengers;
+
+  private MappingMongoConverter converter;
+  private Codec<Document> documentCodec;
+  private Codec<Flight> flightCodec;
+  private Flight flight;
+  private byte[] bson;
+
+  @Setup
+  public void setUp() {
+    MongoCustomConversions conversions = new MongoCustomConversions(StorageFormat.converters());
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    mappingContext.setInitialEntitySet(Set.of(Flight.class));
+    mappingContext.afterPropertiesSet();
+    converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+
+    CodecRegistry registry =
+        CodecRegistries.withUuidRepresentation(
+            CodecRegistries.fromRegistries(
+                CodecRegistries.fromProviders(new FlightCodecProvider()),
+                MongoClientSettings.getDefaultCodecRegistry()),
+            UuidRepresentation.STANDARD);
+    documentCodec = registry.get(Document.class);
+    flightCodec = registry.get(Flight.class);
+
+    LocalDateTime departure = LocalDateTime.now().plusDays(1);
+    flight = new Flight("BM100", "JFK", "LAX", departure, departure.plusHours(5));
+    for (int i = 0; i < passengers; i++) {
+      flight.addPassenger(
+          new Passenger(
+              UUID.randomUUID(), "Passenger " + i, new SeatAssignment(i + "A", SeetClass.Economy)));
+    }
+    flight.setVersion(3L);
+    bson = writeWithCodec();
+  }
+
+  @Benchmark
+  public Flight readWithConverter() {
+    Document document =
+        documentCodec.decode(
+            new BsonBinaryReader(ByteBuffer.wrap(bson)), DecoderContext.builder().build());
+    return converter.read(Flight.class, document);
+  }
+
+  @Benchmark
+  public Flight readWithCodec() {
+    return flightCodec.decode(
+        new BsonBinaryReader(ByteBuffer.wrap(bson)), DecoderContext.builder().build());
+  }
+
+  @Benchmark
+  public byte[] writeWithConverter() {
+    Document document = new Document();
+    converter.write(flight, document);
+    BasicOutputBuffer buffer = new BasicOutputBuffer();
+    documentCodec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+    return buffer.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] writeWithCodec() {
+    BasicOutputBuffer buffer = new BasicOutputBuffer();
+    flightCodec.encode(new BsonBinaryWriter(buffer), flight, EncoderContext.builder().build());
+    return buffer.toByteArray();
+  }
+}
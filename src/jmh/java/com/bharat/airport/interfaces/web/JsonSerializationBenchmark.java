@@ -0,0 +1,132 @@
+package com.bharat.airport.interfaces.web;
+
+import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.interfaces.web.error.ErrorResponse;
+import com.bharat.airport.interfaces.web.error.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson writing and reading of the request and response bodies, with an {@link ObjectMapper}
+ * configured the way Spring Boot configures the one used by the controllers. {@link ErrorResponse}
+ * is only ever written by the server, so only its serialization is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+  static ObjectMapper objectMapper() {
+    return Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+  }
+
+  @State(Scope.Thread)
+  public static class FlightJson {
+
+    @Param({"0", "100", "1000"})
+    int passengers;
+
+    ObjectWriter writer;
+    ObjectReader reader;
+    Flight flight;
+    byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+      ObjectMapper objectMapper = objectMapper();
+      writer = objectMapper.writerFor(Flight.class);
+      reader = objectMapper.readerFor(Flight.class);
+      LocalDateTime departure = LocalDateTime.now().plusDays(1);
+      flight = new Flight("BM100", "JFK", "LAX", departure, departure.plusHours(5));
+      for (int i = 0; i < passengers; i++) {
+        flight.addPassenger(
+            new Passenger(
+                UUID.randomUUID(),
+                "Passenger " + i,
+                new SeatAssignment(i + "A", SeetClass.Economy)));
+      }
+      flight.setVersion(3L);
+      json = writer.writeValueAsBytes(flight);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class RequestJson {
+
+    ObjectWriter writer;
+    ObjectReader reader;
+    FlightRequest request;
+    byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+      ObjectMapper objectMapper = objectMapper();
+      writer = objectMapper.writerFor(FlightRequest.class);
+      reader = objectMapper.readerFor(FlightRequest.class);
+      LocalDateTime departure = LocalDateTime.now().plusDays(1);
+      request = new FlightRequest("BM100", "JFK", "LAX", departure, departure.plusHours(5));
+      json = writer.writeValueAsBytes(request);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ErrorJson {
+
+    ObjectWriter writer;
+    ErrorResponse error;
+
+    @Setup
+    public void setUp() {
+      writer = objectMapper().writerFor(ErrorResponse.class);
+      error =
+          new GlobalExceptionHandler()
+              .handleFlightNotFoundException(new FlightNotFoundException("BM100"));
+    }
+  }
+
+  @Benchmark
+  public byte[] writeFlight(FlightJson state) throws IOException {
+    return state.writer.writeValueAsBytes(state.flight);
+  }
+
+  @Benchmark
+  public Flight readFlight(FlightJson state) throws IOException {
+    return state.reader.readValue(state.json);
+  }
+
+  @Benchmark
+  public byte[] writeFlightRequest(RequestJson state) throws IOException {
+    return state.writer.writeValueAsBytes(state.request);
+  }
+
+  @Benchmark
+  public FlightRequest readFlightRequest(RequestJson state) throws IOException {
+    return state.reader.readValue(state.json);
+  }
+
+  @Benchmark
+  public byte[] writeErrorResponse(ErrorJson state) throws IOException {
+    return state.writer.writeValueAsBytes(state.error);
+  }
+}
@@ -1,6 +1,7 @@
 package com.bharat.airport.application;
 
 import com.bharat.airport.application.dto.AirportRequest;
+import com.bharat.airport.config.CacheConfig;
 import com.bharat.airport.domain.exception.AirportAlreadyExistsException;
 import com.bharat.airport.domain.exception.AirportNotFoundException;
 import com.bharat.airport.domain.model.Airport;
@@ -9,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,7 +28,10 @@ public class AirportApplicationService {
     this.airportRepository = airportRepository;
   }
 
-  @CacheEvict(value = "airports", allEntries = true)
+  @Caching(
+      put = @CachePut(value = CacheConfig.AIRPORT, key = "#result.code"),
+      evict =
+          @CacheEvict(value = CacheConfig.AIRPORTS, key = "'" + CacheConfig.ALL_AIRPORTS_KEY + "'"))
   public Airport registerAirport(AirportRequest airportRequest) {
     if (airportRepository.existsById(airportRequest.getCode())) {
       log.error("Airport already exists with code {}", airportRequest.getCode());
@@ -39,19 +46,30 @@ public class AirportApplicationService {
             .updatedAt(LocalDateTime.now())
             .isEnabled(airportRequest.isEnabled())
             .build();
-    return airportRepository.save(airport);
+    try {
+      return airportRepository.insert(airport);
+    } catch (DuplicateKeyException e) {
+      log.error("Airport already exists with code {}", airportRequest.getCode());
+      throw new AirportAlreadyExistsException(airportRequest.getCode());
+    }
   }
 
+  @Cacheable(value = CacheConfig.AIRPORT, key = "#code")
   public Airport getAirport(String code) {
     return airportRepository.findById(code).orElseThrow(() -> new AirportNotFoundException(code));
   }
 
-  @Cacheable(value = "airports")
+  @Cacheable(value = CacheConfig.AIRPORTS, key = "'" + CacheConfig.ALL_AIRPORTS_KEY + "'")
   public List<Airport> getAllAirports() {
-    return airportRepository.findAll();
+    // Cached and shared between callers, so hand out an unmodifiable copy
+    return List.copyOf(airportRepository.findAll());
   }
 
-  @CacheEvict(value = "airports", allEntries = true)
+  @Caching(
+      evict = {
+        @CacheEvict(value = CacheConfig.AIRPORT, key = "#code"),
+        @CacheEvict(value = CacheConfig.AIRPORTS, key = "'" + CacheConfig.ALL_AIRPORTS_KEY + "'")
+      })
   public void deleteAirport(String code) {
     if (!airportRepository.existsById(code)) {
       log.error("Airport not found with code {}", code);
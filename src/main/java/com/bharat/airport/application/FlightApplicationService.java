@@ -1,17 +1,32 @@
 package com.bharat.airport.application;
 
+import com.bharat.airport.application.dto.FlightPage;
 import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerBatchResponse;
+import com.bharat.airport.application.dto.PassengerBatchResult;
+import com.bharat.airport.application.dto.PassengerBatchResult.Status;
 import com.bharat.airport.application.dto.PassengerRequest;
+import com.bharat.airport.domain.exception.FlightAlreadyExistsException;
 import com.bharat.airport.domain.exception.FlightNotFoundException;
 import com.bharat.airport.domain.model.Flight;
 import com.bharat.airport.domain.model.Passenger;
 import com.bharat.airport.domain.model.SeatAssignment;
 import com.bharat.airport.domain.repository.FlightRepository;
+import com.bharat.airport.domain.repository.FlightSearch;
+import com.bharat.airport.domain.service.AddedPassengers;
+import com.bharat.airport.domain.service.FlightEventMetrics;
 import com.bharat.airport.domain.service.FlightService;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,10 +37,21 @@ public class FlightApplicationService {
 
   private final FlightService flightService;
   private final FlightRepository flightRepository;
+  private final RouteFlightCache routeFlightCache;
+  private final FlightNearCache flightNearCache;
+  private final FlightEventMetrics flightEventMetrics;
 
-  public FlightApplicationService(FlightService flightService, FlightRepository flightRepository) {
+  public FlightApplicationService(
+      FlightService flightService,
+      FlightRepository flightRepository,
+      RouteFlightCache routeFlightCache,
+      FlightNearCache flightNearCache,
+      FlightEventMetrics flightEventMetrics) {
     this.flightService = flightService;
     this.flightRepository = flightRepository;
+    this.routeFlightCache = routeFlightCache;
+    this.flightNearCache = flightNearCache;
+    this.flightEventMetrics = flightEventMetrics;
   }
 
   public Flight createFlight(FlightRequest flightRequest) {
@@ -36,49 +62,150 @@ public class FlightApplicationService {
             flightRequest.getDestination(),
             flightRequest.getScheduledDeparture(),
             flightRequest.getScheduledArrival());
-    return flightRepository.save(flight);
+    Flight saved;
+    try {
+      saved = flightRepository.insert(flight);
+    } catch (DuplicateKeyException e) {
+      log.error("Flight already exists with number {}", flight.getFlightNumber());
+      throw new FlightAlreadyExistsException(flight.getFlightNumber());
+    }
+    routeFlightCache.invalidate(flight.getOrigin(), flight.getDestination());
+    return saved;
   }
 
   public List<Flight> getAllFlights() {
-    return flightRepository.findAll();
+    return flightRepository.withPassengers(flightRepository.findAll());
+  }
+
+  public List<Flight> findFlights(FlightSearch search) {
+    return flightRepository.find(search);
+  }
+
+  /** Reads the selected fields of a single flight. */
+  public Flight getFlight(String flightNumber, Set<String> fields) {
+    List<Flight> flights =
+        flightRepository.find(
+            FlightSearch.builder().flightNumber(flightNumber).fields(fields).build());
+    if (flights.isEmpty()) {
+      flightEventMetrics.flightNotFound();
+      throw new FlightNotFoundException(flightNumber);
+    }
+    return flights.get(0);
   }
 
+  /**
+   * Fetches one page of flights matching the search. One extra flight is read to tell whether
+   * another page follows without a separate count.
+   */
+  public FlightPage findFlightPage(FlightSearch search, int limit) {
+    List<Flight> flights = flightRepository.findPage(search, limit + 1);
+    if (flights.size() > limit) {
+      return new FlightPage(flights.subList(0, limit), true);
+    }
+    return new FlightPage(flights, false);
+  }
+
+  public Stream<Flight> streamAllFlights() {
+    return flightRepository.withPassengers(flightRepository.streamAllBy());
+  }
+
+  /** Served from {@link FlightNearCache} when it is live. */
   public Flight getFlight(String flightNumber) {
-    return flightService.getFlightWithPassengers(flightNumber);
+    return flightNearCache.get(flightNumber, flightService::getFlightWithPassengers);
   }
 
   public void addPassenger(String flightNumber, PassengerRequest passengerRequest) {
+    Flight route = flightService.addPassengerToFlight(flightNumber, toPassenger(passengerRequest));
+    invalidate(flightNumber, route);
+    log.info("Passenger added successfully");
+  }
+
+  public PassengerBatchResponse addPassengers(
+      String flightNumber, List<PassengerRequest> passengerRequests) {
+    List<Passenger> passengers = passengerRequests.stream().map(this::toPassenger).toList();
+    AddedPassengers added = flightService.addPassengersToFlight(flightNumber, passengers);
+    Set<Passenger> accepted = Collections.newSetFromMap(new IdentityHashMap<>());
+    accepted.addAll(added.accepted());
+    if (!accepted.isEmpty()) {
+      invalidate(flightNumber, added.flight());
+    }
+
+    List<PassengerBatchResult> results = new ArrayList<>(passengers.size());
+    for (int i = 0; i < passengers.size(); i++) {
+      Passenger passenger = passengers.get(i);
+      if (accepted.contains(passenger)) {
+        results.add(
+            new PassengerBatchResult(
+                i, passenger.getName(), passenger.getId(), Status.ADDED, "Passenger added"));
+      } else {
+        results.add(
+            new PassengerBatchResult(
+                i,
+                passenger.getName(),
+                null,
+                Status.SEAT_CONFLICT,
+                "Seat " + passenger.getSeatAssignment().getSeatNumber() + " is already assigned"));
+      }
+    }
+    log.info("Added {} of {} passengers", accepted.size(), passengers.size());
+    return new PassengerBatchResponse(
+        accepted.size(), passengers.size() - accepted.size(), results);
+  }
+
+  private Passenger toPassenger(PassengerRequest passengerRequest) {
     SeatAssignment seatAssignment = null;
     if (passengerRequest.getSeatNumber() != null && passengerRequest.getSeatClass() != null) {
       seatAssignment =
-          new SeatAssignment(passengerRequest.getSeatNumber(), passengerRequest.getSeatClass());
+          SeatAssignment.of(passengerRequest.getSeatNumber(), passengerRequest.getSeatClass());
     }
-
-    Passenger passenger =
-        new Passenger(UUID.randomUUID(), passengerRequest.getName(), seatAssignment);
-    flightService.addPassengerToFlight(flightNumber, passenger);
-    log.info("Passenger added successfully");
+    return new Passenger(UUID.randomUUID(), passengerRequest.getName(), seatAssignment);
   }
 
   public boolean removePassenger(String flightNumber, String passengerId) {
-    return flightService.removePassengerFromFlight(flightNumber, passengerId);
+    Optional<Flight> route = flightService.removePassengerFromFlight(flightNumber, passengerId);
+    route.ifPresent(flight -> invalidate(flightNumber, flight));
+    return route.isPresent();
   }
 
+  /** Served from {@link RouteFlightCache}; see there for how fresh the result is. */
   public List<Flight> findFlightsByRoute(String origin, String destination) {
-    return flightService.findFlightsByRoute(origin, destination);
+    return routeFlightCache.get(origin, destination);
   }
 
   public List<Flight> findFlightsByDepartureRange(LocalDateTime start, LocalDateTime end) {
     return flightService.findFlightsByDepartureRange(start, end);
   }
 
+  public Stream<Flight> streamFlightsByRoute(String origin, String destination) {
+    return flightService.streamFlightsByRoute(origin, destination);
+  }
+
+  public Stream<Flight> streamFlightsByDepartureRange(LocalDateTime start, LocalDateTime end) {
+    return flightService.streamFlightsByDepartureRange(start, end);
+  }
+
   public void deleteFlight(String flightNumber) {
-    if (flightService.flightExists(flightNumber)) {
-      flightRepository.deleteById(flightNumber);
-      log.info("Flight deleted successfully");
-    } else {
-      log.error("Flight not found");
-      throw new FlightNotFoundException(flightNumber);
-    }
+    Flight route =
+        flightRepository
+            .findRouteByFlightNumber(flightNumber)
+            .orElseThrow(
+                () -> {
+                  log.error("Flight not found");
+                  flightEventMetrics.flightNotFound();
+                  return new FlightNotFoundException(flightNumber);
+                });
+    flightRepository.deleteById(flightNumber);
+    flightNearCache.invalidate(flightNumber);
+    routeFlightCache.invalidate(route.getOrigin(), route.getDestination());
+    log.info("Flight deleted successfully");
+  }
+
+  /**
+   * Drops the cached copy and route of a flight whose passengers changed. The route comes back from
+   * the update itself, so invalidating costs no extra read.
+   */
+  private void invalidate(String flightNumber, Flight route) {
+    flightNearCache.invalidate(flightNumber);
+    routeFlightCache.invalidate(route.getOrigin(), route.getDestination());
   }
 }
@@ -0,0 +1,158 @@
+package com.bharat.airport.application;
+
+import com.bharat.airport.application.dto.FlightImportError;
+import com.bharat.airport.application.dto.FlightImportReport;
+import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.repository.FlightRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports flight schedules from newline-delimited JSON. The body is read one line at a time and
+ * flights are written in fixed-size chunks with unordered bulk inserts, so memory use depends on
+ * the chunk size rather than on the size of the upload. The cached routes of each chunk's imported
+ * flights are invalidated once the chunk is written.
+ */
+@Service
+@Slf4j
+public class FlightImportService {
+
+  private final FlightRepository flightRepository;
+  private final RouteFlightCache routeFlightCache;
+  private final ObjectReader flightRequestReader;
+  private final Validator validator;
+  private final int chunkSize;
+  private final int maxReportedErrors;
+
+  public FlightImportService(
+      FlightRepository flightRepository,
+      RouteFlightCache routeFlightCache,
+      ObjectMapper objectMapper,
+      Validator validator,
+      @Value("${airport.import.chunk-size:1000}") int chunkSize,
+      @Value("${airport.import.max-reported-errors:1000}") int maxReportedErrors) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("chunk-size must be at least 1");
+    }
+    this.flightRepository = flightRepository;
+    this.routeFlightCache = routeFlightCache;
+    this.flightRequestReader = objectMapper.readerFor(FlightRequest.class);
+    this.validator = validator;
+    this.chunkSize = chunkSize;
+    this.maxReportedErrors = maxReportedErrors;
+  }
+
+  public FlightImportReport importFlights(InputStream ndjson) throws IOException {
+    Run run = new Run();
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+    String line;
+    long lineNumber = 0;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (!line.isBlank()) {
+        run.received++;
+        parse(line, lineNumber, run);
+        if (run.chunk.size() >= chunkSize) {
+          flush(run);
+        }
+      }
+    }
+    flush(run);
+    log.info("Imported {} of {} flights, {} failed", run.imported, run.received, run.failed);
+    return new FlightImportReport(
+        run.received, run.imported, run.failed, run.errors, run.failed > run.errors.size());
+  }
+
+  private void parse(String line, long lineNumber, Run run) {
+    FlightRequest request;
+    try {
+      request = flightRequestReader.readValue(line);
+    } catch (JsonProcessingException e) {
+      run.reject(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+      return;
+    }
+
+    Set<ConstraintViolation<FlightRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      String reason =
+          violations.stream()
+              .map(ConstraintViolation::getMessage)
+              .sorted()
+              .collect(Collectors.joining(", "));
+      run.reject(lineNumber, request.getFlightNumber(), reason);
+      return;
+    }
+
+    try {
+      run.chunk.add(
+          new Flight(
+              request.getFlightNumber(),
+              request.getOrigin(),
+              request.getDestination(),
+              request.getScheduledDeparture(),
+              request.getScheduledArrival()));
+      run.chunkLines.add(lineNumber);
+    } catch (IllegalArgumentException e) {
+      run.reject(lineNumber, request.getFlightNumber(), e.getMessage());
+    }
+  }
+
+  private void flush(Run run) {
+    if (run.chunk.isEmpty()) {
+      return;
+    }
+    Map<Integer, String> failures = flightRepository.insertUnordered(run.chunk);
+    run.imported += run.chunk.size() - failures.size();
+    for (int i = 0; i < run.chunk.size(); i++) {
+      if (!failures.containsKey(i)) {
+        Flight flight = run.chunk.get(i);
+        routeFlightCache.invalidate(flight.getOrigin(), flight.getDestination());
+      }
+    }
+    failures.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .forEach(
+            failure ->
+                run.reject(
+                    run.chunkLines.get(failure.getKey()),
+                    run.chunk.get(failure.getKey()).getFlightNumber(),
+                    failure.getValue()));
+    run.chunk.clear();
+    run.chunkLines.clear();
+  }
+
+  /** Mutable state of one import request */
+  private class Run {
+    private final List<Flight> chunk = new ArrayList<>(chunkSize);
+    private final List<Long> chunkLines = new ArrayList<>(chunkSize);
+    private final List<FlightImportError> errors = new ArrayList<>();
+    private long received;
+    private long imported;
+    private long failed;
+
+    private void reject(long line, String flightNumber, String reason) {
+      failed++;
+      if (errors.size() < maxReportedErrors) {
+        errors.add(new FlightImportError(line, flightNumber, reason));
+      }
+    }
+  }
+}
@@ -0,0 +1,288 @@
+package com.bharat.airport.application;
+
+import com.bharat.airport.domain.model.Flight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flight documents kept in memory on every node and kept current by a change stream on the flights
+ * collection.
+ *
+ * <p>Reads go through the cache only while the stream is live and caught up. Until then, and
+ * whenever the stream is interrupted, they go straight to Mongo, so a node never serves a change it
+ * has not seen. Cached flights are replaced by the post-image of each update, evicted on delete and
+ * cleared on collection-level events. Flights that are not cached are not populated by the stream.
+ * Loading on a miss and applying an event for the same flight are serialised per key, so a load
+ * cannot overwrite a newer event.
+ *
+ * <p>The stream position is saved in {@value #TOKEN_COLLECTION}. After a dropped connection or a
+ * restart the node resumes from there instead of flushing, unless the oplog no longer covers it.
+ * Change streams need a replica set, so the cache is off unless {@code
+ * airport.cache.flight-near-cache.enabled} is set.
+ */
+@Component
+@Slf4j
+public class FlightNearCache implements SmartLifecycle {
+
+  static final String TOKEN_COLLECTION = "changeStreamTokens";
+
+  /** ChangeStreamHistoryLost, ChangeStreamFatalError and CappedPositionLost. */
+  private static final Set<Integer> HISTORY_LOST = Set.of(286, 280, 136);
+
+  private static final long MAX_BACKOFF_MILLIS = 5000;
+
+  private final MongoTemplate mongoTemplate;
+  private final boolean enabled;
+  private final String tokenId;
+  private final long tokenSaveIntervalNanos;
+  private final Cache<String, Flight> cache;
+
+  private volatile boolean running;
+  private volatile boolean live;
+  private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+  private Thread watcher;
+  private BsonDocument resumeToken;
+  private long lastTokenSave;
+
+  public FlightNearCache(
+      MongoTemplate mongoTemplate,
+      @Value("${airport.cache.flight-near-cache.enabled:false}") boolean enabled,
+      @Value("${airport.cache.flight-near-cache.maximum-size:10000}") long maximumSize,
+      @Value("${airport.cache.flight-near-cache.node-id:${HOSTNAME:local}}") String nodeId,
+      @Value("${airport.cache.flight-near-cache.token-save-interval:1s}")
+          Duration tokenSaveInterval) {
+    this.mongoTemplate = mongoTemplate;
+    this.enabled = enabled;
+    this.tokenId = "flights:" + nodeId;
+    this.tokenSaveIntervalNanos = tokenSaveInterval.toNanos();
+    this.cache = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+  }
+
+  /**
+   * Returns the cached flight, loading it on a miss. Bypasses the cache while the change stream is
+   * not live. Callers must not modify the returned flight.
+   */
+  public Flight get(String flightNumber, Function<String, Flight> loader) {
+    if (!live) {
+      return loader.apply(flightNumber);
+    }
+    return cache.get(flightNumber, loader);
+  }
+
+  /**
+   * Drops a flight this node has just changed, so the next read sees the change without waiting for
+   * its event.
+   */
+  public void invalidate(String flightNumber) {
+    cache.invalidate(flightNumber);
+  }
+
+  public boolean isLive() {
+    return live;
+  }
+
+  @SuppressWarnings("unchecked")
+  public Cache<Object, Object> nativeCache() {
+    return (Cache<Object, Object>) (Cache<?, ?>) cache;
+  }
+
+  void apply(ChangeStreamDocument<Document> event) {
+    switch (event.getOperationType()) {
+      case INSERT, UPDATE, REPLACE -> {
+        String flightNumber = flightNumber(event);
+        Document document = event.getFullDocument();
+        if (document == null) {
+          // Deleted again before the post-image was looked up
+          cache.invalidate(flightNumber);
+          return;
+        }
+        Flight changed = mongoTemplate.getConverter().read(Flight.class, document);
+        cache
+            .asMap()
+            .computeIfPresent(
+                flightNumber,
+                (key, cached) -> version(changed) >= version(cached) ? changed : cached);
+      }
+      case DELETE -> cache.invalidate(flightNumber(event));
+      default -> cache.invalidateAll();
+    }
+  }
+
+  @Override
+  public void start() {
+    if (!enabled || running) {
+      return;
+    }
+    running = true;
+    watcher = new Thread(this::watch, "flight-near-cache");
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    MongoChangeStreamCursor<ChangeStreamDocument<Document>> open = cursor;
+    if (open != null) {
+      open.close();
+    }
+    if (watcher != null) {
+      try {
+        watcher.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      watcher = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void watch() {
+    boolean tokenLoaded = false;
+    long backoff = 100;
+    while (running) {
+      if (!tokenLoaded) {
+        try {
+          resumeToken = loadToken();
+          tokenLoaded = true;
+        } catch (MongoException e) {
+          log.warn("Could not load flight change stream position", e);
+          sleep(backoff);
+          backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+          continue;
+        }
+      }
+      try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> open = open()) {
+        cursor = open;
+        backoff = 100;
+        consume(open);
+      } catch (RuntimeException e) {
+        live = false;
+        if (!running) {
+          break;
+        }
+        if (e instanceof MongoException mongoException
+            && HISTORY_LOST.contains(mongoException.getCode())) {
+          log.warn("Change stream history lost, flushing flight near cache", e);
+          resumeToken = null;
+          cache.invalidateAll();
+          deleteToken();
+        } else {
+          log.warn("Flight change stream interrupted, resuming", e);
+        }
+        sleep(backoff);
+        backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+      }
+    }
+    live = false;
+    saveToken(true);
+  }
+
+  private void consume(MongoChangeStreamCursor<ChangeStreamDocument<Document>> open) {
+    while (running) {
+      ChangeStreamDocument<Document> event = open.tryNext();
+      if (event != null) {
+        apply(event);
+      } else if (!live) {
+        // Nothing more to replay, so the cache reflects everything up to now
+        live = true;
+        log.info("Flight near cache is live");
+      }
+      BsonDocument token = open.getResumeToken();
+      if (token != null) {
+        resumeToken = token;
+        saveToken(false);
+      }
+    }
+  }
+
+  private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+    ChangeStreamIterable<Document> stream =
+        mongoTemplate
+            .getCollection(mongoTemplate.getCollectionName(Flight.class))
+            .watch()
+            .fullDocument(FullDocument.UPDATE_LOOKUP)
+            .maxAwaitTime(1, TimeUnit.SECONDS);
+    if (resumeToken != null) {
+      stream = stream.resumeAfter(resumeToken);
+    }
+    return stream.cursor();
+  }
+
+  private BsonDocument loadToken() {
+    BsonDocument saved = tokens().find(Filters.eq("_id", tokenId)).first();
+    return saved == null ? null : saved.getDocument("token");
+  }
+
+  private void saveToken(boolean force) {
+    long now = System.nanoTime();
+    if (resumeToken == null || (!force && now - lastTokenSave < tokenSaveIntervalNanos)) {
+      return;
+    }
+    try {
+      tokens()
+          .replaceOne(
+              Filters.eq("_id", tokenId),
+              new BsonDocument("_id", new BsonString(tokenId))
+                  .append("token", resumeToken)
+                  .append("updatedAt", new BsonDateTime(System.currentTimeMillis())),
+              new ReplaceOptions().upsert(true));
+      lastTokenSave = now;
+    } catch (MongoException e) {
+      log.warn("Could not save flight change stream position", e);
+    }
+  }
+
+  private void deleteToken() {
+    try {
+      tokens().deleteOne(Filters.eq("_id", tokenId));
+    } catch (MongoException e) {
+      log.warn("Could not delete flight change stream position", e);
+    }
+  }
+
+  private MongoCollection<BsonDocument> tokens() {
+    return mongoTemplate.getDb().getCollection(TOKEN_COLLECTION, BsonDocument.class);
+  }
+
+  private static String flightNumber(ChangeStreamDocument<Document> event) {
+    return event.getDocumentKey().getString("_id").getValue();
+  }
+
+  private static long version(Flight flight) {
+    return flight.getVersion() == null ? -1 : flight.getVersion();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
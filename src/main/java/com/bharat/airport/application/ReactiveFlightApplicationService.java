@@ -0,0 +1,123 @@
+package com.bharat.airport.application;
+
+import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerRequest;
+import com.bharat.airport.domain.exception.FlightAlreadyExistsException;
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.repository.ReactiveFlightRepository;
+import com.bharat.airport.domain.service.FlightEventMetrics;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link FlightApplicationService} for the reactive profile. Reads go
+ * straight to {@link ReactiveFlightRepository}; the in-process route and near caches are only
+ * consulted by the servlet stack. Missing flights and rejected seats are counted in {@link
+ * FlightEventMetrics} as on the servlet stack.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveFlightApplicationService {
+
+  private final ReactiveFlightRepository flightRepository;
+  private final FlightEventMetrics flightEventMetrics;
+
+  public ReactiveFlightApplicationService(
+      ReactiveFlightRepository flightRepository, FlightEventMetrics flightEventMetrics) {
+    this.flightRepository = flightRepository;
+    this.flightEventMetrics = flightEventMetrics;
+  }
+
+  public Mono<Flight> createFlight(FlightRequest flightRequest) {
+    Flight flight =
+        new Flight(
+            flightRequest.getFlightNumber(),
+            flightRequest.getOrigin(),
+            flightRequest.getDestination(),
+            flightRequest.getScheduledDeparture(),
+            flightRequest.getScheduledArrival());
+    return flightRepository
+        .insert(flight)
+        .onErrorMap(
+            DuplicateKeyException.class,
+            e -> {
+              log.error("Flight already exists with number {}", flight.getFlightNumber());
+              return new FlightAlreadyExistsException(flight.getFlightNumber());
+            });
+  }
+
+  public Flux<Flight> getAllFlights() {
+    return flightRepository.findAllBy();
+  }
+
+  public Mono<Flight> getFlight(String flightNumber) {
+    return flightRepository
+        .findById(flightNumber)
+        .switchIfEmpty(Mono.error(() -> flightNotFound(flightNumber)));
+  }
+
+  public Mono<Void> addPassenger(String flightNumber, PassengerRequest passengerRequest) {
+    SeatAssignment seatAssignment = null;
+    if (passengerRequest.getSeatNumber() != null && passengerRequest.getSeatClass() != null) {
+      seatAssignment =
+          SeatAssignment.of(passengerRequest.getSeatNumber(), passengerRequest.getSeatClass());
+    }
+    Passenger passenger =
+        new Passenger(UUID.randomUUID(), passengerRequest.getName(), seatAssignment);
+    return flightRepository
+        .pushPassenger(flightNumber, passenger)
+        .doOnError(
+            SeatAlreadyAssignedException.class, e -> flightEventMetrics.seatConflictRejected())
+        .doOnError(FlightNotFoundException.class, e -> flightEventMetrics.flightNotFound());
+  }
+
+  public Mono<Boolean> removePassenger(String flightNumber, String passengerId) {
+    UUID id;
+    try {
+      id = UUID.fromString(passengerId);
+    } catch (IllegalArgumentException e) {
+      log.info("Ignoring malformed passenger id {}", passengerId);
+      return Mono.just(false);
+    }
+    return flightRepository
+        .pullPassenger(flightNumber, id)
+        .doOnError(FlightNotFoundException.class, e -> flightEventMetrics.flightNotFound());
+  }
+
+  public Flux<Flight> findFlightsByRoute(String origin, String destination) {
+    return flightRepository.findByRoute(origin, destination);
+  }
+
+  public Flux<Flight> findFlightsByDepartureRange(LocalDateTime start, LocalDateTime end) {
+    return flightRepository.findFlightsByDepartureTimeRange(start, end);
+  }
+
+  public Mono<Void> deleteFlight(String flightNumber) {
+    return flightRepository
+        .existsById(flightNumber)
+        .flatMap(
+            exists -> {
+              if (!exists) {
+                log.error("Flight not found");
+                return Mono.error(flightNotFound(flightNumber));
+              }
+              return flightRepository.deleteById(flightNumber);
+            });
+  }
+
+  private FlightNotFoundException flightNotFound(String flightNumber) {
+    flightEventMetrics.flightNotFound();
+    return new FlightNotFoundException(flightNumber);
+  }
+}
@@ -0,0 +1,119 @@
+package com.bharat.airport.application;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.service.FlightService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flights per (origin, destination) route, kept in memory for the hot route search.
+ *
+ * <p>An entry read after {@code refresh-after} is reloaded in the background while the current
+ * value keeps being served, so popular routes never wait on Mongo. An entry is never served once it
+ * is older than {@code max-staleness}, which bounds how long a change made by another instance can
+ * go unseen. Changes made through this instance invalidate the affected route immediately.
+ *
+ * <p>Reloads run on a small pool of their own rather than the common pool, which parallel streams
+ * and {@code CompletableFuture} share. Caffeine runs at most one reload per entry, so the queue is
+ * sized to the cache; a reload that still does not fit is skipped and the entry expires as usual.
+ */
+@Component
+public class RouteFlightCache {
+
+  private final LoadingCache<Route, List<Flight>> cache;
+
+  private final Executor refreshExecutor;
+
+  @Autowired
+  public RouteFlightCache(
+      FlightService flightService,
+      @Value("${airport.cache.route-flights.maximum-size:1000}") long maximumSize,
+      @Value("${airport.cache.route-flights.refresh-after:10s}") Duration refreshAfter,
+      @Value("${airport.cache.route-flights.max-staleness:30s}") Duration maxStaleness,
+      @Value("${airport.cache.route-flights.refresh-threads:2}") int refreshThreads) {
+    this(
+        flightService,
+        maximumSize,
+        refreshAfter,
+        maxStaleness,
+        Ticker.systemTicker(),
+        refreshExecutor(refreshThreads, maximumSize));
+  }
+
+  RouteFlightCache(
+      FlightService flightService,
+      long maximumSize,
+      Duration refreshAfter,
+      Duration maxStaleness,
+      Ticker ticker,
+      Executor refreshExecutor) {
+    if (refreshAfter.compareTo(maxStaleness) >= 0) {
+      throw new IllegalArgumentException("refresh-after must be shorter than max-staleness");
+    }
+    this.refreshExecutor = refreshExecutor;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .refreshAfterWrite(refreshAfter)
+            .expireAfterWrite(maxStaleness)
+            .recordStats()
+            .ticker(ticker)
+            .executor(refreshExecutor)
+            .build(
+                route ->
+                    List.copyOf(
+                        flightService.findFlightsByRoute(route.origin(), route.destination())));
+  }
+
+  /**
+   * Returns the flights on a route as an unmodifiable list. The same flights are handed to every
+   * caller until the entry is reloaded, so callers must not modify them.
+   */
+  public List<Flight> get(String origin, String destination) {
+    return cache.get(new Route(origin, destination));
+  }
+
+  public void invalidate(String origin, String destination) {
+    cache.invalidate(new Route(origin, destination));
+  }
+
+  @SuppressWarnings("unchecked")
+  public Cache<Object, Object> nativeCache() {
+    return (Cache<Object, Object>) (Cache<?, ?>) cache;
+  }
+
+  @PreDestroy
+  void close() {
+    if (refreshExecutor instanceof ExecutorService executor) {
+      executor.shutdownNow();
+    }
+  }
+
+  static ThreadPoolExecutor refreshExecutor(int threads, long maximumSize) {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            1,
+            TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>((int) Math.min(maximumSize, Integer.MAX_VALUE)),
+            Thread.ofPlatform().name("route-refresh-", 0).daemon().factory());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private record Route(String origin, String destination) {}
+}
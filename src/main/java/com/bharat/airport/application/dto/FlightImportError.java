@@ -0,0 +1,13 @@
+package com.bharat.airport.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A line of an import that could not be stored, with the reason */
+@Getter
+@AllArgsConstructor
+public class FlightImportError {
+  private long line;
+  private String flightNumber;
+  private String reason;
+}
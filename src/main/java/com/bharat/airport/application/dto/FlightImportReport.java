@@ -0,0 +1,18 @@
+package com.bharat.airport.application.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FlightImportReport {
+  private long received;
+  private long imported;
+  private long failed;
+
+  /** The first failures in line order; {@link #errorsTruncated} tells if more were dropped. */
+  private List<FlightImportError> errors;
+
+  private boolean errorsTruncated;
+}
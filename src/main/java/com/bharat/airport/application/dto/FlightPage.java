@@ -0,0 +1,15 @@
+package com.bharat.airport.application.dto;
+
+import com.bharat.airport.domain.model.Flight;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FlightPage {
+  private List<Flight> flights;
+
+  /** Whether more flights follow the last one on this page. */
+  private boolean hasMore;
+}
@@ -0,0 +1,13 @@
+package com.bharat.airport.application.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PassengerBatchResponse {
+  private int added;
+  private int rejected;
+  private List<PassengerBatchResult> results;
+}
@@ -0,0 +1,22 @@
+package com.bharat.airport.application.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Outcome of one passenger of a batch booking, in request order */
+@Getter
+@AllArgsConstructor
+public class PassengerBatchResult {
+
+  public enum Status {
+    ADDED,
+    SEAT_CONFLICT
+  }
+
+  private int index;
+  private String name;
+  private UUID passengerId;
+  private Status status;
+  private String message;
+}
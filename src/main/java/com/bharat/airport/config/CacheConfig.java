@@ -0,0 +1,61 @@
+package com.bharat.airport.config;
+
+import com.bharat.airport.application.FlightNearCache;
+import com.bharat.airport.application.RouteFlightCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process Caffeine caches for airport reads. Each cache is bounded and expires entries after
+ * write, so changes made through another instance become visible within the expiry. Statistics are
+ * recorded and published as {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  /** Airports keyed by code. */
+  public static final String AIRPORT = "airport";
+
+  /** The full airport list, stored under {@link #ALL_AIRPORTS_KEY}. */
+  public static final String AIRPORTS = "airports";
+
+  public static final String ALL_AIRPORTS_KEY = "all";
+
+  /** Flights per route, loaded and refreshed by {@link RouteFlightCache}. */
+  public static final String ROUTE_FLIGHTS = "routeFlights";
+
+  /** Flights by number, kept current across nodes by {@link FlightNearCache}. */
+  public static final String FLIGHTS = "flights";
+
+  @Bean
+  public CacheManagerCustomizer<CaffeineCacheManager> airportCaches(
+      @Value("${airport.cache.airport-spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+          String airportSpec,
+      @Value("${airport.cache.airports-spec:maximumSize=1,expireAfterWrite=1m,recordStats}")
+          String airportsSpec) {
+    return cacheManager -> {
+      cacheManager.registerCustomCache(AIRPORT, Caffeine.from(airportSpec).build());
+      cacheManager.registerCustomCache(AIRPORTS, Caffeine.from(airportsSpec).build());
+    };
+  }
+
+  /** Publishes the flight caches through the cache manager for the caches endpoint and metrics. */
+  @Bean
+  public CacheManagerCustomizer<CaffeineCacheManager> flightCaches(
+      ObjectProvider<RouteFlightCache> routeFlightCache,
+      ObjectProvider<FlightNearCache> flightNearCache) {
+    return cacheManager -> {
+      routeFlightCache.ifAvailable(
+          cache -> cacheManager.registerCustomCache(ROUTE_FLIGHTS, cache.nativeCache()));
+      flightNearCache.ifAvailable(
+          cache -> cacheManager.registerCustomCache(FLIGHTS, cache.nativeCache()));
+    };
+  }
+}
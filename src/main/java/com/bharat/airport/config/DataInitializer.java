@@ -1,63 +1,73 @@
 package com.bharat.airport.config;
 
-import com.bharat.airport.domain.model.Flight;
-import com.bharat.airport.domain.model.Passenger;
-import com.bharat.airport.domain.model.SeatAssignment;
-import com.bharat.airport.domain.model.SeetClass;
 import com.bharat.airport.domain.repository.FlightRepository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
-/** Initializes sample data for demonstration purposes */
+/**
+ * Loads synthetic flights from {@link FlightDataGenerator} into an empty database, configured under
+ * {@code airport.sample-data}. Flights are generated and inserted in batches on a few threads of
+ * their own.
+ */
 @Configuration
 public class DataInitializer {
 
   private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
 
+  /**
+   * Departures start at the next midnight, so the same seed gives the same flights relative to the
+   * day of loading, or at the configured {@code start} to reproduce one data set exactly.
+   */
+  @Bean
+  public FlightDataGenerator flightDataGenerator(
+      @Value("${airport.sample-data.seed:42}") long seed,
+      @Value("${airport.sample-data.start:}") String start,
+      @Value("${airport.sample-data.days:14}") int days,
+      @Value("${airport.sample-data.aircraft-seats:76=15,150=45,180=25,300=15}")
+          String aircraftSeats,
+      @Value("${airport.sample-data.load-factor.min:0.5}") double minLoadFactor,
+      @Value("${airport.sample-data.load-factor.max:0.95}") double maxLoadFactor,
+      @Value("${airport.sample-data.seat-classes:First=2,Business=10,Economy=88}")
+          String seatClasses) {
+    return new FlightDataGenerator(
+        seed,
+        start.isBlank() ? LocalDate.now().plusDays(1).atStartOfDay() : LocalDateTime.parse(start),
+        days,
+        aircraftSeats,
+        minLoadFactor,
+        maxLoadFactor,
+        seatClasses);
+  }
+
   @Bean
   @Profile("!test")
-  public CommandLineRunner initData(FlightRepository flightRepository) {
+  public CommandLineRunner initData(
+      FlightRepository flightRepository,
+      FlightDataGenerator generator,
+      @Value("${airport.sample-data.enabled:true}") boolean enabled,
+      @Value("${airport.sample-data.flights:200}") long flights,
+      @Value("${airport.sample-data.batch-size:500}") int batchSize,
+      @Value("${airport.sample-data.threads:2}") int threads) {
     return args -> {
-      if (flightRepository.count() == 0) {
-        initializeSampleData(flightRepository);
-        log.info("Sample data initialized successfully");
+      if (enabled && flightRepository.count() == 0) {
+        long startedAt = System.nanoTime();
+        long passengers =
+            generator.generate(flights, batchSize, threads, flightRepository::insertWithPassengers);
+        long millis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info(
+            "Sample data initialized: {} flights with {} passengers in {} ms ({} flights/s)",
+            flights,
+            passengers,
+            millis,
+            flights * 1000 / millis);
       }
     };
   }
-
-  private void initializeSampleData(FlightRepository flightRepository) {
-    // Create sample flights
-    LocalDateTime now = LocalDateTime.now();
-
-    // Flight 1: JFK to LAX
-    Flight flight1 = new Flight("UA101", "JFK", "LAX", now.plusHours(2), now.plusHours(6));
-    flight1.addPassenger(new Passenger("John Doe", new SeatAssignment("12A", SeetClass.Economy)));
-    flight1.addPassenger(new Passenger("Jane Smith", new SeatAssignment("12B", SeetClass.Economy)));
-
-    // Flight 2: LAX to JFK
-    Flight flight2 = new Flight("UA102", "LAX", "JFK", now.plusHours(4), now.plusHours(8));
-    flight2.addPassenger(
-        new Passenger("Bob Johnson", new SeatAssignment("1A", SeetClass.Business)));
-
-    // Flight 3: ORD to MIA
-    Flight flight3 = new Flight("AA203", "ORD", "MIA", now.plusHours(3), now.plusHours(6));
-    flight3.addPassenger(
-        new Passenger("Alice Brown", new SeatAssignment("15C", SeetClass.Economy)));
-    flight3.addPassenger(
-        new Passenger("Charlie Wilson", new SeatAssignment("15D", SeetClass.Economy)));
-    flight3.addPassenger(
-        new Passenger("Diana Davis", new SeatAssignment("2A", SeetClass.Business)));
-
-    // Save flights
-    flightRepository.save(flight1);
-    flightRepository.save(flight2);
-    flightRepository.save(flight3);
-
-    log.info("Created {} sample flights", flightRepository.count());
-  }
 }
@@ -0,0 +1,379 @@
+package com.bharat.airport.config;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Generates synthetic flights with passenger manifests.
+ *
+ * <p>Routes connect major airports chosen by their share of passenger traffic, and block times
+ * follow the great-circle distance between them. Departures fall on a random day of the window, at
+ * hours weighted towards the morning and evening banks. Each flight is flown by an aircraft drawn
+ * from the seat-count distribution, cabins are laid out six abreast with the configured share of
+ * First, Business and Economy seats, and a random load factor in the configured range decides how
+ * many of the seats are taken.
+ *
+ * <p>Flight {@code i} is generated from its own random stream derived from the seed and {@code i},
+ * so the same seed gives the same flights however the work is split across threads. Only the dates
+ * move with {@code start}. Flights are built without the constructor's check against the clock, so
+ * a fixed {@code start} gives the same data set after that time has passed.
+ */
+public final class FlightDataGenerator {
+
+  /** An airport with its position and relative passenger traffic. */
+  record Hub(String code, double latitude, double longitude, double traffic) {}
+
+  static final List<Hub> HUBS =
+      List.of(
+          new Hub("ATL", 33.64, -84.43, 104),
+          new Hub("DXB", 25.25, 55.36, 87),
+          new Hub("HND", 35.55, 139.78, 85),
+          new Hub("DFW", 32.90, -97.04, 82),
+          new Hub("LHR", 51.47, -0.45, 79),
+          new Hub("DEN", 39.86, -104.67, 78),
+          new Hub("IST", 41.26, 28.74, 76),
+          new Hub("LAX", 33.94, -118.41, 75),
+          new Hub("ORD", 41.98, -87.90, 74),
+          new Hub("DEL", 28.57, 77.10, 74),
+          new Hub("CDG", 49.01, 2.55, 70),
+          new Hub("CAN", 23.39, 113.30, 63),
+          new Hub("JFK", 40.64, -73.78, 62),
+          new Hub("AMS", 52.31, 4.76, 62),
+          new Hub("FRA", 50.04, 8.56, 61),
+          new Hub("MAD", 40.47, -3.56, 60),
+          new Hub("SIN", 1.36, 103.99, 59),
+          new Hub("LAS", 36.08, -115.15, 57),
+          new Hub("ICN", 37.46, 126.44, 56),
+          new Hub("PVG", 31.14, 121.81, 54),
+          new Hub("MIA", 25.79, -80.29, 52),
+          new Hub("SEA", 47.45, -122.31, 52),
+          new Hub("BKK", 13.69, 100.75, 52),
+          new Hub("BOM", 19.09, 72.87, 52),
+          new Hub("SFO", 37.62, -122.38, 50),
+          new Hub("BCN", 41.30, 2.08, 50),
+          new Hub("MEX", 19.44, -99.07, 48),
+          new Hub("YYZ", 43.68, -79.63, 46),
+          new Hub("DOH", 25.27, 51.61, 46),
+          new Hub("GRU", -23.43, -46.47, 42),
+          new Hub("SYD", -33.95, 151.18, 41),
+          new Hub("MUC", 48.35, 11.79, 41),
+          new Hub("HKG", 22.31, 113.91, 40),
+          new Hub("FCO", 41.80, 12.25, 40),
+          new Hub("JNB", -26.14, 28.25, 20));
+
+  private static final String[] CARRIERS = {
+    "AA", "DL", "UA", "WN", "BA", "LH", "AF", "KL", "EK", "QR", "TK", "SQ", "NH", "CX", "QF", "AC"
+  };
+
+  private static final String[] FIRST_NAMES =
+      ("James Mary Robert Patricia John Jennifer Michael Linda David Elizabeth William Barbara"
+              + " Richard Susan Joseph Jessica Thomas Sarah Wei Aiko Arjun Priya Mohammed Fatima"
+              + " Carlos Sofia Lukas Emma")
+          .split(" ");
+
+  private static final String[] LAST_NAMES =
+      ("Smith Johnson Williams Brown Jones Garcia Miller Davis Rodriguez Martinez Wilson Anderson"
+              + " Taylor Thomas Moore Martin Lee Wang Chen Sato Tanaka Patel Sharma Khan Silva"
+              + " Santos Muller Schmidt Dubois")
+          .split(" ");
+
+  /** Relative number of departures in each hour of the day. */
+  private static final double[] DEPARTURE_HOURS = {
+    1, 1, 1, 1, 2, 6, 10, 10, 9, 8, 8, 8, 8, 8, 8, 8, 9, 10, 10, 9, 7, 5, 3, 2
+  };
+
+  private static final String SEAT_LETTERS = "ABCDEF";
+
+  /** Cruise speed in km per minute, about 810 km/h. */
+  private static final double CRUISE_SPEED = 13.5;
+
+  /** Minutes added to the cruise time for taxi, climb and descent. */
+  private static final int GROUND_MINUTES = 30;
+
+  private static final Weights HUB_WEIGHTS =
+      new Weights(HUBS.stream().mapToDouble(Hub::traffic).toArray());
+  private static final Weights HOUR_WEIGHTS = new Weights(DEPARTURE_HOURS);
+
+  private final long seed;
+  private final LocalDateTime start;
+  private final int days;
+  private final Weights aircraftWeights;
+  private final SeatAssignment[][] cabins;
+  private final double minLoadFactor;
+  private final double maxLoadFactor;
+
+  /**
+   * @param start the beginning of the departure window
+   * @param days the length of the departure window
+   * @param aircraftSeats seat counts and their weights, e.g. {@code 150=60,300=40}
+   * @param seatClasses seat classes and their share of each cabin, e.g. {@code
+   *     First=2,Business=10,Economy=88}
+   */
+  public FlightDataGenerator(
+      long seed,
+      LocalDateTime start,
+      int days,
+      String aircraftSeats,
+      double minLoadFactor,
+      double maxLoadFactor,
+      String seatClasses) {
+    if (days < 1) {
+      throw new IllegalArgumentException("Departure window must be at least one day");
+    }
+    if (minLoadFactor < 0 || minLoadFactor > maxLoadFactor || maxLoadFactor > 1) {
+      throw new IllegalArgumentException(
+          "Load factors must satisfy 0 <= min <= max <= 1, got "
+              + minLoadFactor
+              + " and "
+              + maxLoadFactor);
+    }
+    this.seed = seed;
+    this.start = start;
+    this.days = days;
+    this.minLoadFactor = minLoadFactor;
+    this.maxLoadFactor = maxLoadFactor;
+
+    Map<String, Double> aircraft = parseWeights(aircraftSeats);
+    Map<SeetClass, Double> classShares = new LinkedHashMap<>();
+    parseWeights(seatClasses).forEach((name, share) -> classShares.put(seatClass(name), share));
+    this.aircraftWeights =
+        new Weights(aircraft.values().stream().mapToDouble(Double::doubleValue).toArray());
+    this.cabins =
+        aircraft.keySet().stream()
+            .map(seats -> cabin(seatCount(seats), classShares))
+            .toArray(SeatAssignment[][]::new);
+  }
+
+  /**
+   * Generates flights {@code 0} to {@code count - 1} in batches of {@code batchSize} on {@code
+   * threads} threads of its own, and passes each batch to the sink as it is completed. The sink is
+   * called concurrently and may block, and each thread holds at most one batch. The first failure
+   * stops the remaining batches and is rethrown.
+   *
+   * @return the number of passengers generated
+   */
+  public long generate(long count, int batchSize, int threads, Consumer<List<Flight>> sink) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be positive");
+    }
+    LongAdder passengers = new LongAdder();
+    long batches = (count + batchSize - 1) / batchSize;
+    AtomicLong nextBatch = new AtomicLong();
+    Runnable worker =
+        () -> {
+          try {
+            for (long batch = nextBatch.getAndIncrement();
+                batch < batches;
+                batch = nextBatch.getAndIncrement()) {
+              List<Flight> flights =
+                  flights(batch * batchSize, Math.min(count, (batch + 1) * batchSize));
+              flights.forEach(flight -> passengers.add(flight.getPassengers().size()));
+              sink.accept(flights);
+            }
+          } catch (RuntimeException e) {
+            nextBatch.set(batches);
+            throw e;
+          }
+        };
+
+    List<Future<?>> workers = new ArrayList<>(threads);
+    try (ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads, Thread.ofPlatform().name("sample-data-", 0).factory())) {
+      for (int i = 0; i < threads; i++) {
+        workers.add(executor.submit(worker));
+      }
+      for (Future<?> running : workers) {
+        running.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Sample data generation failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      nextBatch.set(batches);
+      throw new IllegalStateException("Sample data generation interrupted", e);
+    }
+    return passengers.sum();
+  }
+
+  /** Generates flights {@code from} (inclusive) to {@code to} (exclusive). */
+  public List<Flight> flights(long from, long to) {
+    List<Flight> flights = new ArrayList<>((int) (to - from));
+    for (long index = from; index < to; index++) {
+      flights.add(flight(index));
+    }
+    return flights;
+  }
+
+  /** Generates flight {@code index}; the same index always gives the same flight. */
+  public Flight flight(long index) {
+    SplittableRandom random = new SplittableRandom(seed ^ index * 0x9E3779B97F4A7C15L);
+
+    Hub origin = HUBS.get(HUB_WEIGHTS.sample(random));
+    Hub destination;
+    do {
+      destination = HUBS.get(HUB_WEIGHTS.sample(random));
+    } while (destination == origin);
+
+    LocalDateTime departure =
+        start
+            .plusDays(random.nextInt(days))
+            .plusHours(HOUR_WEIGHTS.sample(random))
+            .plusMinutes(5L * random.nextInt(12));
+    Flight flight = new Flight();
+    flight.setFlightNumber(CARRIERS[random.nextInt(CARRIERS.length)] + (index + 1));
+    flight.setOrigin(origin.code());
+    flight.setDestination(destination.code());
+    flight.setScheduledDeparture(departure);
+    flight.setScheduledArrival(departure.plusMinutes(blockMinutes(origin, destination)));
+    flight.setPassengers(manifest(cabins[aircraftWeights.sample(random)], random));
+    return flight;
+  }
+
+  /** Fills a random load factor's worth of the cabin's seats, each taken by one passenger. */
+  private List<Passenger> manifest(SeatAssignment[] cabin, SplittableRandom random) {
+    double loadFactor = minLoadFactor + random.nextDouble() * (maxLoadFactor - minLoadFactor);
+    int count = (int) Math.round(cabin.length * loadFactor);
+    int[] seats = new int[cabin.length];
+    Arrays.setAll(seats, i -> i);
+    List<Passenger> passengers = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int pick = i + random.nextInt(cabin.length - i);
+      int seat = seats[pick];
+      seats[pick] = seats[i];
+      seats[i] = seat;
+      String name =
+          FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+              + " "
+              + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+      passengers.add(new Passenger(randomUuid(random), name, cabin[seat]));
+    }
+    return passengers;
+  }
+
+  /**
+   * Lays out the seats six abreast from the front, First class first, then Business, then Economy,
+   * each taking its share of the seats.
+   */
+  static SeatAssignment[] cabin(int seats, Map<SeetClass, Double> classShares) {
+    double total = classShares.values().stream().mapToDouble(Double::doubleValue).sum();
+    int first = (int) Math.round(seats * classShares.getOrDefault(SeetClass.First, 0.0) / total);
+    int business =
+        (int) Math.round(seats * classShares.getOrDefault(SeetClass.Business, 0.0) / total);
+    SeatAssignment[] cabin = new SeatAssignment[seats];
+    for (int seat = 0; seat < seats; seat++) {
+      SeetClass seatClass =
+          seat < first
+              ? SeetClass.First
+              : seat < first + business ? SeetClass.Business : SeetClass.Economy;
+      int row = seat / SEAT_LETTERS.length() + 1;
+      cabin[seat] =
+          SeatAssignment.of(
+              row + "" + SEAT_LETTERS.charAt(seat % SEAT_LETTERS.length()), seatClass);
+    }
+    return cabin;
+  }
+
+  /** Cruise time over the great-circle distance plus ground time, rounded to five minutes. */
+  static long blockMinutes(Hub origin, Hub destination) {
+    double lat1 = Math.toRadians(origin.latitude());
+    double lat2 = Math.toRadians(destination.latitude());
+    double dLat = lat2 - lat1;
+    double dLon = Math.toRadians(destination.longitude() - origin.longitude());
+    double h =
+        Math.pow(Math.sin(dLat / 2), 2)
+            + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(dLon / 2), 2);
+    double distance = 2 * 6371 * Math.asin(Math.sqrt(h));
+    return GROUND_MINUTES + 5 * Math.round(distance / CRUISE_SPEED / 5);
+  }
+
+  private static UUID randomUuid(SplittableRandom random) {
+    long mostSignificant = random.nextLong() & ~0xF000L | 0x4000L;
+    long leastSignificant = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+    return new UUID(mostSignificant, leastSignificant);
+  }
+
+  /** Parses {@code key=weight} pairs separated by commas, keeping their order. */
+  static Map<String, Double> parseWeights(String spec) {
+    Map<String, Double> weights = new LinkedHashMap<>();
+    for (String entry : spec.split(",")) {
+      String[] parts = entry.split("=");
+      double weight;
+      try {
+        weight = parts.length == 2 ? Double.parseDouble(parts[1].trim()) : -1;
+      } catch (NumberFormatException e) {
+        weight = -1;
+      }
+      if (weight <= 0 || parts[0].isBlank()) {
+        throw new IllegalArgumentException(
+            "Invalid distribution entry '" + entry.trim() + "' in '" + spec + "'");
+      }
+      weights.put(parts[0].trim(), weight);
+    }
+    return weights;
+  }
+
+  private static int seatCount(String seats) {
+    try {
+      int count = Integer.parseInt(seats);
+      if (count > 0) {
+        return count;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Invalid aircraft seat count '" + seats + "'");
+  }
+
+  private static SeetClass seatClass(String name) {
+    try {
+      return SeetClass.valueOf(name);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown seat class '" + name + "'");
+    }
+  }
+
+  /** A discrete distribution over indexes, sampled by searching its cumulative weights. */
+  private static final class Weights {
+
+    private final double[] cumulative;
+
+    Weights(double[] weights) {
+      cumulative = new double[weights.length];
+      double total = 0;
+      for (int i = 0; i < weights.length; i++) {
+        total += weights[i];
+        cumulative[i] = total;
+      }
+    }
+
+    int sample(SplittableRandom random) {
+      double point = random.nextDouble() * cumulative[cumulative.length - 1];
+      int index = Arrays.binarySearch(cumulative, point);
+      return index >= 0 ? index + 1 : -index - 1;
+    }
+  }
+}
@@ -1,8 +1,80 @@
 package com.bharat.airport.config;
 
+import com.bharat.airport.domain.repository.codec.FlightCodecProvider;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import com.bharat.airport.interfaces.web.timing.DatabaseCallListener;
+import com.mongodb.MongoClientSettings;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 
 @Configuration
 @EnableMongoAuditing
-public class MongoConfig {}
+public class MongoConfig {
+
+  /**
+   * Sizes the driver connection pool shared by the blocking and reactive clients. Every request
+   * thread that reaches Mongo needs a connection, so the pool caps how many of them talk to the
+   * database at once; the rest queue for at most {@code max-wait}.
+   */
+  @Bean
+  public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+      @Value("${airport.mongo.pool.max-size:100}") int maxSize,
+      @Value("${airport.mongo.pool.min-size:0}") int minSize,
+      @Value("${airport.mongo.pool.max-connecting:2}") int maxConnecting,
+      @Value("${airport.mongo.pool.max-wait:2m}") Duration maxWait) {
+    return settings ->
+        settings.applyToConnectionPoolSettings(
+            pool ->
+                pool.maxSize(maxSize)
+                    .minSize(minSize)
+                    .maxConnecting(maxConnecting)
+                    .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Puts the flight codecs ahead of the driver defaults, so collections read as {@code Flight}
+   * decode straight from BSON; see {@link FlightCodecProvider}.
+   */
+  @Bean
+  public MongoClientSettingsBuilderCustomizer flightCodecCustomizer() {
+    return settings ->
+        settings.codecRegistry(
+            CodecRegistries.fromRegistries(
+                CodecRegistries.fromProviders(new FlightCodecProvider()),
+                MongoClientSettings.getDefaultCodecRegistry()));
+  }
+
+  /**
+   * Writes seats and passenger ids in the current {@link StorageFormat} and reads older formats
+   * too. Shared by the blocking and reactive templates.
+   */
+  @Bean
+  public MongoCustomConversions mongoCustomConversions() {
+    return new MongoCustomConversions(StorageFormat.converters());
+  }
+
+  /** Counts the Mongo round trips of each request for its {@code Server-Timing} header. */
+  @Bean
+  public MongoClientSettingsBuilderCustomizer databaseCallListenerCustomizer() {
+    return settings -> settings.addCommandListener(new DatabaseCallListener());
+  }
+
+  /** Records commands slower than {@code airport.mongo.slow-query.threshold}; see there. */
+  @Bean
+  public MongoClientSettingsBuilderCustomizer slowQueryLogCustomizer(
+      SlowQueryLog slowQueryLog,
+      @Value("${airport.mongo.slow-query.enabled:true}") boolean enabled) {
+    return settings -> {
+      if (enabled) {
+        settings.addCommandListener(slowQueryLog);
+      }
+    };
+  }
+}
@@ -0,0 +1,51 @@
+package com.bharat.airport.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes declared on the mapped documents, such as the {@code @CompoundIndex}es on
+ * {@link com.bharat.airport.domain.model.Flight}, before the application starts serving queries.
+ * Creating an index that already exists is a no-op, so this is safe on every start.
+ */
+@Component
+@Slf4j
+public class MongoIndexInitializer {
+
+  private final MongoTemplate mongoTemplate;
+
+  public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @EventListener(ContextRefreshedEvent.class)
+  public void ensureIndexes() {
+    MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+        mongoTemplate.getConverter().getMappingContext();
+    IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+    for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+      if (!entity.isAnnotationPresent(Document.class)) {
+        continue;
+      }
+      IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+      resolver
+          .resolveIndexFor(entity.getType())
+          .forEach(
+              index -> {
+                indexOps.createIndex(index);
+                log.info("Ensured index {} on {}", index.getIndexKeys(), entity.getCollection());
+              });
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.bharat.airport.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Serves the reactive profile from Reactor Netty. Tomcat is on the classpath for the servlet stack
+ * and would otherwise be picked as the reactive server as well.
+ *
+ * <p>Controllers that still return plain values, such as {@code AirportController}, call blocking
+ * repositories. They are run on the application task executor so they never stall a Netty event
+ * loop.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+  private final AsyncTaskExecutor applicationTaskExecutor;
+
+  public ReactiveWebConfig(AsyncTaskExecutor applicationTaskExecutor) {
+    this.applicationTaskExecutor = applicationTaskExecutor;
+  }
+
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+
+  @Override
+  public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+    configurer.setExecutor(applicationTaskExecutor);
+  }
+}
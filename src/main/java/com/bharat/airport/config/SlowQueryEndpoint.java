@@ -0,0 +1,30 @@
+package com.bharat.airport.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/slowqueries} lists the worst Mongo command shapes and the recent slow
+ * commands recorded by {@link SlowQueryLog}; {@code DELETE} starts over, e.g. after an index
+ * change.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+  private final SlowQueryLog slowQueryLog;
+
+  @ReadOperation
+  public SlowQueryLog.Report slowQueries() {
+    return slowQueryLog.report();
+  }
+
+  @DeleteOperation
+  public void clear() {
+    slowQueryLog.clear();
+  }
+}
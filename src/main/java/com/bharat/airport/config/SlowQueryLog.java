@@ -0,0 +1,362 @@
+package com.bharat.airport.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs Mongo commands that take longer than {@code airport.mongo.slow-query.threshold} and keeps
+ * them for the {@code slowqueries} actuator endpoint, without turning on debug logging.
+ *
+ * <p>A command is recorded by its shape: command name, collection and the filter, sort, projection,
+ * pipeline or update with every literal value replaced by {@code "?"}, so the same query with
+ * different values counts once and no passenger data ends up in the log. The {@code top-shapes}
+ * shapes with the highest worst-case duration are kept with their count, mean and maximum, and the
+ * last {@code recent} slow commands are kept in a ring buffer.
+ *
+ * <p>The shape has to be taken when a command starts, since the driver only lends out the command
+ * document for the duration of the callback; commands under the threshold cost one small map entry
+ * while in flight.
+ *
+ * <p>Open cursors are remembered by id until they are exhausted or killed. A {@code getMore} is
+ * recorded under the shape of the query that opened its cursor, so a slow batch of a long stream
+ * counts against that query. A {@code getMore} on a cursor that waits for data, a change stream or
+ * a tailable find, takes up to its await time by design, e.g. every idle poll of the flight near
+ * cache, and is never recorded.
+ */
+@Component
+@Slf4j
+public class SlowQueryLog implements CommandListener {
+
+  static final String REDACTED = "?";
+
+  /** Command fields that describe what a command does, rather than how it is sent. */
+  private static final Set<String> SHAPE_FIELDS =
+      Set.of(
+          "filter",
+          "sort",
+          "projection",
+          "pipeline",
+          "query",
+          "key",
+          "update",
+          "updates",
+          "deletes",
+          "hint");
+
+  /** Fields whose values are field names or directions, not data. */
+  private static final Set<String> STRUCTURAL_FIELDS = Set.of("sort", "projection", "key", "hint");
+
+  /** Stands in for the shape of a cursor that waits for data. */
+  private static final String AWAITS_DATA = "";
+
+  /** Cursors beyond this many open ones are not remembered; their batches count as "getMore". */
+  static final int MAX_OPEN_CURSORS = 10_000;
+
+  private final Duration threshold;
+  private final long thresholdNanos;
+  private final int topShapes;
+  private final SlowQuery[] recent;
+  private final Map<Integer, Pending> inFlight = new ConcurrentHashMap<>();
+  private final Map<Long, String> openCursors = new ConcurrentHashMap<>();
+
+  private final Map<String, ShapeAccumulator> shapes = new HashMap<>();
+  private int nextRecent;
+  private long slowCommands;
+
+  public SlowQueryLog(
+      @Value("${airport.mongo.slow-query.threshold:100ms}") Duration threshold,
+      @Value("${airport.mongo.slow-query.top-shapes:20}") int topShapes,
+      @Value("${airport.mongo.slow-query.recent:100}") int recent) {
+    if (topShapes < 1 || recent < 1) {
+      throw new IllegalArgumentException("top-shapes and recent must be at least 1");
+    }
+    this.threshold = threshold;
+    this.thresholdNanos = threshold.toNanos();
+    this.topShapes = topShapes;
+    this.recent = new SlowQuery[recent];
+  }
+
+  @Override
+  public void commandStarted(CommandStartedEvent event) {
+    String commandName = event.getCommandName();
+    BsonDocument command = event.getCommand();
+    Pending pending;
+    if ("getMore".equals(commandName)) {
+      long cursorId = cursorId(command.get(commandName));
+      String opened = openCursors.get(cursorId);
+      if (AWAITS_DATA.equals(opened)) {
+        pending = new Pending(null, cursorId, false);
+      } else {
+        pending =
+            new Pending(opened == null ? commandName : commandName + ' ' + opened, cursorId, false);
+      }
+    } else {
+      if ("killCursors".equals(commandName)) {
+        command
+            .getArray("cursors", new BsonArray())
+            .forEach(cursor -> openCursors.remove(cursorId(cursor)));
+      }
+      pending = new Pending(shape(commandName, command), 0, awaitsData(commandName, command));
+    }
+    inFlight.put(event.getRequestId(), pending);
+  }
+
+  @Override
+  public void commandSucceeded(CommandSucceededEvent event) {
+    Pending pending = inFlight.remove(event.getRequestId());
+    if (pending == null) {
+      return;
+    }
+    BsonDocument cursor = event.getResponse().getDocument("cursor", null);
+    long cursorId = cursor == null ? 0 : cursorId(cursor.get("id"));
+    if (pending.cursorId() != 0) {
+      if (cursorId == 0) {
+        openCursors.remove(pending.cursorId());
+      }
+    } else if (cursorId != 0 && openCursors.size() < MAX_OPEN_CURSORS) {
+      openCursors.put(cursorId, pending.awaitsData() ? AWAITS_DATA : pending.shape());
+    }
+    long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+    if (pending.shape() != null && elapsed >= thresholdNanos) {
+      record(pending.shape(), elapsed, documents(event.getResponse()), false);
+    }
+  }
+
+  @Override
+  public void commandFailed(CommandFailedEvent event) {
+    Pending pending = inFlight.remove(event.getRequestId());
+    if (pending == null) {
+      return;
+    }
+    if (pending.cursorId() != 0) {
+      openCursors.remove(pending.cursorId());
+    }
+    long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+    if (pending.shape() != null && elapsed >= thresholdNanos) {
+      record(pending.shape(), elapsed, 0, true);
+    }
+  }
+
+  private synchronized void record(
+      String shape, long elapsedNanos, long documents, boolean failed) {
+    double millis = elapsedNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    log.warn(
+        "Slow Mongo command ({} ms, {} documents{}): {}",
+        String.format("%.1f", millis),
+        documents,
+        failed ? ", failed" : "",
+        shape);
+    slowCommands++;
+    recent[nextRecent] = new SlowQuery(Instant.now(), shape, millis, documents, failed);
+    nextRecent = (nextRecent + 1) % recent.length;
+
+    ShapeAccumulator accumulator = shapes.get(shape);
+    if (accumulator == null) {
+      if (shapes.size() >= topShapes) {
+        ShapeAccumulator least =
+            shapes.values().stream().min(Comparator.comparingLong(a -> a.maxNanos)).orElseThrow();
+        if (least.maxNanos >= elapsedNanos) {
+          return;
+        }
+        shapes.remove(least.shape);
+      }
+      accumulator = new ShapeAccumulator(shape);
+      shapes.put(shape, accumulator);
+    }
+    accumulator.add(elapsedNanos, documents);
+  }
+
+  /** The worst shapes, slowest first, and the recent slow commands, newest first. */
+  public synchronized Report report() {
+    List<ShapeStats> worst =
+        shapes.values().stream()
+            .sorted(Comparator.comparingLong((ShapeAccumulator a) -> a.maxNanos).reversed())
+            .map(ShapeAccumulator::stats)
+            .toList();
+    List<SlowQuery> latest = new ArrayList<>(recent.length);
+    for (int i = 1; i <= recent.length; i++) {
+      SlowQuery query = recent[Math.floorMod(nextRecent - i, recent.length)];
+      if (query == null) {
+        break;
+      }
+      latest.add(query);
+    }
+    return new Report(threshold.toMillis(), slowCommands, worst, latest);
+  }
+
+  public synchronized void clear() {
+    shapes.clear();
+    Arrays.fill(recent, null);
+    nextRecent = 0;
+    slowCommands = 0;
+  }
+
+  /** {@code find flights {"filter": {"origin": "?"}}}; commands without shape fields by name. */
+  static String shape(String commandName, BsonDocument command) {
+    StringBuilder shape = new StringBuilder(commandName);
+    BsonValue collection = command.get(commandName);
+    if (collection != null && collection.isString()) {
+      shape.append(' ').append(collection.asString().getValue());
+    }
+    BsonDocument fields = new BsonDocument();
+    for (Map.Entry<String, BsonValue> field : command.entrySet()) {
+      if (!field.getKey().equals(commandName) && SHAPE_FIELDS.contains(field.getKey())) {
+        fields.put(
+            field.getKey(),
+            STRUCTURAL_FIELDS.contains(field.getKey())
+                ? field.getValue()
+                : redact(field.getValue()));
+      }
+    }
+    if (!fields.isEmpty()) {
+      shape.append(' ').append(fields.toJson());
+    }
+    return shape.toString();
+  }
+
+  /** Keeps document keys and replaces values; array elements of the same shape collapse to one. */
+  static BsonValue redact(BsonValue value) {
+    if (value.isDocument()) {
+      BsonDocument redacted = new BsonDocument();
+      value.asDocument().forEach((key, nested) -> redacted.put(key, redact(nested)));
+      return redacted;
+    }
+    if (value.isArray()) {
+      Set<BsonValue> elements = new LinkedHashSet<>();
+      value.asArray().forEach(element -> elements.add(redact(element)));
+      return new BsonArray(new ArrayList<>(elements));
+    }
+    return new BsonString(REDACTED);
+  }
+
+  /**
+   * Whether the command opens a change stream or a tailable cursor, whose batches wait for data.
+   */
+  static boolean awaitsData(String commandName, BsonDocument command) {
+    if ("find".equals(commandName)) {
+      return command.getBoolean("tailable", BsonBoolean.FALSE).getValue();
+    }
+    if ("aggregate".equals(commandName)) {
+      BsonArray pipeline = command.getArray("pipeline", new BsonArray());
+      return !pipeline.isEmpty()
+          && pipeline.get(0).isDocument()
+          && pipeline.get(0).asDocument().containsKey("$changeStream");
+    }
+    return false;
+  }
+
+  private static long cursorId(BsonValue value) {
+    return value != null && value.isNumber() ? value.asNumber().longValue() : 0;
+  }
+
+  /** Documents a command returned, read or wrote, as far as its reply tells. */
+  static long documents(BsonDocument response) {
+    BsonDocument cursor = response.getDocument("cursor", null);
+    if (cursor != null) {
+      BsonArray batch = cursor.getArray("firstBatch", cursor.getArray("nextBatch", null));
+      return batch == null ? 0 : batch.size();
+    }
+    if (response.containsKey("value")) {
+      return response.get("value").isNull() ? 0 : 1;
+    }
+    BsonValue n = response.get("n");
+    return n != null && n.isNumber() ? n.asNumber().longValue() : 0;
+  }
+
+  /** One slow execution. */
+  @Getter
+  @AllArgsConstructor
+  public static class SlowQuery {
+    private Instant at;
+    private String shape;
+    private double durationMillis;
+    private long documents;
+    private boolean failed;
+  }
+
+  /** All slow executions of one shape. */
+  @Getter
+  @AllArgsConstructor
+  public static class ShapeStats {
+    private String shape;
+    private long count;
+    private double maxMillis;
+    private double meanMillis;
+    private long maxDocuments;
+    private Instant lastSeen;
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class Report {
+    private long thresholdMillis;
+
+    /** Slow commands since start or the last clear, including those no longer listed. */
+    private long slowCommands;
+
+    private List<ShapeStats> worst;
+    private List<SlowQuery> recent;
+  }
+
+  /**
+   * A command awaiting its reply: its shape, or null if it is not recorded, and for a {@code
+   * getMore} the cursor it reads.
+   */
+  private record Pending(String shape, long cursorId, boolean awaitsData) {}
+
+  private static final class ShapeAccumulator {
+    private final String shape;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long maxDocuments;
+    private Instant lastSeen;
+
+    ShapeAccumulator(String shape) {
+      this.shape = shape;
+    }
+
+    void add(long elapsedNanos, long documents) {
+      count++;
+      totalNanos += elapsedNanos;
+      maxNanos = Math.max(maxNanos, elapsedNanos);
+      maxDocuments = Math.max(maxDocuments, documents);
+      lastSeen = Instant.now();
+    }
+
+    ShapeStats stats() {
+      double nanosPerMilli = TimeUnit.MILLISECONDS.toNanos(1);
+      return new ShapeStats(
+          shape,
+          count,
+          maxNanos / nanosPerMilli,
+          totalNanos / nanosPerMilli / count,
+          maxDocuments,
+          lastSeen);
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package com.bharat.airport.domain.exception;
+
+public class FlightAlreadyExistsException extends RuntimeException {
+  public FlightAlreadyExistsException(String flightNumber) {
+    super("Flight already exists: " + flightNumber);
+  }
+}
@@ -11,7 +11,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Builder
@@ -22,7 +22,6 @@ import org.springframework.data.mongodb.core.mapping.Document;
 public class Airport {
   @Id
   @NotBlank(message = "Airport code is required")
-  @Indexed(unique = true)
   private String code;
 
   @NotBlank(message = "Airport name is required")
@@ -37,4 +36,6 @@ public class Airport {
   @LastModifiedDate private LocalDateTime updatedAt;
 
   @LastModifiedBy private String updatedBy;
+
+  @Version private Long version;
 }
@@ -1,14 +1,23 @@
 package com.bharat.airport.domain.model;
 
 import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import lombok.*;
+import org.springframework.data.annotation.AccessType;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @NoArgsConstructor
@@ -16,16 +25,28 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @Getter
 @Setter
 @Document(collection = "flights")
+@CompoundIndex(
+    name = "route_departure",
+    def = "{'origin': 1, 'destination': 1, 'scheduledDeparture': 1, '_id': 1}")
+@CompoundIndex(name = "departure", def = "{'scheduledDeparture': 1, '_id': 1}")
+@CompoundIndex(name = "destination_departure", def = "{'destination': 1, 'scheduledDeparture': 1}")
 public class Flight {
+  /**
+   * Airport codes are shared: every flight read or created holds the canonical instance of its
+   * origin and destination, so a large result set keeps one copy of each code.
+   */
+  private static final Interner<String> AIRPORT_CODES = new Interner<>(4096);
+
   @Id
   @NotBlank(message = "Flight number is required")
-  @Indexed(unique = true)
   private String flightNumber;
 
   @NotBlank(message = "Origin is required")
+  @AccessType(AccessType.Type.PROPERTY)
   private String origin;
 
   @NotBlank(message = "Destination is required")
+  @AccessType(AccessType.Type.PROPERTY)
   private String destination;
 
   @NotNull(message = "Scheduled departure is required")
@@ -34,8 +55,47 @@ public class Flight {
   @NotNull(message = "Scheduled arrival is required")
   private LocalDateTime scheduledArrival;
 
+  @Getter(AccessLevel.NONE)
   private List<Passenger> passengers = new ArrayList<>();
 
+  @Version private Long version;
+
+  /**
+   * Number of passengers on the flight when they are stored in manifest buckets instead of {@link
+   * #passengers}. Not set in embedded storage.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer passengerCount;
+
+  /**
+   * Seats held on the flight when passengers are stored in manifest buckets, so seat conflicts are
+   * still checked against this one document.
+   */
+  @JsonIgnore private List<SeatAssignment> bookedSeats;
+
+  /**
+   * Passenger slots taken on the flight when passengers are stored in manifest buckets. Unlike
+   * {@link #passengerCount} it never goes down, so every booking gets a slot of its own that
+   * decides its bucket.
+   */
+  @JsonIgnore private Integer passengerSlots;
+
+  /**
+   * Format the document was last written in; see {@link
+   * com.bharat.airport.domain.repository.codec.StorageFormat}. Null for documents written before
+   * formats were recorded.
+   */
+  @JsonIgnore private Integer storageFormat;
+
+  /**
+   * Seat occupancy index over {@link #passengers}. Not persisted; rebuilt lazily on first use after
+   * the document is loaded and kept in step by {@link #addPassenger} and {@link #removePassenger}.
+   */
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private Set<SeatAssignment> occupiedSeats;
+
   public Flight(
       String flightNumber,
       String origin,
@@ -44,8 +104,8 @@ public class Flight {
       LocalDateTime scheduledArrival) {
     validateTimes(scheduledDeparture, scheduledArrival);
     this.flightNumber = flightNumber;
-    this.origin = origin;
-    this.destination = destination;
+    this.origin = AIRPORT_CODES.intern(origin);
+    this.destination = AIRPORT_CODES.intern(destination);
     this.scheduledDeparture = scheduledDeparture;
     this.scheduledArrival = scheduledArrival;
     this.passengers = new ArrayList<>();
@@ -62,25 +122,72 @@ public class Flight {
     }
   }
 
+  public void setOrigin(String origin) {
+    this.origin = AIRPORT_CODES.intern(origin);
+  }
+
+  public void setDestination(String destination) {
+    this.destination = AIRPORT_CODES.intern(destination);
+  }
+
+  /**
+   * Read-only view of the manifest. Change it through {@link #setPassengers}, {@link #addPassenger}
+   * and {@link #removePassenger}, which keep the seat index in step.
+   */
+  public List<Passenger> getPassengers() {
+    return passengers == null ? null : Collections.unmodifiableList(passengers);
+  }
+
+  public void setPassengers(List<Passenger> passengers) {
+    this.passengers = passengers == null ? null : new ArrayList<>(passengers);
+    this.occupiedSeats = null;
+  }
+
   /** Business method to add passenger with seat validation */
   public void addPassenger(Passenger passenger) {
-    if (passenger.getSeatAssignment() != null) {
-      boolean seatTaken =
-          passengers.stream()
-              .anyMatch(
-                  p ->
-                      p.getSeatAssignment() != null
-                          && p.getSeatAssignment().equals(passenger.getSeatAssignment()));
-
-      if (seatTaken) {
-        throw new SeatAlreadyAssignedException(passenger.getSeatAssignment().getSeatNumber());
-      }
+    SeatAssignment seat = passenger.getSeatAssignment();
+    if (seat != null && !seatIndex().add(seat)) {
+      throw new SeatAlreadyAssignedException(seat.getSeatNumber());
     }
     this.passengers.add(passenger);
   }
 
   public boolean removePassenger(String passengerId) {
     if (passengerId == null) return false;
-    return passengers.removeIf(p -> p.getId() != null && p.getId().toString().equals(passengerId));
+    UUID id;
+    try {
+      id = UUID.fromString(passengerId);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    for (int i = 0; i < passengers.size(); i++) {
+      Passenger p = passengers.get(i);
+      if (id.equals(p.getId())) {
+        passengers.remove(i);
+        if (p.getSeatAssignment() != null && occupiedSeats != null) {
+          occupiedSeats.remove(p.getSeatAssignment());
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns true when no passenger on this flight holds the given seat. */
+  public boolean isSeatAvailable(SeatAssignment seat) {
+    return seat == null || !seatIndex().contains(seat);
+  }
+
+  private Set<SeatAssignment> seatIndex() {
+    if (occupiedSeats == null) {
+      Set<SeatAssignment> index = new HashSet<>(Math.max(16, passengers.size() * 2));
+      for (Passenger p : passengers) {
+        if (p.getSeatAssignment() != null) {
+          index.add(p.getSeatAssignment());
+        }
+      }
+      occupiedSeats = index;
+    }
+    return occupiedSeats;
   }
 }
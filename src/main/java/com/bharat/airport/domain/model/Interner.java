@@ -0,0 +1,37 @@
+package com.bharat.airport.domain.model;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed-size table of canonical instances of an immutable value type. Values are placed by hash
+ * code, one per slot, and a value hashing to an occupied slot replaces the one there, so the table
+ * never grows and values that are seldom read make room for the common ones. Interning is a cache:
+ * equal values are usually, not always, the same instance.
+ */
+public final class Interner<T> {
+
+  private final AtomicReferenceArray<T> slots;
+  private final int mask;
+
+  /** Creates a table of {@code size} slots, rounded up to a power of two. */
+  public Interner(int size) {
+    int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+  }
+
+  /** Returns the canonical instance equal to the value, or the value itself, which then is one. */
+  public T intern(T value) {
+    if (value == null) {
+      return null;
+    }
+    int hash = value.hashCode();
+    int slot = (hash ^ hash >>> 16) & mask;
+    T canonical = slots.getAcquire(slot);
+    if (canonical != null && canonical.equals(value)) {
+      return canonical;
+    }
+    slots.setRelease(slot, value);
+    return value;
+  }
+}
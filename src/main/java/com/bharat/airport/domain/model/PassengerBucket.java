@@ -0,0 +1,63 @@
+package com.bharat.airport.domain.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A fixed-size slice of a flight's passenger manifest, used when passengers are stored in buckets
+ * rather than embedded in the flight. Each booking takes the next passenger slot of the flight, and
+ * slot {@code n} belongs to the bucket with {@link #seq} {@code n / bucket-size}, so concurrent
+ * bookings agree on the bucket they write without reading it first.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "passengerBuckets")
+@CompoundIndex(name = "flight_bucket", def = "{'flightNumber': 1, '_id': 1}")
+@CompoundIndex(name = "flight_passenger", def = "{'flightNumber': 1, 'passengers._id': 1}")
+@CompoundIndex(
+    name = "flight_sequence",
+    def = "{'flightNumber': 1, 'seq': 1}",
+    unique = true,
+    partialFilter = "{'seq': {$exists: true}}")
+public class PassengerBucket {
+  @Id private String id;
+
+  private String flightNumber;
+
+  /**
+   * Position of the bucket among the flight's buckets, unique per flight. Null for buckets written
+   * before buckets were numbered.
+   */
+  private Integer seq;
+
+  private int count;
+
+  private List<Passenger> passengers = new ArrayList<>();
+
+  /**
+   * Format the bucket was written in; see {@link
+   * com.bharat.airport.domain.repository.codec.StorageFormat}. Null for buckets written before
+   * formats were recorded.
+   */
+  private Integer storageFormat;
+
+  public PassengerBucket(String flightNumber, List<Passenger> passengers) {
+    this(flightNumber, null, passengers);
+  }
+
+  public PassengerBucket(String flightNumber, Integer seq, List<Passenger> passengers) {
+    this.flightNumber = flightNumber;
+    this.seq = seq;
+    this.count = passengers.size();
+    this.passengers = new ArrayList<>(passengers);
+  }
+}
@@ -1,44 +1,59 @@
 package com.bharat.airport.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Objects;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Transient;
 
-public class SeatAssignment {
-  private String seatNumber;
-  private SeetClass seatClass; // e.g., Economy, Business, First
+/**
+ * A seat and its class. Immutable, so the same instance can be shared by every passenger and flight
+ * holding the seat: documents and requests are read through {@link #of}, which returns canonical
+ * instances.
+ */
+public final class SeatAssignment {
 
-  public SeatAssignment() {}
+  private static final Interner<SeatAssignment> CANONICAL = new Interner<>(4096);
+
+  private final String seatNumber;
+  private final SeetClass seatClass; // e.g., Economy, Business, First
+  @Transient private final int hash;
 
   public SeatAssignment(String seatNumber, SeetClass seatClass) {
     this.seatNumber = seatNumber;
     this.seatClass = seatClass;
+    this.hash = 31 * Objects.hashCode(seatNumber) + Objects.hashCode(seatClass);
   }
 
-  public String getSeatNumber() {
-    return seatNumber;
+  /** Returns the canonical instance of the seat. */
+  @JsonCreator
+  @PersistenceCreator
+  public static SeatAssignment of(
+      @JsonProperty("seatNumber") String seatNumber,
+      @JsonProperty("seatClass") SeetClass seatClass) {
+    return CANONICAL.intern(new SeatAssignment(seatNumber, seatClass));
   }
 
-  public void setSeatNumber(String seatNumber) {
-    this.seatNumber = seatNumber;
+  public String getSeatNumber() {
+    return seatNumber;
   }
 
   public SeetClass getSeatClass() {
     return seatClass;
   }
 
-  public void setSeatClass(SeetClass seatClass) {
-    this.seatClass = seatClass;
-  }
-
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     SeatAssignment that = (SeatAssignment) o;
-    return Objects.equals(seatNumber, that.seatNumber) && Objects.equals(seatClass, that.seatClass);
+    return hash == that.hash
+        && Objects.equals(seatNumber, that.seatNumber)
+        && Objects.equals(seatClass, that.seatClass);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(seatNumber, seatClass);
+    return hash;
   }
 }
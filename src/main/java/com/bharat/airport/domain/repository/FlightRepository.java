@@ -4,15 +4,24 @@ import com.bharat.airport.domain.model.Flight;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface FlightRepository extends MongoRepository<Flight, String> {
+public interface FlightRepository extends MongoRepository<Flight, String>, FlightRepositoryCustom {
+
+  /** Number of flights fetched per cursor round trip by the streaming finders. */
+  int STREAM_BATCH_SIZE = 100;
 
   Optional<Flight> findByFlightNumber(String flightNumber);
 
+  /** Reads only the origin and destination of a flight. */
+  @Query(value = "{'_id': ?0}", fields = "{'origin': 1, 'destination': 1}")
+  Optional<Flight> findRouteByFlightNumber(String flightNumber);
+
   List<Flight> findByOrigin(String origin);
 
   List<Flight> findByDestination(String destination);
@@ -22,4 +31,15 @@ public interface FlightRepository extends MongoRepository<Flight, String> {
 
   @Query("{'origin': ?0, 'destination': ?1}")
   List<Flight> findByRoute(String origin, String destination);
+
+  @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+  Stream<Flight> streamAllBy();
+
+  @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+  @Query("{'scheduledDeparture': {$gte: ?0, $lte: ?1}}")
+  Stream<Flight> streamFlightsByDepartureTimeRange(LocalDateTime start, LocalDateTime end);
+
+  @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+  @Query("{'origin': ?0, 'destination': ?1}")
+  Stream<Flight> streamByRoute(String origin, String destination);
 }
@@ -0,0 +1,89 @@
+package com.bharat.airport.domain.repository;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/** Flight persistence operations that are executed as single server-side updates */
+public interface FlightRepositoryCustom {
+
+  /**
+   * Returns the flight with its full passenger manifest, reassembled from the manifest buckets when
+   * passengers are stored in buckets.
+   */
+  Optional<Flight> findWithPassengers(String flightNumber);
+
+  /**
+   * Attaches the passengers kept in manifest buckets to flights read by the derived finders, which
+   * read only the flight documents. With embedded passengers the flights are returned as they are.
+   */
+  List<Flight> withPassengers(List<Flight> flights);
+
+  /**
+   * Attaches the passengers kept in manifest buckets to streamed flights, reading the buckets once
+   * per {@link FlightRepository#STREAM_BATCH_SIZE} flights. Closing the returned stream closes the
+   * given one.
+   */
+  Stream<Flight> withPassengers(Stream<Flight> flights);
+
+  /**
+   * Appends a passenger to the flight in one round trip. The push only applies when no passenger on
+   * the flight already holds the same seat, so concurrent bookings cannot double-assign a seat. The
+   * flight version is incremented so concurrent versioned saves detect the change.
+   *
+   * @return the flight's origin and destination, read by the same update
+   * @throws com.bharat.airport.domain.exception.FlightNotFoundException if the flight is missing
+   * @throws com.bharat.airport.domain.exception.SeatAlreadyAssignedException if the seat is taken
+   */
+  Flight pushPassenger(String flightNumber, Passenger passenger);
+
+  /**
+   * Appends several passengers to the flight with one $push $each, provided the flight is still at
+   * the expected version. Seats must already have been validated against that version.
+   *
+   * @throws org.springframework.dao.OptimisticLockingFailureException if the flight has changed
+   */
+  void pushPassengers(String flightNumber, Long expectedVersion, List<Passenger> passengers);
+
+  /**
+   * Removes a passenger from the flight with a single server-side pull on the passenger id.
+   *
+   * @return the flight's origin and destination, read by the same update, or empty if the flight
+   *     has no such passenger
+   * @throws com.bharat.airport.domain.exception.FlightNotFoundException if the flight is missing
+   */
+  Optional<Flight> pullPassenger(String flightNumber, UUID passengerId);
+
+  /**
+   * Inserts the flights with one unordered bulk write. A failing document does not stop the rest of
+   * the batch from being written.
+   *
+   * @return error messages keyed by the position of the failed flight in the given list
+   */
+  Map<Integer, String> insertUnordered(List<Flight> flights);
+
+  /**
+   * Inserts new flights together with their passengers, stored the way {@code
+   * airport.passengers.storage} says, in batched inserts rather than one write per flight. Meant
+   * for bulk loads: a flight that already exists fails the insert.
+   */
+  void insertWithPassengers(List<Flight> flights);
+
+  /**
+   * Returns every flight matching the search in (scheduled departure, flight number) order. Only
+   * the search's fields are read from the database when it names any. Passengers kept in manifest
+   * buckets are attached when the search reads them.
+   */
+  List<Flight> find(FlightSearch search);
+
+  /**
+   * Returns the next flights after the search position in (scheduled departure, flight number)
+   * order. Seeking past the previous page instead of skipping over it keeps every page as cheap as
+   * the first.
+   */
+  List<Flight> findPage(FlightSearch search, int limit);
+}
@@ -0,0 +1,364 @@
+package com.bharat.airport.domain.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.result.UpdateResult;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/** MongoTemplate backed implementation of {@link FlightRepositoryCustom} */
+public class FlightRepositoryCustomImpl implements FlightRepositoryCustom {
+
+  private static final int DUPLICATE_KEY = 11000;
+
+  private final MongoTemplate mongoTemplate;
+
+  /** Present when passengers are stored in manifest buckets rather than embedded. */
+  private final PassengerBucketStore bucketStore;
+
+  public FlightRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+    this(mongoTemplate, Optional.empty());
+  }
+
+  @Autowired
+  public FlightRepositoryCustomImpl(
+      MongoTemplate mongoTemplate, Optional<PassengerBucketStore> bucketStore) {
+    this.mongoTemplate = mongoTemplate;
+    this.bucketStore = bucketStore.orElse(null);
+  }
+
+  @Override
+  public Optional<Flight> findWithPassengers(String flightNumber) {
+    if (bucketStore != null) {
+      return bucketStore.findWithPassengers(flightNumber);
+    }
+    return read(query(where("flightNumber").is(flightNumber)).limit(1)).stream().findFirst();
+  }
+
+  @Override
+  public List<Flight> withPassengers(List<Flight> flights) {
+    if (bucketStore != null) {
+      bucketStore.attachPassengers(flights);
+    }
+    return flights;
+  }
+
+  @Override
+  public Stream<Flight> withPassengers(Stream<Flight> flights) {
+    if (bucketStore == null) {
+      return flights;
+    }
+    Iterator<Flight> source = flights.iterator();
+    Iterator<List<Flight>> batches =
+        new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return source.hasNext();
+          }
+
+          @Override
+          public List<Flight> next() {
+            List<Flight> batch = new ArrayList<>(FlightRepository.STREAM_BATCH_SIZE);
+            while (batch.size() < FlightRepository.STREAM_BATCH_SIZE && source.hasNext()) {
+              batch.add(source.next());
+            }
+            bucketStore.attachPassengers(batch);
+            return batch;
+          }
+        };
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false)
+        .flatMap(List::stream)
+        .onClose(flights::close);
+  }
+
+  @Override
+  public Flight pushPassenger(String flightNumber, Passenger passenger) {
+    if (bucketStore != null) {
+      return bucketStore.pushPassenger(flightNumber, passenger);
+    }
+    SeatAssignment seat = passenger.getSeatAssignment();
+    Criteria criteria = where("flightNumber").is(flightNumber);
+    if (seat != null) {
+      criteria.norOperator(where("passengers").elemMatch(seatMatches(seat)));
+    }
+
+    Flight route =
+        mongoTemplate.findAndModify(
+            routeOf(query(criteria)),
+            new Update().push("passengers", passenger).inc("version", 1),
+            Flight.class);
+
+    if (route == null) {
+      if (seat == null || !flightExists(flightNumber)) {
+        throw new FlightNotFoundException(flightNumber);
+      }
+      throw new SeatAlreadyAssignedException(seat.getSeatNumber());
+    }
+    return route;
+  }
+
+  @Override
+  public void pushPassengers(
+      String flightNumber, Long expectedVersion, List<Passenger> passengers) {
+    if (bucketStore != null) {
+      bucketStore.pushPassengers(flightNumber, expectedVersion, passengers);
+      return;
+    }
+    Update update = new Update().inc("version", 1);
+    update.push("passengers").each(passengers.toArray());
+
+    UpdateResult result =
+        mongoTemplate.updateFirst(
+            query(where("flightNumber").is(flightNumber).and("version").is(expectedVersion)),
+            update,
+            Flight.class);
+
+    if (result.getMatchedCount() == 0) {
+      throw new OptimisticLockingFailureException(
+          "Flight " + flightNumber + " changed since version " + expectedVersion);
+    }
+  }
+
+  @Override
+  public List<Flight> find(FlightSearch search) {
+    return read(toQuery(search));
+  }
+
+  @Override
+  public List<Flight> findPage(FlightSearch search, int limit) {
+    return read(toQuery(search).limit(limit));
+  }
+
+  /**
+   * Runs the query against the flights collection read as {@code Flight}, so the client's {@link
+   * com.bharat.airport.domain.repository.codec.FlightCodecProvider flight codec} decodes each
+   * document straight from BSON. Field names and values are mapped as {@link MongoTemplate#find}
+   * would map them. Whole flights read in an older {@link StorageFormat} are rewritten in the
+   * current one. With bucketed storage, flights read with their passengers get them from the
+   * buckets.
+   */
+  List<Flight> read(Query query) {
+    MongoConverter converter = mongoTemplate.getConverter();
+    MongoPersistentEntity<?> entity =
+        converter.getMappingContext().getRequiredPersistentEntity(Flight.class);
+    QueryMapper mapper = new QueryMapper(converter);
+    Document filter = mapper.getMappedObject(query.getQueryObject(), entity);
+    Document sort = mapper.getMappedSort(query.getSortObject(), entity);
+    Document fields = mapper.getMappedFields(query.getFieldsObject(), entity);
+
+    List<Flight> flights =
+        mongoTemplate.execute(
+            Flight.class,
+            collection -> {
+              FindIterable<Flight> found =
+                  collection.withDocumentClass(Flight.class).find(filter).sort(sort);
+              if (!fields.isEmpty()) {
+                found.projection(fields);
+              }
+              if (query.isLimited()) {
+                found.limit(query.getLimit());
+              }
+              return found.into(new ArrayList<>());
+            });
+    if (bucketStore == null) {
+      if (fields.isEmpty()) {
+        migrate(flights);
+      }
+    } else if (fields.isEmpty() || fields.containsKey("passengers")) {
+      bucketStore.attachPassengers(flights);
+    }
+    return flights;
+  }
+
+  /**
+   * Rewrites the passengers of the flights still in an older {@link StorageFormat} in the current
+   * one, with one unordered bulk write for the whole read. Each update only applies if the flight
+   * is unchanged since it was read, and leaves the version alone since the passengers are the same;
+   * a flight changed in between is migrated on a later read.
+   */
+  private void migrate(List<Flight> flights) {
+    BulkOperations bulk = null;
+    for (Flight flight : flights) {
+      if (isOutdated(flight.getStorageFormat())) {
+        if (bulk == null) {
+          bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Flight.class);
+        }
+        bulk.updateOne(
+            query(
+                where("flightNumber")
+                    .is(flight.getFlightNumber())
+                    .and("version")
+                    .is(flight.getVersion())),
+            new Update()
+                .set("passengers", flight.getPassengers())
+                .set(StorageFormat.FIELD, StorageFormat.CURRENT));
+      }
+    }
+    if (bulk != null) {
+      bulk.execute();
+    }
+  }
+
+  static boolean isOutdated(Integer storageFormat) {
+    return storageFormat == null || storageFormat < StorageFormat.CURRENT;
+  }
+
+  private static Query toQuery(FlightSearch search) {
+    List<Criteria> criteria = new ArrayList<>();
+    if (search.getFlightNumber() != null) {
+      criteria.add(where("flightNumber").is(search.getFlightNumber()));
+    }
+    if (search.getOrigin() != null) {
+      criteria.add(where("origin").is(search.getOrigin()));
+    }
+    if (search.getDestination() != null) {
+      criteria.add(where("destination").is(search.getDestination()));
+    }
+    if (search.getDepartureFrom() != null) {
+      criteria.add(where("scheduledDeparture").gte(search.getDepartureFrom()));
+    }
+    if (search.getDepartureTo() != null) {
+      criteria.add(where("scheduledDeparture").lte(search.getDepartureTo()));
+    }
+    if (search.getAfterDeparture() != null) {
+      criteria.add(
+          new Criteria()
+              .orOperator(
+                  where("scheduledDeparture").gt(search.getAfterDeparture()),
+                  where("scheduledDeparture")
+                      .is(search.getAfterDeparture())
+                      .and("flightNumber")
+                      .gt(search.getAfterFlightNumber())));
+    }
+
+    Query query =
+        new Query(criteria.isEmpty() ? new Criteria() : new Criteria().andOperator(criteria))
+            .with(Sort.by(Sort.Direction.ASC, "scheduledDeparture", "flightNumber"));
+    if (search.getFields() != null) {
+      query.fields().include(search.getFields().toArray(String[]::new));
+    }
+    return query;
+  }
+
+  @Override
+  public Optional<Flight> pullPassenger(String flightNumber, UUID passengerId) {
+    if (bucketStore != null) {
+      return bucketStore.pullPassenger(flightNumber, passengerId);
+    }
+    Flight route =
+        mongoTemplate.findAndModify(
+            routeOf(
+                query(
+                    where("flightNumber")
+                        .is(flightNumber)
+                        .and("passengers.id")
+                        .in(ids(passengerId)))),
+            new Update().pull("passengers", idIn(passengerId)).inc("version", 1),
+            Flight.class);
+
+    if (route == null && !flightExists(flightNumber)) {
+      throw new FlightNotFoundException(flightNumber);
+    }
+    return Optional.ofNullable(route);
+  }
+
+  @Override
+  public Map<Integer, String> insertUnordered(List<Flight> flights) {
+    if (flights.isEmpty()) {
+      return Map.of();
+    }
+    try {
+      mongoTemplate.bulkOps(BulkMode.UNORDERED, Flight.class).insert(flights).execute();
+      return Map.of();
+    } catch (BulkOperationException e) {
+      Map<Integer, String> failures = new HashMap<>();
+      for (BulkWriteError error : e.getErrors()) {
+        String message =
+            error.getCode() == DUPLICATE_KEY
+                ? "Flight already exists: " + flights.get(error.getIndex()).getFlightNumber()
+                : error.getMessage();
+        failures.put(error.getIndex(), message);
+      }
+      return failures;
+    }
+  }
+
+  @Override
+  public void insertWithPassengers(List<Flight> flights) {
+    if (flights.isEmpty()) {
+      return;
+    }
+    if (bucketStore != null) {
+      bucketStore.insertWithPassengers(flights);
+      return;
+    }
+    mongoTemplate.insert(flights, Flight.class);
+  }
+
+  private boolean flightExists(String flightNumber) {
+    return mongoTemplate.exists(query(where("flightNumber").is(flightNumber)), Flight.class);
+  }
+
+  /**
+   * Limits the flight returned by a passenger update to its origin and destination, which is all
+   * callers need to invalidate the cached route.
+   */
+  static Query routeOf(Query query) {
+    query.fields().include("origin", "destination");
+    return query;
+  }
+
+  /** Matches a passenger holding the seat, stored in the current or an older format. */
+  static Criteria seatMatches(SeatAssignment seat) {
+    return new Criteria()
+        .orOperator(
+            where("seatAssignment").is(seat),
+            where("seatAssignment.seatNumber")
+                .is(seat.getSeatNumber())
+                .and("seatAssignment.seatClass")
+                .is(seat.getSeatClass()));
+  }
+
+  /** The stored values of a passenger id in the current and older formats. */
+  static List<?> ids(UUID passengerId) {
+    return StorageFormat.passengerIdValues(passengerId);
+  }
+
+  /** A {@code $pull} condition for the passenger with the id, in any format. */
+  static Document idIn(UUID passengerId) {
+    return new Document("_id", new Document("$in", ids(passengerId)));
+  }
+}
@@ -0,0 +1,36 @@
+package com.bharat.airport.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Filters and seek position for a page of flights ordered by scheduled departure, then flight
+ * number. Unset filters match every flight; an unset position starts at the first flight.
+ */
+@Builder(toBuilder = true)
+@Getter
+public class FlightSearch {
+  private String flightNumber;
+  private String origin;
+  private String destination;
+  private LocalDateTime departureFrom;
+  private LocalDateTime departureTo;
+
+  /** Scheduled departure of the last flight on the previous page. */
+  private LocalDateTime afterDeparture;
+
+  /** Flight number of the last flight on the previous page. */
+  private String afterFlightNumber;
+
+  /**
+   * Flight properties to read from the database, or null to read whole documents. Leaving out
+   * {@code passengers} keeps the passenger list off the wire and out of memory.
+   */
+  private Set<String> fields;
+
+  public FlightSearch after(LocalDateTime departure, String flightNumber) {
+    return toBuilder().afterDeparture(departure).afterFlightNumber(flightNumber).build();
+  }
+}
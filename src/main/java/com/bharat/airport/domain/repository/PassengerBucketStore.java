@@ -0,0 +1,407 @@
+package com.bharat.airport.domain.repository;
+
+import static com.bharat.airport.domain.repository.FlightRepositoryCustomImpl.idIn;
+import static com.bharat.airport.domain.repository.FlightRepositoryCustomImpl.ids;
+import static com.bharat.airport.domain.repository.FlightRepositoryCustomImpl.isOutdated;
+import static com.bharat.airport.domain.repository.FlightRepositoryCustomImpl.routeOf;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.PassengerBucket;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Passenger storage in fixed-size manifest buckets, enabled with {@code
+ * airport.passengers.storage=bucketed}.
+ *
+ * <p>Passengers live in {@link PassengerBucket} documents of at most {@code bucket-size}
+ * passengers. The flight document keeps only the passenger count and the booked seats, so a booking
+ * writes two bounded documents however large the manifest grows. The seat is claimed on the flight
+ * first, which keeps seat conflicts atomic; if the bucket write then fails the seat is released
+ * again. The claim also takes the flight's next passenger slots, which name the bucket to write, so
+ * concurrent first bookings share one bucket instead of each creating their own. Slots are never
+ * given back, so room freed by a removal is not reused.
+ *
+ * <p>Saving a flight never writes its passengers, and deleting a flight deletes its buckets.
+ * Passenger changes go through the push and pull operations only. Reading a flight with its
+ * passengers rewrites the flight and any bucket still in an older {@link StorageFormat}.
+ */
+@Component
+@ConditionalOnProperty(name = "airport.passengers.storage", havingValue = "bucketed")
+@Slf4j
+public class PassengerBucketStore extends AbstractMongoEventListener<Flight> {
+
+  static final String PASSENGER_COUNT = "passengerCount";
+  static final String BOOKED_SEATS = "bookedSeats";
+  static final String PASSENGER_SLOTS = "passengerSlots";
+
+  /** Flights whose passengers are read with one bucket query. */
+  static final int FLIGHTS_PER_READ = 100;
+
+  private final MongoTemplate mongoTemplate;
+  private final int bucketSize;
+
+  public PassengerBucketStore(
+      MongoTemplate mongoTemplate,
+      Environment environment,
+      @Value("${airport.passengers.bucket-size:200}") int bucketSize,
+      @Value("${airport.cache.flight-near-cache.enabled:false}") boolean nearCacheEnabled) {
+    if (bucketSize < 1) {
+      throw new IllegalArgumentException("airport.passengers.bucket-size must be positive");
+    }
+    if (nearCacheEnabled || environment.matchesProfiles("reactive")) {
+      throw new IllegalStateException(
+          "Bucketed passenger storage is not supported by the flight near cache or the reactive"
+              + " stack");
+    }
+    this.mongoTemplate = mongoTemplate;
+    this.bucketSize = bucketSize;
+  }
+
+  /**
+   * Claims the seat and the next passenger slot on the flight, then appends the passenger to the
+   * slot's bucket.
+   *
+   * @return the flight's origin and destination, read by the claim
+   */
+  public Flight pushPassenger(String flightNumber, Passenger passenger) {
+    SeatAssignment seat = passenger.getSeatAssignment();
+    Criteria criteria = where("flightNumber").is(flightNumber);
+    Update claim = new Update().inc(PASSENGER_COUNT, 1).inc(PASSENGER_SLOTS, 1).inc("version", 1);
+    if (seat != null) {
+      criteria.norOperator(
+          where(BOOKED_SEATS).is(seat), where(BOOKED_SEATS).elemMatch(seatMatches(seat)));
+      claim.push(BOOKED_SEATS, seat);
+    }
+
+    Query claimQuery = routeOf(query(criteria));
+    claimQuery.fields().include(PASSENGER_SLOTS);
+    Flight route = mongoTemplate.findAndModify(claimQuery, claim, Flight.class);
+    if (route == null) {
+      if (seat == null || !flightExists(flightNumber)) {
+        throw new FlightNotFoundException(flightNumber);
+      }
+      throw new SeatAlreadyAssignedException(seat.getSeatNumber());
+    }
+
+    try {
+      append(flightNumber, slotsOf(route) / bucketSize, List.of(passenger));
+    } catch (RuntimeException e) {
+      release(flightNumber, seatsOf(List.of(passenger)), 1);
+      throw e;
+    }
+    return route;
+  }
+
+  /**
+   * Claims the seats and passenger slots on the flight at the expected version, then appends the
+   * passengers to the buckets of their slots with one upsert per bucket.
+   */
+  public void pushPassengers(
+      String flightNumber, Long expectedVersion, List<Passenger> passengers) {
+    List<SeatAssignment> seats = seatsOf(passengers);
+    Update claim =
+        new Update()
+            .inc(PASSENGER_COUNT, passengers.size())
+            .inc(PASSENGER_SLOTS, passengers.size())
+            .inc("version", 1);
+    if (!seats.isEmpty()) {
+      claim.push(BOOKED_SEATS).each(seats.toArray());
+    }
+
+    Query claimQuery =
+        query(where("flightNumber").is(flightNumber).and("version").is(expectedVersion));
+    claimQuery.fields().include(PASSENGER_SLOTS);
+    Flight claimed = mongoTemplate.findAndModify(claimQuery, claim, Flight.class);
+    if (claimed == null) {
+      throw new OptimisticLockingFailureException(
+          "Flight " + flightNumber + " changed since version " + expectedVersion);
+    }
+
+    try {
+      int first = slotsOf(claimed);
+      for (int from = 0; from < passengers.size(); ) {
+        int seq = (first + from) / bucketSize;
+        int to = Math.min(passengers.size(), (seq + 1) * bucketSize - first);
+        append(flightNumber, seq, passengers.subList(from, to));
+        from = to;
+      }
+    } catch (RuntimeException e) {
+      release(flightNumber, seats, passengers.size());
+      throw e;
+    }
+  }
+
+  /**
+   * Inserts new flights with their passenger counts and booked seats, then their passengers'
+   * buckets, each with one batched insert.
+   */
+  public void insertWithPassengers(List<Flight> flights) {
+    List<PassengerBucket> buckets = new ArrayList<>();
+    for (Flight flight : flights) {
+      flight.setPassengerCount(flight.getPassengers().size());
+      flight.setPassengerSlots(flight.getPassengers().size());
+      flight.setBookedSeats(seatsOf(flight.getPassengers()));
+      buckets.addAll(bucketsOf(flight.getFlightNumber(), flight.getPassengers()));
+    }
+    mongoTemplate.insert(flights, Flight.class);
+    if (!buckets.isEmpty()) {
+      mongoTemplate.insert(buckets, PassengerBucket.class);
+    }
+  }
+
+  /**
+   * Pulls the passenger from its bucket, then releases the passenger's seat on the flight.
+   *
+   * @return the flight's origin and destination, read by the release, or empty if no bucket holds
+   *     the passenger
+   */
+  public Optional<Flight> pullPassenger(String flightNumber, UUID passengerId) {
+    Query query =
+        query(where("flightNumber").is(flightNumber).and("passengers.id").in(ids(passengerId)));
+    query.fields().elemMatch("passengers", where("_id").in(ids(passengerId)));
+
+    PassengerBucket bucket =
+        mongoTemplate.findAndModify(
+            query,
+            new Update().pull("passengers", idIn(passengerId)).inc("count", -1),
+            PassengerBucket.class);
+
+    if (bucket == null) {
+      if (!flightExists(flightNumber)) {
+        throw new FlightNotFoundException(flightNumber);
+      }
+      return Optional.empty();
+    }
+    return Optional.ofNullable(release(flightNumber, seatsOf(bucket.getPassengers()), 1));
+  }
+
+  /**
+   * Reads the flight and attaches the passengers of its buckets in bucket order. The flight and
+   * buckets in an older {@link StorageFormat} are migrated on the way.
+   */
+  public Optional<Flight> findWithPassengers(String flightNumber) {
+    Flight flight = mongoTemplate.findById(flightNumber, Flight.class);
+    if (flight == null) {
+      return Optional.empty();
+    }
+    List<Passenger> passengers = new ArrayList<>();
+    for (Document stored :
+        mongoTemplate.find(
+            query(where("flightNumber").is(flightNumber)).with(Sort.by("_id")),
+            Document.class,
+            mongoTemplate.getCollectionName(PassengerBucket.class))) {
+      PassengerBucket bucket = mongoTemplate.getConverter().read(PassengerBucket.class, stored);
+      passengers.addAll(bucket.getPassengers());
+      if (isOutdated(bucket.getStorageFormat())) {
+        migrate(stored, bucket);
+      }
+    }
+    if (isOutdated(flight.getStorageFormat())) {
+      migrate(flight);
+    }
+    flight.setPassengers(passengers);
+    return Optional.of(flight);
+  }
+
+  /**
+   * Attaches the passengers of their buckets to flights read without them, with one bucket query
+   * per {@value #FLIGHTS_PER_READ} flights. Flights without passengers are skipped, and passengers
+   * are listed bucket by bucket as by {@link #findWithPassengers}.
+   */
+  public void attachPassengers(List<Flight> flights) {
+    for (int from = 0; from < flights.size(); from += FLIGHTS_PER_READ) {
+      List<Flight> batch = flights.subList(from, Math.min(from + FLIGHTS_PER_READ, flights.size()));
+      Map<String, List<Passenger>> manifests = new HashMap<>();
+      for (Flight flight : batch) {
+        if (flight.getPassengerCount() != null && flight.getPassengerCount() > 0) {
+          manifests.put(flight.getFlightNumber(), new ArrayList<>(flight.getPassengerCount()));
+        }
+      }
+      if (manifests.isEmpty()) {
+        continue;
+      }
+      for (PassengerBucket bucket :
+          mongoTemplate.find(
+              query(where("flightNumber").in(manifests.keySet()))
+                  .with(Sort.by("flightNumber", "_id")),
+              PassengerBucket.class)) {
+        manifests.get(bucket.getFlightNumber()).addAll(bucket.getPassengers());
+      }
+      for (Flight flight : batch) {
+        List<Passenger> passengers = manifests.get(flight.getFlightNumber());
+        if (passengers != null) {
+          flight.setPassengers(passengers);
+        }
+      }
+    }
+  }
+
+  /**
+   * Keeps passengers out of saved flight documents. A flight whose passengers no longer match its
+   * stored count was changed in memory, which this storage cannot persist with a save.
+   */
+  @Override
+  public void onBeforeSave(BeforeSaveEvent<Flight> event) {
+    Flight flight = event.getSource();
+    int stored = flight.getPassengerCount() == null ? 0 : flight.getPassengerCount();
+    if (!flight.getPassengers().isEmpty() && flight.getPassengers().size() != stored) {
+      throw new IllegalStateException(
+          "Passengers of flight "
+              + flight.getFlightNumber()
+              + " are stored in buckets; add and remove them through the passenger operations");
+    }
+    Document document = event.getDocument();
+    if (document != null) {
+      document.remove("passengers");
+      document.putIfAbsent(PASSENGER_COUNT, 0);
+    }
+  }
+
+  /** Deletes the buckets of flights deleted by flight number, or of all flights. */
+  @Override
+  public void onAfterDelete(AfterDeleteEvent<Flight> event) {
+    Document filter = event.getDocument();
+    if (filter == null) {
+      return;
+    }
+    Object flightNumber =
+        filter.containsKey("_id") ? filter.get("_id") : filter.get("flightNumber");
+    if (filter.isEmpty()) {
+      mongoTemplate.remove(new Query(), PassengerBucket.class);
+    } else if (flightNumber != null) {
+      mongoTemplate.remove(
+          new BasicQuery(new Document("flightNumber", flightNumber)), PassengerBucket.class);
+    } else {
+      log.warn("Passenger buckets not deleted for flights matching {}", filter);
+    }
+  }
+
+  /**
+   * Rewrites the bucket's passengers in the current format, provided they are still exactly as
+   * read. Buckets carry no version, so a bucket changed in between is left for a later read.
+   */
+  private void migrate(Document stored, PassengerBucket bucket) {
+    mongoTemplate.updateFirst(
+        new BasicQuery(
+            new Document("_id", stored.get("_id")).append("passengers", stored.get("passengers"))),
+        new Update()
+            .set("passengers", bucket.getPassengers())
+            .set(StorageFormat.FIELD, StorageFormat.CURRENT),
+        PassengerBucket.class);
+  }
+
+  /** Rewrites the flight's booked seats in the current format if the flight is unchanged. */
+  private void migrate(Flight flight) {
+    Update update = new Update().set(StorageFormat.FIELD, StorageFormat.CURRENT);
+    if (flight.getBookedSeats() != null) {
+      update.set(BOOKED_SEATS, flight.getBookedSeats());
+    }
+    mongoTemplate.updateFirst(
+        query(
+            where("flightNumber")
+                .is(flight.getFlightNumber())
+                .and("version")
+                .is(flight.getVersion())),
+        update,
+        Flight.class);
+  }
+
+  /**
+   * Releases the seats in both the current and the older format, and returns the flight's origin
+   * and destination.
+   */
+  private Flight release(String flightNumber, List<SeatAssignment> seats, int passengers) {
+    Update update = new Update().inc(PASSENGER_COUNT, -passengers).inc("version", 1);
+    if (!seats.isEmpty()) {
+      List<Object> stored = new ArrayList<>(seats.size() * 2);
+      for (SeatAssignment seat : seats) {
+        stored.add(seat);
+        stored.add(StorageFormat.legacySeat(seat));
+      }
+      update.pullAll(BOOKED_SEATS, stored.toArray());
+    }
+    return mongoTemplate.findAndModify(
+        routeOf(query(where("flightNumber").is(flightNumber))), update, Flight.class);
+  }
+
+  /**
+   * Appends the passengers to the flight's bucket with the sequence number, creating the bucket if
+   * it does not exist yet. An upsert that loses the race to create the bucket fails on the unique
+   * sequence index and is retried once, which then finds the bucket.
+   */
+  private void append(String flightNumber, int seq, List<Passenger> passengers) {
+    Query query = query(where("flightNumber").is(flightNumber).and("seq").is(seq));
+    Update update =
+        new Update()
+            .inc("count", passengers.size())
+            .setOnInsert(StorageFormat.FIELD, StorageFormat.CURRENT);
+    update.push("passengers").each(passengers.toArray());
+    try {
+      mongoTemplate.upsert(query, update, PassengerBucket.class);
+    } catch (DuplicateKeyException e) {
+      mongoTemplate.upsert(query, update, PassengerBucket.class);
+    }
+  }
+
+  /** Passenger slots taken before the claim, or none for flights written before slots existed. */
+  private static int slotsOf(Flight claimed) {
+    return claimed.getPassengerSlots() == null ? 0 : claimed.getPassengerSlots();
+  }
+
+  private boolean flightExists(String flightNumber) {
+    return mongoTemplate.exists(query(where("flightNumber").is(flightNumber)), Flight.class);
+  }
+
+  private List<PassengerBucket> bucketsOf(String flightNumber, List<Passenger> passengers) {
+    List<PassengerBucket> buckets = new ArrayList<>();
+    for (int from = 0; from < passengers.size(); from += bucketSize) {
+      int to = Math.min(from + bucketSize, passengers.size());
+      buckets.add(
+          new PassengerBucket(flightNumber, from / bucketSize, passengers.subList(from, to)));
+    }
+    return buckets;
+  }
+
+  private static List<SeatAssignment> seatsOf(List<Passenger> passengers) {
+    List<SeatAssignment> seats = new ArrayList<>(passengers.size());
+    for (Passenger passenger : passengers) {
+      if (passenger.getSeatAssignment() != null) {
+        seats.add(passenger.getSeatAssignment());
+      }
+    }
+    return seats;
+  }
+
+  private static Criteria seatMatches(SeatAssignment seat) {
+    return where("seatNumber").is(seat.getSeatNumber()).and("seatClass").is(seat.getSeatClass());
+  }
+}
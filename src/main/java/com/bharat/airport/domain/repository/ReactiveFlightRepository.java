@@ -0,0 +1,30 @@
+package com.bharat.airport.domain.repository;
+
+import com.bharat.airport.domain.model.Flight;
+import java.time.LocalDateTime;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link FlightRepository} used by the reactive profile. Finders emit
+ * flights as the cursor yields them and only fetch the next batch once the subscriber has asked for
+ * more, so a slow client holds back the database instead of buffering in memory.
+ */
+@Repository
+public interface ReactiveFlightRepository
+    extends ReactiveMongoRepository<Flight, String>, ReactiveFlightRepositoryCustom {
+
+  @Meta(cursorBatchSize = FlightRepository.STREAM_BATCH_SIZE)
+  Flux<Flight> findAllBy();
+
+  @Meta(cursorBatchSize = FlightRepository.STREAM_BATCH_SIZE)
+  @Query("{'scheduledDeparture': {$gte: ?0, $lte: ?1}}")
+  Flux<Flight> findFlightsByDepartureTimeRange(LocalDateTime start, LocalDateTime end);
+
+  @Meta(cursorBatchSize = FlightRepository.STREAM_BATCH_SIZE)
+  @Query("{'origin': ?0, 'destination': ?1}")
+  Flux<Flight> findByRoute(String origin, String destination);
+}
@@ -0,0 +1,25 @@
+package com.bharat.airport.domain.repository;
+
+import com.bharat.airport.domain.model.Passenger;
+import java.util.UUID;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking versions of the single-update passenger operations of {@link FlightRepositoryCustom}
+ */
+public interface ReactiveFlightRepositoryCustom {
+
+  /**
+   * Appends a passenger to the flight unless another passenger already holds the seat.
+   *
+   * @see FlightRepositoryCustom#pushPassenger
+   */
+  Mono<Void> pushPassenger(String flightNumber, Passenger passenger);
+
+  /**
+   * Removes a passenger from the flight, emitting whether one was removed.
+   *
+   * @see FlightRepositoryCustom#pullPassenger
+   */
+  Mono<Boolean> pullPassenger(String flightNumber, UUID passengerId);
+}
@@ -0,0 +1,84 @@
+package com.bharat.airport.domain.repository;
+
+import static com.bharat.airport.domain.repository.FlightRepositoryCustomImpl.idIn;
+import static com.bharat.airport.domain.repository.FlightRepositoryCustomImpl.ids;
+import static com.bharat.airport.domain.repository.FlightRepositoryCustomImpl.seatMatches;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import java.util.UUID;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+/** ReactiveMongoTemplate backed implementation of {@link ReactiveFlightRepositoryCustom} */
+public class ReactiveFlightRepositoryCustomImpl implements ReactiveFlightRepositoryCustom {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  public ReactiveFlightRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public Mono<Void> pushPassenger(String flightNumber, Passenger passenger) {
+    SeatAssignment seat = passenger.getSeatAssignment();
+    Criteria criteria = where("flightNumber").is(flightNumber);
+    if (seat != null) {
+      criteria.norOperator(where("passengers").elemMatch(seatMatches(seat)));
+    }
+
+    return mongoTemplate
+        .updateFirst(
+            query(criteria),
+            new Update().push("passengers", passenger).inc("version", 1),
+            Flight.class)
+        .flatMap(
+            result -> {
+              if (result.getMatchedCount() > 0) {
+                return Mono.empty();
+              }
+              if (seat == null) {
+                return Mono.error(new FlightNotFoundException(flightNumber));
+              }
+              return flightExists(flightNumber)
+                  .flatMap(
+                      exists ->
+                          Mono.error(
+                              exists
+                                  ? new SeatAlreadyAssignedException(seat.getSeatNumber())
+                                  : new FlightNotFoundException(flightNumber)));
+            });
+  }
+
+  @Override
+  public Mono<Boolean> pullPassenger(String flightNumber, UUID passengerId) {
+    return mongoTemplate
+        .updateFirst(
+            query(where("flightNumber").is(flightNumber).and("passengers.id").in(ids(passengerId))),
+            new Update().pull("passengers", idIn(passengerId)).inc("version", 1),
+            Flight.class)
+        .flatMap(
+            result -> {
+              if (result.getMatchedCount() > 0) {
+                return Mono.just(true);
+              }
+              return flightExists(flightNumber)
+                  .flatMap(
+                      exists ->
+                          exists
+                              ? Mono.just(false)
+                              : Mono.error(new FlightNotFoundException(flightNumber)));
+            });
+  }
+
+  private Mono<Boolean> flightExists(String flightNumber) {
+    return mongoTemplate.exists(query(where("flightNumber").is(flightNumber)), Flight.class);
+  }
+}
@@ -0,0 +1,27 @@
+package com.bharat.airport.domain.repository;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.PassengerBucket;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stamps flights and passenger buckets with the current {@link StorageFormat} when they are written
+ * whole, since the converter then writes every seat and passenger id in that format. Partial
+ * updates leave the stamp alone, so a document still holding older values keeps its older stamp
+ * until it is migrated.
+ */
+@Component
+public class StorageFormatListener extends AbstractMongoEventListener<Object> {
+
+  @Override
+  public void onBeforeConvert(BeforeConvertEvent<Object> event) {
+    if (event.getSource() instanceof Flight flight) {
+      flight.setStorageFormat(StorageFormat.CURRENT);
+    } else if (event.getSource() instanceof PassengerBucket bucket) {
+      bucket.setStorageFormat(StorageFormat.CURRENT);
+    }
+  }
+}
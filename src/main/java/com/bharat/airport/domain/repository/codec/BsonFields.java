@@ -0,0 +1,75 @@
+package com.bharat.airport.domain.repository.codec;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+
+/**
+ * Reading and writing of single field values, shared by the codecs. Values are stored the way
+ * Spring Data's converter stores them: nulls are left out and {@link LocalDateTime}s are BSON dates
+ * in the system time zone.
+ */
+final class BsonFields {
+
+  private BsonFields() {}
+
+  static void writeString(BsonWriter writer, String name, String value) {
+    if (value != null) {
+      writer.writeString(name, value);
+    }
+  }
+
+  static void writeDateTime(BsonWriter writer, String name, LocalDateTime value) {
+    if (value != null) {
+      writer.writeDateTime(name, value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+  }
+
+  /** Returns the current string value, or null for a BSON null. */
+  static String readString(BsonReader reader) {
+    if (reader.getCurrentBsonType() == BsonType.NULL) {
+      reader.readNull();
+      return null;
+    }
+    return reader.readString();
+  }
+
+  static LocalDateTime readDateTime(BsonReader reader) {
+    if (reader.getCurrentBsonType() == BsonType.NULL) {
+      reader.readNull();
+      return null;
+    }
+    return LocalDateTime.ofInstant(
+        Instant.ofEpochMilli(reader.readDateTime()), ZoneId.systemDefault());
+  }
+
+  /**
+   * Returns the current numeric value. Server-side {@code $inc} may leave a counter as a 32 or 64
+   * bit integer, so both are accepted.
+   */
+  static Long readLong(BsonReader reader) {
+    return switch (reader.getCurrentBsonType()) {
+      case INT32 -> (long) reader.readInt32();
+      case INT64 -> reader.readInt64();
+      case DOUBLE -> (long) reader.readDouble();
+      case NULL -> {
+        reader.readNull();
+        yield null;
+      }
+      default -> throw new IllegalStateException(
+          "Expected a number but found " + reader.getCurrentBsonType());
+    };
+  }
+
+  /** Returns true and consumes the value if it is a BSON null. */
+  static boolean readNull(BsonReader reader) {
+    if (reader.getCurrentBsonType() == BsonType.NULL) {
+      reader.readNull();
+      return true;
+    }
+    return false;
+  }
+}
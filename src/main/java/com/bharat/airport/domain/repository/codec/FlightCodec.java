@@ -0,0 +1,128 @@
+package com.bharat.airport.domain.repository.codec;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Writes the same document as Spring Data's converter, field for field and including the {@code
+ * _class} hint, so documents written either way can be read either way. Unknown fields are skipped
+ * on decode.
+ */
+final class FlightCodec implements Codec<Flight> {
+
+  static final String TYPE_KEY = "_class";
+
+  private final Codec<Passenger> passengerCodec;
+  private final Codec<SeatAssignment> seatCodec;
+
+  FlightCodec(Codec<Passenger> passengerCodec, Codec<SeatAssignment> seatCodec) {
+    this.passengerCodec = passengerCodec;
+    this.seatCodec = seatCodec;
+  }
+
+  @Override
+  public void encode(BsonWriter writer, Flight flight, EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    BsonFields.writeString(writer, "_id", flight.getFlightNumber());
+    BsonFields.writeString(writer, "origin", flight.getOrigin());
+    BsonFields.writeString(writer, "destination", flight.getDestination());
+    BsonFields.writeDateTime(writer, "scheduledDeparture", flight.getScheduledDeparture());
+    BsonFields.writeDateTime(writer, "scheduledArrival", flight.getScheduledArrival());
+    if (flight.getPassengers() != null) {
+      writer.writeStartArray("passengers");
+      for (Passenger passenger : flight.getPassengers()) {
+        encoderContext.encodeWithChildContext(passengerCodec, writer, passenger);
+      }
+      writer.writeEndArray();
+    }
+    if (flight.getVersion() != null) {
+      writer.writeInt64("version", flight.getVersion());
+    }
+    if (flight.getPassengerCount() != null) {
+      writer.writeInt32("passengerCount", flight.getPassengerCount());
+    }
+    if (flight.getBookedSeats() != null) {
+      writer.writeStartArray("bookedSeats");
+      for (SeatAssignment seat : flight.getBookedSeats()) {
+        encoderContext.encodeWithChildContext(seatCodec, writer, seat);
+      }
+      writer.writeEndArray();
+    }
+    if (flight.getPassengerSlots() != null) {
+      writer.writeInt32("passengerSlots", flight.getPassengerSlots());
+    }
+    if (flight.getStorageFormat() != null) {
+      writer.writeInt32(StorageFormat.FIELD, flight.getStorageFormat());
+    }
+    writer.writeString(TYPE_KEY, Flight.class.getName());
+    writer.writeEndDocument();
+  }
+
+  @Override
+  public Flight decode(BsonReader reader, DecoderContext decoderContext) {
+    Flight flight = new Flight();
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      switch (reader.readName()) {
+        case "_id" -> flight.setFlightNumber(BsonFields.readString(reader));
+        case "origin" -> flight.setOrigin(BsonFields.readString(reader));
+        case "destination" -> flight.setDestination(BsonFields.readString(reader));
+        case "scheduledDeparture" -> flight.setScheduledDeparture(BsonFields.readDateTime(reader));
+        case "scheduledArrival" -> flight.setScheduledArrival(BsonFields.readDateTime(reader));
+        case "passengers" -> {
+          if (!BsonFields.readNull(reader)) {
+            flight.setPassengers(readArray(reader, passengerCodec, decoderContext));
+          }
+        }
+        case "version" -> flight.setVersion(BsonFields.readLong(reader));
+        case "passengerCount" -> {
+          Long count = BsonFields.readLong(reader);
+          flight.setPassengerCount(count == null ? null : count.intValue());
+        }
+        case "bookedSeats" -> {
+          if (!BsonFields.readNull(reader)) {
+            flight.setBookedSeats(readArray(reader, seatCodec, decoderContext));
+          }
+        }
+        case "passengerSlots" -> {
+          Long slots = BsonFields.readLong(reader);
+          flight.setPassengerSlots(slots == null ? null : slots.intValue());
+        }
+        case StorageFormat.FIELD -> {
+          Long storageFormat = BsonFields.readLong(reader);
+          flight.setStorageFormat(storageFormat == null ? null : storageFormat.intValue());
+        }
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return flight;
+  }
+
+  @Override
+  public Class<Flight> getEncoderClass() {
+    return Flight.class;
+  }
+
+  private static <T> List<T> readArray(
+      BsonReader reader, Codec<T> codec, DecoderContext decoderContext) {
+    List<T> values = new ArrayList<>();
+    reader.readStartArray();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      if (!BsonFields.readNull(reader)) {
+        values.add(decoderContext.decodeWithChildContext(codec, reader));
+      }
+    }
+    reader.readEndArray();
+    return values;
+  }
+}
@@ -0,0 +1,33 @@
+package com.bharat.airport.domain.repository.codec;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Codecs that encode and decode {@link Flight}, {@link Passenger} and {@link SeatAssignment}
+ * directly against BSON readers and writers. Spring Data's converter maps a flight through an
+ * intermediate {@code Document} per flight, passenger and seat; these codecs build the objects as
+ * the bytes are read. Register the provider ahead of the driver defaults.
+ */
+public final class FlightCodecProvider implements CodecProvider {
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+    if (clazz == SeatAssignment.class) {
+      return (Codec<T>) new SeatAssignmentCodec();
+    }
+    if (clazz == Passenger.class) {
+      return (Codec<T>) new PassengerCodec(registry.get(SeatAssignment.class));
+    }
+    if (clazz == Flight.class) {
+      return (Codec<T>)
+          new FlightCodec(registry.get(Passenger.class), registry.get(SeatAssignment.class));
+    }
+    return null;
+  }
+}
@@ -0,0 +1,70 @@
+package com.bharat.airport.domain.repository.codec;
+
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * {@code {_id, name, seatAssignment}}. The id is written as standard binary subtype 4 whatever the
+ * client's UUID representation, and read from subtype 4 or the Java legacy subtype 3; see {@link
+ * StorageFormat}.
+ */
+final class PassengerCodec implements Codec<Passenger> {
+
+  private final Codec<SeatAssignment> seatCodec;
+
+  PassengerCodec(Codec<SeatAssignment> seatCodec) {
+    this.seatCodec = seatCodec;
+  }
+
+  @Override
+  public void encode(BsonWriter writer, Passenger passenger, EncoderContext encoderContext) {
+    writer.writeStartDocument();
+    if (passenger.getId() != null) {
+      writer.writeBinaryData("_id", new BsonBinary(passenger.getId(), UuidRepresentation.STANDARD));
+    }
+    BsonFields.writeString(writer, "name", passenger.getName());
+    if (passenger.getSeatAssignment() != null) {
+      writer.writeName("seatAssignment");
+      seatCodec.encode(writer, passenger.getSeatAssignment(), encoderContext);
+    }
+    writer.writeEndDocument();
+  }
+
+  @Override
+  public Passenger decode(BsonReader reader, DecoderContext decoderContext) {
+    Passenger passenger = new Passenger();
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      switch (reader.readName()) {
+        case "_id" -> {
+          if (!BsonFields.readNull(reader)) {
+            BsonBinary id = reader.readBinaryData();
+            passenger.setId(StorageFormat.toUuid(id.getType(), id.getData()));
+          }
+        }
+        case "name" -> passenger.setName(BsonFields.readString(reader));
+        case "seatAssignment" -> {
+          if (!BsonFields.readNull(reader)) {
+            passenger.setSeatAssignment(seatCodec.decode(reader, decoderContext));
+          }
+        }
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return passenger;
+  }
+
+  @Override
+  public Class<Passenger> getEncoderClass() {
+    return Passenger.class;
+  }
+}
@@ -0,0 +1,60 @@
+package com.bharat.airport.domain.repository.codec;
+
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * A seat in the current {@link StorageFormat}: a packed integer, or a {@code {seatNumber,
+ * seatClass}} document with the seat class stored by name. Both forms are read, into canonical
+ * {@link SeatAssignment} instances.
+ */
+final class SeatAssignmentCodec implements Codec<SeatAssignment> {
+
+  @Override
+  public void encode(BsonWriter writer, SeatAssignment seat, EncoderContext encoderContext) {
+    Integer packed = StorageFormat.pack(seat);
+    if (packed != null) {
+      writer.writeInt32(packed);
+      return;
+    }
+    writer.writeStartDocument();
+    BsonFields.writeString(writer, "seatNumber", seat.getSeatNumber());
+    if (seat.getSeatClass() != null) {
+      writer.writeString("seatClass", seat.getSeatClass().name());
+    }
+    writer.writeEndDocument();
+  }
+
+  @Override
+  public SeatAssignment decode(BsonReader reader, DecoderContext decoderContext) {
+    if (reader.getCurrentBsonType() == BsonType.INT32) {
+      return StorageFormat.unpack(reader.readInt32());
+    }
+    String seatNumber = null;
+    SeetClass seatClass = null;
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      switch (reader.readName()) {
+        case "seatNumber" -> seatNumber = BsonFields.readString(reader);
+        case "seatClass" -> {
+          String name = BsonFields.readString(reader);
+          seatClass = name == null ? null : SeetClass.valueOf(name);
+        }
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return SeatAssignment.of(seatNumber, seatClass);
+  }
+
+  @Override
+  public Class<SeatAssignment> getEncoderClass() {
+    return SeatAssignment.class;
+  }
+}
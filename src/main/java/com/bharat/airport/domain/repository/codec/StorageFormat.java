@@ -0,0 +1,177 @@
+package com.bharat.airport.domain.repository.codec;
+
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.types.Binary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+/**
+ * The stored form of seats and passenger ids. Flights record the format they were written in under
+ * {@value #FIELD}; documents without it are in format 1.
+ *
+ * <ul>
+ *   <li>Format 1: seats are {@code {seatNumber, seatClass}} documents and passenger ids use the
+ *       driver's default UUID representation, the Java legacy binary subtype 3.
+ *   <li>Format 2: a seat numbered as a row and a letter, such as {@code 12A}, is one 32-bit
+ *       integer: the row from bit 7, the letter index in bits 2-6 and the class code in bits 0-1.
+ *       Other seat numbers keep the format 1 document. Passenger ids are standard binary subtype 4.
+ * </ul>
+ *
+ * Readers accept both formats, so format 1 documents stay readable until they are rewritten.
+ */
+public final class StorageFormat {
+
+  public static final String FIELD = "storageFormat";
+  public static final int CURRENT = 2;
+
+  private static final Pattern ROW_AND_LETTER = Pattern.compile("([1-9][0-9]{0,4})([A-Z])");
+
+  /** Unpacked seats of the first 127 rows, indexed by their packed value. */
+  private static final AtomicReferenceArray<SeatAssignment> UNPACKED =
+      new AtomicReferenceArray<>(1 << 14);
+
+  private StorageFormat() {}
+
+  /** The Spring Data converters that read both formats and write the current one. */
+  public static List<Converter<?, ?>> converters() {
+    return List.of(
+        SeatWriter.INSTANCE, SeatReader.INSTANCE, UuidWriter.INSTANCE, UuidReader.INSTANCE);
+  }
+
+  /** Returns the packed seat, or null when the seat number is not a row and a letter. */
+  public static Integer pack(SeatAssignment seat) {
+    if (seat.getSeatNumber() == null || seat.getSeatClass() == null) {
+      return null;
+    }
+    Matcher matcher = ROW_AND_LETTER.matcher(seat.getSeatNumber());
+    if (!matcher.matches()) {
+      return null;
+    }
+    int row = Integer.parseInt(matcher.group(1));
+    int letter = matcher.group(2).charAt(0) - 'A';
+    return row << 7 | letter << 2 | classCode(seat.getSeatClass());
+  }
+
+  /** Returns the canonical seat; seats of the first 127 rows are unpacked only once. */
+  public static SeatAssignment unpack(int packed) {
+    if (packed < 0 || packed >= UNPACKED.length()) {
+      return decode(packed);
+    }
+    SeatAssignment seat = UNPACKED.getAcquire(packed);
+    if (seat == null) {
+      seat = decode(packed);
+      UNPACKED.setRelease(packed, seat);
+    }
+    return seat;
+  }
+
+  private static SeatAssignment decode(int packed) {
+    int row = packed >>> 7;
+    char letter = (char) ('A' + (packed >>> 2 & 0x1F));
+    return SeatAssignment.of(row + String.valueOf(letter), seatClass(packed & 0x3));
+  }
+
+  /** The format 1 document of a seat, as Spring Data wrote it. */
+  public static Document legacySeat(SeatAssignment seat) {
+    Document document = new Document();
+    if (seat.getSeatNumber() != null) {
+      document.put("seatNumber", seat.getSeatNumber());
+    }
+    if (seat.getSeatClass() != null) {
+      document.put("seatClass", seat.getSeatClass().name());
+    }
+    return document;
+  }
+
+  /** The stored values a passenger id can have, in the current format and in format 1. */
+  public static List<Binary> passengerIdValues(UUID id) {
+    return List.of(toBinary(id), toBinary(id, UuidRepresentation.JAVA_LEGACY));
+  }
+
+  public static Binary toBinary(UUID id) {
+    return toBinary(id, UuidRepresentation.STANDARD);
+  }
+
+  /** Reads a UUID stored as binary subtype 4, or as the Java legacy subtype 3. */
+  public static UUID toUuid(byte subtype, byte[] data) {
+    UuidRepresentation representation =
+        subtype == BsonBinarySubType.UUID_LEGACY.getValue()
+            ? UuidRepresentation.JAVA_LEGACY
+            : UuidRepresentation.STANDARD;
+    return new BsonBinary(subtype, data).asUuid(representation);
+  }
+
+  private static Binary toBinary(UUID id, UuidRepresentation representation) {
+    BsonBinary binary = new BsonBinary(id, representation);
+    return new Binary(binary.getType(), binary.getData());
+  }
+
+  private static int classCode(SeetClass seatClass) {
+    return switch (seatClass) {
+      case Economy -> 1;
+      case Business -> 2;
+      case First -> 3;
+    };
+  }
+
+  private static SeetClass seatClass(int code) {
+    return switch (code) {
+      case 1 -> SeetClass.Economy;
+      case 2 -> SeetClass.Business;
+      case 3 -> SeetClass.First;
+      default -> throw new IllegalArgumentException("Unknown seat class code " + code);
+    };
+  }
+
+  @WritingConverter
+  enum SeatWriter implements Converter<SeatAssignment, Object> {
+    INSTANCE;
+
+    @Override
+    public Object convert(SeatAssignment seat) {
+      Integer packed = pack(seat);
+      return packed != null ? packed : legacySeat(seat);
+    }
+  }
+
+  @ReadingConverter
+  enum SeatReader implements Converter<Integer, SeatAssignment> {
+    INSTANCE;
+
+    @Override
+    public SeatAssignment convert(Integer packed) {
+      return unpack(packed);
+    }
+  }
+
+  @WritingConverter
+  enum UuidWriter implements Converter<UUID, Binary> {
+    INSTANCE;
+
+    @Override
+    public Binary convert(UUID id) {
+      return toBinary(id);
+    }
+  }
+
+  @ReadingConverter
+  enum UuidReader implements Converter<Binary, UUID> {
+    INSTANCE;
+
+    @Override
+    public UUID convert(Binary binary) {
+      return toUuid(binary.getType(), binary.getData());
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.bharat.airport.domain.service;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import java.util.List;
+
+/**
+ * The outcome of adding a group of passengers: the flight as read for the batch that was written,
+ * and the passengers accepted into it, in request order.
+ */
+public record AddedPassengers(Flight flight, List<Passenger> accepted) {}
@@ -0,0 +1,47 @@
+package com.bharat.airport.domain.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts domain events that do not show up as latency: seats that were already taken and flights
+ * that were asked for but do not exist. Seat conflicts are tagged with what happened to the
+ * passenger, {@code rejected} for a single booking answered with 409 and {@code skipped} for a
+ * passenger left out of a batch.
+ */
+@Component
+public class FlightEventMetrics {
+
+  private final Counter seatConflictsRejected;
+  private final Counter seatConflictsSkipped;
+  private final Counter flightsNotFound;
+
+  public FlightEventMetrics(MeterRegistry registry) {
+    this.seatConflictsRejected = seatConflicts(registry, "rejected");
+    this.seatConflictsSkipped = seatConflicts(registry, "skipped");
+    this.flightsNotFound =
+        Counter.builder("airport.flight.not-found")
+            .description("Requests for a flight number that does not exist")
+            .register(registry);
+  }
+
+  private static Counter seatConflicts(MeterRegistry registry, String outcome) {
+    return Counter.builder("airport.flight.seat-conflicts")
+        .description("Passengers whose seat was already assigned on the flight")
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+
+  public void seatConflictRejected() {
+    seatConflictsRejected.increment();
+  }
+
+  public void seatConflictsSkipped(int passengers) {
+    seatConflictsSkipped.increment(passengers);
+  }
+
+  public void flightNotFound() {
+    flightsNotFound.increment();
+  }
+}
@@ -1,11 +1,17 @@
 package com.bharat.airport.domain.service;
 
 import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
 import com.bharat.airport.domain.model.Flight;
 import com.bharat.airport.domain.model.Passenger;
 import com.bharat.airport.domain.repository.FlightRepository;
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,63 +19,146 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * Domain Service for Flight operations Encapsulates business logic that involves multiple domain
  * objects
+ *
+ * <p>Every public method is timed as {@code flight.service}, tagged with the method name. For the
+ * stream methods the timer covers opening the cursor, not reading it. Missing flights and rejected
+ * seats are counted in {@link FlightEventMetrics} here, whichever caller asked.
  */
 @Service
 @Transactional
+@Timed("flight.service")
 @Slf4j
 public class FlightService {
 
   private final FlightRepository flightRepository;
+  private final OptimisticLockRetrier retrier;
+  private final FlightEventMetrics flightEventMetrics;
 
-  public FlightService(FlightRepository flightRepository) {
+  public FlightService(
+      FlightRepository flightRepository,
+      OptimisticLockRetrier retrier,
+      FlightEventMetrics flightEventMetrics) {
     this.flightRepository = flightRepository;
+    this.retrier = retrier;
+    this.flightEventMetrics = flightEventMetrics;
   }
 
-  public void addPassengerToFlight(String flightNumber, Passenger passenger) {
+  /**
+   * Add passenger to flight with a single conditional push, rejecting an occupied seat. Returns the
+   * flight's origin and destination.
+   */
+  public Flight addPassengerToFlight(String flightNumber, Passenger passenger) {
     log.info("Adding Passenger to Flight {}", flightNumber);
-    Flight flight =
-        flightRepository
-            .findByFlightNumber(flightNumber)
-            .orElseThrow(() -> new FlightNotFoundException(flightNumber));
-
-    flight.addPassenger(passenger);
-    flightRepository.save(flight);
+    Flight route;
+    try {
+      route = flightRepository.pushPassenger(flightNumber, passenger);
+    } catch (SeatAlreadyAssignedException e) {
+      flightEventMetrics.seatConflictRejected();
+      throw e;
+    } catch (FlightNotFoundException e) {
+      flightEventMetrics.flightNotFound();
+      throw e;
+    }
     log.info("Added Passenger to Flight {}", flightNumber);
+    return route;
   }
 
-  /** Remove passenger from flight */
-  public boolean removePassengerFromFlight(String flightNumber, String passengerId) {
-    Flight flight =
-        flightRepository
-            .findByFlightNumber(flightNumber)
-            .orElseThrow(() -> new FlightNotFoundException(flightNumber));
+  /**
+   * Add a group of passengers with one read and one write. Seats are validated in a single pass
+   * against the flight and against earlier passengers of the same batch; passengers whose seat is
+   * taken are skipped. Skipped passengers are counted once the batch is written, not on every
+   * attempt.
+   */
+  public AddedPassengers addPassengersToFlight(String flightNumber, List<Passenger> passengers) {
+    log.info("Adding {} Passengers to Flight {}", passengers.size(), flightNumber);
+    AddedPassengers added =
+        retrier.execute(
+            "add passengers to flight " + flightNumber,
+            () -> {
+              Flight flight = getFlightWithPassengers(flightNumber);
+              List<Passenger> accepted = new ArrayList<>(passengers.size());
+              for (Passenger passenger : passengers) {
+                try {
+                  flight.addPassenger(passenger);
+                  accepted.add(passenger);
+                } catch (SeatAlreadyAssignedException e) {
+                  log.info("Skipping passenger on Flight {}: {}", flightNumber, e.getMessage());
+                }
+              }
+              if (!accepted.isEmpty()) {
+                flightRepository.pushPassengers(flightNumber, flight.getVersion(), accepted);
+              }
+              return new AddedPassengers(flight, accepted);
+            });
+    int skipped = passengers.size() - added.accepted().size();
+    if (skipped > 0) {
+      flightEventMetrics.seatConflictsSkipped(skipped);
+    }
+    return added;
+  }
 
-    boolean removed = flight.removePassenger(passengerId);
-    if (removed) {
-      flightRepository.save(flight);
+  /**
+   * Remove passenger from flight with a single server-side pull. Returns the flight's origin and
+   * destination, or empty if the flight has no such passenger.
+   */
+  public Optional<Flight> removePassengerFromFlight(String flightNumber, String passengerId) {
+    UUID id;
+    try {
+      id = UUID.fromString(passengerId);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      log.info("Ignoring malformed passenger id {}", passengerId);
+      return Optional.empty();
+    }
+    try {
+      return flightRepository.pullPassenger(flightNumber, id);
+    } catch (FlightNotFoundException e) {
+      flightEventMetrics.flightNotFound();
+      throw e;
     }
-    return removed;
   }
 
   @Transactional(readOnly = true)
   public Flight getFlightWithPassengers(String flightNumber) {
     return flightRepository
-        .findByFlightNumber(flightNumber)
-        .orElseThrow(() -> new FlightNotFoundException(flightNumber));
+        .findWithPassengers(flightNumber)
+        .orElseThrow(() -> flightNotFound(flightNumber));
   }
 
   @Transactional(readOnly = true)
   public List<Flight> findFlightsByRoute(String origin, String destination) {
-    return flightRepository.findByRoute(origin, destination);
+    return flightRepository.withPassengers(flightRepository.findByRoute(origin, destination));
   }
 
   @Transactional(readOnly = true)
   public List<Flight> findFlightsByDepartureRange(LocalDateTime start, LocalDateTime end) {
-    return flightRepository.findFlightsByDepartureTimeRange(start, end);
+    return flightRepository.withPassengers(
+        flightRepository.findFlightsByDepartureTimeRange(start, end));
+  }
+
+  /**
+   * Opens a cursor over the flights on a route. The caller must close the returned stream to
+   * release the cursor.
+   */
+  public Stream<Flight> streamFlightsByRoute(String origin, String destination) {
+    return flightRepository.withPassengers(flightRepository.streamByRoute(origin, destination));
+  }
+
+  /**
+   * Opens a cursor over the flights departing within the range. The caller must close the returned
+   * stream to release the cursor.
+   */
+  public Stream<Flight> streamFlightsByDepartureRange(LocalDateTime start, LocalDateTime end) {
+    return flightRepository.withPassengers(
+        flightRepository.streamFlightsByDepartureTimeRange(start, end));
   }
 
   @Transactional(readOnly = true)
   public boolean flightExists(String flightNumber) {
     return flightRepository.findByFlightNumber(flightNumber).isPresent();
   }
+
+  private FlightNotFoundException flightNotFound(String flightNumber) {
+    flightEventMetrics.flightNotFound();
+    return new FlightNotFoundException(flightNumber);
+  }
 }
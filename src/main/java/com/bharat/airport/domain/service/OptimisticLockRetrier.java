@@ -0,0 +1,123 @@
+package com.bharat.airport.domain.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-runs a read-modify-write operation when a versioned save loses a race. Each attempt must
+ * re-read the aggregate so the domain operation is applied to the latest version. Backoff grows
+ * exponentially with jitter up to a cap, and the number of attempts is bounded.
+ *
+ * <p>The conflict, retry and exhausted counts are published as {@code airport.concurrency.*}
+ * counters.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetrier implements MeterBinder {
+
+  private final int maxAttempts;
+  private final long initialBackoffMillis;
+  private final double backoffMultiplier;
+  private final long maxBackoffMillis;
+
+  private final AtomicLong conflicts = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong exhausted = new AtomicLong();
+
+  public OptimisticLockRetrier(
+      @Value("${airport.concurrency.max-attempts:5}") int maxAttempts,
+      @Value("${airport.concurrency.initial-backoff-ms:5}") long initialBackoffMillis,
+      @Value("${airport.concurrency.backoff-multiplier:2.0}") double backoffMultiplier,
+      @Value("${airport.concurrency.max-backoff-ms:200}") long maxBackoffMillis) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("max-attempts must be at least 1");
+    }
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMillis = initialBackoffMillis;
+    this.backoffMultiplier = backoffMultiplier;
+    this.maxBackoffMillis = maxBackoffMillis;
+  }
+
+  public <T> T execute(String operation, Supplier<T> action) {
+    long backoff = initialBackoffMillis;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return action.get();
+      } catch (OptimisticLockingFailureException e) {
+        conflicts.incrementAndGet();
+        if (attempt >= maxAttempts) {
+          exhausted.incrementAndGet();
+          log.warn("Giving up on {} after {} conflicting attempts", operation, attempt);
+          throw e;
+        }
+        retries.incrementAndGet();
+        log.debug("Version conflict on {} (attempt {}), retrying", operation, attempt);
+        pause(backoff, e);
+        backoff = Math.min((long) (backoff * backoffMultiplier), maxBackoffMillis);
+      }
+    }
+  }
+
+  private void pause(long backoff, OptimisticLockingFailureException cause) {
+    if (backoff <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw cause;
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    counter(
+        registry,
+        "airport.concurrency.conflicts",
+        "Version conflicts on a read-modify-write, retried or not",
+        OptimisticLockRetrier::getConflictCount);
+    counter(
+        registry,
+        "airport.concurrency.retries",
+        "Attempts repeated after a version conflict",
+        OptimisticLockRetrier::getRetryCount);
+    counter(
+        registry,
+        "airport.concurrency.exhausted",
+        "Operations that still conflicted after the last allowed attempt",
+        OptimisticLockRetrier::getExhaustedCount);
+  }
+
+  private void counter(
+      MeterRegistry registry,
+      String name,
+      String description,
+      ToDoubleFunction<OptimisticLockRetrier> count) {
+    FunctionCounter.builder(name, this, count).description(description).register(registry);
+  }
+
+  /** Number of version conflicts observed, including the ones that were retried. */
+  public long getConflictCount() {
+    return conflicts.get();
+  }
+
+  /** Number of retries performed after a conflict. */
+  public long getRetryCount() {
+    return retries.get();
+  }
+
+  /** Number of operations that still conflicted after the last allowed attempt. */
+  public long getExhaustedCount() {
+    return exhausted.get();
+  }
+}
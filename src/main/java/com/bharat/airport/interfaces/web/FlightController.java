@@ -1,28 +1,60 @@
 package com.bharat.airport.interfaces.web;
 
 import com.bharat.airport.application.FlightApplicationService;
+import com.bharat.airport.application.FlightImportService;
+import com.bharat.airport.application.dto.FlightImportReport;
+import com.bharat.airport.application.dto.FlightPage;
 import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerBatchResponse;
 import com.bharat.airport.application.dto.PassengerRequest;
 import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.repository.FlightSearch;
+import com.bharat.airport.interfaces.web.FlightFieldSelection.SelectedFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/flights")
+@Profile("!reactive")
 @Tag(name = "Flights", description = "Operations related to flight management")
 @Slf4j
 @RequiredArgsConstructor
 public class FlightController {
 
+  /** Response header carrying the cursor of the next page, absent on the last page. */
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  static final int DEFAULT_PAGE_SIZE = 50;
+  static final int MAX_PAGE_SIZE = 500;
+
   private final FlightApplicationService flightApplicationService;
+  private final FlightImportService flightImportService;
+  private final ObjectMapper objectMapper;
 
   @PostMapping
   @Operation(summary = "Create a new flight")
@@ -32,14 +64,50 @@ public class FlightController {
     return ResponseEntity.status(HttpStatus.CREATED).body(savedFlight);
   }
 
+  @PostMapping(value = "/import", consumes = "application/x-ndjson")
+  @Operation(summary = "Import flights from newline-delimited JSON")
+  public ResponseEntity<FlightImportReport> importFlights(InputStream ndjson) throws IOException {
+    log.info("Import flights");
+    FlightImportReport report = flightImportService.importFlights(ndjson);
+    return ResponseEntity.ok(report);
+  }
+
   @GetMapping
-  @Operation(summary = "Get all flights")
-  public ResponseEntity<List<Flight>> getAllFlights() {
+  @Operation(summary = "Get all flights, one page at a time when a cursor or limit is given")
+  public ResponseEntity<List<Flight>> getAllFlights(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false)
+          @Min(value = 1, message = "Limit must be at least 1")
+          @Max(value = MAX_PAGE_SIZE, message = "Limit must be at most " + MAX_PAGE_SIZE)
+          Integer limit) {
     log.info("Get all flights");
+    if (cursor != null || limit != null) {
+      return page(FlightSearch.builder().build(), cursor, limit, Function.identity());
+    }
     List<Flight> flights = flightApplicationService.getAllFlights();
     return ResponseEntity.ok(flights);
   }
 
+  @GetMapping(params = "fields")
+  @Operation(summary = "Get selected fields of all flights, e.g. fields=summary")
+  public ResponseEntity<List<SelectedFields>> getAllFlightFields(
+      @RequestParam String fields,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false)
+          @Min(value = 1, message = "Limit must be at least 1")
+          @Max(value = MAX_PAGE_SIZE, message = "Limit must be at most " + MAX_PAGE_SIZE)
+          Integer limit) {
+    log.info("Get fields {} of all flights", fields);
+    return select(FlightSearch.builder(), fields, cursor, limit);
+  }
+
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Stream all flights as newline-delimited JSON")
+  public ResponseEntity<StreamingResponseBody> streamAllFlights() {
+    log.info("Stream all flights");
+    return ndjson(flightApplicationService::streamAllFlights);
+  }
+
   @GetMapping("/{flightNumber}")
   @Operation(summary = "Get flight by flight number")
   public ResponseEntity<Flight> getFlight(@PathVariable String flightNumber) {
@@ -48,6 +116,16 @@ public class FlightController {
     return ResponseEntity.ok(flight);
   }
 
+  @GetMapping(value = "/{flightNumber}", params = "fields")
+  @Operation(summary = "Get selected fields of a flight, e.g. fields=summary")
+  public ResponseEntity<SelectedFields> getFlightFields(
+      @PathVariable String flightNumber, @RequestParam String fields) {
+    log.info("Get fields {} of flight: {}", fields, flightNumber);
+    Set<String> selected = FlightFieldSelection.parse(fields);
+    Flight flight = flightApplicationService.getFlight(flightNumber, selected);
+    return ResponseEntity.ok(FlightFieldSelection.renderer(selected).apply(flight));
+  }
+
   @PostMapping("/{flightNumber}/passengers")
   @Operation(summary = "Add passenger to a flight")
   public ResponseEntity<String> addPassenger(
@@ -57,6 +135,20 @@ public class FlightController {
     return ResponseEntity.ok("Passenger added successfully");
   }
 
+  @PostMapping("/{flightNumber}/passengers/batch")
+  @Operation(summary = "Add a group of passengers to a flight")
+  public ResponseEntity<PassengerBatchResponse> addPassengers(
+      @PathVariable String flightNumber,
+      @RequestBody
+          @NotEmpty(message = "At least one passenger is required")
+          @Size(max = 1000, message = "At most 1000 passengers per batch")
+          List<@Valid PassengerRequest> passengerRequests) {
+    log.info("Add {} passengers to a flight: {}", passengerRequests.size(), flightNumber);
+    PassengerBatchResponse response =
+        flightApplicationService.addPassengers(flightNumber, passengerRequests);
+    return ResponseEntity.ok(response);
+  }
+
   @DeleteMapping("/{flightNumber}/passengers/{passengerId}")
   @Operation(summary = "Remove passenger from a flight")
   public ResponseEntity<String> removePassenger(
@@ -73,21 +165,95 @@ public class FlightController {
   @GetMapping("/route")
   @Operation(summary = "Find flights by origin and destination")
   public ResponseEntity<List<Flight>> getFlightsByRoute(
-      @RequestParam String origin, @RequestParam String destination) {
+      @RequestParam String origin,
+      @RequestParam String destination,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false)
+          @Min(value = 1, message = "Limit must be at least 1")
+          @Max(value = MAX_PAGE_SIZE, message = "Limit must be at most " + MAX_PAGE_SIZE)
+          Integer limit) {
     log.info("Find flights by origin and destination: {} to {}", origin, destination);
+    if (cursor != null || limit != null) {
+      return page(
+          FlightSearch.builder().origin(origin).destination(destination).build(),
+          cursor,
+          limit,
+          Function.identity());
+    }
     List<Flight> flights = flightApplicationService.findFlightsByRoute(origin, destination);
     return ResponseEntity.ok(flights);
   }
 
+  @GetMapping(value = "/route", params = "fields")
+  @Operation(summary = "Get selected fields of flights by origin and destination")
+  public ResponseEntity<List<SelectedFields>> getFlightFieldsByRoute(
+      @RequestParam String origin,
+      @RequestParam String destination,
+      @RequestParam String fields,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false)
+          @Min(value = 1, message = "Limit must be at least 1")
+          @Max(value = MAX_PAGE_SIZE, message = "Limit must be at most " + MAX_PAGE_SIZE)
+          Integer limit) {
+    log.info("Get fields {} of flights from {} to {}", fields, origin, destination);
+    return select(
+        FlightSearch.builder().origin(origin).destination(destination), fields, cursor, limit);
+  }
+
+  @GetMapping(value = "/route", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Stream flights by origin and destination as newline-delimited JSON")
+  public ResponseEntity<StreamingResponseBody> streamFlightsByRoute(
+      @RequestParam String origin, @RequestParam String destination) {
+    log.info("Stream flights by origin and destination: {} to {}", origin, destination);
+    return ndjson(() -> flightApplicationService.streamFlightsByRoute(origin, destination));
+  }
+
   @GetMapping("/departures")
   @Operation(summary = "Find flights by departure time range")
   public ResponseEntity<List<Flight>> getFlightsByDepartureRange(
-      @RequestParam LocalDateTime start, @RequestParam LocalDateTime end) {
+      @RequestParam LocalDateTime start,
+      @RequestParam LocalDateTime end,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false)
+          @Min(value = 1, message = "Limit must be at least 1")
+          @Max(value = MAX_PAGE_SIZE, message = "Limit must be at most " + MAX_PAGE_SIZE)
+          Integer limit) {
     log.info("Find flights by departure time range: {} to {}", start, end);
+    if (cursor != null || limit != null) {
+      return page(
+          FlightSearch.builder().departureFrom(start).departureTo(end).build(),
+          cursor,
+          limit,
+          Function.identity());
+    }
     List<Flight> flights = flightApplicationService.findFlightsByDepartureRange(start, end);
     return ResponseEntity.ok(flights);
   }
 
+  @GetMapping(value = "/departures", params = "fields")
+  @Operation(summary = "Get selected fields of flights by departure time range")
+  public ResponseEntity<List<SelectedFields>> getFlightFieldsByDepartureRange(
+      @RequestParam LocalDateTime start,
+      @RequestParam LocalDateTime end,
+      @RequestParam String fields,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false)
+          @Min(value = 1, message = "Limit must be at least 1")
+          @Max(value = MAX_PAGE_SIZE, message = "Limit must be at most " + MAX_PAGE_SIZE)
+          Integer limit) {
+    log.info("Get fields {} of flights departing from {} to {}", fields, start, end);
+    return select(
+        FlightSearch.builder().departureFrom(start).departureTo(end), fields, cursor, limit);
+  }
+
+  @GetMapping(value = "/departures", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Stream flights by departure time range as newline-delimited JSON")
+  public ResponseEntity<StreamingResponseBody> streamFlightsByDepartureRange(
+      @RequestParam LocalDateTime start, @RequestParam LocalDateTime end) {
+    log.info("Stream flights by departure time range: {} to {}", start, end);
+    return ndjson(() -> flightApplicationService.streamFlightsByDepartureRange(start, end));
+  }
+
   @DeleteMapping("/{flightNumber}")
   @Operation(summary = "Delete a flight")
   public ResponseEntity<String> deleteFlight(@PathVariable String flightNumber) {
@@ -95,4 +261,53 @@ public class FlightController {
     flightApplicationService.deleteFlight(flightNumber);
     return ResponseEntity.ok("Flight deleted successfully");
   }
+
+  /** Reads only the selected fields from the database and renders only those. */
+  private ResponseEntity<List<SelectedFields>> select(
+      FlightSearch.FlightSearchBuilder search, String fields, String cursor, Integer limit) {
+    Set<String> selected = FlightFieldSelection.parse(fields);
+    Function<Flight, SelectedFields> view = FlightFieldSelection.renderer(selected);
+    if (cursor != null || limit != null) {
+      // The next page cursor is built from the last flight's departure
+      Set<String> read = new LinkedHashSet<>(selected);
+      read.add("scheduledDeparture");
+      return page(search.fields(read).build(), cursor, limit, view);
+    }
+    return ResponseEntity.ok(
+        flightApplicationService.findFlights(search.fields(selected).build()).stream()
+            .map(view)
+            .toList());
+  }
+
+  private <T> ResponseEntity<List<T>> page(
+      FlightSearch search, String cursor, Integer limit, Function<Flight, T> view) {
+    FlightPage page =
+        flightApplicationService.findFlightPage(
+            FlightPageCursor.resume(search, cursor), limit == null ? DEFAULT_PAGE_SIZE : limit);
+    List<Flight> flights = page.getFlights();
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.isHasMore()) {
+      response.header(NEXT_CURSOR_HEADER, FlightPageCursor.encode(flights.get(flights.size() - 1)));
+    }
+    return response.body(flights.stream().map(view).toList());
+  }
+
+  /**
+   * Writes each flight as one JSON line as the cursor yields it. The cursor is opened on the
+   * response thread and closed once the last flight is written or the client goes away.
+   */
+  private ResponseEntity<StreamingResponseBody> ndjson(Supplier<Stream<Flight>> query) {
+    ObjectWriter writer = objectMapper.writerFor(Flight.class);
+    StreamingResponseBody body =
+        out -> {
+          try (Stream<Flight> flights = query.get()) {
+            Iterator<Flight> iterator = flights.iterator();
+            while (iterator.hasNext()) {
+              out.write(writer.writeValueAsBytes(iterator.next()));
+              out.write('\n');
+            }
+          }
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
 }
@@ -0,0 +1,103 @@
+package com.bharat.airport.interfaces.web;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.interfaces.web.error.BadRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Parses the {@code fields} request parameter and renders flights with only the selected
+ * properties. {@code summary} selects the schedule without passengers.
+ */
+final class FlightFieldSelection {
+
+  static final String SUMMARY = "summary";
+
+  private static final List<String> SUMMARY_FIELDS =
+      List.of("flightNumber", "origin", "destination", "scheduledDeparture", "scheduledArrival");
+
+  private static final Set<String> FIELDS =
+      Set.of(
+          "flightNumber",
+          "origin",
+          "destination",
+          "scheduledDeparture",
+          "scheduledArrival",
+          "passengers",
+          "version");
+
+  private FlightFieldSelection() {}
+
+  /**
+   * Resolves a comma separated field list. The flight number is always selected so every item can
+   * be identified.
+   */
+  static Set<String> parse(String fields) {
+    Set<String> selected = new LinkedHashSet<>();
+    selected.add("flightNumber");
+    for (String field : fields.split(",")) {
+      String name = field.trim();
+      if (name.isEmpty()) {
+        continue;
+      }
+      if (SUMMARY.equals(name)) {
+        selected.addAll(SUMMARY_FIELDS);
+      } else if (FIELDS.contains(name)) {
+        selected.add(name);
+      } else {
+        throw new BadRequestException("Unknown flight field: " + name);
+      }
+    }
+    return Collections.unmodifiableSet(selected);
+  }
+
+  /**
+   * Renders flights with only the given fields. The flight is written straight to the response by
+   * its own serializer, and properties that are not selected are never read.
+   */
+  static Function<Flight, SelectedFields> renderer(Set<String> fields) {
+    PropertyFilter filter = SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+    return flight -> new SelectedFields(flight, filter);
+  }
+
+  /** A flight serialized through a property filter. */
+  record SelectedFields(Flight flight, PropertyFilter filter) implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+      JsonSerializer<Object> serializer = provider.findValueSerializer(Flight.class);
+      gen.writeStartObject(flight);
+      for (Iterator<PropertyWriter> properties = serializer.properties(); properties.hasNext(); ) {
+        PropertyWriter property = properties.next();
+        try {
+          filter.serializeAsField(flight, gen, provider, property);
+        } catch (IOException e) {
+          throw e;
+        } catch (Exception e) {
+          throw JsonMappingException.from(gen, "Cannot write flight " + property.getName(), e);
+        }
+      }
+      gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(
+        JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+      serialize(gen, provider);
+    }
+  }
+}
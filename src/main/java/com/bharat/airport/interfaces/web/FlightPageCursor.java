@@ -0,0 +1,45 @@
+package com.bharat.airport.interfaces.web;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.repository.FlightSearch;
+import com.bharat.airport.interfaces.web.error.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque page cursor handed to clients. It encodes the scheduled departure and flight number of the
+ * last flight on a page, which is where the next page resumes.
+ */
+final class FlightPageCursor {
+
+  private static final char SEPARATOR = '|';
+
+  private FlightPageCursor() {}
+
+  static String encode(Flight last) {
+    String position = last.getScheduledDeparture().toString() + SEPARATOR + last.getFlightNumber();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Positions the search after the flight the cursor was created from. */
+  static FlightSearch resume(FlightSearch search, String cursor) {
+    if (cursor == null) {
+      return search;
+    }
+    try {
+      String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = position.indexOf(SEPARATOR);
+      if (separator < 0 || separator == position.length() - 1) {
+        throw new BadRequestException("Invalid page cursor");
+      }
+      return search.after(
+          LocalDateTime.parse(position.substring(0, separator)), position.substring(separator + 1));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new BadRequestException("Invalid page cursor");
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.bharat.airport.interfaces.web;
+
+import com.bharat.airport.application.ReactiveFlightApplicationService;
+import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerRequest;
+import com.bharat.airport.domain.model.Flight;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux variant of {@link FlightController}, active under the reactive profile. Collection
+ * endpoints return a {@link Flux}: with {@code Accept: application/x-ndjson} each flight is written
+ * as soon as the cursor yields it, and the cursor is only asked for more once the connection has
+ * taken what was written.
+ */
+@RestController
+@RequestMapping("/api/flights")
+@Profile("reactive")
+@Tag(name = "Flights", description = "Operations related to flight management")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveFlightController {
+
+  private final ReactiveFlightApplicationService flightApplicationService;
+
+  @PostMapping
+  @Operation(summary = "Create a new flight")
+  public Mono<ResponseEntity<Flight>> createFlight(
+      @Valid @RequestBody FlightRequest flightRequest) {
+    return flightApplicationService
+        .createFlight(flightRequest)
+        .doOnNext(savedFlight -> log.info("Flight created successfully: {}", savedFlight))
+        .map(savedFlight -> ResponseEntity.status(HttpStatus.CREATED).body(savedFlight));
+  }
+
+  @GetMapping
+  @Operation(summary = "Get all flights")
+  public Flux<Flight> getAllFlights() {
+    log.info("Get all flights");
+    return flightApplicationService.getAllFlights();
+  }
+
+  @GetMapping("/{flightNumber}")
+  @Operation(summary = "Get flight by flight number")
+  public Mono<Flight> getFlight(@PathVariable String flightNumber) {
+    log.info("Get flight by flight number: {}", flightNumber);
+    return flightApplicationService.getFlight(flightNumber);
+  }
+
+  @PostMapping("/{flightNumber}/passengers")
+  @Operation(summary = "Add passenger to a flight")
+  public Mono<ResponseEntity<String>> addPassenger(
+      @PathVariable String flightNumber, @Valid @RequestBody PassengerRequest passengerRequest) {
+    log.info("Add passenger to a flight: {}", flightNumber);
+    return flightApplicationService
+        .addPassenger(flightNumber, passengerRequest)
+        .thenReturn(ResponseEntity.ok("Passenger added successfully"));
+  }
+
+  @DeleteMapping("/{flightNumber}/passengers/{passengerId}")
+  @Operation(summary = "Remove passenger from a flight")
+  public Mono<ResponseEntity<String>> removePassenger(
+      @PathVariable String flightNumber, @PathVariable String passengerId) {
+    log.info("Remove passenger from a flight: {}", flightNumber);
+    return flightApplicationService
+        .removePassenger(flightNumber, passengerId)
+        .map(
+            removed ->
+                removed
+                    ? ResponseEntity.ok("Passenger removed successfully")
+                    : ResponseEntity.notFound().build());
+  }
+
+  @GetMapping("/route")
+  @Operation(summary = "Find flights by origin and destination")
+  public Flux<Flight> getFlightsByRoute(
+      @RequestParam String origin, @RequestParam String destination) {
+    log.info("Find flights by origin and destination: {} to {}", origin, destination);
+    return flightApplicationService.findFlightsByRoute(origin, destination);
+  }
+
+  @GetMapping("/departures")
+  @Operation(summary = "Find flights by departure time range")
+  public Flux<Flight> getFlightsByDepartureRange(
+      @RequestParam LocalDateTime start, @RequestParam LocalDateTime end) {
+    log.info("Find flights by departure time range: {} to {}", start, end);
+    return flightApplicationService.findFlightsByDepartureRange(start, end);
+  }
+
+  @DeleteMapping("/{flightNumber}")
+  @Operation(summary = "Delete a flight")
+  public Mono<ResponseEntity<String>> deleteFlight(@PathVariable String flightNumber) {
+    log.info("Delete a flight: {}", flightNumber);
+    return flightApplicationService
+        .deleteFlight(flightNumber)
+        .thenReturn(ResponseEntity.ok("Flight deleted successfully"));
+  }
+}
@@ -3,18 +3,23 @@ package com.bharat.airport.interfaces.web.error;
 import com.bharat.airport.config.ExcludeFromJacocoGeneratedReport;
 import com.bharat.airport.domain.exception.AirportAlreadyExistsException;
 import com.bharat.airport.domain.exception.AirportNotFoundException;
+import com.bharat.airport.domain.exception.FlightAlreadyExistsException;
 import com.bharat.airport.domain.exception.FlightNotFoundException;
 import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
+import org.springframework.web.server.ServerWebInputException;
 
 @ExcludeFromJacocoGeneratedReport
 @RestControllerAdvice
@@ -40,6 +45,23 @@ public class GlobalExceptionHandler {
     return new ErrorResponse(errors);
   }
 
+  @ExceptionHandler(WebExchangeBindException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public ErrorResponse handleValidationExceptions(WebExchangeBindException ex) {
+    List<ErrorDetail> errors =
+        ex.getFieldErrors().stream()
+            .map(error -> new ErrorDetail("VALIDATION_ERROR", error.getDefaultMessage()))
+            .collect(Collectors.toList());
+    return new ErrorResponse(errors);
+  }
+
+  @ExceptionHandler(ServerWebInputException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public ErrorResponse handleMalformedInput(ServerWebInputException ex) {
+    List<ErrorDetail> errors = List.of(new ErrorDetail("MALFORMED_REQUEST_BODY", ex.getReason()));
+    return new ErrorResponse(errors);
+  }
+
   @ExceptionHandler(HttpMessageNotReadableException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ErrorResponse handleMissingRequestBody(HttpMessageNotReadableException ex) {
@@ -89,6 +111,31 @@ public class GlobalExceptionHandler {
     return new ErrorResponse(errors);
   }
 
+  @ExceptionHandler(FlightAlreadyExistsException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ErrorResponse handleFlightAlreadyExistsException(FlightAlreadyExistsException ex) {
+    List<ErrorDetail> errors = List.of(new ErrorDetail("FLIGHT_ALREADY_EXISTS", ex.getMessage()));
+    return new ErrorResponse(errors);
+  }
+
+  @ExceptionHandler(DataAccessResourceFailureException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ErrorResponse handleDataAccessResourceFailure(DataAccessResourceFailureException ex) {
+    List<ErrorDetail> errors =
+        List.of(new ErrorDetail("DATABASE_UNAVAILABLE", "The database is busy, retry later"));
+    return new ErrorResponse(errors);
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ErrorResponse handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+    List<ErrorDetail> errors =
+        List.of(
+            new ErrorDetail(
+                "CONCURRENT_MODIFICATION", "The resource was modified concurrently, retry later"));
+    return new ErrorResponse(errors);
+  }
+
   @ExceptionHandler(SeatAlreadyAssignedException.class)
   @ResponseStatus(HttpStatus.CONFLICT)
   public ErrorResponse handleSeatAlreadyAssignedException(SeatAlreadyAssignedException ex) {
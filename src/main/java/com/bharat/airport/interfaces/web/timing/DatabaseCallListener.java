@@ -0,0 +1,23 @@
+package com.bharat.airport.interfaces.web.timing;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts every Mongo command, successful or not, against the request on whose thread it ran. The
+ * blocking driver reports a command on the thread that sent it.
+ */
+public class DatabaseCallListener implements CommandListener {
+
+  @Override
+  public void commandSucceeded(CommandSucceededEvent event) {
+    RequestTimings.recordDbCall(event.getElapsedTime(TimeUnit.NANOSECONDS));
+  }
+
+  @Override
+  public void commandFailed(CommandFailedEvent event) {
+    RequestTimings.recordDbCall(event.getElapsedTime(TimeUnit.NANOSECONDS));
+  }
+}
@@ -0,0 +1,112 @@
+package com.bharat.airport.interfaces.web.timing;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where the time of one request went: how many Mongo commands it sent and how long they took, how
+ * long the handler ran and how long the response took to serialize. The instance of the request
+ * being handled is bound to the current thread, so the Mongo command listener can add to it without
+ * being told which request a command belongs to. Tasks the request hands to the application task
+ * executor carry it along through {@link RequestTimingsTaskDecorator}. Commands sent from other
+ * threads, such as background cache refreshes, are not attributed to any request.
+ */
+public final class RequestTimings {
+
+  /** {@code Server-Timing} metric with the total Mongo time in milliseconds. */
+  public static final String DB = "db";
+
+  /** {@code Server-Timing} metric with the number of Mongo round trips in its description. */
+  public static final String DB_CALLS = "db-calls";
+
+  /** {@code Server-Timing} metric with the time until the handler returned its result. */
+  public static final String APP = "app";
+
+  /** {@code Server-Timing} metric with the time spent writing the response body. */
+  public static final String SERIALIZATION = "ser";
+
+  private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+  private final long startNanos;
+  private final AtomicInteger dbCalls = new AtomicInteger();
+  private final AtomicLong dbNanos = new AtomicLong();
+  private volatile long handlerCompletedNanos;
+
+  RequestTimings(long startNanos) {
+    this.startNanos = startNanos;
+  }
+
+  static RequestTimings start() {
+    return new RequestTimings(System.nanoTime());
+  }
+
+  /** Makes this the request handled on the current thread until {@link #unbind()}. */
+  void bind() {
+    CURRENT.set(this);
+  }
+
+  static void unbind() {
+    CURRENT.remove();
+  }
+
+  /** The request handled on the current thread, or {@code null}. */
+  static RequestTimings current() {
+    return CURRENT.get();
+  }
+
+  /** Adds a Mongo command to the request handled on the current thread, if any. */
+  public static void recordDbCall(long elapsedNanos) {
+    RequestTimings timings = CURRENT.get();
+    if (timings != null) {
+      timings.dbCalls.incrementAndGet();
+      timings.dbNanos.addAndGet(elapsedNanos);
+    }
+  }
+
+  /** Marks the start of serialization for the request handled on the current thread, if any. */
+  public static void handlerCompleted() {
+    RequestTimings timings = CURRENT.get();
+    if (timings != null && timings.handlerCompletedNanos == 0) {
+      timings.handlerCompletedNanos = System.nanoTime();
+    }
+  }
+
+  public int getDbCalls() {
+    return dbCalls.get();
+  }
+
+  /**
+   * The {@code Server-Timing} value sent ahead of the body: the Mongo cost and handler time as of
+   * {@code nowNanos}. Without a recorded handler completion, the whole time so far counts as
+   * handler time.
+   */
+  String beforeBody(long nowNanos) {
+    long handlerDone = handlerCompletedNanos == 0 ? nowNanos : handlerCompletedNanos;
+    return metric(DB, dbNanos.get())
+        + ", "
+        + DB_CALLS
+        + ";desc=\""
+        + dbCalls.get()
+        + "\", "
+        + metric(APP, handlerDone - startNanos);
+  }
+
+  /**
+   * The final {@code Server-Timing} value as of {@code nowNanos}, sent as a trailer once the body
+   * has been written. Adds the serialization time if a handler completion was recorded.
+   */
+  String serverTiming(long nowNanos) {
+    String timing = beforeBody(nowNanos);
+    if (handlerCompletedNanos == 0) {
+      return timing;
+    }
+    return timing + ", " + metric(SERIALIZATION, nowNanos - handlerCompletedNanos);
+  }
+
+  private static String metric(String name, long nanos) {
+    return String.format(
+        Locale.ROOT, "%s;dur=%.3f", name, nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+  }
+}
@@ -0,0 +1,34 @@
+package com.bharat.airport.interfaces.web.timing;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs tasks submitted during a request with that request's {@link RequestTimings} bound, so Mongo
+ * commands of a streamed NDJSON body, written on the application task executor, count towards the
+ * request. Spring Boot applies the single {@link TaskDecorator} bean to that executor.
+ */
+@Component
+public class RequestTimingsTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    RequestTimings timings = RequestTimings.current();
+    if (timings == null) {
+      return runnable;
+    }
+    return () -> {
+      RequestTimings previous = RequestTimings.current();
+      timings.bind();
+      try {
+        runnable.run();
+      } finally {
+        if (previous == null) {
+          RequestTimings.unbind();
+        } else {
+          previous.bind();
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,41 @@
+package com.bharat.airport.interfaces.web.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the moment a handler's result is handed to the message converter to be written, and adds
+ * the {@code Server-Timing} header while the headers can still be changed.
+ */
+@ControllerAdvice
+public class SerializationTimingAdvice implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    RequestTimings.handlerCompleted();
+    RequestTimings timings = RequestTimings.current();
+    if (timings != null && response != null) {
+      response
+          .getHeaders()
+          .set(ServerTimingFilter.SERVER_TIMING, timings.beforeBody(System.nanoTime()));
+    }
+    return body;
+  }
+}
@@ -0,0 +1,74 @@
+package com.bharat.airport.interfaces.web.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Adds a {@code Server-Timing} header with the request's Mongo round trips, Mongo time and handler
+ * time, e.g. {@code db;dur=3.120, db-calls;desc="2", app;dur=9.870}.
+ *
+ * <p>The response is not buffered. Bodies written by a message converter get the header from {@link
+ * SerializationTimingAdvice} just before serialization starts; responses without a body get it
+ * here. Streamed responses (NDJSON) are written on the application task executor after the headers
+ * have gone out, so they get no header. A client that sends {@code TE: trailers} also gets the
+ * final value as a trailer once the body is written. The trailer adds the serialization time and,
+ * for streamed responses, the Mongo calls made while streaming.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  public static final String SERVER_TIMING = "Server-Timing";
+
+  private static final String TIMINGS_ATTRIBUTE = RequestTimings.class.getName();
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestTimings timings = (RequestTimings) request.getAttribute(TIMINGS_ATTRIBUTE);
+    if (timings == null) {
+      timings = RequestTimings.start();
+      request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+      if (acceptsTrailers(request)) {
+        RequestTimings trailerTimings = timings;
+        response.addHeader(HttpHeaders.TRAILER, SERVER_TIMING);
+        response.setTrailerFields(
+            () -> Map.of(SERVER_TIMING, trailerTimings.serverTiming(System.nanoTime())));
+      }
+    }
+    timings.bind();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestTimings.unbind();
+    }
+    if (!request.isAsyncStarted()
+        && !response.isCommitted()
+        && !response.containsHeader(SERVER_TIMING)) {
+      response.setHeader(SERVER_TIMING, timings.beforeBody(System.nanoTime()));
+    }
+  }
+
+  private static boolean acceptsTrailers(HttpServletRequest request) {
+    String te = request.getHeader(HttpHeaders.TE);
+    return te != null
+        && te.toLowerCase(Locale.ROOT).contains("trailers")
+        && !"HTTP/1.0".equals(request.getProtocol());
+  }
+}
@@ -18,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
 @ExtendWith(MockitoExtension.class)
 class AirportApplicationServiceTest {
@@ -43,13 +44,24 @@ class AirportApplicationServiceTest {
     AirportRequest request =
         new AirportRequest("JFK", "John F. Kennedy International Airport", true);
     when(airportRepository.existsById("JFK")).thenReturn(false);
-    when(airportRepository.save(any(Airport.class))).thenReturn(airport);
+    when(airportRepository.insert(any(Airport.class))).thenReturn(airport);
 
     Airport result = applicationService.registerAirport(request);
 
     assertNotNull(result);
     assertEquals("JFK", result.getCode());
-    verify(airportRepository).save(any(Airport.class));
+    verify(airportRepository).insert(any(Airport.class));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenAirportIsRegisteredConcurrently() {
+    AirportRequest request =
+        new AirportRequest("JFK", "John F. Kennedy International Airport", true);
+    when(airportRepository.existsById("JFK")).thenReturn(false);
+    when(airportRepository.insert(any(Airport.class))).thenThrow(new DuplicateKeyException("dup"));
+
+    assertThrows(
+        AirportAlreadyExistsException.class, () -> applicationService.registerAirport(request));
   }
 
   @Test
@@ -1,32 +1,49 @@
 package com.bharat.airport.application;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
+import com.bharat.airport.application.dto.FlightPage;
 import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerBatchResponse;
+import com.bharat.airport.application.dto.PassengerBatchResult.Status;
 import com.bharat.airport.application.dto.PassengerRequest;
+import com.bharat.airport.domain.exception.FlightAlreadyExistsException;
 import com.bharat.airport.domain.exception.FlightNotFoundException;
 import com.bharat.airport.domain.model.Flight;
 import com.bharat.airport.domain.model.Passenger;
 import com.bharat.airport.domain.model.SeetClass;
 import com.bharat.airport.domain.repository.FlightRepository;
+import com.bharat.airport.domain.repository.FlightSearch;
+import com.bharat.airport.domain.service.AddedPassengers;
+import com.bharat.airport.domain.service.FlightEventMetrics;
 import com.bharat.airport.domain.service.FlightService;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
 @ExtendWith(MockitoExtension.class)
 class FlightApplicationServiceTest {
 
   @Mock private FlightService flightService;
   @Mock private FlightRepository flightRepository;
+  @Mock private RouteFlightCache routeFlightCache;
+  @Mock private FlightNearCache flightNearCache;
+  @Mock private FlightEventMetrics flightEventMetrics;
 
   @InjectMocks private FlightApplicationService applicationService;
 
@@ -48,18 +65,30 @@ class FlightApplicationServiceTest {
     FlightRequest request =
         new FlightRequest(
             "AB123", "JFK", "LAX", flight.getScheduledDeparture(), flight.getScheduledArrival());
-    when(flightRepository.save(any())).thenReturn(flight);
+    when(flightRepository.insert(any(Flight.class))).thenReturn(flight);
 
     Flight result = applicationService.createFlight(request);
 
     assertNotNull(result);
     assertEquals("AB123", result.getFlightNumber());
-    verify(flightRepository).save(any());
+    verify(flightRepository).insert(any(Flight.class));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenCreatingExistingFlight() {
+    FlightRequest request =
+        new FlightRequest(
+            "AB123", "JFK", "LAX", flight.getScheduledDeparture(), flight.getScheduledArrival());
+    when(flightRepository.insert(any(Flight.class))).thenThrow(new DuplicateKeyException("dup"));
+
+    assertThrows(
+        FlightAlreadyExistsException.class, () -> applicationService.createFlight(request));
   }
 
   @Test
   void shouldGetAllFlightsWhenRequested() {
     when(flightRepository.findAll()).thenReturn(Collections.singletonList(flight));
+    when(flightRepository.withPassengers(anyList())).then(returnsFirstArg());
 
     List<Flight> result = applicationService.getAllFlights();
 
@@ -70,6 +99,9 @@ class FlightApplicationServiceTest {
   @Test
   void shouldGetFlightWhenFlightExists() {
     when(flightService.getFlightWithPassengers("AB123")).thenReturn(flight);
+    when(flightNearCache.get(eq("AB123"), any()))
+        .thenAnswer(
+            invocation -> invocation.<Function<String, Flight>>getArgument(1).apply("AB123"));
 
     Flight result = applicationService.getFlight("AB123");
 
@@ -79,15 +111,76 @@ class FlightApplicationServiceTest {
   @Test
   void shouldAddPassengerWhenRequested() {
     PassengerRequest request = new PassengerRequest("John Doe", "12A", SeetClass.Economy);
+    when(flightService.addPassengerToFlight(eq("AB123"), any(Passenger.class))).thenReturn(flight);
 
     applicationService.addPassenger("AB123", request);
 
     verify(flightService).addPassengerToFlight(eq("AB123"), any(Passenger.class));
   }
 
+  @Test
+  void shouldInvalidateRouteReturnedByThePassengerUpdates() {
+    when(flightService.addPassengerToFlight(eq("AB123"), any(Passenger.class))).thenReturn(flight);
+    when(flightService.addPassengersToFlight(eq("AB123"), anyList()))
+        .thenAnswer(invocation -> new AddedPassengers(flight, invocation.getArgument(1)));
+    when(flightService.removePassengerFromFlight("AB123", "pid")).thenReturn(Optional.of(flight));
+
+    applicationService.addPassenger(
+        "AB123", new PassengerRequest("John Doe", "12A", SeetClass.Economy));
+    applicationService.addPassengers(
+        "AB123", List.of(new PassengerRequest("Jane Smith", "12B", SeetClass.Economy)));
+    applicationService.removePassenger("AB123", "pid");
+
+    verify(routeFlightCache, times(3)).invalidate("JFK", "LAX");
+    verify(flightNearCache, times(3)).invalidate("AB123");
+    verify(flightRepository, never()).findRouteByFlightNumber(any());
+  }
+
+  @Test
+  void shouldKeepCachedRouteWhenNothingChanged() {
+    when(flightService.removePassengerFromFlight("AB123", "pid")).thenReturn(Optional.empty());
+    when(flightService.addPassengersToFlight(eq("AB123"), anyList()))
+        .thenReturn(new AddedPassengers(flight, List.of()));
+
+    applicationService.removePassenger("AB123", "pid");
+    applicationService.addPassengers(
+        "AB123", List.of(new PassengerRequest("John Doe", "12A", SeetClass.Economy)));
+
+    verifyNoInteractions(routeFlightCache);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldReportAddedAndConflictingPassengersOfBatch() {
+    List<PassengerRequest> requests =
+        List.of(
+            new PassengerRequest("John Doe", "12A", SeetClass.Economy),
+            new PassengerRequest("Jane Smith", "12A", SeetClass.Economy),
+            new PassengerRequest("Bob Johnson", null, null));
+    when(flightService.addPassengersToFlight(eq("AB123"), anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Passenger> passengers = invocation.getArgument(1);
+              return new AddedPassengers(flight, List.of(passengers.get(0), passengers.get(2)));
+            });
+
+    PassengerBatchResponse response = applicationService.addPassengers("AB123", requests);
+
+    assertEquals(2, response.getAdded());
+    assertEquals(1, response.getRejected());
+    assertEquals(Status.ADDED, response.getResults().get(0).getStatus());
+    assertNotNull(response.getResults().get(0).getPassengerId());
+    assertEquals(Status.SEAT_CONFLICT, response.getResults().get(1).getStatus());
+    assertNull(response.getResults().get(1).getPassengerId());
+    assertEquals("Jane Smith", response.getResults().get(1).getName());
+    assertEquals(1, response.getResults().get(1).getIndex());
+    assertTrue(response.getResults().get(1).getMessage().contains("12A"));
+    assertEquals(Status.ADDED, response.getResults().get(2).getStatus());
+  }
+
   @Test
   void shouldRemovePassengerWhenRequested() {
-    when(flightService.removePassengerFromFlight("AB123", "pid")).thenReturn(true);
+    when(flightService.removePassengerFromFlight("AB123", "pid")).thenReturn(Optional.of(flight));
 
     boolean result = applicationService.removePassenger("AB123", "pid");
 
@@ -97,25 +190,30 @@ class FlightApplicationServiceTest {
 
   @Test
   void shouldDeleteFlightWhenFlightExists() {
-    when(flightService.flightExists("AB123")).thenReturn(true);
+    when(flightRepository.findRouteByFlightNumber("AB123")).thenReturn(Optional.of(flight));
 
     applicationService.deleteFlight("AB123");
 
     verify(flightRepository).deleteById("AB123");
+    verify(routeFlightCache).invalidate("JFK", "LAX");
+    verify(flightNearCache).invalidate("AB123");
   }
 
   @Test
   void shouldThrowExceptionWhenDeletingNonExistentFlight() {
-    when(flightService.flightExists("INVALID")).thenReturn(false);
+    when(flightRepository.findRouteByFlightNumber("INVALID")).thenReturn(Optional.empty());
 
     assertThrows(FlightNotFoundException.class, () -> applicationService.deleteFlight("INVALID"));
+    verify(flightRepository, never()).deleteById(any());
+    verify(flightEventMetrics).flightNotFound();
   }
 
   @Test
   void shouldFindFlightsByRoute() {
-    when(flightService.findFlightsByRoute("O", "D")).thenReturn(Collections.singletonList(flight));
+    when(routeFlightCache.get("O", "D")).thenReturn(Collections.singletonList(flight));
     List<Flight> result = applicationService.findFlightsByRoute("O", "D");
     assertEquals(1, result.size());
+    verify(flightService, never()).findFlightsByRoute(any(), any());
   }
 
   @Test
@@ -127,4 +225,77 @@ class FlightApplicationServiceTest {
     List<Flight> result = applicationService.findFlightsByDepartureRange(start, end);
     assertEquals(1, result.size());
   }
+
+  @Test
+  void shouldFindFlightsWithProjection() {
+    FlightSearch search = FlightSearch.builder().fields(Set.of("flightNumber")).build();
+    when(flightRepository.find(search)).thenReturn(List.of(flight));
+
+    assertEquals(List.of(flight), applicationService.findFlights(search));
+  }
+
+  @Test
+  void shouldGetSelectedFieldsOfFlight() {
+    when(flightRepository.find(any(FlightSearch.class))).thenReturn(List.of(flight));
+
+    assertSame(flight, applicationService.getFlight("AB123", Set.of("origin")));
+    verify(flightRepository)
+        .find(
+            argThat(
+                search ->
+                    "AB123".equals(search.getFlightNumber())
+                        && Set.of("origin").equals(search.getFields())));
+  }
+
+  @Test
+  void shouldThrowWhenSelectingFieldsOfMissingFlight() {
+    when(flightRepository.find(any(FlightSearch.class))).thenReturn(List.of());
+
+    assertThrows(
+        FlightNotFoundException.class,
+        () -> applicationService.getFlight("MISSING", Set.of("origin")));
+    verify(flightEventMetrics).flightNotFound();
+  }
+
+  @Test
+  void shouldReadOneExtraFlightToDetectNextPage() {
+    Flight next = new Flight("AB124", "JFK", "LAX", null, null);
+    FlightSearch search = FlightSearch.builder().build();
+    when(flightRepository.findPage(search, 2)).thenReturn(List.of(flight, next));
+
+    FlightPage page = applicationService.findFlightPage(search, 1);
+
+    assertEquals(List.of(flight), page.getFlights());
+    assertTrue(page.isHasMore());
+  }
+
+  @Test
+  void shouldReportLastPage() {
+    FlightSearch search = FlightSearch.builder().build();
+    when(flightRepository.findPage(search, 3)).thenReturn(List.of(flight));
+
+    FlightPage page = applicationService.findFlightPage(search, 2);
+
+    assertEquals(List.of(flight), page.getFlights());
+    assertFalse(page.isHasMore());
+  }
+
+  @Test
+  void shouldStreamAllFlightsFromRepositoryCursor() {
+    when(flightRepository.streamAllBy()).thenReturn(Stream.of(flight));
+    when(flightRepository.withPassengers(any(Stream.class))).then(returnsFirstArg());
+    assertEquals(List.of(flight), applicationService.streamAllFlights().toList());
+    verify(flightRepository, never()).findAll();
+  }
+
+  @Test
+  void shouldStreamFlightsByRouteAndDepartureRange() {
+    LocalDateTime start = LocalDateTime.now();
+    LocalDateTime end = start.plusDays(1);
+    when(flightService.streamFlightsByRoute("O", "D")).thenReturn(Stream.of(flight));
+    when(flightService.streamFlightsByDepartureRange(start, end)).thenReturn(Stream.of(flight));
+
+    assertEquals(1, applicationService.streamFlightsByRoute("O", "D").count());
+    assertEquals(1, applicationService.streamFlightsByDepartureRange(start, end).count());
+  }
 }
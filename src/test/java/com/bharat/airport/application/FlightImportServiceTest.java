@@ -0,0 +1,165 @@
+package com.bharat.airport.application;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.application.dto.FlightImportReport;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.repository.FlightRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FlightImportServiceTest {
+
+  private static final Validator VALIDATOR =
+      Validation.buildDefaultValidatorFactory().getValidator();
+
+  @Mock private FlightRepository flightRepository;
+  @Mock private RouteFlightCache routeFlightCache;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private final List<List<String>> chunks = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    lenient()
+        .when(flightRepository.insertUnordered(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Flight> flights = invocation.getArgument(0);
+              chunks.add(flights.stream().map(Flight::getFlightNumber).toList());
+              return Map.of();
+            });
+  }
+
+  @Test
+  void shouldInsertFlightsInChunks() throws Exception {
+    FlightImportService service = service(2);
+
+    FlightImportReport report =
+        service.importFlights(ndjson(flight("AB1"), flight("AB2"), "", flight("AB3")));
+
+    assertEquals(3, report.getReceived());
+    assertEquals(3, report.getImported());
+    assertEquals(0, report.getFailed());
+    assertEquals(List.of(List.of("AB1", "AB2"), List.of("AB3")), chunks);
+  }
+
+  @Test
+  void shouldReportInvalidLinesAndKeepImporting() throws Exception {
+    FlightImportService service = service(10);
+    String pastFlight =
+        "{\"flightNumber\":\"OLD1\",\"origin\":\"JFK\",\"destination\":\"LAX\","
+            + "\"scheduledDeparture\":\"2000-01-01T10:00:00\","
+            + "\"scheduledArrival\":\"2000-01-01T12:00:00\"}";
+
+    FlightImportReport report =
+        service.importFlights(
+            ndjson(
+                flight("AB1"),
+                "{not json",
+                "{\"flightNumber\":\"XX1\"}",
+                pastFlight,
+                flight("AB2")));
+
+    assertEquals(5, report.getReceived());
+    assertEquals(2, report.getImported());
+    assertEquals(3, report.getFailed());
+    assertEquals(List.of(List.of("AB1", "AB2")), chunks);
+    assertEquals(2, report.getErrors().get(0).getLine());
+    assertTrue(report.getErrors().get(0).getReason().startsWith("Malformed JSON"));
+    assertEquals("XX1", report.getErrors().get(1).getFlightNumber());
+    assertTrue(report.getErrors().get(1).getReason().contains("Origin is required"));
+    assertEquals("Cannot schedule flight in the past", report.getErrors().get(2).getReason());
+    assertFalse(report.isErrorsTruncated());
+  }
+
+  @Test
+  void shouldMapBulkWriteFailuresBackToLines() throws Exception {
+    when(flightRepository.insertUnordered(anyList()))
+        .thenReturn(Map.of(1, "Flight already exists: AB2"));
+    FlightImportService service = service(10);
+
+    FlightImportReport report =
+        service.importFlights(ndjson(flight("AB1"), flight("AB2"), flight("AB3")));
+
+    assertEquals(2, report.getImported());
+    assertEquals(1, report.getFailed());
+    assertEquals(2, report.getErrors().get(0).getLine());
+    assertEquals("AB2", report.getErrors().get(0).getFlightNumber());
+  }
+
+  @Test
+  void shouldInvalidateRoutesOfImportedFlightsAfterEachChunk() throws Exception {
+    when(flightRepository.insertUnordered(anyList()))
+        .thenReturn(Map.of(2, "Flight already exists: AB3"), Map.of());
+    FlightImportService service = service(3);
+
+    service.importFlights(
+        ndjson(flight("AB1"), flight("AB2"), flight("AB3", "ORD", "MIA"), flight("AB4")));
+
+    verify(routeFlightCache, times(3)).invalidate("JFK", "LAX");
+    verify(routeFlightCache, never()).invalidate("ORD", "MIA");
+  }
+
+  @Test
+  void shouldTruncateReportedErrors() throws Exception {
+    FlightImportService service =
+        new FlightImportService(flightRepository, routeFlightCache, objectMapper, VALIDATOR, 10, 1);
+
+    FlightImportReport report = service.importFlights(ndjson("{bad", "{bad"));
+
+    assertEquals(2, report.getFailed());
+    assertEquals(1, report.getErrors().size());
+    assertTrue(report.isErrorsTruncated());
+    verify(flightRepository, never()).insertUnordered(anyList());
+  }
+
+  @Test
+  void shouldRejectNonPositiveChunkSize() {
+    assertThrows(IllegalArgumentException.class, () -> service(0));
+  }
+
+  private FlightImportService service(int chunkSize) {
+    return new FlightImportService(
+        flightRepository, routeFlightCache, objectMapper, VALIDATOR, chunkSize, 100);
+  }
+
+  private static String flight(String flightNumber) {
+    return flight(flightNumber, "JFK", "LAX");
+  }
+
+  private static String flight(String flightNumber, String origin, String destination) {
+    LocalDateTime departure = LocalDateTime.now().plusDays(1).withNano(0);
+    return "{\"flightNumber\":\""
+        + flightNumber
+        + "\",\"origin\":\""
+        + origin
+        + "\",\"destination\":\""
+        + destination
+        + "\",\"scheduledDeparture\":\""
+        + departure
+        + "\",\"scheduledArrival\":\""
+        + departure.plusHours(5)
+        + "\"}";
+  }
+
+  private static ByteArrayInputStream ndjson(String... lines) {
+    return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,246 @@
+package com.bharat.airport.application;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.domain.model.Flight;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+class FlightNearCacheTest {
+
+  @Mock private MongoTemplate mongoTemplate;
+  @Mock private MongoConverter converter;
+
+  private final Flight cached = flight(1L);
+
+  private FlightNearCache nearCache;
+
+  @BeforeEach
+  void setUp() {
+    nearCache = new FlightNearCache(mongoTemplate, true, 100, "node-1", Duration.ZERO);
+  }
+
+  @AfterEach
+  void tearDown() {
+    nearCache.stop();
+  }
+
+  @Test
+  void shouldReadThroughToMongoWhileStreamIsNotLive() {
+    nearCache.get("AB1", flightNumber -> cached);
+
+    assertFalse(nearCache.isLive());
+    assertSame(cached, nearCache.get("AB1", flightNumber -> cached));
+    assertEquals(0, nearCache.nativeCache().estimatedSize());
+  }
+
+  @Test
+  void shouldApplyNewerPostImageToCachedFlight() {
+    Flight changed = flight(2L);
+    Document document = new Document("_id", "AB1");
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    when(converter.read(Flight.class, document)).thenReturn(changed);
+    nearCache.nativeCache().put("AB1", cached);
+
+    nearCache.apply(event(OperationType.UPDATE, "AB1", document));
+
+    assertSame(changed, nearCache.nativeCache().getIfPresent("AB1"));
+  }
+
+  @Test
+  void shouldIgnoreReplayedOlderPostImage() {
+    Document document = new Document("_id", "AB1");
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    when(converter.read(Flight.class, document)).thenReturn(flight(null));
+    nearCache.nativeCache().put("AB1", cached);
+
+    nearCache.apply(event(OperationType.REPLACE, "AB1", document));
+
+    assertSame(cached, nearCache.nativeCache().getIfPresent("AB1"));
+  }
+
+  @Test
+  void shouldNotPopulateFlightsThatAreNotCached() {
+    Document document = new Document("_id", "AB2");
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    when(converter.read(Flight.class, document)).thenReturn(flight(1L));
+
+    nearCache.apply(event(OperationType.INSERT, "AB2", document));
+
+    assertNull(nearCache.nativeCache().getIfPresent("AB2"));
+  }
+
+  @Test
+  void shouldEvictDeletedFlights() {
+    nearCache.nativeCache().put("AB1", cached);
+    nearCache.nativeCache().put("AB2", cached);
+
+    nearCache.apply(event(OperationType.UPDATE, "AB1", null));
+    nearCache.apply(event(OperationType.DELETE, "AB2", null));
+
+    assertEquals(0, nearCache.nativeCache().estimatedSize());
+  }
+
+  @Test
+  void shouldFlushOnCollectionLevelEvents() {
+    nearCache.nativeCache().put("AB1", cached);
+    nearCache.nativeCache().put("AB2", cached);
+
+    nearCache.apply(event(OperationType.DROP, "AB1", null));
+
+    assertEquals(0, nearCache.nativeCache().estimatedSize());
+  }
+
+  @Test
+  void shouldInvalidateFlightChangedLocally() {
+    nearCache.nativeCache().put("AB1", cached);
+
+    nearCache.invalidate("AB1");
+
+    assertNull(nearCache.nativeCache().getIfPresent("AB1"));
+  }
+
+  @Test
+  void shouldNotWatchWhenDisabled() {
+    FlightNearCache disabled =
+        new FlightNearCache(mongoTemplate, false, 100, "node-1", Duration.ZERO);
+
+    disabled.start();
+
+    assertFalse(disabled.isRunning());
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldResumeFromSavedTokenAndServeFromMemoryOnceCaughtUp() {
+    BsonDocument saved = token("saved");
+    BsonDocument latest = token("latest");
+    MongoCollection<BsonDocument> tokens = tokens(new BsonDocument("token", saved));
+    ChangeStreamIterable<Document> stream = stream();
+    MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = cursor(latest);
+    when(stream.resumeAfter(saved)).thenReturn(stream);
+    when(stream.cursor()).thenReturn(cursor);
+
+    nearCache.start();
+    await().atMost(5, TimeUnit.SECONDS).until(nearCache::isLive);
+    nearCache.get("AB1", flightNumber -> cached);
+    Flight second = nearCache.get("AB1", flightNumber -> fail("should be cached"));
+    nearCache.stop();
+
+    assertSame(cached, second);
+    assertFalse(nearCache.isRunning());
+    verify(cursor, atLeastOnce()).close();
+    verify(tokens, atLeastOnce())
+        .replaceOne(
+            any(Bson.class),
+            argThat((BsonDocument saving) -> latest.equals(saving.get("token"))),
+            any(ReplaceOptions.class));
+  }
+
+  @Test
+  void shouldFlushAndStartOverWhenHistoryIsLost() {
+    BsonDocument saved = token("saved");
+    MongoCollection<BsonDocument> tokens = tokens(new BsonDocument("token", saved));
+    ChangeStreamIterable<Document> stream = stream();
+    ChangeStreamIterable<Document> resumed = mock(ChangeStreamIterable.class);
+    when(stream.resumeAfter(saved)).thenReturn(resumed);
+    when(resumed.cursor()).thenThrow(new MongoException(286, "history lost"));
+    MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = cursor(token("fresh"));
+    when(stream.cursor()).thenReturn(cursor);
+    nearCache.nativeCache().put("AB1", cached);
+
+    nearCache.start();
+    await().atMost(5, TimeUnit.SECONDS).until(nearCache::isLive);
+
+    assertNull(nearCache.nativeCache().getIfPresent("AB1"));
+    verify(tokens).deleteOne(any(Bson.class));
+  }
+
+  private MongoCollection<BsonDocument> tokens(BsonDocument saved) {
+    MongoDatabase database = mock(MongoDatabase.class);
+    MongoCollection<BsonDocument> tokens = mock(MongoCollection.class);
+    FindIterable<BsonDocument> found = mock(FindIterable.class);
+    when(mongoTemplate.getDb()).thenReturn(database);
+    when(database.getCollection(FlightNearCache.TOKEN_COLLECTION, BsonDocument.class))
+        .thenReturn(tokens);
+    when(tokens.find(any(Bson.class))).thenReturn(found);
+    when(found.first()).thenReturn(saved);
+    return tokens;
+  }
+
+  private ChangeStreamIterable<Document> stream() {
+    MongoCollection<Document> flights = mock(MongoCollection.class);
+    ChangeStreamIterable<Document> stream = mock(ChangeStreamIterable.class);
+    when(mongoTemplate.getCollectionName(Flight.class)).thenReturn("flights");
+    when(mongoTemplate.getCollection("flights")).thenReturn(flights);
+    when(flights.watch()).thenReturn(stream);
+    when(stream.fullDocument(FullDocument.UPDATE_LOOKUP)).thenReturn(stream);
+    when(stream.maxAwaitTime(1, TimeUnit.SECONDS)).thenReturn(stream);
+    return stream;
+  }
+
+  private static MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor(
+      BsonDocument token) {
+    MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor =
+        mock(MongoChangeStreamCursor.class);
+    when(cursor.tryNext())
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(5);
+              return null;
+            });
+    when(cursor.getResumeToken()).thenReturn(token);
+    return cursor;
+  }
+
+  private static ChangeStreamDocument<Document> event(
+      OperationType operationType, String flightNumber, Document fullDocument) {
+    ChangeStreamDocument<Document> event = mock(ChangeStreamDocument.class);
+    when(event.getOperationType()).thenReturn(operationType);
+    if (operationType != OperationType.DROP) {
+      lenient()
+          .when(event.getDocumentKey())
+          .thenReturn(new BsonDocument("_id", new BsonString(flightNumber)));
+    }
+    lenient().when(event.getFullDocument()).thenReturn(fullDocument);
+    return event;
+  }
+
+  private static BsonDocument token(String data) {
+    return new BsonDocument("_data", new BsonString(data)).append("v", new BsonInt32(1));
+  }
+
+  private static Flight flight(Long version) {
+    Flight flight = new Flight("AB1", "JFK", "LAX", null, null);
+    flight.setVersion(version);
+    return flight;
+  }
+}
@@ -0,0 +1,179 @@
+package com.bharat.airport.application;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerRequest;
+import com.bharat.airport.domain.exception.FlightAlreadyExistsException;
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.domain.repository.ReactiveFlightRepository;
+import com.bharat.airport.domain.service.FlightEventMetrics;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveFlightApplicationServiceTest {
+
+  @Mock private ReactiveFlightRepository flightRepository;
+  @Mock private FlightEventMetrics flightEventMetrics;
+
+  @InjectMocks private ReactiveFlightApplicationService applicationService;
+
+  private final LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 0);
+  private final Flight flight =
+      new Flight("AB123", "JFK", "LAX", departure, departure.plusHours(5));
+
+  @Test
+  void shouldInsertNewFlight() {
+    when(flightRepository.insert(any(Flight.class))).thenAnswer(i -> Mono.just(i.getArgument(0)));
+
+    StepVerifier.create(
+            applicationService.createFlight(
+                new FlightRequest("AB123", "JFK", "LAX", departure, departure.plusHours(5))))
+        .assertNext(saved -> assertEquals("AB123", saved.getFlightNumber()))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldSignalFlightAlreadyExistsOnDuplicateKey() {
+    when(flightRepository.insert(any(Flight.class)))
+        .thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+    StepVerifier.create(
+            applicationService.createFlight(
+                new FlightRequest("AB123", "JFK", "LAX", departure, departure.plusHours(5))))
+        .verifyError(FlightAlreadyExistsException.class);
+  }
+
+  @Test
+  void shouldStreamFlightQueries() {
+    LocalDateTime end = departure.plusDays(1);
+    when(flightRepository.findAllBy()).thenReturn(Flux.just(flight));
+    when(flightRepository.findByRoute("JFK", "LAX")).thenReturn(Flux.just(flight));
+    when(flightRepository.findFlightsByDepartureTimeRange(departure, end))
+        .thenReturn(Flux.just(flight));
+
+    StepVerifier.create(applicationService.getAllFlights()).expectNext(flight).verifyComplete();
+    StepVerifier.create(applicationService.findFlightsByRoute("JFK", "LAX"))
+        .expectNext(flight)
+        .verifyComplete();
+    StepVerifier.create(applicationService.findFlightsByDepartureRange(departure, end))
+        .expectNext(flight)
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldGetFlightOrSignalNotFound() {
+    when(flightRepository.findById("AB123")).thenReturn(Mono.just(flight));
+    when(flightRepository.findById("XX000")).thenReturn(Mono.empty());
+
+    StepVerifier.create(applicationService.getFlight("AB123")).expectNext(flight).verifyComplete();
+    StepVerifier.create(applicationService.getFlight("XX000"))
+        .verifyError(FlightNotFoundException.class);
+    verify(flightEventMetrics).flightNotFound();
+  }
+
+  @Test
+  void shouldPushPassengerWithSeat() {
+    when(flightRepository.pushPassenger(eq("AB123"), any(Passenger.class)))
+        .thenReturn(Mono.empty());
+
+    StepVerifier.create(
+            applicationService.addPassenger(
+                "AB123", new PassengerRequest("John Doe", "12A", SeetClass.Economy)))
+        .verifyComplete();
+
+    ArgumentCaptor<Passenger> passenger = ArgumentCaptor.forClass(Passenger.class);
+    verify(flightRepository).pushPassenger(eq("AB123"), passenger.capture());
+    assertEquals("12A", passenger.getValue().getSeatAssignment().getSeatNumber());
+  }
+
+  @Test
+  void shouldPushPassengerWithoutSeat() {
+    when(flightRepository.pushPassenger(eq("AB123"), any(Passenger.class)))
+        .thenReturn(Mono.empty());
+
+    StepVerifier.create(
+            applicationService.addPassenger("AB123", new PassengerRequest("John Doe", null, null)))
+        .verifyComplete();
+
+    ArgumentCaptor<Passenger> passenger = ArgumentCaptor.forClass(Passenger.class);
+    verify(flightRepository).pushPassenger(eq("AB123"), passenger.capture());
+    assertNull(passenger.getValue().getSeatAssignment());
+  }
+
+  @Test
+  void shouldPullPassengerById() {
+    UUID id = UUID.randomUUID();
+    when(flightRepository.pullPassenger("AB123", id)).thenReturn(Mono.just(true));
+
+    StepVerifier.create(applicationService.removePassenger("AB123", id.toString()))
+        .expectNext(true)
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldIgnoreMalformedPassengerId() {
+    StepVerifier.create(applicationService.removePassenger("AB123", "not-a-uuid"))
+        .expectNext(false)
+        .verifyComplete();
+    verifyNoInteractions(flightRepository);
+  }
+
+  @Test
+  void shouldDeleteExistingFlight() {
+    when(flightRepository.existsById("AB123")).thenReturn(Mono.just(true));
+    when(flightRepository.deleteById("AB123")).thenReturn(Mono.empty());
+
+    StepVerifier.create(applicationService.deleteFlight("AB123")).verifyComplete();
+
+    verify(flightRepository).deleteById("AB123");
+  }
+
+  @Test
+  void shouldSignalNotFoundWhenDeletingMissingFlight() {
+    when(flightRepository.existsById("XX000")).thenReturn(Mono.just(false));
+
+    StepVerifier.create(applicationService.deleteFlight("XX000"))
+        .verifyError(FlightNotFoundException.class);
+    verify(flightRepository, never()).deleteById(anyString());
+    verify(flightEventMetrics).flightNotFound();
+  }
+
+  @Test
+  void shouldCountRejectedSeatsAndMissingFlightsOfPassengerChanges() {
+    UUID id = UUID.randomUUID();
+    when(flightRepository.pushPassenger(eq("AB123"), any(Passenger.class)))
+        .thenReturn(Mono.error(new SeatAlreadyAssignedException("12A")));
+    when(flightRepository.pullPassenger("XX000", id))
+        .thenReturn(Mono.error(new FlightNotFoundException("XX000")));
+
+    StepVerifier.create(
+            applicationService.addPassenger(
+                "AB123", new PassengerRequest("John Doe", "12A", SeetClass.Economy)))
+        .verifyError(SeatAlreadyAssignedException.class);
+    StepVerifier.create(applicationService.removePassenger("XX000", id.toString()))
+        .verifyError(FlightNotFoundException.class);
+
+    verify(flightEventMetrics).seatConflictRejected();
+    verify(flightEventMetrics).flightNotFound();
+  }
+}
@@ -0,0 +1,133 @@
+package com.bharat.airport.application;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.service.FlightService;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RouteFlightCacheTest {
+
+  @Mock private FlightService flightService;
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final Queue<Runnable> refreshes = new ArrayDeque<>();
+
+  private final Flight first = new Flight("AB1", "JFK", "LAX", null, null);
+  private final Flight second = new Flight("AB2", "JFK", "LAX", null, null);
+
+  private RouteFlightCache cache;
+
+  @BeforeEach
+  void setUp() {
+    Ticker ticker = nanos::get;
+    cache =
+        new RouteFlightCache(
+            flightService,
+            100,
+            Duration.ofSeconds(10),
+            Duration.ofSeconds(30),
+            ticker,
+            refreshes::add);
+  }
+
+  @Test
+  void shouldServeRepeatedRouteSearchesFromMemory() {
+    when(flightService.findFlightsByRoute("JFK", "LAX")).thenReturn(List.of(first));
+
+    cache.get("JFK", "LAX");
+    List<Flight> flights = cache.get("JFK", "LAX");
+
+    assertEquals(List.of(first), flights);
+    assertThrows(UnsupportedOperationException.class, () -> flights.add(second));
+    verify(flightService, times(1)).findFlightsByRoute("JFK", "LAX");
+    assertEquals(1, cache.nativeCache().stats().hitCount());
+  }
+
+  @Test
+  void shouldReloadOnBoundedPoolOfItsOwn() {
+    ThreadPoolExecutor executor = RouteFlightCache.refreshExecutor(2, 100);
+    try {
+      assertEquals(2, executor.getMaximumPoolSize());
+      assertEquals(100, executor.getQueue().remainingCapacity());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldRefreshHotRouteWhileServingCurrentValue() {
+    when(flightService.findFlightsByRoute("JFK", "LAX"))
+        .thenReturn(List.of(first))
+        .thenReturn(List.of(first, second));
+    cache.get("JFK", "LAX");
+
+    advance(Duration.ofSeconds(11));
+
+    assertEquals(List.of(first), cache.get("JFK", "LAX"));
+    assertFalse(refreshes.isEmpty());
+    runRefreshes();
+    assertEquals(List.of(first, second), cache.get("JFK", "LAX"));
+    verify(flightService, times(2)).findFlightsByRoute("JFK", "LAX");
+  }
+
+  @Test
+  void shouldNeverServeEntriesOlderThanMaxStaleness() {
+    when(flightService.findFlightsByRoute("JFK", "LAX"))
+        .thenReturn(List.of(first))
+        .thenReturn(List.of(second));
+    cache.get("JFK", "LAX");
+
+    advance(Duration.ofSeconds(31));
+
+    assertEquals(List.of(second), cache.get("JFK", "LAX"));
+  }
+
+  @Test
+  void shouldInvalidateOnlyTheGivenRoute() {
+    when(flightService.findFlightsByRoute("JFK", "LAX")).thenReturn(List.of(first));
+    when(flightService.findFlightsByRoute("JFK", "SFO")).thenReturn(List.of());
+    cache.get("JFK", "LAX");
+    cache.get("JFK", "SFO");
+
+    cache.invalidate("JFK", "LAX");
+    cache.get("JFK", "LAX");
+    cache.get("JFK", "SFO");
+
+    verify(flightService, times(2)).findFlightsByRoute("JFK", "LAX");
+    verify(flightService, times(1)).findFlightsByRoute("JFK", "SFO");
+  }
+
+  @Test
+  void shouldRequireRefreshBeforeExpiry() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new RouteFlightCache(
+                flightService, 100, Duration.ofSeconds(30), Duration.ofSeconds(30), 1));
+  }
+
+  private void runRefreshes() {
+    for (Runnable task = refreshes.poll(); task != null; task = refreshes.poll()) {
+      task.run();
+    }
+  }
+
+  private void advance(Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+  }
+}
@@ -0,0 +1,134 @@
+package com.bharat.airport.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.application.AirportApplicationService;
+import com.bharat.airport.application.FlightNearCache;
+import com.bharat.airport.application.RouteFlightCache;
+import com.bharat.airport.application.dto.AirportRequest;
+import com.bharat.airport.domain.model.Airport;
+import com.bharat.airport.domain.repository.AirportRepository;
+import com.bharat.airport.domain.service.FlightService;
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig({CacheConfig.class, AirportApplicationService.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@TestPropertySource(properties = "spring.cache.type=caffeine")
+class CacheConfigTest {
+
+  @MockitoBean private AirportRepository airportRepository;
+
+  @Autowired private AirportApplicationService airportApplicationService;
+
+  @Autowired private CacheManager cacheManager;
+
+  private final Airport jfk = Airport.builder().code("JFK").name("John F. Kennedy").build();
+
+  @BeforeEach
+  void clearCaches() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+  }
+
+  @Test
+  void shouldServeRepeatedAirportLookupsFromMemory() {
+    when(airportRepository.findById("JFK")).thenReturn(Optional.of(jfk));
+
+    airportApplicationService.getAirport("JFK");
+    Airport cached = airportApplicationService.getAirport("JFK");
+
+    assertSame(jfk, cached);
+    verify(airportRepository, times(1)).findById("JFK");
+    assertEquals(1, nativeCache(CacheConfig.AIRPORT).stats().hitCount());
+    assertEquals(1, nativeCache(CacheConfig.AIRPORT).stats().missCount());
+  }
+
+  @Test
+  void shouldCacheAirportListAsUnmodifiableSnapshot() {
+    when(airportRepository.findAll()).thenReturn(List.of(jfk));
+
+    airportApplicationService.getAllAirports();
+    List<Airport> airports = airportApplicationService.getAllAirports();
+
+    verify(airportRepository, times(1)).findAll();
+    assertThrows(UnsupportedOperationException.class, () -> airports.add(jfk));
+  }
+
+  @Test
+  void shouldCacheRegisteredAirportAndEvictOnlyTheList() {
+    Airport lax = Airport.builder().code("LAX").name("Los Angeles").build();
+    when(airportRepository.findAll()).thenReturn(List.of(lax));
+    when(airportRepository.findById("LAX")).thenReturn(Optional.of(lax));
+    airportApplicationService.getAllAirports();
+    airportApplicationService.getAirport("LAX");
+    when(airportRepository.insert(any(Airport.class))).thenReturn(jfk);
+
+    airportApplicationService.registerAirport(new AirportRequest("JFK", "John F. Kennedy", true));
+
+    assertSame(jfk, airportApplicationService.getAirport("JFK"));
+    assertSame(lax, airportApplicationService.getAirport("LAX"));
+    verify(airportRepository, never()).findById("JFK");
+    verify(airportRepository, times(1)).findById("LAX");
+    assertNull(cacheManager.getCache(CacheConfig.AIRPORTS).get(CacheConfig.ALL_AIRPORTS_KEY));
+  }
+
+  @Test
+  void shouldEvictDeletedAirport() {
+    when(airportRepository.findById("JFK")).thenReturn(Optional.of(jfk));
+    when(airportRepository.existsById("JFK")).thenReturn(true);
+    airportApplicationService.getAirport("JFK");
+
+    airportApplicationService.deleteAirport("JFK");
+    airportApplicationService.getAirport("JFK");
+
+    verify(airportRepository, times(2)).findById("JFK");
+  }
+
+  @Test
+  void shouldPublishFlightCachesThroughCacheManager() {
+    RouteFlightCache routeFlightCache =
+        new RouteFlightCache(
+            mock(FlightService.class), 10, Duration.ofSeconds(1), Duration.ofSeconds(2), 1);
+    FlightNearCache flightNearCache =
+        new FlightNearCache(mock(MongoTemplate.class), false, 10, "node", Duration.ofSeconds(1));
+    StaticListableBeanFactory beans =
+        new StaticListableBeanFactory(
+            Map.of("routeFlightCache", routeFlightCache, "flightNearCache", flightNearCache));
+    CaffeineCacheManager manager = new CaffeineCacheManager();
+
+    new CacheConfig()
+        .flightCaches(
+            beans.getBeanProvider(RouteFlightCache.class),
+            beans.getBeanProvider(FlightNearCache.class))
+        .customize(manager);
+
+    assertSame(
+        routeFlightCache.nativeCache(),
+        manager.getCache(CacheConfig.ROUTE_FLIGHTS).getNativeCache());
+    assertSame(
+        flightNearCache.nativeCache(), manager.getCache(CacheConfig.FLIGHTS).getNativeCache());
+  }
+
+  @SuppressWarnings("unchecked")
+  private Cache<Object, Object> nativeCache(String name) {
+    return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+  }
+}
@@ -3,22 +3,46 @@ package com.bharat.airport.config;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.bharat.airport.domain.model.Flight;
 import com.bharat.airport.domain.repository.FlightRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.CommandLineRunner;
 
 class DataInitializerTest {
 
+  private final DataInitializer initializer = new DataInitializer();
+
+  private final FlightDataGenerator generator =
+      initializer.flightDataGenerator(
+          42, "", 7, "150=1", 0.5, 0.9, "First=2,Business=10,Economy=88");
+
   @Test
-  void shouldInitializeDataWhenRepositoryIsEmpty() throws Exception {
+  void shouldInsertGeneratedFlightsInBatchesWhenRepositoryIsEmpty() throws Exception {
     FlightRepository repository = mock(FlightRepository.class);
     when(repository.count()).thenReturn(0L);
+    Set<String> inserted = ConcurrentHashMap.newKeySet();
+    doAnswer(
+            invocation -> {
+              List<Flight> batch = invocation.getArgument(0);
+              assertTrue(batch.size() <= 4);
+              batch.forEach(flight -> inserted.add(flight.getFlightNumber()));
+              return null;
+            })
+        .when(repository)
+        .insertWithPassengers(anyList());
 
-    DataInitializer initializer = new DataInitializer();
-    CommandLineRunner runner = initializer.initData(repository);
+    CommandLineRunner runner = initializer.initData(repository, generator, true, 10, 4, 2);
     runner.run();
 
-    verify(repository, times(3)).save(any());
+    verify(repository, times(3)).insertWithPassengers(anyList());
+    verify(repository, never()).save(any());
+    verify(repository, never()).saveAll(any());
+    assertEquals(10, inserted.size());
   }
 
   @Test
@@ -26,10 +50,34 @@ class DataInitializerTest {
     FlightRepository repository = mock(FlightRepository.class);
     when(repository.count()).thenReturn(5L);
 
-    DataInitializer initializer = new DataInitializer();
-    CommandLineRunner runner = initializer.initData(repository);
+    CommandLineRunner runner = initializer.initData(repository, generator, true, 10, 4, 2);
     runner.run();
 
-    verify(repository, never()).save(any());
+    verify(repository, never()).insertWithPassengers(any());
+    verify(repository, never()).saveAll(any());
+  }
+
+  @Test
+  void shouldNotInitializeDataWhenDisabled() throws Exception {
+    FlightRepository repository = mock(FlightRepository.class);
+
+    CommandLineRunner runner = initializer.initData(repository, generator, false, 10, 4, 2);
+    runner.run();
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void shouldStartDeparturesAtConfiguredTimeOrNextMidnight() {
+    LocalDateTime nextMidnight = LocalDate.now().plusDays(1).atStartOfDay();
+    assertFalse(generator.flight(0).getScheduledDeparture().isBefore(nextMidnight));
+
+    FlightDataGenerator fixed =
+        initializer.flightDataGenerator(42, "2099-03-01T00:00", 1, "150=1", 0.5, 0.9, "Economy=1");
+    assertEquals(LocalDate.of(2099, 3, 1), fixed.flight(0).getScheduledDeparture().toLocalDate());
+
+    FlightDataGenerator past =
+        initializer.flightDataGenerator(42, "2020-03-01T00:00", 1, "150=1", 0.5, 0.9, "Economy=1");
+    assertEquals(LocalDate.of(2020, 3, 1), past.flight(0).getScheduledDeparture().toLocalDate());
   }
 }
@@ -0,0 +1,221 @@
+package com.bharat.airport.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.bharat.airport.config.FlightDataGenerator.Hub;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class FlightDataGeneratorTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2099, 1, 1, 0, 0);
+
+  private final FlightDataGenerator generator =
+      new FlightDataGenerator(
+          42, START, 14, "100=50,200=50", 0.5, 0.9, "First=2,Business=10,Economy=88");
+
+  @Test
+  void shouldGenerateTheSameFlightsForTheSameSeed() {
+    FlightDataGenerator again =
+        new FlightDataGenerator(
+            42, START, 14, "100=50,200=50", 0.5, 0.9, "First=2,Business=10,Economy=88");
+
+    for (long index : new long[] {0, 1, 999, 5_000_000}) {
+      assertSameFlight(generator.flight(index), again.flight(index));
+    }
+    assertNotEquals(
+        describe(generator.flight(0)),
+        describe(
+            new FlightDataGenerator(
+                    7, START, 14, "100=50,200=50", 0.5, 0.9, "First=2,Business=10,Economy=88")
+                .flight(0)));
+  }
+
+  @Test
+  void shouldGenerateTheSameFlightsInParallelBatches() {
+    List<Flight> parallel = Collections.synchronizedList(new ArrayList<>());
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    long passengers =
+        generator.generate(
+            25,
+            4,
+            3,
+            flights -> {
+              threads.add(Thread.currentThread().getName());
+              parallel.addAll(flights);
+            });
+
+    assertEquals(25, parallel.size());
+    parallel.sort((a, b) -> a.getFlightNumber().compareTo(b.getFlightNumber()));
+    List<Flight> sequential = generator.flights(0, 25);
+    sequential.sort((a, b) -> a.getFlightNumber().compareTo(b.getFlightNumber()));
+    for (int i = 0; i < sequential.size(); i++) {
+      assertSameFlight(sequential.get(i), parallel.get(i));
+    }
+    assertEquals(
+        sequential.stream().mapToLong(flight -> flight.getPassengers().size()).sum(), passengers);
+    assertTrue(threads.size() <= 3);
+    assertTrue(threads.stream().allMatch(name -> name.startsWith("sample-data-")));
+  }
+
+  @Test
+  void shouldGenerateRealisticFlights() {
+    List<Flight> flights = generator.flights(0, 2000);
+    Set<String> hubs = FlightDataGenerator.HUBS.stream().map(Hub::code).collect(Collectors.toSet());
+
+    assertEquals(2000, flights.stream().map(Flight::getFlightNumber).distinct().count());
+    for (Flight flight : flights) {
+      assertTrue(hubs.contains(flight.getOrigin()));
+      assertTrue(hubs.contains(flight.getDestination()));
+      assertNotEquals(flight.getOrigin(), flight.getDestination());
+      assertFalse(flight.getScheduledDeparture().isBefore(START));
+      assertTrue(flight.getScheduledDeparture().isBefore(START.plusDays(14)));
+      assertTrue(flight.getScheduledArrival().isAfter(flight.getScheduledDeparture()));
+    }
+    assertTrue(flights.stream().map(Flight::getOrigin).distinct().count() > 20);
+  }
+
+  @Test
+  void shouldFillCabinsWithinTheLoadFactorRange() {
+    Map<SeetClass, Integer> classes = new EnumMap<>(SeetClass.class);
+    long passengers = 0;
+    for (Flight flight : generator.flights(0, 500)) {
+      int size = flight.getPassengers().size();
+      boolean small = size >= 50 && size <= 90;
+      boolean large = size >= 100 && size <= 180;
+      assertTrue(small || large, "Unexpected manifest size " + size);
+      Set<SeatAssignment> seats = new HashSet<>();
+      for (Passenger passenger : flight.getPassengers()) {
+        assertNotNull(passenger.getId());
+        assertTrue(seats.add(passenger.getSeatAssignment()));
+        classes.merge(passenger.getSeatAssignment().getSeatClass(), 1, Integer::sum);
+      }
+      passengers += size;
+    }
+    assertEquals(0.02, classes.get(SeetClass.First) / (double) passengers, 0.01);
+    assertEquals(0.10, classes.get(SeetClass.Business) / (double) passengers, 0.02);
+  }
+
+  @Test
+  void shouldLayOutCabinsSixAbreastFromFirstToEconomy() {
+    SeatAssignment[] cabin =
+        FlightDataGenerator.cabin(
+            20, Map.of(SeetClass.First, 10.0, SeetClass.Business, 20.0, SeetClass.Economy, 70.0));
+
+    assertEquals(SeatAssignment.of("1A", SeetClass.First), cabin[0]);
+    assertEquals(SeatAssignment.of("1B", SeetClass.First), cabin[1]);
+    assertEquals(SeatAssignment.of("1C", SeetClass.Business), cabin[2]);
+    assertEquals(SeatAssignment.of("1F", SeetClass.Business), cabin[5]);
+    assertEquals(SeatAssignment.of("2A", SeetClass.Economy), cabin[6]);
+    assertEquals(SeatAssignment.of("4B", SeetClass.Economy), cabin[19]);
+  }
+
+  @Test
+  void shouldDeriveBlockTimeFromDistance() {
+    Hub jfk = new Hub("JFK", 40.64, -73.78, 1);
+    Hub lax = new Hub("LAX", 33.94, -118.41, 1);
+
+    // about 3,980 km: 295 minutes in the air plus 30 on the ground
+    assertEquals(325, FlightDataGenerator.blockMinutes(jfk, lax));
+    assertEquals(
+        FlightDataGenerator.blockMinutes(lax, jfk), FlightDataGenerator.blockMinutes(jfk, lax));
+  }
+
+  @Test
+  void shouldRejectInvalidSettings() {
+    assertThrows(
+        IllegalArgumentException.class, () -> generator("150=1", 0.5, 0.9, "Economy=1", 0));
+    assertThrows(
+        IllegalArgumentException.class, () -> generator("150=1", 0.9, 0.5, "Economy=1", 1));
+    assertThrows(
+        IllegalArgumentException.class, () -> generator("150=1", 0.5, 1.5, "Economy=1", 1));
+    assertThrows(
+        IllegalArgumentException.class, () -> generator("wide=1", 0.5, 0.9, "Economy=1", 1));
+    assertThrows(IllegalArgumentException.class, () -> generator("0=1", 0.5, 0.9, "Economy=1", 1));
+    assertThrows(
+        IllegalArgumentException.class, () -> generator("150=x", 0.5, 0.9, "Economy=1", 1));
+    assertThrows(IllegalArgumentException.class, () -> generator("150", 0.5, 0.9, "Economy=1", 1));
+    assertThrows(
+        IllegalArgumentException.class, () -> generator("150=1", 0.5, 0.9, "Premium=1", 1));
+    assertThrows(IllegalArgumentException.class, () -> generator.generate(10, 0, 1, flights -> {}));
+    assertThrows(IllegalArgumentException.class, () -> generator.generate(10, 1, 0, flights -> {}));
+  }
+
+  @Test
+  void shouldStopAtTheFirstFailedBatchAndRethrowIt() {
+    AtomicInteger batches = new AtomicInteger();
+    IllegalStateException failure = new IllegalStateException("insert failed");
+
+    assertSame(
+        failure,
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                generator.generate(
+                    100,
+                    1,
+                    1,
+                    flights -> {
+                      batches.incrementAndGet();
+                      throw failure;
+                    })));
+    assertEquals(1, batches.get());
+  }
+
+  @Test
+  void shouldGenerateFlightsDepartingBeforeNow() {
+    LocalDateTime past = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    Flight flight = new FlightDataGenerator(42, past, 1, "150=1", 0.5, 0.9, "Economy=1").flight(0);
+
+    assertEquals(past.toLocalDate(), flight.getScheduledDeparture().toLocalDate());
+    assertTrue(flight.getScheduledArrival().isAfter(flight.getScheduledDeparture()));
+  }
+
+  @Test
+  void shouldParseWeightsInOrder() {
+    assertEquals(
+        List.of("300", "150"),
+        List.copyOf(FlightDataGenerator.parseWeights("300 = 2, 150=1.5").keySet()));
+    assertEquals(1.5, FlightDataGenerator.parseWeights("300=2,150=1.5").get("150"));
+  }
+
+  private static FlightDataGenerator generator(
+      String aircraftSeats, double min, double max, String seatClasses, int days) {
+    return new FlightDataGenerator(1, START, days, aircraftSeats, min, max, seatClasses);
+  }
+
+  private static void assertSameFlight(Flight expected, Flight actual) {
+    assertEquals(describe(expected), describe(actual));
+  }
+
+  private static List<Object> describe(Flight flight) {
+    List<Object> fields = new ArrayList<>();
+    fields.add(flight.getFlightNumber());
+    fields.add(flight.getOrigin());
+    fields.add(flight.getDestination());
+    fields.add(flight.getScheduledDeparture());
+    fields.add(flight.getScheduledArrival());
+    for (Passenger passenger : flight.getPassengers()) {
+      fields.add(passenger.getId());
+      fields.add(passenger.getName());
+      fields.add(passenger.getSeatAssignment());
+    }
+    return fields;
+  }
+}
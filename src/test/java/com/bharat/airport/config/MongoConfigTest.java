@@ -0,0 +1,84 @@
+package com.bharat.airport.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import com.bharat.airport.interfaces.web.timing.DatabaseCallListener;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.connection.ConnectionPoolSettings;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+class MongoConfigTest {
+
+  @Test
+  void shouldApplyConfiguredConnectionPoolSize() {
+    MongoClientSettings.Builder settings = MongoClientSettings.builder();
+
+    new MongoConfig()
+        .connectionPoolCustomizer(200, 20, 8, Duration.ofSeconds(2))
+        .customize(settings);
+
+    ConnectionPoolSettings pool = settings.build().getConnectionPoolSettings();
+    assertEquals(200, pool.getMaxSize());
+    assertEquals(20, pool.getMinSize());
+    assertEquals(8, pool.getMaxConnecting());
+    assertEquals(2000, pool.getMaxWaitTime(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void shouldRegisterFlightCodecsAheadOfDriverDefaults() {
+    MongoClientSettings.Builder settings = MongoClientSettings.builder();
+
+    new MongoConfig().flightCodecCustomizer().customize(settings);
+
+    CodecRegistry registry = settings.build().getCodecRegistry();
+    assertEquals(Flight.class, registry.get(Flight.class).getEncoderClass());
+    assertEquals(Document.class, registry.get(Document.class).getEncoderClass());
+  }
+
+  @Test
+  void shouldConvertSeatsAndPassengerIdsInTheCurrentStorageFormat() {
+    MongoCustomConversions conversions = new MongoCustomConversions(StorageFormat.converters());
+
+    assertEquals(
+        conversions.getCustomWriteTarget(SeatAssignment.class),
+        new MongoConfig().mongoCustomConversions().getCustomWriteTarget(SeatAssignment.class));
+    assertTrue(
+        new MongoConfig().mongoCustomConversions().hasCustomReadTarget(Binary.class, UUID.class));
+  }
+
+  @Test
+  void shouldRegisterDatabaseCallListener() {
+    MongoClientSettings.Builder settings = MongoClientSettings.builder();
+
+    new MongoConfig().databaseCallListenerCustomizer().customize(settings);
+
+    assertEquals(1, settings.build().getCommandListeners().size());
+    assertInstanceOf(DatabaseCallListener.class, settings.build().getCommandListeners().get(0));
+  }
+
+  @Test
+  void shouldRegisterSlowQueryLogOnlyWhenEnabled() {
+    SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMillis(100), 20, 100);
+    MongoClientSettings.Builder enabled = MongoClientSettings.builder();
+    MongoClientSettings.Builder disabled = MongoClientSettings.builder();
+
+    new MongoConfig().slowQueryLogCustomizer(slowQueryLog, true).customize(enabled);
+    new MongoConfig().slowQueryLogCustomizer(slowQueryLog, false).customize(disabled);
+
+    assertEquals(List.of(slowQueryLog), enabled.build().getCommandListeners());
+    assertEquals(List.of(), disabled.build().getCommandListeners());
+  }
+}
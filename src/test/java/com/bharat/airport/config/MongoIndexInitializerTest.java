@@ -0,0 +1,60 @@
+package com.bharat.airport.config;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.domain.model.Airport;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import java.util.List;
+import java.util.Set;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+class MongoIndexInitializerTest {
+
+  @Test
+  void shouldCreateIndexesDeclaredOnDocuments() {
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+    mappingContext.setInitialEntitySet(Set.of(Flight.class, Airport.class, Passenger.class));
+    mappingContext.afterPropertiesSet();
+    MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    when(mongoTemplate.getConverter())
+        .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+    IndexOperations flightIndexes = mock(IndexOperations.class);
+    IndexOperations otherIndexes = mock(IndexOperations.class);
+    when(mongoTemplate.indexOps(any(Class.class))).thenReturn(otherIndexes);
+    when(mongoTemplate.indexOps(Flight.class)).thenReturn(flightIndexes);
+
+    new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+    ArgumentCaptor<IndexDefinition> indexes = ArgumentCaptor.forClass(IndexDefinition.class);
+    verify(flightIndexes, times(3)).createIndex(indexes.capture());
+    verify(flightIndexes)
+        .createIndex(
+            argThat(
+                index ->
+                    new Document("scheduledDeparture", 1)
+                        .append("_id", 1)
+                        .equals(index.getIndexKeys())));
+    verify(flightIndexes)
+        .createIndex(
+            argThat(
+                index ->
+                    new Document("origin", 1)
+                        .append("destination", 1)
+                        .append("scheduledDeparture", 1)
+                        .append("_id", 1)
+                        .equals(index.getIndexKeys())));
+    verify(otherIndexes, never()).createIndex(any());
+  }
+}
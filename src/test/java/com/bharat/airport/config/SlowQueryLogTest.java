@@ -0,0 +1,226 @@
+package com.bharat.airport.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLogTest {
+
+  private static final ConnectionDescription CONNECTION =
+      new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+  private static final String ROUTE_FIND =
+      "{find: 'flights', filter: {origin: 'LHR', destination: 'JFK'},"
+          + " sort: {scheduledDeparture: 1}, limit: 10, lsid: {id: 1}, $db: 'airportdb'}";
+
+  private static final String CURSOR_42 = "{cursor: {id: NumberLong(42), nextBatch: []}}";
+
+  private static final String CURSOR_43 = "{cursor: {id: NumberLong(43), nextBatch: []}}";
+
+  private final SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMillis(100), 2, 3);
+  private int requestId;
+
+  @Test
+  void shouldRedactLiteralsButKeepStructureOfShape() {
+    String shape =
+        SlowQueryLog.shape(
+            "find",
+            BsonDocument.parse(
+                "{find: 'flights', filter: {flightNumber: {$in: ['A1', 'B2', 'C3']},"
+                    + " 'passengers.seatAssignment.seatNumber': '12A'},"
+                    + " projection: {passengers: 0}, batchSize: 100, $db: 'airportdb'}"));
+
+    assertEquals(
+        "find flights {\"filter\": {\"flightNumber\": {\"$in\": [\"?\"]},"
+            + " \"passengers.seatAssignment.seatNumber\": \"?\"},"
+            + " \"projection\": {\"passengers\": 0}}",
+        shape);
+  }
+
+  @Test
+  void shouldKeepPipelineStagesAndUpdateOperators() {
+    assertEquals(
+        "aggregate flights {\"pipeline\": [{\"$match\": {\"origin\": \"?\"}},"
+            + " {\"$group\": {\"_id\": \"?\", \"n\": {\"$sum\": \"?\"}}}]}",
+        SlowQueryLog.shape(
+            "aggregate",
+            BsonDocument.parse(
+                "{aggregate: 'flights', pipeline: [{$match: {origin: 'LHR'}},"
+                    + " {$group: {_id: '$destination', n: {$sum: 1}}}], cursor: {}}")));
+    assertEquals(
+        "update flights {\"updates\": [{\"q\": {\"flightNumber\": \"?\"},"
+            + " \"u\": {\"$inc\": {\"version\": \"?\"}}}]}",
+        SlowQueryLog.shape(
+            "update",
+            BsonDocument.parse(
+                "{update: 'flights', updates: [{q: {flightNumber: 'A1'}, u: {$inc: {version: 1}}}]}")));
+    assertEquals(
+        "findAndModify flights {\"query\": {\"_id\": \"?\"}, \"update\": {\"$set\": {\"name\": \"?\"}}}",
+        SlowQueryLog.shape(
+            "findAndModify",
+            BsonDocument.parse(
+                "{findAndModify: 'flights', query: {_id: 'A1'}, update: {$set: {name: 'x'}}}")));
+    assertEquals("getMore", SlowQueryLog.shape("getMore", BsonDocument.parse("{getMore: 12}")));
+  }
+
+  @Test
+  void shouldCountDocumentsFromReply() {
+    assertEquals(
+        2, SlowQueryLog.documents(BsonDocument.parse("{cursor: {firstBatch: [{}, {}]}, ok: 1}")));
+    assertEquals(1, SlowQueryLog.documents(BsonDocument.parse("{cursor: {nextBatch: [{}]}}")));
+    assertEquals(5, SlowQueryLog.documents(BsonDocument.parse("{n: 5, nModified: 5, ok: 1}")));
+    assertEquals(1, SlowQueryLog.documents(BsonDocument.parse("{value: {_id: 1}, ok: 1}")));
+    assertEquals(0, SlowQueryLog.documents(BsonDocument.parse("{value: null, ok: 1}")));
+    assertEquals(0, SlowQueryLog.documents(BsonDocument.parse("{ok: 1}")));
+  }
+
+  @Test
+  void shouldIgnoreCommandsUnderThreshold() {
+    run(ROUTE_FIND, 99, "{cursor: {firstBatch: []}}");
+
+    SlowQueryLog.Report report = slowQueryLog.report();
+    assertEquals(0, report.getSlowCommands());
+    assertTrue(report.getWorst().isEmpty());
+    assertTrue(report.getRecent().isEmpty());
+  }
+
+  @Test
+  void shouldAggregateSlowExecutionsOfSameShape() {
+    run(ROUTE_FIND, 150, "{cursor: {firstBatch: [{}, {}, {}]}}");
+    run(ROUTE_FIND.replace("LHR", "CDG"), 250, "{cursor: {firstBatch: [{}]}}");
+
+    SlowQueryLog.Report report = slowQueryLog.report();
+    assertEquals(100, report.getThresholdMillis());
+    assertEquals(2, report.getSlowCommands());
+    assertEquals(1, report.getWorst().size());
+    SlowQueryLog.ShapeStats route = report.getWorst().get(0);
+    assertTrue(route.getShape().startsWith("find flights {\"filter\": {\"origin\": \"?\""));
+    assertEquals(2, route.getCount());
+    assertEquals(250.0, route.getMaxMillis(), 0.001);
+    assertEquals(200.0, route.getMeanMillis(), 0.001);
+    assertEquals(3, route.getMaxDocuments());
+    assertEquals(250.0, report.getRecent().get(0).getDurationMillis(), 0.001);
+    assertEquals(1, report.getRecent().get(0).getDocuments());
+  }
+
+  @Test
+  void shouldKeepOnlyWorstShapesAndMostRecentCommands() {
+    run("{find: 'flights', filter: {origin: 'A'}}", 300, "{cursor: {firstBatch: []}}");
+    run("{find: 'flights', filter: {destination: 'B'}}", 200, "{cursor: {firstBatch: []}}");
+    run("{find: 'airports', filter: {code: 'C'}}", 150, "{cursor: {firstBatch: []}}");
+    run("{count: 'flights', query: {origin: 'D'}}", 400, "{n: 7}");
+
+    SlowQueryLog.Report report = slowQueryLog.report();
+    assertEquals(4, report.getSlowCommands());
+    assertEquals(
+        List.of(
+            "count flights {\"query\": {\"origin\": \"?\"}}",
+            "find flights {\"filter\": {\"origin\": \"?\"}}"),
+        report.getWorst().stream().map(SlowQueryLog.ShapeStats::getShape).toList());
+    assertEquals(
+        List.of(400.0, 150.0, 200.0),
+        report.getRecent().stream().map(SlowQueryLog.SlowQuery::getDurationMillis).toList());
+  }
+
+  @Test
+  void shouldNotRecordPollsOfChangeStreamsOrTailableCursors() {
+    run(
+        "{aggregate: 'flights', pipeline: [{$changeStream: {fullDocument: 'updateLookup'}}],"
+            + " cursor: {}}",
+        5,
+        "{cursor: {id: NumberLong(42), firstBatch: []}}");
+    run("{find: 'log', filter: {}, tailable: true, awaitData: true}", 5, CURSOR_43);
+    for (int i = 0; i < 3; i++) {
+      run("{getMore: NumberLong(42), collection: 'flights', maxTimeMS: 1000}", 1000, CURSOR_42);
+      run("{getMore: NumberLong(43), collection: 'log', maxTimeMS: 1000}", 1000, CURSOR_43);
+    }
+
+    assertEquals(0, slowQueryLog.report().getSlowCommands());
+  }
+
+  @Test
+  void shouldRecordBatchesUnderQueryThatOpenedCursor() {
+    run(ROUTE_FIND, 5, "{cursor: {id: NumberLong(42), firstBatch: [{}]}}");
+    run(ROUTE_FIND.replace("LHR", "CDG"), 5, CURSOR_43);
+    run("{getMore: NumberLong(42), collection: 'flights'}", 300, CURSOR_42);
+    run(
+        "{getMore: NumberLong(42), collection: 'flights'}",
+        200,
+        "{cursor: {id: 0, nextBatch: []}}");
+    run("{killCursors: 'flights', cursors: [NumberLong(43)]}", 5, "{cursorsKilled: [43]}");
+    run("{getMore: NumberLong(42), collection: 'flights'}", 150, CURSOR_42);
+    run("{getMore: NumberLong(43), collection: 'flights'}", 150, CURSOR_43);
+
+    assertEquals(
+        List.of("getMore", "getMore", "getMore find flights"),
+        slowQueryLog.report().getRecent().stream()
+            .map(query -> query.getShape().replaceAll(" \\{.*", ""))
+            .toList());
+    assertEquals(
+        "getMore " + SlowQueryLog.shape("find", BsonDocument.parse(ROUTE_FIND)),
+        slowQueryLog.report().getRecent().get(2).getShape());
+  }
+
+  @Test
+  void shouldRecordSlowFailuresAndClear() {
+    int id = ++requestId;
+    slowQueryLog.commandStarted(started(id, BsonDocument.parse(ROUTE_FIND)));
+    slowQueryLog.commandFailed(
+        new CommandFailedEvent(
+            null,
+            1,
+            id,
+            CONNECTION,
+            "airportdb",
+            "find",
+            TimeUnit.MILLISECONDS.toNanos(500),
+            new MongoException("timeout")));
+
+    assertTrue(slowQueryLog.report().getRecent().get(0).isFailed());
+
+    new SlowQueryEndpoint(slowQueryLog).clear();
+
+    SlowQueryLog.Report report = new SlowQueryEndpoint(slowQueryLog).slowQueries();
+    assertEquals(0, report.getSlowCommands());
+    assertTrue(report.getWorst().isEmpty());
+    assertTrue(report.getRecent().isEmpty());
+  }
+
+  @Test
+  void shouldRejectEmptyBuffers() {
+    assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(Duration.ZERO, 0, 1));
+  }
+
+  private void run(String command, long millis, String reply) {
+    int id = ++requestId;
+    BsonDocument document = BsonDocument.parse(command);
+    slowQueryLog.commandStarted(started(id, document));
+    slowQueryLog.commandSucceeded(
+        new CommandSucceededEvent(
+            null,
+            1,
+            id,
+            CONNECTION,
+            "airportdb",
+            document.getFirstKey(),
+            BsonDocument.parse(reply),
+            TimeUnit.MILLISECONDS.toNanos(millis)));
+  }
+
+  private static CommandStartedEvent started(int id, BsonDocument command) {
+    return new CommandStartedEvent(
+        null, 1, id, CONNECTION, "airportdb", command.getFirstKey(), command);
+  }
+}
@@ -33,6 +33,16 @@ class FlightTest {
     assertTrue(flight.getPassengers().isEmpty());
   }
 
+  @Test
+  void shouldShareAirportCodeInstances() {
+    Flight other = new Flight();
+    other.setOrigin(new String("LAX"));
+    other.setDestination(new String("JFK"));
+
+    assertSame(flight.getDestination(), other.getOrigin());
+    assertSame(flight.getOrigin(), other.getDestination());
+  }
+
   @Test
   void shouldAddPassengerWhenNoSeatAssigned() {
     Passenger passenger = new Passenger("John Doe", null);
@@ -142,4 +152,66 @@ class FlightTest {
     assertEquals(1, f.getPassengers().size());
     assertEquals("P1", f.getPassengers().get(0).getName());
   }
+
+  @Test
+  void shouldOnlyChangePassengersThroughFlight() {
+    SeatAssignment seat = new SeatAssignment("12A", SeetClass.Economy);
+    List<Passenger> passengers = new ArrayList<>();
+    flight.setPassengers(passengers);
+    passengers.add(new Passenger("John Doe", seat));
+
+    assertTrue(flight.getPassengers().isEmpty());
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> flight.getPassengers().add(new Passenger("Jane Smith", seat)));
+    flight.addPassenger(new Passenger("Jane Smith", seat));
+    assertFalse(flight.isSeatAvailable(seat));
+  }
+
+  @Test
+  void shouldReportSeatAvailabilityFromIndex() {
+    SeatAssignment seat = new SeatAssignment("12A", SeetClass.Economy);
+    assertTrue(flight.isSeatAvailable(seat));
+    assertTrue(flight.isSeatAvailable(null));
+
+    flight.addPassenger(new Passenger(UUID.randomUUID(), "John Doe", seat));
+
+    assertFalse(flight.isSeatAvailable(new SeatAssignment("12A", SeetClass.Economy)));
+    assertTrue(flight.isSeatAvailable(new SeatAssignment("12A", SeetClass.Business)));
+  }
+
+  @Test
+  void shouldFreeSeatWhenPassengerRemoved() {
+    UUID id = UUID.randomUUID();
+    SeatAssignment seat = new SeatAssignment("12A", SeetClass.Economy);
+    flight.addPassenger(new Passenger(id, "John Doe", seat));
+
+    assertTrue(flight.removePassenger(id.toString()));
+
+    assertTrue(flight.isSeatAvailable(seat));
+    assertDoesNotThrow(() -> flight.addPassenger(new Passenger("Jane Smith", seat)));
+  }
+
+  @Test
+  void shouldRebuildSeatIndexWhenPassengersReplaced() {
+    SeatAssignment seat = new SeatAssignment("3C", SeetClass.First);
+    flight.addPassenger(new Passenger("John Doe", new SeatAssignment("1A", SeetClass.First)));
+
+    List<Passenger> loaded = new ArrayList<>();
+    loaded.add(new Passenger("Jane Smith", seat));
+    flight.setPassengers(loaded);
+
+    assertTrue(flight.isSeatAvailable(new SeatAssignment("1A", SeetClass.First)));
+    assertThrows(
+        SeatAlreadyAssignedException.class,
+        () -> flight.addPassenger(new Passenger("Bob Johnson", seat)));
+  }
+
+  @Test
+  void shouldReturnFalseWhenRemovingPassengerWithMalformedId() {
+    flight.addPassenger(new Passenger(UUID.randomUUID(), "John Doe", null));
+
+    assertFalse(flight.removePassenger("not-a-uuid"));
+    assertEquals(1, flight.getPassengers().size());
+  }
 }
@@ -0,0 +1,28 @@
+package com.bharat.airport.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class InternerTest {
+
+  @Test
+  void shouldReturnTheFirstEqualInstance() {
+    Interner<String> interner = new Interner<>(16);
+    String first = new String("JFK");
+
+    assertSame(first, interner.intern(first));
+    assertSame(first, interner.intern(new String("JFK")));
+    assertNull(interner.intern(null));
+  }
+
+  @Test
+  void shouldReplaceValuesThatShareASlot() {
+    Interner<Integer> interner = new Interner<>(1);
+    Integer first = interner.intern(1000);
+    Integer second = interner.intern(2000);
+
+    assertSame(second, interner.intern(Integer.valueOf(2000)));
+    assertNotSame(first, interner.intern(Integer.valueOf(1000)));
+  }
+}
@@ -2,20 +2,39 @@ package com.bharat.airport.domain.model;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 class SeatAssignmentTest {
 
   @Test
-  void shouldSetAndGetSeatAssignmentProperties() {
-    SeatAssignment s = new SeatAssignment();
-    s.setSeatNumber("12B");
-    s.setSeatClass(SeetClass.Economy);
+  void shouldGetSeatAssignmentProperties() {
+    SeatAssignment s = new SeatAssignment("12B", SeetClass.Economy);
 
     assertEquals("12B", s.getSeatNumber());
     assertEquals(SeetClass.Economy, s.getSeatClass());
   }
 
+  @Test
+  void shouldReturnCanonicalInstances() {
+    SeatAssignment canonical = SeatAssignment.of("14C", SeetClass.Business);
+
+    assertSame(canonical, SeatAssignment.of(new String("14C"), SeetClass.Business));
+    assertNotSame(canonical, SeatAssignment.of("14C", SeetClass.First));
+    assertEquals(new SeatAssignment("14C", SeetClass.Business), canonical);
+  }
+
+  @Test
+  void shouldReadCanonicalInstancesFromJson() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    SeatAssignment seat = SeatAssignment.of("15D", SeetClass.Economy);
+
+    String json = mapper.writeValueAsString(seat);
+
+    assertEquals("{\"seatNumber\":\"15D\",\"seatClass\":\"Economy\"}", json);
+    assertSame(seat, mapper.readValue(json, SeatAssignment.class));
+  }
+
   @Test
   void shouldTestEqualsAndHashCode() {
     SeatAssignment s1 = new SeatAssignment("12B", SeetClass.Economy);
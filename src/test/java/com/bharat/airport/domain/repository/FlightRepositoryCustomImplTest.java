@@ -0,0 +1,486 @@
+package com.bharat.airport.domain.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.UpdateResult;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@ExtendWith(MockitoExtension.class)
+class FlightRepositoryCustomImplTest {
+
+  @Mock private MongoTemplate mongoTemplate;
+
+  private FlightRepositoryCustomImpl repository;
+
+  private MongoCollection<Flight> flights;
+  private FindIterable<Flight> found;
+
+  private final Passenger passenger =
+      new Passenger(UUID.randomUUID(), "John Doe", new SeatAssignment("12A", SeetClass.Economy));
+
+  private final Flight route = flight("AB123");
+
+  @BeforeEach
+  void setUp() {
+    repository = spy(new FlightRepositoryCustomImpl(mongoTemplate));
+  }
+
+  @Test
+  void shouldFindEmbeddedPassengersWithTheFlight() {
+    Flight flight = flight("AB123");
+    doReturn(List.of(flight)).when(repository).read(any(Query.class));
+
+    assertEquals(Optional.of(flight), repository.findWithPassengers("AB123"));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(repository).read(query.capture());
+    assertEquals(new Document("flightNumber", "AB123"), query.getValue().getQueryObject());
+    assertEquals(1, query.getValue().getLimit());
+  }
+
+  @Test
+  void shouldDecodeFlightsWithCodecUsingMappedQuery() {
+    Flight flight = flight("AB1");
+    stubFlightCollection(List.of(flight));
+
+    List<Flight> result =
+        repository.find(
+            FlightSearch.builder().flightNumber("AB1").fields(Set.of("flightNumber")).build());
+
+    assertEquals(List.of(flight), result);
+    verify(flights).find(new Document("$and", List.of(new Document("_id", "AB1"))));
+    verify(found).sort(new Document("scheduledDeparture", 1).append("_id", 1));
+    verify(found).projection(new Document("_id", 1));
+    verify(found, never()).limit(anyInt());
+  }
+
+  @Test
+  void shouldDelegatePassengerOperationsToBucketStore() {
+    PassengerBucketStore bucketStore = mock(PassengerBucketStore.class);
+    repository = new FlightRepositoryCustomImpl(mongoTemplate, Optional.of(bucketStore));
+    Flight flight = flight("AB123");
+    when(bucketStore.findWithPassengers("AB123")).thenReturn(Optional.of(flight));
+    when(bucketStore.pushPassenger("AB123", passenger)).thenReturn(flight);
+    when(bucketStore.pullPassenger("AB123", passenger.getId())).thenReturn(Optional.of(flight));
+
+    assertSame(flight, repository.pushPassenger("AB123", passenger));
+    repository.pushPassengers("AB123", 7L, List.of(passenger));
+    repository.insertWithPassengers(List.of(flight));
+
+    assertEquals(Optional.of(flight), repository.pullPassenger("AB123", passenger.getId()));
+    assertEquals(Optional.of(flight), repository.findWithPassengers("AB123"));
+    verify(bucketStore).pushPassenger("AB123", passenger);
+    verify(bucketStore).pushPassengers("AB123", 7L, List.of(passenger));
+    verify(bucketStore).insertWithPassengers(List.of(flight));
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldAttachBucketedPassengersWhenReadingThem() {
+    PassengerBucketStore bucketStore = mock(PassengerBucketStore.class);
+    repository = new FlightRepositoryCustomImpl(mongoTemplate, Optional.of(bucketStore));
+    List<Flight> read = List.of(flight("AB1"), flight("AB2"));
+    stubFlightCollection(read);
+
+    repository.find(FlightSearch.builder().build());
+    repository.findPage(
+        FlightSearch.builder().fields(Set.of("flightNumber", "passengers")).build(), 2);
+    repository.find(FlightSearch.builder().fields(Set.of("flightNumber", "origin")).build());
+
+    verify(bucketStore, times(2)).attachPassengers(read);
+    verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), eq(Flight.class));
+    assertSame(read, repository.withPassengers(read));
+    verify(bucketStore, times(3)).attachPassengers(read);
+  }
+
+  @Test
+  void shouldAttachBucketedPassengersToStreamedFlightsInBatches() {
+    PassengerBucketStore bucketStore = mock(PassengerBucketStore.class);
+    repository = new FlightRepositoryCustomImpl(mongoTemplate, Optional.of(bucketStore));
+    List<Flight> flights = new ArrayList<>();
+    for (int i = 0; i < FlightRepository.STREAM_BATCH_SIZE + 1; i++) {
+      flights.add(flight("AB" + i));
+    }
+    List<Integer> batches = new ArrayList<>();
+    doAnswer(invocation -> batches.add(invocation.<List<Flight>>getArgument(0).size()))
+        .when(bucketStore)
+        .attachPassengers(anyList());
+    Runnable closed = mock(Runnable.class);
+
+    try (Stream<Flight> stream = repository.withPassengers(flights.stream().onClose(closed))) {
+      assertEquals(flights, stream.toList());
+    }
+
+    assertEquals(List.of(FlightRepository.STREAM_BATCH_SIZE, 1), batches);
+    verify(closed).run();
+  }
+
+  @Test
+  void shouldReturnFlightsAsReadWithEmbeddedPassengers() {
+    List<Flight> read = List.of(flight("AB1"));
+    Stream<Flight> stream = read.stream();
+
+    assertSame(read, repository.withPassengers(read));
+    assertSame(stream, repository.withPassengers(stream));
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldPushPassengerOnlyWhenSeatIsFree() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(route);
+
+    assertSame(route, repository.pushPassenger("AB123", passenger));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).findAndModify(query.capture(), update.capture(), eq(Flight.class));
+    assertEquals("AB123", query.getValue().getQueryObject().get("flightNumber"));
+    assertTrue(query.getValue().getQueryObject().containsKey("$nor"));
+    assertEquals(
+        new Document("origin", 1).append("destination", 1), query.getValue().getFieldsObject());
+    assertTrue(update.getValue().getUpdateObject().containsKey("$push"));
+    assertEquals(new Document("version", 1), update.getValue().getUpdateObject().get("$inc"));
+    verify(mongoTemplate, never()).exists(any(Query.class), eq(Flight.class));
+  }
+
+  @Test
+  void shouldThrowSeatAlreadyAssignedWhenFlightExistsButNothingMatched() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(null);
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(true);
+
+    assertThrows(
+        SeatAlreadyAssignedException.class, () -> repository.pushPassenger("AB123", passenger));
+  }
+
+  @Test
+  void shouldThrowFlightNotFoundWhenFlightIsMissing() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(null);
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(false);
+
+    assertThrows(
+        FlightNotFoundException.class, () -> repository.pushPassenger("INVALID", passenger));
+  }
+
+  @Test
+  void shouldSkipSeatConditionWhenPassengerHasNoSeat() {
+    Passenger unseated = new Passenger(UUID.randomUUID(), "Jane Smith", null);
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(null);
+
+    assertThrows(
+        FlightNotFoundException.class, () -> repository.pushPassenger("INVALID", unseated));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), eq(Flight.class));
+    assertFalse(query.getValue().getQueryObject().containsKey("$nor"));
+    verify(mongoTemplate, never()).exists(any(Query.class), eq(Flight.class));
+  }
+
+  @Test
+  void shouldPullPassengerById() {
+    UUID id = passenger.getId();
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(route);
+
+    assertEquals(Optional.of(route), repository.pullPassenger("AB123", id));
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), eq(Flight.class));
+    Document pull = (Document) update.getValue().getUpdateObject().get("$pull");
+    assertEquals(
+        new Document("_id", new Document("$in", StorageFormat.passengerIdValues(id))),
+        pull.get("passengers"));
+  }
+
+  @Test
+  void shouldReturnFalseWhenNoPassengerWasPulled() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(null);
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(true);
+
+    assertTrue(repository.pullPassenger("AB123", UUID.randomUUID()).isEmpty());
+  }
+
+  @Test
+  void shouldThrowFlightNotFoundWhenPullingFromMissingFlight() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(null);
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(false);
+
+    assertThrows(
+        FlightNotFoundException.class,
+        () -> repository.pullPassenger("INVALID", UUID.randomUUID()));
+  }
+
+  @Test
+  void shouldPushPassengerBatchAtExpectedVersion() {
+    Passenger other = new Passenger(UUID.randomUUID(), "Jane Smith", null);
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+    repository.pushPassengers("AB123", 7L, List.of(passenger, other));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Flight.class));
+    assertEquals(7L, query.getValue().getQueryObject().get("version"));
+    assertTrue(update.getValue().getUpdateObject().containsKey("$push"));
+    assertEquals(new Document("version", 1), update.getValue().getUpdateObject().get("$inc"));
+  }
+
+  @Test
+  void shouldThrowOptimisticLockingFailureWhenBatchVersionIsStale() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+    assertThrows(
+        OptimisticLockingFailureException.class,
+        () -> repository.pushPassengers("AB123", 7L, List.of(passenger)));
+  }
+
+  @Test
+  void shouldInsertFlightsWithUnorderedBulkWrite() {
+    BulkOperations bulkOperations = mock(BulkOperations.class);
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Flight.class)).thenReturn(bulkOperations);
+    when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+    Map<Integer, String> failures = repository.insertUnordered(List.of(flight("AB1")));
+
+    assertTrue(failures.isEmpty());
+    verify(bulkOperations).execute();
+  }
+
+  @Test
+  void shouldReportFailedPositionsOfBulkInsert() {
+    BulkOperations bulkOperations = mock(BulkOperations.class);
+    BulkOperationException failure = mock(BulkOperationException.class);
+    when(failure.getErrors())
+        .thenReturn(
+            List.of(
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1),
+                new BulkWriteError(121, "Document failed validation", new BsonDocument(), 2)));
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Flight.class)).thenReturn(bulkOperations);
+    when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    when(bulkOperations.execute()).thenThrow(failure);
+
+    Map<Integer, String> failures =
+        repository.insertUnordered(List.of(flight("AB1"), flight("AB2"), flight("AB3")));
+
+    assertEquals(
+        Map.of(1, "Flight already exists: AB2", 2, "Document failed validation"), failures);
+  }
+
+  @Test
+  void shouldInsertFlightsWithEmbeddedPassengersInOneBatch() {
+    Flight flight = flight("AB1");
+    flight.addPassenger(passenger);
+    List<Flight> flights = List.of(flight, flight("AB2"));
+
+    repository.insertWithPassengers(flights);
+    repository.insertWithPassengers(List.of());
+
+    verify(mongoTemplate).insert(flights, Flight.class);
+    verifyNoMoreInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldSkipBulkWriteForEmptyChunk() {
+    assertTrue(repository.insertUnordered(List.of()).isEmpty());
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldMigrateWholeFlightsReadInAnOlderStorageFormat() {
+    Flight legacy = flight("AB1");
+    legacy.setVersion(3L);
+    legacy.addPassenger(passenger);
+    Flight current = flight("AB2");
+    current.setStorageFormat(StorageFormat.CURRENT);
+    Flight other = flight("AB3");
+    other.setVersion(5L);
+    stubFlightCollection(List.of(legacy, current, other));
+    BulkOperations bulkOps = mock(BulkOperations.class);
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Flight.class)).thenReturn(bulkOps);
+
+    assertEquals(List.of(legacy, current, other), repository.find(FlightSearch.builder().build()));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(bulkOps, times(2)).updateOne(query.capture(), update.capture());
+    verify(bulkOps).execute();
+    verify(mongoTemplate).bulkOps(BulkMode.UNORDERED, Flight.class);
+    verify(mongoTemplate, never())
+        .updateFirst(any(Query.class), any(Update.class), eq(Flight.class));
+    assertEquals(
+        new Document("flightNumber", "AB1").append("version", 3L),
+        query.getAllValues().get(0).getQueryObject());
+    assertEquals(
+        new Document("flightNumber", "AB3").append("version", 5L),
+        query.getAllValues().get(1).getQueryObject());
+    assertEquals(
+        new Document("passengers", List.of(passenger)).append(StorageFormat.FIELD, 2),
+        update.getAllValues().get(0).getUpdateObject().get("$set"));
+  }
+
+  @Test
+  void shouldMatchSeatsAndPassengerIdsInEveryStorageFormat() {
+    Document seat =
+        FlightRepositoryCustomImpl.seatMatches(passenger.getSeatAssignment()).getCriteriaObject();
+    assertEquals(
+        List.of(
+            new Document("seatAssignment", passenger.getSeatAssignment()),
+            new Document("seatAssignment.seatNumber", "12A")
+                .append("seatAssignment.seatClass", SeetClass.Economy)),
+        seat.get("$or"));
+    assertEquals(
+        StorageFormat.passengerIdValues(passenger.getId()),
+        FlightRepositoryCustomImpl.ids(passenger.getId()));
+  }
+
+  /** Answers reads of the flights collection, through {@link #flights}, with the given flights. */
+  @SuppressWarnings("unchecked")
+  private void stubFlightCollection(List<Flight> result) {
+    MongoCustomConversions conversions = new MongoCustomConversions(StorageFormat.converters());
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    MappingMongoConverter converter =
+        new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    MongoCollection<Document> collection = mock(MongoCollection.class);
+    flights = mock(MongoCollection.class);
+    found = mock(FindIterable.class, RETURNS_SELF);
+    when(mongoTemplate.execute(eq(Flight.class), any(CollectionCallback.class)))
+        .thenAnswer(
+            invocation ->
+                invocation
+                    .<CollectionCallback<List<Flight>>>getArgument(1)
+                    .doInCollection(collection));
+    when(collection.withDocumentClass(Flight.class)).thenReturn(flights);
+    when(flights.find(any(Bson.class))).thenReturn(found);
+    when(found.into(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Flight> target = invocation.getArgument(0);
+              target.addAll(result);
+              return target;
+            });
+  }
+
+  private static Flight flight(String flightNumber) {
+    return new Flight(flightNumber, "JFK", "LAX", null, null);
+  }
+
+  @Test
+  void shouldSeekPastPreviousPageInDepartureOrder() {
+    LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 0);
+    doReturn(List.of()).when(repository).read(any(Query.class));
+
+    repository.findPage(
+        FlightSearch.builder()
+            .origin("JFK")
+            .destination("LAX")
+            .departureFrom(departure.minusDays(1))
+            .departureTo(departure.plusDays(1))
+            .build()
+            .after(departure, "AB1"),
+        25);
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(repository).read(query.capture());
+    List<?> and = (List<?>) query.getValue().getQueryObject().get("$and");
+    assertEquals(new Document("origin", "JFK"), and.get(0));
+    assertEquals(new Document("destination", "LAX"), and.get(1));
+    assertEquals(
+        new Document(
+            "$or",
+            List.of(
+                new Document("scheduledDeparture", new Document("$gt", departure)),
+                new Document("scheduledDeparture", departure)
+                    .append("flightNumber", new Document("$gt", "AB1")))),
+        and.get(4));
+    assertEquals(
+        new Document("scheduledDeparture", 1).append("flightNumber", 1),
+        query.getValue().getSortObject());
+    assertEquals(25, query.getValue().getLimit());
+  }
+
+  @Test
+  void shouldReadFirstPageWithoutFilters() {
+    doReturn(List.of()).when(repository).read(any(Query.class));
+
+    repository.findPage(FlightSearch.builder().build(), 10);
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(repository).read(query.capture());
+    assertTrue(query.getValue().getQueryObject().isEmpty());
+  }
+
+  @Test
+  void shouldProjectOnlySelectedFields() {
+    doReturn(List.of()).when(repository).read(any(Query.class));
+
+    repository.find(
+        FlightSearch.builder()
+            .flightNumber("AB1")
+            .fields(Set.of("flightNumber", "scheduledDeparture"))
+            .build());
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(repository).read(query.capture());
+    assertEquals(
+        List.of(new Document("flightNumber", "AB1")),
+        query.getValue().getQueryObject().get("$and"));
+    Document fields = query.getValue().getFieldsObject();
+    assertEquals(2, fields.size());
+    assertEquals(1, fields.get("flightNumber"));
+    assertEquals(1, fields.get("scheduledDeparture"));
+    assertFalse(query.getValue().isLimited());
+  }
+}
@@ -0,0 +1,483 @@
+package com.bharat.airport.domain.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.PassengerBucket;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import com.mongodb.client.result.UpdateResult;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.env.MockEnvironment;
+
+@ExtendWith(MockitoExtension.class)
+class PassengerBucketStoreTest {
+
+  @Mock private MongoTemplate mongoTemplate;
+
+  private PassengerBucketStore store;
+
+  private final Passenger passenger =
+      new Passenger(UUID.randomUUID(), "John Doe", new SeatAssignment("12A", SeetClass.Economy));
+
+  @BeforeEach
+  void setUp() {
+    store = new PassengerBucketStore(mongoTemplate, new MockEnvironment(), 2, false);
+  }
+
+  @Test
+  void shouldRejectUnsupportedConfigurations() {
+    MockEnvironment environment = new MockEnvironment();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PassengerBucketStore(mongoTemplate, environment, 0, false));
+    assertThrows(
+        IllegalStateException.class,
+        () -> new PassengerBucketStore(mongoTemplate, environment, 2, true));
+
+    environment.setActiveProfiles("reactive");
+    assertThrows(
+        IllegalStateException.class,
+        () -> new PassengerBucketStore(mongoTemplate, environment, 2, false));
+  }
+
+  @Test
+  void shouldClaimSeatAndSlotOnFlightThenAppendToTheSlotsBucket() {
+    Flight route = new Flight("AB123", "JFK", "LAX", null, null);
+    route.setPassengerSlots(3);
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(route);
+
+    assertSame(route, store.pushPassenger("AB123", passenger));
+
+    ArgumentCaptor<Query> claimQuery = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> claim = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).findAndModify(claimQuery.capture(), claim.capture(), eq(Flight.class));
+    assertTrue(claimQuery.getValue().getQueryObject().containsKey("$nor"));
+    assertEquals(
+        new Document("origin", 1).append("destination", 1).append("passengerSlots", 1),
+        claimQuery.getValue().getFieldsObject());
+    Document push = (Document) claim.getValue().getUpdateObject().get("$push");
+    assertEquals(passenger.getSeatAssignment(), push.get("bookedSeats"));
+    assertEquals(
+        new Document("passengerCount", 1).append("passengerSlots", 1).append("version", 1),
+        claim.getValue().getUpdateObject().get("$inc"));
+
+    ArgumentCaptor<Query> bucketQuery = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> append = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate)
+        .upsert(bucketQuery.capture(), append.capture(), eq(PassengerBucket.class));
+    assertEquals(
+        new Document("flightNumber", "AB123").append("seq", 1),
+        bucketQuery.getValue().getQueryObject());
+    assertEquals(List.of(passenger), pushed(append.getValue()));
+    assertEquals(new Document("count", 1), append.getValue().getUpdateObject().get("$inc"));
+  }
+
+  @Test
+  void shouldRetryBucketUpsertThatLostTheRaceToCreateTheBucket() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(new Flight("AB123", "JFK", "LAX", null, null));
+    when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(PassengerBucket.class)))
+        .thenThrow(new DuplicateKeyException("flight_sequence"))
+        .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+    store.pushPassenger("AB123", passenger);
+
+    ArgumentCaptor<Query> bucketQuery = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate, times(2))
+        .upsert(bucketQuery.capture(), any(Update.class), eq(PassengerBucket.class));
+    assertEquals(0, bucketQuery.getAllValues().get(1).getQueryObject().get("seq"));
+    verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class), eq(Flight.class));
+  }
+
+  @Test
+  void shouldRejectTakenSeatWithoutTouchingBuckets() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(null);
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(true);
+
+    assertThrows(SeatAlreadyAssignedException.class, () -> store.pushPassenger("AB123", passenger));
+    verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), any(Class.class));
+  }
+
+  @Test
+  void shouldThrowFlightNotFoundWhenPushingUnseatedPassengerToMissingFlight() {
+    Passenger unseated = new Passenger(UUID.randomUUID(), "Jane Smith", null);
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(null);
+
+    assertThrows(FlightNotFoundException.class, () -> store.pushPassenger("INVALID", unseated));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), eq(Flight.class));
+    assertFalse(query.getValue().getQueryObject().containsKey("$nor"));
+  }
+
+  @Test
+  void shouldReleaseSeatWhenBucketWriteFails() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(new Flight("AB123", "JFK", "LAX", null, null));
+    when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(PassengerBucket.class)))
+        .thenThrow(new UncategorizedMongoDbException("timeout", null));
+
+    assertThrows(
+        UncategorizedMongoDbException.class, () -> store.pushPassenger("AB123", passenger));
+
+    ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate, times(2))
+        .findAndModify(any(Query.class), updates.capture(), eq(Flight.class));
+    Document release = updates.getAllValues().get(1).getUpdateObject();
+    assertEquals(new Document("passengerCount", -1).append("version", 1), release.get("$inc"));
+    assertTrue(release.containsKey("$pullAll"));
+  }
+
+  @Test
+  void shouldAppendBatchToTheBucketsOfItsSlots() {
+    Passenger second = new Passenger(UUID.randomUUID(), "Jane Smith", null);
+    Passenger third =
+        new Passenger(
+            UUID.randomUUID(), "Bob Johnson", new SeatAssignment("1A", SeetClass.Business));
+    Flight claimed = new Flight();
+    claimed.setPassengerSlots(1);
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(claimed);
+
+    store.pushPassengers("AB123", 7L, List.of(passenger, second, third));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> claim = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).findAndModify(query.capture(), claim.capture(), eq(Flight.class));
+    assertEquals(7L, query.getValue().getQueryObject().get("version"));
+    assertEquals(new Document("passengerSlots", 1), query.getValue().getFieldsObject());
+    assertEquals(
+        new Document("passengerCount", 3).append("passengerSlots", 3).append("version", 1),
+        claim.getValue().getUpdateObject().get("$inc"));
+
+    ArgumentCaptor<Query> bucketQueries = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> appends = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate, times(2))
+        .upsert(bucketQueries.capture(), appends.capture(), eq(PassengerBucket.class));
+    assertEquals(0, bucketQueries.getAllValues().get(0).getQueryObject().get("seq"));
+    assertEquals(List.of(passenger), pushed(appends.getAllValues().get(0)));
+    assertEquals(1, bucketQueries.getAllValues().get(1).getQueryObject().get("seq"));
+    assertEquals(List.of(second, third), pushed(appends.getAllValues().get(1)));
+    assertEquals(
+        new Document("count", 2), appends.getAllValues().get(1).getUpdateObject().get("$inc"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldInsertFlightsThenTheirBucketsInBatches() {
+    Passenger second = new Passenger(UUID.randomUUID(), "Jane Smith", null);
+    Passenger third =
+        new Passenger(
+            UUID.randomUUID(), "Bob Johnson", new SeatAssignment("1A", SeetClass.Business));
+    Flight full = new Flight("AB1", "JFK", "LAX", null, null);
+    full.setPassengers(new ArrayList<>(List.of(passenger, second, third)));
+    Flight empty = new Flight("AB2", "JFK", "LAX", null, null);
+
+    store.insertWithPassengers(List.of(full, empty));
+
+    assertEquals(3, full.getPassengerCount());
+    assertEquals(3, full.getPassengerSlots());
+    assertEquals(
+        List.of(passenger.getSeatAssignment(), third.getSeatAssignment()), full.getBookedSeats());
+    assertEquals(0, empty.getPassengerCount());
+    assertEquals(List.of(), empty.getBookedSeats());
+
+    ArgumentCaptor<Collection<PassengerBucket>> buckets = ArgumentCaptor.forClass(Collection.class);
+    InOrder inOrder = inOrder(mongoTemplate);
+    inOrder.verify(mongoTemplate).insert(List.of(full, empty), Flight.class);
+    inOrder.verify(mongoTemplate).insert(buckets.capture(), eq(PassengerBucket.class));
+    List<PassengerBucket> written = List.copyOf(buckets.getValue());
+    assertEquals(2, written.size());
+    assertEquals(List.of(passenger, second), written.get(0).getPassengers());
+    assertEquals(0, written.get(0).getSeq());
+    assertEquals(List.of(third), written.get(1).getPassengers());
+    assertEquals(1, written.get(1).getSeq());
+    assertEquals("AB1", written.get(1).getFlightNumber());
+  }
+
+  @Test
+  void shouldNotInsertBucketsForFlightsWithoutPassengers() {
+    List<Flight> flights = List.of(new Flight("AB2", "JFK", "LAX", null, null));
+
+    store.insertWithPassengers(flights);
+
+    verify(mongoTemplate).insert(flights, Flight.class);
+    verifyNoMoreInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldNotWriteBucketsWhenBatchVersionIsStale() {
+    assertThrows(
+        OptimisticLockingFailureException.class,
+        () -> store.pushPassengers("AB123", 7L, List.of(passenger)));
+    verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), any(Class.class));
+  }
+
+  @Test
+  void shouldReleaseSeatsWhenBatchBucketWriteFails() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(new Flight());
+    when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(PassengerBucket.class)))
+        .thenThrow(new UncategorizedMongoDbException("timeout", null));
+
+    assertThrows(
+        UncategorizedMongoDbException.class,
+        () -> store.pushPassengers("AB123", 7L, List.of(passenger)));
+
+    ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate, times(2))
+        .findAndModify(any(Query.class), updates.capture(), eq(Flight.class));
+    assertEquals(
+        new Document("passengerCount", -1).append("version", 1),
+        updates.getAllValues().get(1).getUpdateObject().get("$inc"));
+  }
+
+  @Test
+  void shouldPullPassengerFromBucketAndReleaseSeat() {
+    PassengerBucket removed = new PassengerBucket("AB123", List.of(passenger));
+    when(mongoTemplate.findAndModify(
+            any(Query.class), any(Update.class), eq(PassengerBucket.class)))
+        .thenReturn(removed);
+    Flight route = new Flight("AB123", "JFK", "LAX", null, null);
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(route);
+
+    assertEquals(Optional.of(route), store.pullPassenger("AB123", passenger.getId()));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> pull = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).findAndModify(query.capture(), pull.capture(), eq(PassengerBucket.class));
+    assertTrue(query.getValue().getFieldsObject().containsKey("passengers"));
+    assertEquals(new Document("count", -1), pull.getValue().getUpdateObject().get("$inc"));
+
+    ArgumentCaptor<Update> release = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).findAndModify(any(Query.class), release.capture(), eq(Flight.class));
+    assertEquals(
+        new Document(
+            "bookedSeats",
+            List.of(
+                passenger.getSeatAssignment(),
+                StorageFormat.legacySeat(passenger.getSeatAssignment()))),
+        release.getValue().getUpdateObject().get("$pullAll"));
+  }
+
+  @Test
+  void shouldReturnFalseWhenNoBucketHoldsThePassenger() {
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(true);
+
+    assertTrue(store.pullPassenger("AB123", UUID.randomUUID()).isEmpty());
+    verify(mongoTemplate, never())
+        .findAndModify(any(Query.class), any(Update.class), eq(Flight.class));
+  }
+
+  @Test
+  void shouldThrowFlightNotFoundWhenPullingFromMissingFlight() {
+    assertThrows(
+        FlightNotFoundException.class, () -> store.pullPassenger("INVALID", UUID.randomUUID()));
+  }
+
+  @Test
+  void shouldReassemblePassengersInBucketOrder() {
+    Passenger second = new Passenger(UUID.randomUUID(), "Jane Smith", null);
+    Flight flight = new Flight("AB123", "JFK", "LAX", null, null);
+    flight.setStorageFormat(StorageFormat.CURRENT);
+    MappingMongoConverter converter = converter(StorageFormat.converters());
+    PassengerBucket first = new PassengerBucket("AB123", List.of(passenger));
+    PassengerBucket last = new PassengerBucket("AB123", List.of(second));
+    first.setStorageFormat(StorageFormat.CURRENT);
+    last.setStorageFormat(StorageFormat.CURRENT);
+    when(mongoTemplate.findById("AB123", Flight.class)).thenReturn(flight);
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    when(mongoTemplate.getCollectionName(PassengerBucket.class)).thenReturn("passengerBuckets");
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("passengerBuckets")))
+        .thenReturn(List.of(stored(converter, first), stored(converter, last)));
+
+    Flight result = store.findWithPassengers("AB123").orElseThrow();
+
+    assertEquals(List.of(passenger.getId(), second.getId()), ids(result.getPassengers()));
+    assertFalse(result.isSeatAvailable(passenger.getSeatAssignment()));
+    assertTrue(store.findWithPassengers("INVALID").isEmpty());
+    verify(mongoTemplate, never())
+        .updateFirst(any(Query.class), any(Update.class), any(Class.class));
+  }
+
+  @Test
+  void shouldAttachPassengersOfListedFlightsWithOneBucketQuery() {
+    Passenger second = new Passenger(UUID.randomUUID(), "Jane Smith", null);
+    Passenger third = new Passenger(UUID.randomUUID(), "Bob Johnson", null);
+    Flight full = new Flight("AB1", "JFK", "LAX", null, null);
+    full.setPassengerCount(2);
+    Flight empty = new Flight("AB2", "JFK", "LAX", null, null);
+    empty.setPassengerCount(0);
+    Flight single = new Flight("AB3", "JFK", "LAX", null, null);
+    single.setPassengerCount(1);
+    when(mongoTemplate.find(any(Query.class), eq(PassengerBucket.class)))
+        .thenReturn(
+            List.of(
+                new PassengerBucket("AB1", List.of(passenger)),
+                new PassengerBucket("AB1", List.of(second)),
+                new PassengerBucket("AB3", List.of(third))));
+
+    store.attachPassengers(List.of(full, empty, single));
+
+    assertEquals(List.of(passenger.getId(), second.getId()), ids(full.getPassengers()));
+    assertTrue(empty.getPassengers().isEmpty());
+    assertEquals(List.of(third.getId()), ids(single.getPassengers()));
+    assertFalse(full.isSeatAvailable(passenger.getSeatAssignment()));
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).find(query.capture(), eq(PassengerBucket.class));
+    Document in = (Document) query.getValue().getQueryObject().get("flightNumber");
+    assertEquals(Set.of("AB1", "AB3"), Set.copyOf(in.get("$in", Collection.class)));
+    assertEquals(
+        new Document("flightNumber", 1).append("_id", 1), query.getValue().getSortObject());
+  }
+
+  @Test
+  void shouldNotQueryBucketsForFlightsWithoutPassengers() {
+    Flight empty = new Flight("AB2", "JFK", "LAX", null, null);
+    empty.setPassengerCount(0);
+
+    store.attachPassengers(List.of(empty, new Flight("AB3", "JFK", "LAX", null, null)));
+
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldMigrateFlightAndBucketsInAnOlderFormat() {
+    Flight flight = new Flight("AB123", "JFK", "LAX", null, null);
+    flight.setVersion(4L);
+    flight.setBookedSeats(List.of(passenger.getSeatAssignment()));
+    Document legacy =
+        stored(converter(List.of()), new PassengerBucket("AB123", List.of(passenger)));
+    when(mongoTemplate.findById("AB123", Flight.class)).thenReturn(flight);
+    when(mongoTemplate.getConverter()).thenReturn(converter(StorageFormat.converters()));
+    when(mongoTemplate.getCollectionName(PassengerBucket.class)).thenReturn("passengerBuckets");
+    when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("passengerBuckets")))
+        .thenReturn(List.of(legacy));
+
+    assertEquals(
+        List.of(passenger.getId()),
+        ids(store.findWithPassengers("AB123").orElseThrow().getPassengers()));
+
+    ArgumentCaptor<Query> bucketQuery = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> bucketUpdate = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate)
+        .updateFirst(bucketQuery.capture(), bucketUpdate.capture(), eq(PassengerBucket.class));
+    assertEquals(
+        legacy.get("passengers"), bucketQuery.getValue().getQueryObject().get("passengers"));
+    Document set = (Document) bucketUpdate.getValue().getUpdateObject().get("$set");
+    assertEquals(List.of(passenger.getId()), ids(set.getList("passengers", Passenger.class)));
+    assertEquals(StorageFormat.CURRENT, set.get(StorageFormat.FIELD));
+
+    ArgumentCaptor<Query> flightQuery = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> flightUpdate = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate)
+        .updateFirst(flightQuery.capture(), flightUpdate.capture(), eq(Flight.class));
+    assertEquals(4L, flightQuery.getValue().getQueryObject().get("version"));
+    assertEquals(
+        new Document(StorageFormat.FIELD, 2)
+            .append("bookedSeats", List.of(passenger.getSeatAssignment())),
+        flightUpdate.getValue().getUpdateObject().get("$set"));
+  }
+
+  @Test
+  void shouldKeepPassengersOutOfSavedFlightDocuments() {
+    Flight flight = new Flight("AB123", "JFK", "LAX", null, null);
+    Document document = new Document("_id", "AB123").append("passengers", List.of());
+
+    store.onBeforeSave(new BeforeSaveEvent<>(flight, document, "flights"));
+
+    assertFalse(document.containsKey("passengers"));
+    assertEquals(0, document.get("passengerCount"));
+  }
+
+  @Test
+  void shouldRejectSavingPassengersChangedInMemory() {
+    Flight flight = new Flight("AB123", "JFK", "LAX", null, null);
+    flight.setPassengerCount(2);
+    flight.addPassenger(passenger);
+    Document document = new Document("_id", "AB123");
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> store.onBeforeSave(new BeforeSaveEvent<>(flight, document, "flights")));
+  }
+
+  @Test
+  void shouldDeleteBucketsOfDeletedFlights() {
+    store.onAfterDelete(
+        new AfterDeleteEvent<>(new Document("flightNumber", "AB123"), Flight.class, "flights"));
+    store.onAfterDelete(new AfterDeleteEvent<>(new Document(), Flight.class, "flights"));
+    store.onAfterDelete(
+        new AfterDeleteEvent<>(new Document("origin", "JFK"), Flight.class, "flights"));
+
+    ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate, times(2)).remove(queries.capture(), eq(PassengerBucket.class));
+    assertEquals(
+        new Document("flightNumber", "AB123"), queries.getAllValues().get(0).getQueryObject());
+    assertTrue(queries.getAllValues().get(1).getQueryObject().isEmpty());
+  }
+
+  private static MappingMongoConverter converter(List<?> converters) {
+    MongoCustomConversions conversions = new MongoCustomConversions(converters);
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    MappingMongoConverter converter =
+        new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+    return converter;
+  }
+
+  private static List<?> pushed(Update append) {
+    Document push = (Document) append.getUpdateObject().get("$push");
+    Update.Modifiers modifiers = (Update.Modifiers) push.get("passengers");
+    return List.of((Object[]) modifiers.getModifiers().iterator().next().getValue());
+  }
+
+  private static List<UUID> ids(List<Passenger> passengers) {
+    return passengers.stream().map(Passenger::getId).toList();
+  }
+
+  private static Document stored(MappingMongoConverter converter, PassengerBucket bucket) {
+    Document document = new Document();
+    converter.write(bucket, document);
+    return document;
+  }
+}
@@ -0,0 +1,116 @@
+package com.bharat.airport.domain.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.mongodb.client.result.UpdateResult;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveFlightRepositoryCustomImplTest {
+
+  @Mock private ReactiveMongoTemplate mongoTemplate;
+
+  @InjectMocks private ReactiveFlightRepositoryCustomImpl repository;
+
+  private final Passenger passenger =
+      new Passenger(UUID.randomUUID(), "John Doe", new SeatAssignment("12A", SeetClass.Economy));
+
+  @Test
+  void shouldPushPassengerOnlyWhenSeatIsFree() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+    StepVerifier.create(repository.pushPassenger("AB123", passenger)).verifyComplete();
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Flight.class));
+    assertEquals("AB123", query.getValue().getQueryObject().get("flightNumber"));
+    assertTrue(query.getValue().getQueryObject().containsKey("$nor"));
+    assertEquals(new Document("version", 1), update.getValue().getUpdateObject().get("$inc"));
+    verify(mongoTemplate, never()).exists(any(Query.class), eq(Flight.class));
+  }
+
+  @Test
+  void shouldSignalSeatAlreadyAssignedWhenFlightExistsButNothingMatched() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(Mono.just(true));
+
+    StepVerifier.create(repository.pushPassenger("AB123", passenger))
+        .verifyError(SeatAlreadyAssignedException.class);
+  }
+
+  @Test
+  void shouldSignalFlightNotFoundWhenFlightIsMissing() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(Mono.just(false));
+
+    StepVerifier.create(repository.pushPassenger("INVALID", passenger))
+        .verifyError(FlightNotFoundException.class);
+  }
+
+  @Test
+  void shouldSignalFlightNotFoundForUnseatedPassengerWithoutExistsCheck() {
+    Passenger unseated = new Passenger(UUID.randomUUID(), "Jane Smith", null);
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+    StepVerifier.create(repository.pushPassenger("INVALID", unseated))
+        .verifyError(FlightNotFoundException.class);
+    verify(mongoTemplate, never()).exists(any(Query.class), eq(Flight.class));
+  }
+
+  @Test
+  void shouldPullPassengerById() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+    StepVerifier.create(repository.pullPassenger("AB123", passenger.getId()))
+        .expectNext(true)
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldReportMissingPassengerOnExistingFlight() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(Mono.just(true));
+
+    StepVerifier.create(repository.pullPassenger("AB123", passenger.getId()))
+        .expectNext(false)
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldSignalFlightNotFoundWhenPullingFromMissingFlight() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Flight.class)))
+        .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+    when(mongoTemplate.exists(any(Query.class), eq(Flight.class))).thenReturn(Mono.just(false));
+
+    StepVerifier.create(repository.pullPassenger("INVALID", passenger.getId()))
+        .verifyError(FlightNotFoundException.class);
+  }
+}
@@ -0,0 +1,29 @@
+package com.bharat.airport.domain.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.PassengerBucket;
+import com.bharat.airport.domain.repository.codec.StorageFormat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+
+class StorageFormatListenerTest {
+
+  private final StorageFormatListener listener = new StorageFormatListener();
+
+  @Test
+  void shouldStampFlightsAndBucketsWrittenWhole() {
+    Flight flight = new Flight();
+    PassengerBucket bucket = new PassengerBucket("AB123", List.of());
+
+    listener.onBeforeConvert(new BeforeConvertEvent<>(flight, "flights"));
+    listener.onBeforeConvert(new BeforeConvertEvent<>(bucket, "passengerBuckets"));
+    listener.onBeforeConvert(new BeforeConvertEvent<>(new Passenger(), "passengers"));
+
+    assertEquals(StorageFormat.CURRENT, flight.getStorageFormat());
+    assertEquals(StorageFormat.CURRENT, bucket.getStorageFormat());
+  }
+}
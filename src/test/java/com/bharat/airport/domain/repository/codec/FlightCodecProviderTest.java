@@ -0,0 +1,190 @@
+package com.bharat.airport.domain.repository.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import com.mongodb.MongoClientSettings;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonInt32;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+class FlightCodecProviderTest {
+
+  private final CodecRegistry registry =
+      CodecRegistries.withUuidRepresentation(
+          CodecRegistries.fromRegistries(
+              CodecRegistries.fromProviders(new FlightCodecProvider()),
+              MongoClientSettings.getDefaultCodecRegistry()),
+          UuidRepresentation.STANDARD);
+
+  private MappingMongoConverter converter;
+  private Flight flight;
+
+  @BeforeEach
+  void setUp() {
+    converter = converter(StorageFormat.converters());
+
+    LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 15, 30);
+    flight = new Flight("AB123", "JFK", "LAX", departure, departure.plusHours(5));
+    flight.addPassenger(
+        new Passenger(UUID.randomUUID(), "John Doe", new SeatAssignment("12A", SeetClass.Economy)));
+    flight.addPassenger(new Passenger(UUID.randomUUID(), "Jane Smith", null));
+    flight.setVersion(3L);
+  }
+
+  @Test
+  void shouldWriteTheSameDocumentAsTheConverter() {
+    flight.setPassengerCount(2);
+    flight.setBookedSeats(
+        List.of(new SeatAssignment("12A", SeetClass.Economy), new SeatAssignment("R1", null)));
+    flight.setPassengerSlots(3);
+    flight.setStorageFormat(StorageFormat.CURRENT);
+    Document mapped = new Document();
+    converter.write(flight, mapped);
+
+    assertEquals(mapped.toBsonDocument(Document.class, registry), encode(flight));
+  }
+
+  @Test
+  void shouldReadDocumentsWrittenByTheConverter() {
+    Document mapped = new Document();
+    converter.write(flight, mapped);
+
+    Flight decoded = decode(mapped.toBsonDocument(Document.class, registry));
+
+    assertEquals("AB123", decoded.getFlightNumber());
+    assertEquals("JFK", decoded.getOrigin());
+    assertEquals("LAX", decoded.getDestination());
+    assertEquals(flight.getScheduledDeparture(), decoded.getScheduledDeparture());
+    assertEquals(flight.getScheduledArrival(), decoded.getScheduledArrival());
+    assertEquals(3L, decoded.getVersion());
+    assertNull(decoded.getPassengerCount());
+    assertNull(decoded.getBookedSeats());
+    assertEquals(2, decoded.getPassengers().size());
+    Passenger first = decoded.getPassengers().get(0);
+    assertEquals(flight.getPassengers().get(0).getId(), first.getId());
+    assertEquals("John Doe", first.getName());
+    assertSame(SeatAssignment.of("12A", SeetClass.Economy), first.getSeatAssignment());
+    assertNull(decoded.getPassengers().get(1).getSeatAssignment());
+    assertFalse(decoded.isSeatAvailable(new SeatAssignment("12A", SeetClass.Economy)));
+  }
+
+  @Test
+  void shouldReadDocumentsInTheFirstStorageFormat() {
+    CodecRegistry legacyRegistry =
+        CodecRegistries.withUuidRepresentation(registry, UuidRepresentation.JAVA_LEGACY);
+    Document mapped = new Document();
+    converter(List.of()).write(flight, mapped);
+    BsonDocument legacy = mapped.toBsonDocument(Document.class, legacyRegistry);
+    assertEquals(
+        Set.of("seatNumber", "seatClass"),
+        legacy.getArray("passengers").get(0).asDocument().getDocument("seatAssignment").keySet());
+    assertEquals(
+        BsonBinarySubType.UUID_LEGACY.getValue(),
+        legacy.getArray("passengers").get(0).asDocument().getBinary("_id").getType());
+
+    Flight decoded = decode(legacy);
+
+    assertNull(decoded.getStorageFormat());
+    Passenger first = decoded.getPassengers().get(0);
+    assertEquals(flight.getPassengers().get(0).getId(), first.getId());
+    assertSame(SeatAssignment.of("12A", SeetClass.Economy), first.getSeatAssignment());
+    assertSame(
+        first.getSeatAssignment(),
+        converter(List.of()).read(Flight.class, mapped).getPassengers().get(0).getSeatAssignment());
+  }
+
+  @Test
+  void shouldStorePassengerIdsAsStandardUuidsWhateverTheClientRepresentation() {
+    CodecRegistry legacyRegistry =
+        CodecRegistries.withUuidRepresentation(registry, UuidRepresentation.JAVA_LEGACY);
+    BsonDocument document = new BsonDocument();
+    legacyRegistry
+        .get(Flight.class)
+        .encode(new BsonDocumentWriter(document), flight, EncoderContext.builder().build());
+
+    BsonDocument passenger = document.getArray("passengers").get(0).asDocument();
+    assertEquals(BsonBinarySubType.UUID_STANDARD.getValue(), passenger.getBinary("_id").getType());
+    assertEquals(1537, passenger.getInt32("seatAssignment").getValue());
+  }
+
+  @Test
+  void shouldAcceptNullsIntegerCountersAndUnknownFields() {
+    BsonDocument document =
+        new BsonDocument("_id", new BsonString("AB1"))
+            .append("origin", BsonNull.VALUE)
+            .append("scheduledDeparture", BsonNull.VALUE)
+            .append("passengers", BsonNull.VALUE)
+            .append("version", new BsonInt32(4))
+            .append("passengerCount", new BsonInt32(7))
+            .append("passengerSlots", new BsonInt32(9))
+            .append(StorageFormat.FIELD, new BsonInt32(2))
+            .append("gate", new BsonString("B12"));
+
+    Flight decoded = decode(document);
+
+    assertEquals("AB1", decoded.getFlightNumber());
+    assertNull(decoded.getOrigin());
+    assertNull(decoded.getScheduledDeparture());
+    assertTrue(decoded.getPassengers().isEmpty());
+    assertEquals(4L, decoded.getVersion());
+    assertEquals(7, decoded.getPassengerCount());
+    assertEquals(9, decoded.getPassengerSlots());
+    assertEquals(2, decoded.getStorageFormat());
+  }
+
+  @Test
+  void shouldOnlyProvideFlightTypes() {
+    assertNull(new FlightCodecProvider().get(String.class, registry));
+    assertEquals(SeatAssignment.class, registry.get(SeatAssignment.class).getEncoderClass());
+    assertEquals(Passenger.class, registry.get(Passenger.class).getEncoderClass());
+  }
+
+  private static MappingMongoConverter converter(List<?> converters) {
+    MongoCustomConversions conversions = new MongoCustomConversions(converters);
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    MappingMongoConverter converter =
+        new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+    return converter;
+  }
+
+  private BsonDocument encode(Flight value) {
+    BsonDocument document = new BsonDocument();
+    registry
+        .get(Flight.class)
+        .encode(new BsonDocumentWriter(document), value, EncoderContext.builder().build());
+    return document;
+  }
+
+  private Flight decode(BsonDocument document) {
+    Codec<Flight> codec = registry.get(Flight.class);
+    return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+  }
+}
@@ -0,0 +1,76 @@
+package com.bharat.airport.domain.repository.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.bharat.airport.domain.model.SeatAssignment;
+import com.bharat.airport.domain.model.SeetClass;
+import java.util.List;
+import java.util.UUID;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.converter.Converter;
+
+class StorageFormatTest {
+
+  @Test
+  void shouldPackRowLetterAndClassIntoOneInteger() {
+    assertEquals(12 << 7 | 0 << 2 | 1, StorageFormat.pack(seat("12A", SeetClass.Economy)));
+    assertEquals(3 << 7 | 5 << 2 | 2, StorageFormat.pack(seat("3F", SeetClass.Business)));
+    assertEquals(99999 << 7 | 25 << 2 | 3, StorageFormat.pack(seat("99999Z", SeetClass.First)));
+  }
+
+  @Test
+  void shouldUnpackEverySeatItPacks() {
+    for (SeetClass seatClass : SeetClass.values()) {
+      for (String number : List.of("1A", "12C", "45K", "999Z")) {
+        SeatAssignment seat = seat(number, seatClass);
+        assertEquals(seat, StorageFormat.unpack(StorageFormat.pack(seat)));
+      }
+    }
+  }
+
+  @Test
+  void shouldLeaveOtherSeatNumbersUnpacked() {
+    assertNull(StorageFormat.pack(seat("A12", SeetClass.Economy)));
+    assertNull(StorageFormat.pack(seat("012A", SeetClass.Economy)));
+    assertNull(StorageFormat.pack(seat("12a", SeetClass.Economy)));
+    assertNull(StorageFormat.pack(seat("123456A", SeetClass.Economy)));
+    assertNull(StorageFormat.pack(seat("12A", null)));
+    assertNull(StorageFormat.pack(seat(null, SeetClass.Economy)));
+    assertThrows(IllegalArgumentException.class, () -> StorageFormat.unpack(12 << 7));
+  }
+
+  @Test
+  void shouldWritePackedSeatsOrTheFirstFormatDocument() {
+    Converter<SeatAssignment, Object> writer = StorageFormat.SeatWriter.INSTANCE;
+
+    assertEquals(1537, writer.convert(seat("12A", SeetClass.Economy)));
+    assertEquals(
+        new Document("seatNumber", "Exit 1").append("seatClass", "First"),
+        writer.convert(seat("Exit 1", SeetClass.First)));
+    assertEquals(new Document("seatNumber", "12A"), writer.convert(seat("12A", null)));
+    assertEquals(seat("12A", SeetClass.Economy), StorageFormat.SeatReader.INSTANCE.convert(1537));
+  }
+
+  @Test
+  void shouldWriteStandardUuidsAndReadBothRepresentations() {
+    UUID id = UUID.fromString("00112233-4455-6677-8899-aabbccddeeff");
+    List<Binary> stored = StorageFormat.passengerIdValues(id);
+
+    assertEquals(BsonBinarySubType.UUID_STANDARD.getValue(), stored.get(0).getType());
+    assertEquals(BsonBinarySubType.UUID_LEGACY.getValue(), stored.get(1).getType());
+    assertEquals(stored.get(0), StorageFormat.UuidWriter.INSTANCE.convert(id));
+    assertEquals(0x00, stored.get(0).getData()[0]);
+    assertEquals(0x77, stored.get(1).getData()[0]);
+    for (Binary binary : stored) {
+      assertEquals(id, StorageFormat.UuidReader.INSTANCE.convert(binary));
+    }
+    assertEquals(4, StorageFormat.converters().size());
+  }
+
+  private static SeatAssignment seat(String number, SeetClass seatClass) {
+    return new SeatAssignment(number, seatClass);
+  }
+}
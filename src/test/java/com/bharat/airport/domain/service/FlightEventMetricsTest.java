@@ -0,0 +1,33 @@
+package com.bharat.airport.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class FlightEventMetricsTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final FlightEventMetrics metrics = new FlightEventMetrics(registry);
+
+  @Test
+  void shouldCountSeatConflictsByOutcome() {
+    metrics.seatConflictRejected();
+    metrics.seatConflictsSkipped(2);
+
+    assertEquals(1, seatConflicts("rejected"));
+    assertEquals(2, seatConflicts("skipped"));
+  }
+
+  @Test
+  void shouldCountFlightsNotFound() {
+    metrics.flightNotFound();
+
+    assertEquals(1, registry.get("airport.flight.not-found").counter().count());
+    assertEquals(0, seatConflicts("rejected"));
+  }
+
+  private double seatConflicts(String outcome) {
+    return registry.get("airport.flight.seat-conflicts").tag("outcome", outcome).counter().count();
+  }
+}
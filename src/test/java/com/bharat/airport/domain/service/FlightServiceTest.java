@@ -1,38 +1,48 @@
 package com.bharat.airport.domain.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
 import com.bharat.airport.domain.model.Flight;
 import com.bharat.airport.domain.model.Passenger;
 import com.bharat.airport.domain.model.SeatAssignment;
 import com.bharat.airport.domain.model.SeetClass;
 import com.bharat.airport.domain.repository.FlightRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 @ExtendWith(MockitoExtension.class)
 class FlightServiceTest {
 
   @Mock private FlightRepository flightRepository;
 
-  @InjectMocks private FlightService flightService;
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final FlightEventMetrics eventMetrics = new FlightEventMetrics(meterRegistry);
+
+  private FlightService flightService;
 
   private Flight flight;
   private Passenger passenger;
 
   @BeforeEach
   void setUp() {
+    flightService =
+        new FlightService(flightRepository, new OptimisticLockRetrier(3, 0, 2, 0), eventMetrics);
     LocalDateTime departure = LocalDateTime.now().plusHours(2);
     LocalDateTime arrival = LocalDateTime.now().plusHours(4);
     flight = new Flight("AB123", "JFK", "LAX", departure, arrival);
@@ -43,18 +53,20 @@ class FlightServiceTest {
 
   @Test
   void shouldAddPassengerWhenFlightExists() {
-    when(flightRepository.findByFlightNumber("AB123")).thenReturn(Optional.of(flight));
-    when(flightRepository.save(any(Flight.class))).thenReturn(flight);
+    when(flightRepository.pushPassenger("AB123", passenger)).thenReturn(flight);
 
-    flightService.addPassengerToFlight("AB123", passenger);
+    assertSame(flight, flightService.addPassengerToFlight("AB123", passenger));
 
-    assertEquals(1, flight.getPassengers().size());
-    verify(flightRepository).save(flight);
+    verify(flightRepository).pushPassenger("AB123", passenger);
+    verify(flightRepository, never()).findWithPassengers(any());
+    verify(flightRepository, never()).save(any());
   }
 
   @Test
   void shouldThrowExceptionWhenAddingPassengerToNonExistentFlight() {
-    when(flightRepository.findByFlightNumber("INVALID")).thenReturn(Optional.empty());
+    doThrow(new FlightNotFoundException("INVALID"))
+        .when(flightRepository)
+        .pushPassenger("INVALID", passenger);
 
     FlightNotFoundException exception =
         assertThrows(
@@ -64,11 +76,140 @@ class FlightServiceTest {
             });
 
     assertTrue(exception.getMessage().contains("Flight not found"));
+    assertEquals(1, meterRegistry.get("airport.flight.not-found").counter().count());
+  }
+
+  @Test
+  void shouldCountRejectedSeatConflict() {
+    doThrow(new SeatAlreadyAssignedException("12A"))
+        .when(flightRepository)
+        .pushPassenger("AB123", passenger);
+
+    assertThrows(
+        SeatAlreadyAssignedException.class,
+        () -> flightService.addPassengerToFlight("AB123", passenger));
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get("airport.flight.seat-conflicts")
+            .tag("outcome", "rejected")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void shouldCountMissingFlightOnEveryPath() {
+    when(flightRepository.findWithPassengers("INVALID")).thenReturn(Optional.empty());
+    UUID id = UUID.randomUUID();
+    when(flightRepository.pullPassenger("INVALID", id))
+        .thenThrow(new FlightNotFoundException("INVALID"));
+
+    assertThrows(
+        FlightNotFoundException.class, () -> flightService.getFlightWithPassengers("INVALID"));
+    assertThrows(
+        FlightNotFoundException.class,
+        () -> flightService.addPassengersToFlight("INVALID", List.of(passenger)));
+    assertThrows(
+        FlightNotFoundException.class,
+        () -> flightService.removePassengerFromFlight("INVALID", id.toString()));
+
+    assertEquals(3, meterRegistry.get("airport.flight.not-found").counter().count());
+  }
+
+  @Test
+  void shouldPushOnlyPassengersWithFreeSeatsInOneWrite() {
+    flight.setVersion(4L);
+    flight.addPassenger(new Passenger("Existing", new SeatAssignment("1A", SeetClass.First)));
+    FlightService service =
+        new FlightService(flightRepository, new OptimisticLockRetrier(3, 0, 2, 0), eventMetrics);
+    when(flightRepository.findWithPassengers("AB123")).thenReturn(Optional.of(flight));
+    Passenger taken = new Passenger("Taken", new SeatAssignment("1A", SeetClass.First));
+    Passenger duplicate = new Passenger("Duplicate", new SeatAssignment("12A", SeetClass.Economy));
+    Passenger unseated = new Passenger("Unseated", null);
+
+    AddedPassengers added =
+        service.addPassengersToFlight("AB123", List.of(passenger, taken, duplicate, unseated));
+
+    assertEquals(List.of(passenger, unseated), added.accepted());
+    assertSame(flight, added.flight());
+    verify(flightRepository).pushPassengers("AB123", 4L, List.of(passenger, unseated));
+    assertEquals(
+        2,
+        meterRegistry
+            .get("airport.flight.seat-conflicts")
+            .tag("outcome", "skipped")
+            .counter()
+            .count());
+    verify(flightRepository, never()).save(any());
+  }
+
+  @Test
+  void shouldNotWriteWhenEveryPassengerOfBatchConflicts() {
+    flight.addPassenger(new Passenger("Existing", new SeatAssignment("12A", SeetClass.Economy)));
+    FlightService service =
+        new FlightService(flightRepository, new OptimisticLockRetrier(3, 0, 2, 0), eventMetrics);
+    when(flightRepository.findWithPassengers("AB123")).thenReturn(Optional.of(flight));
+
+    AddedPassengers added = service.addPassengersToFlight("AB123", List.of(passenger));
+
+    assertTrue(added.accepted().isEmpty());
+    verify(flightRepository, never()).pushPassengers(any(), any(), any());
+  }
+
+  @Test
+  void shouldRevalidateBatchWhenFlightChangedConcurrently() {
+    Flight stale = new Flight("AB123", "JFK", "LAX", flight.getScheduledDeparture(), null);
+    stale.setVersion(1L);
+    flight.setVersion(2L);
+    flight.addPassenger(new Passenger("Winner", new SeatAssignment("12A", SeetClass.Economy)));
+    FlightService service =
+        new FlightService(flightRepository, new OptimisticLockRetrier(3, 0, 2, 0), eventMetrics);
+    when(flightRepository.findWithPassengers("AB123"))
+        .thenReturn(Optional.of(stale), Optional.of(flight));
+    doThrow(new OptimisticLockingFailureException("stale"))
+        .when(flightRepository)
+        .pushPassengers("AB123", 1L, List.of(passenger));
+
+    AddedPassengers added = service.addPassengersToFlight("AB123", List.of(passenger));
+
+    assertTrue(added.accepted().isEmpty());
+    verify(flightRepository, times(2)).findWithPassengers("AB123");
+  }
+
+  @Test
+  void shouldCountSkippedPassengersOnceAcrossRetries() {
+    Passenger other = new Passenger("Jane Smith", new SeatAssignment("14C", SeetClass.Economy));
+    Flight stale = new Flight("AB123", "JFK", "LAX", flight.getScheduledDeparture(), null);
+    stale.setVersion(1L);
+    stale.addPassenger(new Passenger("Existing", new SeatAssignment("12A", SeetClass.Economy)));
+    flight.setVersion(2L);
+    flight.addPassenger(new Passenger("Existing", new SeatAssignment("12A", SeetClass.Economy)));
+    FlightService service =
+        new FlightService(flightRepository, new OptimisticLockRetrier(3, 0, 2, 0), eventMetrics);
+    when(flightRepository.findWithPassengers("AB123"))
+        .thenReturn(Optional.of(stale), Optional.of(flight));
+    doThrow(new OptimisticLockingFailureException("stale"))
+        .when(flightRepository)
+        .pushPassengers("AB123", 1L, List.of(other));
+
+    AddedPassengers added = service.addPassengersToFlight("AB123", List.of(passenger, other));
+
+    assertEquals(List.of(other), added.accepted());
+    assertSame(flight, added.flight());
+    verify(flightRepository).pushPassengers("AB123", 2L, List.of(other));
+    assertEquals(
+        1,
+        meterRegistry
+            .get("airport.flight.seat-conflicts")
+            .tag("outcome", "skipped")
+            .counter()
+            .count());
   }
 
   @Test
   void shouldReturnFlightWhenFlightExists() {
-    when(flightRepository.findByFlightNumber("AB123")).thenReturn(Optional.of(flight));
+    when(flightRepository.findWithPassengers("AB123")).thenReturn(Optional.of(flight));
 
     Flight result = flightService.getFlightWithPassengers("AB123");
 
@@ -79,33 +220,35 @@ class FlightServiceTest {
   @Test
   void shouldRemovePassengerWhenFlightAndPassengerExist() {
     UUID id = UUID.randomUUID();
-    passenger.setId(id);
-    flight.addPassenger(passenger);
-
-    when(flightRepository.findByFlightNumber("AB123")).thenReturn(Optional.of(flight));
-    when(flightRepository.save(any(Flight.class))).thenReturn(flight);
+    when(flightRepository.pullPassenger("AB123", id)).thenReturn(Optional.of(flight));
 
-    boolean removed = flightService.removePassengerFromFlight("AB123", id.toString());
+    Optional<Flight> route = flightService.removePassengerFromFlight("AB123", id.toString());
 
-    assertTrue(removed);
-    assertEquals(0, flight.getPassengers().size());
-    verify(flightRepository).save(flight);
+    assertEquals(Optional.of(flight), route);
+    verify(flightRepository).pullPassenger("AB123", id);
+    verify(flightRepository, never()).save(any());
   }
 
   @Test
   void shouldReturnFalseWhenRemovingNonExistentPassengerFromFlight() {
-    when(flightRepository.findByFlightNumber("AB123")).thenReturn(Optional.of(flight));
-
-    boolean removed =
-        flightService.removePassengerFromFlight("AB123", UUID.randomUUID().toString());
+    UUID id = UUID.randomUUID();
+    when(flightRepository.pullPassenger("AB123", id)).thenReturn(Optional.empty());
 
-    assertFalse(removed);
+    assertTrue(flightService.removePassengerFromFlight("AB123", id.toString()).isEmpty());
     verify(flightRepository, never()).save(any());
   }
 
+  @Test
+  void shouldReturnFalseWhenPassengerIdIsMalformed() {
+    assertTrue(flightService.removePassengerFromFlight("AB123", "not-a-uuid").isEmpty());
+    assertTrue(flightService.removePassengerFromFlight("AB123", null).isEmpty());
+    verify(flightRepository, never()).pullPassenger(any(), any());
+  }
+
   @Test
   void shouldFindFlightsByRouteWhenRequested() {
     when(flightRepository.findByRoute("JFK", "LAX")).thenReturn(List.of(flight));
+    when(flightRepository.withPassengers(anyList())).then(returnsFirstArg());
 
     List<Flight> result = flightService.findFlightsByRoute("JFK", "LAX");
 
@@ -118,10 +261,34 @@ class FlightServiceTest {
     LocalDateTime start = LocalDateTime.now();
     LocalDateTime end = LocalDateTime.now().plusDays(1);
     when(flightRepository.findFlightsByDepartureTimeRange(start, end)).thenReturn(List.of(flight));
+    when(flightRepository.withPassengers(anyList())).then(returnsFirstArg());
 
     List<Flight> result = flightService.findFlightsByDepartureRange(start, end);
 
     assertFalse(result.isEmpty());
     assertEquals(1, result.size());
   }
+
+  @Test
+  void shouldStreamFlightsByRouteFromCursor() {
+    when(flightRepository.streamByRoute("JFK", "LAX")).thenReturn(Stream.of(flight));
+    when(flightRepository.withPassengers(any(Stream.class))).then(returnsFirstArg());
+
+    try (Stream<Flight> result = flightService.streamFlightsByRoute("JFK", "LAX")) {
+      assertEquals(List.of(flight), result.toList());
+    }
+  }
+
+  @Test
+  void shouldStreamFlightsByDepartureRangeFromCursor() {
+    LocalDateTime start = LocalDateTime.now();
+    LocalDateTime end = start.plusDays(1);
+    when(flightRepository.streamFlightsByDepartureTimeRange(start, end))
+        .thenReturn(Stream.of(flight));
+    when(flightRepository.withPassengers(any(Stream.class))).then(returnsFirstArg());
+
+    try (Stream<Flight> result = flightService.streamFlightsByDepartureRange(start, end)) {
+      assertEquals(List.of(flight), result.toList());
+    }
+  }
 }
@@ -0,0 +1,106 @@
+package com.bharat.airport.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+class OptimisticLockRetrierTest {
+
+  @Test
+  void shouldReturnResultWithoutRetryWhenNoConflict() {
+    OptimisticLockRetrier retrier = new OptimisticLockRetrier(3, 1, 2, 10);
+
+    assertEquals("ok", retrier.execute("op", () -> "ok"));
+    assertEquals(0, retrier.getConflictCount());
+    assertEquals(0, retrier.getRetryCount());
+  }
+
+  @Test
+  void shouldRetryUntilOperationSucceeds() {
+    OptimisticLockRetrier retrier = new OptimisticLockRetrier(5, 1, 2, 4);
+    AtomicInteger calls = new AtomicInteger();
+
+    String result =
+        retrier.execute(
+            "op",
+            () -> {
+              if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+              }
+              return "ok";
+            });
+
+    assertEquals("ok", result);
+    assertEquals(3, calls.get());
+    assertEquals(2, retrier.getConflictCount());
+    assertEquals(2, retrier.getRetryCount());
+    assertEquals(0, retrier.getExhaustedCount());
+  }
+
+  @Test
+  void shouldPublishCountsAsCounters() {
+    OptimisticLockRetrier retrier = new OptimisticLockRetrier(2, 0, 2, 0);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    retrier.bindTo(registry);
+
+    assertThrows(
+        OptimisticLockingFailureException.class,
+        () ->
+            retrier.execute(
+                "op",
+                () -> {
+                  throw new OptimisticLockingFailureException("conflict");
+                }));
+
+    assertEquals(2, registry.get("airport.concurrency.conflicts").functionCounter().count());
+    assertEquals(1, registry.get("airport.concurrency.retries").functionCounter().count());
+    assertEquals(1, registry.get("airport.concurrency.exhausted").functionCounter().count());
+  }
+
+  @Test
+  void shouldGiveUpWhenRetryBudgetIsExhausted() {
+    OptimisticLockRetrier retrier = new OptimisticLockRetrier(2, 0, 2, 0);
+    AtomicInteger calls = new AtomicInteger();
+
+    assertThrows(
+        OptimisticLockingFailureException.class,
+        () ->
+            retrier.execute(
+                "op",
+                () -> {
+                  calls.incrementAndGet();
+                  throw new OptimisticLockingFailureException("conflict");
+                }));
+
+    assertEquals(2, calls.get());
+    assertEquals(2, retrier.getConflictCount());
+    assertEquals(1, retrier.getRetryCount());
+    assertEquals(1, retrier.getExhaustedCount());
+  }
+
+  @Test
+  void shouldStopRetryingWhenInterrupted() {
+    OptimisticLockRetrier retrier = new OptimisticLockRetrier(3, 50, 2, 100);
+    Thread.currentThread().interrupt();
+
+    assertThrows(
+        OptimisticLockingFailureException.class,
+        () ->
+            retrier.execute(
+                "op",
+                () -> {
+                  throw new OptimisticLockingFailureException("conflict");
+                }));
+
+    assertTrue(Thread.interrupted());
+    assertEquals(1, retrier.getRetryCount());
+  }
+
+  @Test
+  void shouldRejectNonPositiveAttempts() {
+    assertThrows(IllegalArgumentException.class, () -> new OptimisticLockRetrier(0, 1, 2, 10));
+  }
+}
@@ -1,27 +1,47 @@
 package com.bharat.airport.interfaces.web;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.bharat.airport.application.FlightApplicationService;
+import com.bharat.airport.application.FlightImportService;
+import com.bharat.airport.application.dto.FlightImportError;
+import com.bharat.airport.application.dto.FlightImportReport;
+import com.bharat.airport.application.dto.FlightPage;
 import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerBatchResponse;
+import com.bharat.airport.application.dto.PassengerBatchResult;
+import com.bharat.airport.application.dto.PassengerBatchResult.Status;
 import com.bharat.airport.application.dto.PassengerRequest;
 import com.bharat.airport.domain.exception.FlightNotFoundException;
 import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
 import com.bharat.airport.domain.model.Flight;
 import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.domain.repository.FlightSearch;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 @WebMvcTest(FlightController.class)
 class FlightControllerTest {
@@ -30,6 +50,8 @@ class FlightControllerTest {
 
   @MockitoBean private FlightApplicationService flightApplicationService;
 
+  @MockitoBean private FlightImportService flightImportService;
+
   @Autowired private ObjectMapper objectMapper;
 
   @Test
@@ -52,6 +74,25 @@ class FlightControllerTest {
         .andExpect(jsonPath("$.destination").value("LAX"));
   }
 
+  @Test
+  void shouldImportNewlineDelimitedFlights() throws Exception {
+    FlightImportReport report =
+        new FlightImportReport(
+            2, 1, 1, List.of(new FlightImportError(2, "XX1", "Origin is required")), false);
+    when(flightImportService.importFlights(any(InputStream.class))).thenReturn(report);
+
+    mockMvc
+        .perform(
+            post("/api/flights/import")
+                .contentType("application/x-ndjson")
+                .content("{\"flightNumber\":\"AB1\"}\n{\"flightNumber\":\"XX1\"}\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(2))
+        .andExpect(jsonPath("$.imported").value(1))
+        .andExpect(jsonPath("$.errors[0].line").value(2))
+        .andExpect(jsonPath("$.errors[0].reason").value("Origin is required"));
+  }
+
   @Test
   void shouldGetAllFlightsWhenRequested() throws Exception {
     LocalDateTime departure = LocalDateTime.now().plusHours(2);
@@ -78,6 +119,7 @@ class FlightControllerTest {
     mockMvc
         .perform(get("/api/flights/TEST123"))
         .andExpect(status().isOk())
+        .andExpect(header().string("Server-Timing", containsString("db-calls;desc=\"0\"")))
         .andExpect(jsonPath("$.flightNumber").value("TEST123"));
   }
 
@@ -122,6 +164,58 @@ class FlightControllerTest {
         .andExpect(status().isConflict());
   }
 
+  @Test
+  void shouldAddPassengerBatchAndReportEachItem() throws Exception {
+    List<PassengerRequest> requests =
+        List.of(
+            new PassengerRequest("John Doe", "12A", SeetClass.Economy),
+            new PassengerRequest("Jane Smith", "12A", SeetClass.Economy));
+    PassengerBatchResponse response =
+        new PassengerBatchResponse(
+            1,
+            1,
+            List.of(
+                new PassengerBatchResult(0, "John Doe", UUID.randomUUID(), Status.ADDED, "ok"),
+                new PassengerBatchResult(1, "Jane Smith", null, Status.SEAT_CONFLICT, "taken")));
+    when(flightApplicationService.addPassengers(eq("TEST123"), anyList())).thenReturn(response);
+
+    mockMvc
+        .perform(
+            post("/api/flights/TEST123/passengers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.added").value(1))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.results[1].status").value("SEAT_CONFLICT"));
+  }
+
+  @Test
+  void shouldRejectEmptyPassengerBatch() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/flights/TEST123/passengers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+        .andExpect(status().isBadRequest());
+
+    verify(flightApplicationService, never()).addPassengers(any(), anyList());
+  }
+
+  @Test
+  void shouldRejectPassengerBatchWithInvalidItem() throws Exception {
+    List<PassengerRequest> requests = List.of(new PassengerRequest("", "12A", SeetClass.Economy));
+
+    mockMvc
+        .perform(
+            post("/api/flights/TEST123/passengers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+        .andExpect(status().isBadRequest());
+
+    verify(flightApplicationService, never()).addPassengers(any(), anyList());
+  }
+
   @Test
   void shouldDeleteFlightWhenFlightExists() throws Exception {
     doNothing().when(flightApplicationService).deleteFlight("TEST123");
@@ -141,6 +235,221 @@ class FlightControllerTest {
     mockMvc.perform(delete("/api/flights/INVALID")).andExpect(status().isNotFound());
   }
 
+  @Test
+  void shouldStreamAllFlightsAsNdjson() throws Exception {
+    LocalDateTime departure = LocalDateTime.now().plusHours(2);
+    when(flightApplicationService.streamAllFlights())
+        .thenReturn(
+            Stream.of(
+                new Flight("TEST1", "JFK", "LAX", departure, departure.plusHours(5)),
+                new Flight("TEST2", "JFK", "SFO", departure, departure.plusHours(6))));
+
+    String body = streamNdjson(get("/api/flights"));
+
+    List<String> lines = body.lines().toList();
+    assertEquals(2, lines.size());
+    assertEquals("TEST1", objectMapper.readTree(lines.get(0)).get("flightNumber").asText());
+    assertEquals("TEST2", objectMapper.readTree(lines.get(1)).get("flightNumber").asText());
+    verify(flightApplicationService, never()).getAllFlights();
+  }
+
+  @Test
+  void shouldStreamFlightsByRouteAsNdjson() throws Exception {
+    LocalDateTime departure = LocalDateTime.now().plusHours(2);
+    when(flightApplicationService.streamFlightsByRoute("JFK", "LAX"))
+        .thenReturn(
+            Stream.of(new Flight("TEST1", "JFK", "LAX", departure, departure.plusHours(5))));
+
+    String body =
+        streamNdjson(get("/api/flights/route").param("origin", "JFK").param("destination", "LAX"));
+
+    assertEquals(1, body.lines().count());
+    assertEquals("LAX", objectMapper.readTree(body).get("destination").asText());
+  }
+
+  @Test
+  void shouldStreamFlightsByDepartureRangeAsNdjson() throws Exception {
+    LocalDateTime start = LocalDateTime.now();
+    when(flightApplicationService.streamFlightsByDepartureRange(
+            any(LocalDateTime.class), any(LocalDateTime.class)))
+        .thenReturn(Stream.empty());
+
+    String body =
+        streamNdjson(
+            get("/api/flights/departures")
+                .param("start", start.toString())
+                .param("end", start.plusDays(1).toString()));
+
+    assertEquals("", body);
+  }
+
+  private String streamNdjson(MockHttpServletRequestBuilder request) throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(request.accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    return mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andExpect(header().doesNotExist("Server-Timing"))
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+  }
+
+  @Test
+  void shouldReturnFirstPageWithNextCursor() throws Exception {
+    LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 0);
+    Flight flight = new Flight("TEST1", "JFK", "LAX", departure, departure.plusHours(5));
+    when(flightApplicationService.findFlightPage(any(FlightSearch.class), eq(1)))
+        .thenReturn(new FlightPage(List.of(flight), true));
+
+    String cursor =
+        mockMvc
+            .perform(get("/api/flights").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn()
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+
+    when(flightApplicationService.findFlightPage(any(FlightSearch.class), eq(50)))
+        .thenReturn(new FlightPage(List.of(), false));
+    mockMvc
+        .perform(get("/api/flights").param("cursor", cursor))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+    ArgumentCaptor<FlightSearch> search = ArgumentCaptor.forClass(FlightSearch.class);
+    verify(flightApplicationService).findFlightPage(search.capture(), eq(50));
+    assertEquals(departure, search.getValue().getAfterDeparture());
+    assertEquals("TEST1", search.getValue().getAfterFlightNumber());
+    verify(flightApplicationService, never()).getAllFlights();
+  }
+
+  @Test
+  void shouldPageFlightsByRouteAndDepartureRange() throws Exception {
+    LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+    when(flightApplicationService.findFlightPage(any(FlightSearch.class), eq(20)))
+        .thenReturn(new FlightPage(List.of(), false));
+
+    mockMvc
+        .perform(
+            get("/api/flights/route")
+                .param("origin", "JFK")
+                .param("destination", "LAX")
+                .param("limit", "20"))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(
+            get("/api/flights/departures")
+                .param("start", start.toString())
+                .param("end", start.plusDays(1).toString())
+                .param("limit", "20"))
+        .andExpect(status().isOk());
+
+    ArgumentCaptor<FlightSearch> search = ArgumentCaptor.forClass(FlightSearch.class);
+    verify(flightApplicationService, times(2)).findFlightPage(search.capture(), eq(20));
+    assertEquals("JFK", search.getAllValues().get(0).getOrigin());
+    assertEquals("LAX", search.getAllValues().get(0).getDestination());
+    assertEquals(start, search.getAllValues().get(1).getDepartureFrom());
+    assertEquals(start.plusDays(1), search.getAllValues().get(1).getDepartureTo());
+  }
+
+  @Test
+  void shouldReturnSummaryWithoutPassengers() throws Exception {
+    LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 0);
+    when(flightApplicationService.findFlights(any(FlightSearch.class)))
+        .thenReturn(List.of(new Flight("TEST1", "JFK", "LAX", departure, departure.plusHours(5))));
+
+    mockMvc
+        .perform(get("/api/flights").param("fields", "summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].flightNumber").value("TEST1"))
+        .andExpect(jsonPath("$[0].scheduledArrival").value("2030-01-01T15:00:00"))
+        .andExpect(jsonPath("$[0].passengers").doesNotExist())
+        .andExpect(jsonPath("$[0].version").doesNotExist());
+
+    ArgumentCaptor<FlightSearch> search = ArgumentCaptor.forClass(FlightSearch.class);
+    verify(flightApplicationService).findFlights(search.capture());
+    assertFalse(search.getValue().getFields().contains("passengers"));
+    verify(flightApplicationService, never()).getAllFlights();
+  }
+
+  @Test
+  void shouldReturnSelectedFieldsOfOneFlight() throws Exception {
+    LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 0);
+    when(flightApplicationService.getFlight("TEST1", Set.of("flightNumber", "origin")))
+        .thenReturn(new Flight("TEST1", "JFK", "LAX", departure, departure.plusHours(5)));
+
+    mockMvc
+        .perform(get("/api/flights/TEST1").param("fields", "origin"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.origin").value("JFK"))
+        .andExpect(jsonPath("$.destination").doesNotExist());
+  }
+
+  @Test
+  void shouldPageSelectedFieldsByRouteAndDepartureRange() throws Exception {
+    LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 0);
+    when(flightApplicationService.findFlightPage(any(FlightSearch.class), eq(1)))
+        .thenReturn(
+            new FlightPage(
+                List.of(new Flight("TEST1", "JFK", "LAX", departure, departure.plusHours(5))),
+                true));
+    when(flightApplicationService.findFlights(any(FlightSearch.class))).thenReturn(List.of());
+
+    mockMvc
+        .perform(
+            get("/api/flights/route")
+                .param("origin", "JFK")
+                .param("destination", "LAX")
+                .param("fields", "origin")
+                .param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("X-Next-Cursor"))
+        .andExpect(jsonPath("$[0].origin").value("JFK"))
+        .andExpect(jsonPath("$[0].scheduledDeparture").doesNotExist());
+    mockMvc
+        .perform(
+            get("/api/flights/departures")
+                .param("start", departure.toString())
+                .param("end", departure.plusDays(1).toString())
+                .param("fields", "summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+
+    ArgumentCaptor<FlightSearch> paged = ArgumentCaptor.forClass(FlightSearch.class);
+    verify(flightApplicationService).findFlightPage(paged.capture(), eq(1));
+    assertEquals(
+        Set.of("flightNumber", "origin", "scheduledDeparture"), paged.getValue().getFields());
+    ArgumentCaptor<FlightSearch> unpaged = ArgumentCaptor.forClass(FlightSearch.class);
+    verify(flightApplicationService).findFlights(unpaged.capture());
+    assertEquals(departure, unpaged.getValue().getDepartureFrom());
+  }
+
+  @Test
+  void shouldRejectUnknownFields() throws Exception {
+    mockMvc
+        .perform(get("/api/flights").param("fields", "gate"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errors[0].reason").value("Unknown flight field: gate"));
+  }
+
+  @Test
+  void shouldRejectInvalidPageParameters() throws Exception {
+    mockMvc
+        .perform(get("/api/flights").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errors[0].reason").value("Invalid page cursor"));
+    mockMvc.perform(get("/api/flights").param("limit", "501")).andExpect(status().isBadRequest());
+    mockMvc.perform(get("/api/flights").param("limit", "0")).andExpect(status().isBadRequest());
+    verify(flightApplicationService, never()).findFlightPage(any(), anyInt());
+  }
+
   @Test
   void shouldGetFlightsByRoute() throws Exception {
     LocalDateTime departure = LocalDateTime.now().plusHours(2);
@@ -0,0 +1,57 @@
+package com.bharat.airport.interfaces.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.Passenger;
+import com.bharat.airport.interfaces.web.error.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class FlightFieldSelectionTest {
+
+  @Test
+  void shouldExpandSummaryToScheduleFields() {
+    assertEquals(
+        List.of("flightNumber", "origin", "destination", "scheduledDeparture", "scheduledArrival"),
+        List.copyOf(FlightFieldSelection.parse("summary")));
+  }
+
+  @Test
+  void shouldAlwaysSelectFlightNumber() {
+    assertEquals(
+        List.of("flightNumber", "origin", "passengers"),
+        List.copyOf(FlightFieldSelection.parse(" origin,,passengers ")));
+  }
+
+  @Test
+  void shouldRejectUnknownField() {
+    BadRequestException exception =
+        assertThrows(BadRequestException.class, () -> FlightFieldSelection.parse("origin,gate"));
+    assertEquals("Unknown flight field: gate", exception.getMessage());
+  }
+
+  @Test
+  void shouldRenderOnlySelectedFields() throws Exception {
+    ObjectMapper objectMapper =
+        new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 0);
+    Flight flight = new Flight("AB1", "JFK", "LAX", departure, departure.plusHours(5));
+    flight.addPassenger(new Passenger("John Doe", null));
+
+    String rendered =
+        objectMapper.writeValueAsString(
+            List.of(
+                FlightFieldSelection.renderer(Set.of("flightNumber", "scheduledDeparture"))
+                    .apply(flight)));
+
+    assertEquals(
+        "[{\"flightNumber\":\"AB1\",\"scheduledDeparture\":\"2030-01-01T10:00:00\"}]", rendered);
+  }
+}
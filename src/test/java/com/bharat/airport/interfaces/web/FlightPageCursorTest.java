@@ -0,0 +1,48 @@
+package com.bharat.airport.interfaces.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.repository.FlightSearch;
+import com.bharat.airport.interfaces.web.error.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class FlightPageCursorTest {
+
+  private final FlightSearch search = FlightSearch.builder().origin("JFK").build();
+
+  @Test
+  void shouldResumeAfterEncodedFlight() {
+    LocalDateTime departure = LocalDateTime.of(2030, 5, 1, 9, 30);
+    String cursor = FlightPageCursor.encode(new Flight("AB|1", "JFK", "LAX", departure, departure));
+
+    FlightSearch resumed = FlightPageCursor.resume(search, cursor);
+
+    assertEquals(departure, resumed.getAfterDeparture());
+    assertEquals("AB|1", resumed.getAfterFlightNumber());
+    assertEquals("JFK", resumed.getOrigin());
+  }
+
+  @Test
+  void shouldStartFromFirstFlightWithoutCursor() {
+    assertSame(search, FlightPageCursor.resume(search, null));
+  }
+
+  @Test
+  void shouldRejectTamperedCursor() {
+    assertThrows(BadRequestException.class, () -> FlightPageCursor.resume(search, "%%%"));
+    assertThrows(BadRequestException.class, () -> FlightPageCursor.resume(search, encode("AB1")));
+    assertThrows(
+        BadRequestException.class,
+        () -> FlightPageCursor.resume(search, encode("2030-05-01T09:30|")));
+    assertThrows(
+        BadRequestException.class, () -> FlightPageCursor.resume(search, encode("yesterday|AB1")));
+  }
+
+  private static String encode(String position) {
+    return Base64.getUrlEncoder().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+}
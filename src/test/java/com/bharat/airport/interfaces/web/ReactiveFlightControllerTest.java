@@ -0,0 +1,235 @@
+package com.bharat.airport.interfaces.web;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.bharat.airport.application.ReactiveFlightApplicationService;
+import com.bharat.airport.application.dto.FlightRequest;
+import com.bharat.airport.application.dto.PassengerRequest;
+import com.bharat.airport.domain.exception.FlightAlreadyExistsException;
+import com.bharat.airport.domain.exception.FlightNotFoundException;
+import com.bharat.airport.domain.exception.SeatAlreadyAssignedException;
+import com.bharat.airport.domain.model.Flight;
+import com.bharat.airport.domain.model.SeetClass;
+import com.bharat.airport.interfaces.web.error.GlobalExceptionHandler;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReactiveFlightControllerTest {
+
+  private final ReactiveFlightApplicationService flightApplicationService =
+      mock(ReactiveFlightApplicationService.class);
+
+  private final LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 10, 0);
+  private final Flight flight =
+      new Flight("AB123", "JFK", "LAX", departure, departure.plusHours(5));
+
+  private WebTestClient client;
+
+  @BeforeEach
+  void setUp() {
+    LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+    validator.afterPropertiesSet();
+    client =
+        WebTestClient.bindToController(new ReactiveFlightController(flightApplicationService))
+            .controllerAdvice(new GlobalExceptionHandler())
+            .validator(validator)
+            .build();
+  }
+
+  @Test
+  void shouldCreateFlight() {
+    when(flightApplicationService.createFlight(any(FlightRequest.class)))
+        .thenReturn(Mono.just(flight));
+
+    client
+        .post()
+        .uri("/api/flights")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new FlightRequest("AB123", "JFK", "LAX", departure, departure.plusHours(5)))
+        .exchange()
+        .expectStatus()
+        .isCreated()
+        .expectBody()
+        .jsonPath("$.flightNumber")
+        .isEqualTo("AB123");
+  }
+
+  @Test
+  void shouldRejectInvalidFlightRequest() {
+    client
+        .post()
+        .uri("/api/flights")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new FlightRequest("", "JFK", "LAX", departure, departure.plusHours(5)))
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.errors[0].code")
+        .isEqualTo("VALIDATION_ERROR");
+    verifyNoInteractions(flightApplicationService);
+  }
+
+  @Test
+  void shouldRejectMalformedFlightRequest() {
+    client
+        .post()
+        .uri("/api/flights")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{")
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.errors[0].code")
+        .isEqualTo("MALFORMED_REQUEST_BODY");
+  }
+
+  @Test
+  void shouldReturnConflictForDuplicateFlight() {
+    when(flightApplicationService.createFlight(any(FlightRequest.class)))
+        .thenReturn(Mono.error(new FlightAlreadyExistsException("AB123")));
+
+    client
+        .post()
+        .uri("/api/flights")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new FlightRequest("AB123", "JFK", "LAX", departure, departure.plusHours(5)))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(409);
+  }
+
+  @Test
+  void shouldStreamAllFlightsAsNdjson() {
+    when(flightApplicationService.getAllFlights()).thenReturn(Flux.just(flight, flight));
+
+    client
+        .get()
+        .uri("/api/flights")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .expectBodyList(Flight.class)
+        .hasSize(2);
+  }
+
+  @Test
+  void shouldGetFlightsByRouteAndDepartureRange() {
+    LocalDateTime end = departure.plusDays(1);
+    when(flightApplicationService.findFlightsByRoute("JFK", "LAX")).thenReturn(Flux.just(flight));
+    when(flightApplicationService.findFlightsByDepartureRange(departure, end))
+        .thenReturn(Flux.just(flight));
+
+    client
+        .get()
+        .uri("/api/flights/route?origin=JFK&destination=LAX")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$[0].flightNumber")
+        .isEqualTo("AB123");
+    client
+        .get()
+        .uri("/api/flights/departures?start={start}&end={end}", departure, end)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(Flight.class)
+        .hasSize(1);
+  }
+
+  @Test
+  void shouldGetFlightOrReturnNotFound() {
+    when(flightApplicationService.getFlight("AB123")).thenReturn(Mono.just(flight));
+    when(flightApplicationService.getFlight("XX000"))
+        .thenReturn(Mono.error(new FlightNotFoundException("XX000")));
+
+    client
+        .get()
+        .uri("/api/flights/AB123")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.origin")
+        .isEqualTo("JFK");
+    client
+        .get()
+        .uri("/api/flights/XX000")
+        .exchange()
+        .expectStatus()
+        .isNotFound()
+        .expectBody()
+        .jsonPath("$.errors[0].code")
+        .isEqualTo("FLIGHT_NOT_FOUND");
+  }
+
+  @Test
+  void shouldAddPassengerOrReportTakenSeat() {
+    when(flightApplicationService.addPassenger(eq("AB123"), any(PassengerRequest.class)))
+        .thenReturn(Mono.empty());
+    when(flightApplicationService.addPassenger(eq("AB124"), any(PassengerRequest.class)))
+        .thenReturn(Mono.error(new SeatAlreadyAssignedException("12A")));
+    PassengerRequest request = new PassengerRequest("John Doe", "12A", SeetClass.Economy);
+
+    client
+        .post()
+        .uri("/api/flights/AB123/passengers")
+        .bodyValue(request)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(String.class)
+        .isEqualTo("Passenger added successfully");
+    client
+        .post()
+        .uri("/api/flights/AB124/passengers")
+        .bodyValue(request)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(409);
+  }
+
+  @Test
+  void shouldRemovePassengerOrReturnNotFound() {
+    when(flightApplicationService.removePassenger("AB123", "p1")).thenReturn(Mono.just(true));
+    when(flightApplicationService.removePassenger("AB123", "p2")).thenReturn(Mono.just(false));
+
+    client
+        .delete()
+        .uri("/api/flights/AB123/passengers/p1")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(String.class)
+        .isEqualTo("Passenger removed successfully");
+    client.delete().uri("/api/flights/AB123/passengers/p2").exchange().expectStatus().isNotFound();
+  }
+
+  @Test
+  void shouldDeleteFlight() {
+    when(flightApplicationService.deleteFlight("AB123")).thenReturn(Mono.empty());
+
+    client
+        .delete()
+        .uri("/api/flights/AB123")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(String.class)
+        .isEqualTo("Flight deleted successfully");
+  }
+}
@@ -0,0 +1,82 @@
+package com.bharat.airport.interfaces.web.timing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RequestTimingsTest {
+
+  private final DatabaseCallListener listener = new DatabaseCallListener();
+
+  @AfterEach
+  void tearDown() {
+    RequestTimings.unbind();
+  }
+
+  @Test
+  void shouldCountSucceededAndFailedCommandsOfBoundRequest() {
+    RequestTimings timings = new RequestTimings(0);
+    timings.bind();
+    CommandSucceededEvent succeeded = mock(CommandSucceededEvent.class);
+    when(succeeded.getElapsedTime(TimeUnit.NANOSECONDS)).thenReturn(1_500_000L);
+    CommandFailedEvent failed = mock(CommandFailedEvent.class);
+    when(failed.getElapsedTime(TimeUnit.NANOSECONDS)).thenReturn(500_000L);
+
+    listener.commandSucceeded(succeeded);
+    listener.commandFailed(failed);
+
+    assertEquals(2, timings.getDbCalls());
+    assertEquals(
+        "db;dur=2.000, db-calls;desc=\"2\", app;dur=4.000", timings.serverTiming(4_000_000));
+  }
+
+  @Test
+  void shouldIgnoreCommandsOutsideOfRequest() {
+    RequestTimings timings = new RequestTimings(0);
+
+    RequestTimings.recordDbCall(1_000_000);
+    RequestTimings.handlerCompleted();
+
+    assertEquals(0, timings.getDbCalls());
+    assertFalse(timings.serverTiming(1_000_000).contains(RequestTimings.SERIALIZATION));
+  }
+
+  @Test
+  void shouldSplitHandlerAndSerializationTimeOnceHandlerCompleted() {
+    long start = System.nanoTime();
+    RequestTimings timings = new RequestTimings(start);
+    timings.bind();
+
+    new SerializationTimingAdvice().beforeBodyWrite("body", null, null, null, null, null);
+    String header = timings.beforeBody(System.nanoTime());
+    String trailer = timings.serverTiming(System.nanoTime() + 5_000_000);
+
+    assertTrue(
+        header.matches("db;dur=0\\.000, db-calls;desc=\"0\", app;dur=\\d+\\.\\d{3}"), header);
+    assertTrue(trailer.startsWith(header), trailer);
+    assertTrue(trailer.matches(".*, ser;dur=(\\d+)\\.\\d{3}$"), trailer);
+  }
+
+  @Test
+  void shouldCarryTimingsOverToTasksSubmittedDuringRequest() throws Exception {
+    RequestTimings timings = new RequestTimings(0);
+    timings.bind();
+    Runnable task =
+        new RequestTimingsTaskDecorator().decorate(() -> RequestTimings.recordDbCall(1_000_000));
+    RequestTimings.unbind();
+
+    Thread worker = new Thread(task);
+    worker.start();
+    worker.join();
+    RequestTimings.recordDbCall(1_000_000);
+
+    assertEquals(1, timings.getDbCalls());
+    Runnable plain = () -> {};
+    assertSame(plain, new RequestTimingsTaskDecorator().decorate(plain));
+  }
+}
@@ -0,0 +1,88 @@
+package com.bharat.airport.interfaces.web.timing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ServerTimingFilterTest {
+
+  private final ServerTimingFilter filter = new ServerTimingFilter();
+  private final MockHttpServletRequest request =
+      new MockHttpServletRequest("GET", "/api/flights/AB123");
+  private final MockHttpServletResponse response = spy(new MockHttpServletResponse());
+
+  @Test
+  void shouldAddHeaderFromAdviceBeforeSerializingWithoutBuffering() throws Exception {
+    FilterChain chain =
+        (req, res) -> {
+          RequestTimings.recordDbCall(2_000_000);
+          RequestTimings.recordDbCall(1_000_000);
+          ServletServerHttpResponse output =
+              new ServletServerHttpResponse((HttpServletResponse) res);
+          new SerializationTimingAdvice().beforeBodyWrite("body", null, null, null, null, output);
+          output.getBody().write("{\"flightNumber\":\"AB123\"}".getBytes());
+          assertEquals("{\"flightNumber\":\"AB123\"}", response.getContentAsString());
+          output.flush();
+        };
+
+    filter.doFilter(request, response, chain);
+
+    String header = response.getHeader(ServerTimingFilter.SERVER_TIMING);
+    assertNotNull(header);
+    assertTrue(header.startsWith("db;dur=3.000, db-calls;desc=\"2\", app;dur="), header);
+    assertFalse(header.contains(RequestTimings.SERIALIZATION + ";"), header);
+    verify(response, never()).setTrailerFields(any());
+  }
+
+  @Test
+  void shouldAddHeaderToResponseWithoutBody() throws Exception {
+    filter.doFilter(request, response, (req, res) -> RequestTimings.recordDbCall(1_000_000));
+    RequestTimings.recordDbCall(1_000_000);
+
+    assertTrue(
+        response.getHeader(ServerTimingFilter.SERVER_TIMING).contains("db-calls;desc=\"1\""));
+  }
+
+  @Test
+  void shouldReportStreamedResponseInTrailerOnly() throws Exception {
+    request.setAsyncSupported(true);
+    request.addHeader("TE", "trailers");
+    AtomicReference<Runnable> stream = new AtomicReference<>();
+
+    filter.doFilter(
+        request,
+        response,
+        (req, res) -> {
+          req.startAsync();
+          stream.set(
+              new RequestTimingsTaskDecorator()
+                  .decorate(() -> RequestTimings.recordDbCall(1_000_000)));
+        });
+    Thread writer = new Thread(stream.get());
+    writer.start();
+    writer.join();
+
+    assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING));
+    assertEquals(ServerTimingFilter.SERVER_TIMING, response.getHeader("Trailer"));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Supplier<Map<String, String>>> trailer = ArgumentCaptor.forClass(Supplier.class);
+    verify(response).setTrailerFields(trailer.capture());
+    assertTrue(
+        trailer
+            .getValue()
+            .get()
+            .get(ServerTimingFilter.SERVER_TIMING)
+            .contains("db-calls;desc=\"1\""));
+  }
+}